@@ -0,0 +1,30 @@
+package com.example.jobvector.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Exécuteur des traitements @Async de CV (extraction Ollama, embeddings).
+ *
+ * Ses tâches tournent sous la classe de charge BACKGROUND : leurs transactions, qui peuvent durer plusieurs minutes,
+ * prennent leurs connexions dans le pool d'arrière-plan et non dans celui des requêtes web.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String CV_PROCESSING_EXECUTOR = "cvProcessingExecutor";
+
+    @Bean(name = CV_PROCESSING_EXECUTOR)
+    public ThreadPoolTaskExecutor cvProcessingExecutor(@Value("${app.async.cv-processing.pool-size:2}") int poolSize,
+                                                       @Value("${app.async.cv-processing.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cv-processing-");
+        executor.setTaskDecorator(Workload.BACKGROUND::wrap);
+        return executor;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.jobvector.Config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Utilisateur authentifié de la requête courante, construit par JWTAuthFilter à partir des claims du token
+ * (id, email, rôle) sans lecture en base. getName() retourne l'email, comme l'ancien principal Utilisateur.
+ * Les services qui ont besoin de l'entité utilisent utilisateurRepository.getReferenceById(id()).
+ */
+public record AuthenticatedUser(Long id, String email, String role) implements Principal {
+
+    /**
+     * Utilisateur authentifié du contexte de sécurité courant (vide si la requête est anonyme)
+     */
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    public boolean hasRole(String expectedRole) {
+        return expectedRole.equals(role);
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.jobvector.Config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de second niveau Hibernate en mémoire de l'instance, borné région par région.
+ *
+ * Chaque région (entité, identifiant naturel, requêtes) garde au plus max-entries éléments, les moins récemment lus
+ * étant évincés, et chaque élément expire ttl-seconds après son chargement. Réglages lus dans les propriétés JPA :
+ * app.cache.region.<région>.max-entries / .ttl-seconds, valeurs par défaut app.cache.default.max-entries /
+ * .ttl-seconds. La région des horodatages de tables n'est jamais bornée : une éviction y rendrait le cache de
+ * requêtes incohérent.
+ * Le TTL borne aussi la durée pendant laquelle une lecture faite sur la réplique, en retard sur la base primaire,
+ * peut rester en cache. Cache propre à chaque instance : les écritures des autres instances sont annoncées par
+ * CacheInvalidationBus (LISTEN/NOTIFY) et EntityCacheInvalidator évince les éléments concernés. Le TTL ne sert
+ * plus que de filet : écritures qui ne passent pas par les services publiant sur le bus, bus désactivé.
+ */
+public class BoundedCacheRegionFactory extends RegionFactoryTemplate {
+
+    static final String SETTINGS_PREFIX = "app.cache.";
+
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+    private static final long DEFAULT_TTL_SECONDS = 300;
+
+    private final Map<String, BoundedStorage> storages = new ConcurrentHashMap<>();
+
+    private final Map<String, String> settings = new HashMap<>();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+        configValues.forEach((key, value) -> {
+            if (key.startsWith(SETTINGS_PREFIX) && value != null) {
+                settings.put(key.substring(SETTINGS_PREFIX.length()), value.toString().trim());
+            }
+        });
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(BoundedStorage::release);
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                   DomainDataRegionBuildingContext buildingContext) {
+        return boundedStorage(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return boundedStorage(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return storages.computeIfAbsent(regionName, name -> new BoundedStorage(Integer.MAX_VALUE, 0));
+    }
+
+    /**
+     * Nombre d'éléments en mémoire par région
+     */
+    public Map<String, Integer> getRegionSizes() {
+        Map<String, Integer> sizes = new HashMap<>();
+        storages.forEach((name, storage) -> sizes.put(name, storage.size()));
+        return sizes;
+    }
+
+    private BoundedStorage boundedStorage(String regionName) {
+        return storages.computeIfAbsent(regionName, name -> new BoundedStorage(
+                Integer.parseInt(setting(name, "max-entries", String.valueOf(DEFAULT_MAX_ENTRIES))),
+                TimeUnit.SECONDS.toNanos(Long.parseLong(setting(name, "ttl-seconds", String.valueOf(DEFAULT_TTL_SECONDS))))));
+    }
+
+    private String setting(String regionName, String name, String defaultValue) {
+        String value = settings.get("region." + regionName + "." + name);
+        if (value == null) {
+            value = settings.get("default." + name);
+        }
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Stockage LRU d'une région : ttlNanos = 0 pour des éléments sans expiration
+     */
+    static final class BoundedStorage implements DomainDataStorageAccess {
+
+        private record Entry(Object value, long loadedAt) {
+        }
+
+        private final long ttlNanos;
+
+        private final LinkedHashMap<Object, Entry> entries;
+
+        BoundedStorage(int maxEntries, long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (ttlNanos > 0 && System.nanoTime() - entry.loadedAt() > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            entries.put(key, new Entry(value, System.nanoTime()));
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return getFromCache(key, null) != null;
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entries.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object key) {
+            entries.remove(key);
+        }
+
+        @Override
+        public void release() {
+            evictData();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.jobvector.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * Pools de connexions : un pool par classe de charge sur la base primaire (interactif : spring.datasource.hikari,
+ * arrière-plan : app.datasource.background.hikari, masse : app.datasource.batch.hikari) et réplique en lecture
+ * facultative (app.datasource.replica.*).
+ *
+ * Le DataSource exposé à JPA et JdbcTemplate ne prend une connexion physique qu'à la première requête SQL. Le pool
+ * dépend alors de la classe de charge du thread (Workload) : les traitements d'arrière-plan et de masse ont chacun le
+ * leur, lectures comprises, et ne peuvent plus épuiser les connexions des requêtes web. Pour les requêtes web, une
+ * transaction readOnly passe par la réplique, le reste (écriture, hors transaction) par le pool interactif. Sans
+ * app.datasource.replica.url, ces lectures restent sur le pool interactif. La réplique étant asynchrone, une lecture
+ * readOnly peut ne pas voir encore une écriture toute récente.
+ *
+ * Chaque pool a son nom (jobvector-interactive, -background, -batch, -replica), repris par le tag pool des métriques
+ * hikaricp.* ; hikaricp.connections.acquire mesure l'attente d'une connexion.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        return workloadDataSource(properties, "jobvector-interactive");
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.background.hikari")
+    public HikariDataSource backgroundDataSource(DataSourceProperties properties) {
+        return workloadDataSource(properties, "jobvector-background");
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.batch.hikari")
+    public HikariDataSource batchDataSource(DataSourceProperties properties) {
+        return workloadDataSource(properties, "jobvector-batch");
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password) {
+        // Identifiants de la base primaire par défaut
+        HikariDataSource dataSource = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                .password(StringUtils.hasText(username) ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName("jobvector-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("interactiveDataSource") DataSource interactiveDataSource,
+                                 @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+                                 @Qualifier("batchDataSource") DataSource batchDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource) {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setDefaultTargetDataSource(interactiveDataSource);
+        routing.setTargetDataSources(Map.of(
+                Workload.BACKGROUND, backgroundDataSource,
+                Workload.BATCH, batchDataSource,
+                WorkloadRoutingDataSource.REPLICA, replicaDataSource.getIfAvailable(() -> interactiveDataSource)));
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routing);
+        // Valeurs par défaut des pools (PostgreSQL) : évite d'ouvrir une connexion au démarrage pour les lire
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    private HikariDataSource workloadDataSource(DataSourceProperties properties, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+
+    /**
+     * Pool choisi au moment où la connexion physique est demandée, d'après la classe de charge du thread puis la
+     * transaction en cours
+     */
+    static class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+        static final String REPLICA = "replica";
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            Workload workload = Workload.current();
+            if (workload != Workload.INTERACTIVE) {
+                return workload;
+            }
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.jobvector.Config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recherche plein texte des offres sur PostgreSQL.
+ *
+ * La colonne générée "search_vector tsvector" (configurations french + english, titre en poids A,
+ * compétences techniques / outils en B, compétences transversales en C, description en D) et son index GIN sont
+ * créés par la migration V4 ; elle est interrogée avec ts_rank à la place des ILIKE '%mot%' sur cinq colonnes.
+ * Les champs filtrés par sous-chaîne reçoivent des index trigrammes pg_trgm (migration V5, si l'extension est
+ * disponible), que PostgreSQL utilise directement pour les ILIKE existants.
+ * Hors PostgreSQL (H2 en test), ou si la colonne est absente, les requêtes ILIKE d'origine restent utilisées.
+ */
+@Component
+public class FullTextSearchSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchSupport.class);
+
+    /**
+     * Expression de la colonne générée search_vector (identique à la migration V4, aussi utilisée par le rapport
+     * de plans d'exécution)
+     */
+    public static final String SEARCH_VECTOR_EXPRESSION =
+            "setweight(to_tsvector('french', coalesce(titre, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(titre, '')), 'A') || " +
+            "setweight(to_tsvector('french', coalesce(competences_techniques, '') || ' ' || coalesce(outils_technologies, '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce(competences_techniques, '') || ' ' || coalesce(outils_technologies, '')), 'B') || " +
+            "setweight(to_tsvector('french', coalesce(competences_transversales, '')), 'C') || " +
+            "setweight(to_tsvector('french', coalesce(description, '')), 'D') || " +
+            "setweight(to_tsvector('english', coalesce(description, '')), 'D')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.full-text.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean available = false;
+
+    private volatile boolean trigramAvailable = false;
+
+    @PostConstruct
+    public void detect() {
+        if (!enabled || !isPostgreSql()) {
+            return;
+        }
+
+        try {
+            available = columnExists("job_offres", "search_vector");
+            trigramAvailable = extensionInstalled("pg_trgm");
+            if (available) {
+                logger.info("Recherche plein texte PostgreSQL active (index trigrammes: {})", trigramAvailable);
+            } else {
+                logger.warn("Colonne job_offres.search_vector absente, retour aux requêtes ILIKE");
+            }
+        } catch (Exception e) {
+            logger.warn("Recherche plein texte PostgreSQL indisponible, retour aux requêtes ILIKE: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * La recherche plein texte (search_vector) est-elle utilisable ?
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public boolean isTrigramAvailable() {
+        return trigramAvailable;
+    }
+
+    private boolean columnExists(String table, String column) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?", Integer.class, table, column);
+        return count != null && count > 0;
+    }
+
+    private boolean extensionInstalled(String extension) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_extension WHERE extname = ?",
+                Integer.class, extension);
+        return count != null && count > 0;
+    }
+
+    private boolean isPostgreSql() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.jobvector.Config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Colonnes d'embedding en demi-précision (pgvector halfvec) sur PostgreSQL.
+ *
+ * Les embeddings restent stockés en JSON (pleine précision) dans la colonne "vector" de la table embeddings ;
+ * la migration V8 ajoute une colonne "embedding_half halfvec(384)" tenue à jour par trigger et indexée en HNSW
+ * (un index partiel par type de propriétaire) pour la génération de candidats côté base, les meilleurs candidats
+ * étant ensuite re-scorés en Java sur le JSON d'origine. La migration attend que l'extension vector soit
+ * disponible : sans PostgreSQL ou sans la colonne, l'application reste sur les index en mémoire.
+ */
+@Component
+public class HalfvecSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(HalfvecSupport.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.vector-index.halfvec.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean available = false;
+
+    @PostConstruct
+    public void detect() {
+        if (!enabled || !isPostgreSql()) {
+            return;
+        }
+
+        try {
+            Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns " +
+                    "WHERE table_schema = current_schema() AND table_name = 'embeddings' AND column_name = 'embedding_half'",
+                    Integer.class);
+            available = count != null && count > 0;
+            if (available) {
+                logger.info("Recherche halfvec pgvector active sur embeddings");
+            } else {
+                logger.warn("Colonne embeddings.embedding_half absente (extension vector indisponible), recherche halfvec désactivée");
+            }
+        } catch (Exception e) {
+            logger.warn("Recherche halfvec indisponible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * La recherche halfvec côté base est-elle utilisable ?
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    private boolean isPostgreSql() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
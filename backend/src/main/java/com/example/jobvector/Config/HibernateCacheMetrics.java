@@ -0,0 +1,77 @@
+package com.example.jobvector.Config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Statistiques du cache de second niveau publiées dans les métriques actuator (/actuator/metrics).
+ *
+ * Par région (tag region) : hibernate.second.level.cache.requests (tag result = hit / miss),
+ * hibernate.second.level.cache.puts et hibernate.second.level.cache.size ; pour les identifiants naturels :
+ * hibernate.cache.natural.id.requests et hibernate.cache.natural.id.puts. Compteurs à zéro si
+ * hibernate.generate_statistics est désactivé.
+ */
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            if (statistics.getCacheRegionStatistics(region) == null) {
+                continue;
+            }
+            // Statistiques de la région relues à chaque mesure : Statistics.clear() les remplace
+            FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                            s -> regionCount(s, region, CacheRegionStatistics::getHitCount))
+                    .tags("region", region, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.requests", statistics,
+                            s -> regionCount(s, region, CacheRegionStatistics::getMissCount))
+                    .tags("region", region, "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("hibernate.second.level.cache.puts", statistics,
+                            s -> regionCount(s, region, CacheRegionStatistics::getPutCount))
+                    .tags("region", region)
+                    .register(registry);
+        }
+
+        if (sessionFactory.getCache().getRegionFactory() instanceof BoundedCacheRegionFactory regionFactory) {
+            for (String region : regionFactory.getRegionSizes().keySet()) {
+                Gauge.builder("hibernate.second.level.cache.size", regionFactory,
+                                factory -> factory.getRegionSizes().getOrDefault(region, 0))
+                        .tags("region", region)
+                        .register(registry);
+            }
+        }
+
+        FunctionCounter.builder("hibernate.cache.natural.id.requests", statistics, Statistics::getNaturalIdCacheHitCount)
+                .tags("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.natural.id.requests", statistics, Statistics::getNaturalIdCacheMissCount)
+                .tags("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.natural.id.puts", statistics, Statistics::getNaturalIdCachePutCount)
+                .register(registry);
+    }
+
+    private static double regionCount(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+    }
+}
@@ -1,8 +1,9 @@
 package com.example.jobvector.Config;
 
 
+import com.example.jobvector.Model.Utilisateur;
 import com.example.jobvector.Service.UtilisateurdetaisService;
-import com.example.jobvector.Config.JWTUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,7 +12,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -37,7 +37,6 @@ public class JWTAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwtToken;
-        final String userEmail;
 
         // Si pas d'en-tête Authorization, continuer sans authentification
         if (authHeader == null || authHeader.isBlank() || !authHeader.startsWith("Bearer ")) {
@@ -47,20 +46,25 @@ public class JWTAuthFilter extends OncePerRequestFilter {
 
         try {
             jwtToken = authHeader.substring(7);
-            userEmail = jwtUtils.extractUsername(jwtToken);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = utilisateurdetaisService.loadUserByUsername(userEmail);
-
-                if (jwtUtils.isTokenValid(jwtToken, userDetails)) {
-                    SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
-                    UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities()
-                    );
-                    token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    securityContext.setAuthentication(token);
-                    SecurityContextHolder.setContext(securityContext);
+            // Une seule vérification (signature + expiration) ; lève une exception si le token est invalide
+            Claims claims = jwtUtils.parseClaims(jwtToken);
+
+            if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser principal = jwtUtils.toAuthenticatedUser(claims);
+
+                // Token émis avant l'ajout des claims id / rôle : repli sur la base
+                if (principal == null) {
+                    Utilisateur utilisateur = (Utilisateur) utilisateurdetaisService.loadUserByUsername(claims.getSubject());
+                    principal = new AuthenticatedUser(utilisateur.getId(), utilisateur.getEmail(), utilisateur.getRole());
                 }
+
+                SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+                UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities()
+                );
+                token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                securityContext.setAuthentication(token);
+                SecurityContextHolder.setContext(securityContext);
             }
         } catch (Exception e) {
             // Log l'erreur avec plus de détails
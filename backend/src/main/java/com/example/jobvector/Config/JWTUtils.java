@@ -1,5 +1,6 @@
 package com.example.jobvector.Config;
 
+import com.example.jobvector.Model.Utilisateur;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +16,10 @@ import java.util.function.Function;
 @Component
 public class JWTUtils {
 
+    // Claims portés par le token pour authentifier sans lecture en base
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
     private SecretKey Key;
     private static final long EXPIRATION_TIME = 86400000;  //24 hours
 
@@ -27,6 +32,7 @@ public class JWTUtils {
 
     public String generateToken(UserDetails userDetails){
         return Jwts.builder()
+                .claims(userClaims(userDetails))
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -34,8 +40,10 @@ public class JWTUtils {
                 .compact();
     }
     public  String generateRefreshToken(HashMap<String, Object> claims, UserDetails userDetails){
+        HashMap<String, Object> allClaims = userClaims(userDetails);
+        allClaims.putAll(claims);
         return Jwts.builder()
-                .claims(claims)
+                .claims(allClaims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -47,16 +55,46 @@ public class JWTUtils {
         return  extractClaims(token, Claims::getSubject);
     }
 
+    /**
+     * Vérifier la signature et l'expiration du token en une seule analyse et retourner ses claims
+     *
+     * @throws io.jsonwebtoken.JwtException si le token est invalide ou expiré
+     */
+    public Claims parseClaims(String token){
+        return Jwts.parser().verifyWith(Key).build().parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Principal construit à partir des claims, ou null si le token a été émis sans id / rôle
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims){
+        Object userId = claims.get(CLAIM_USER_ID);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (!(userId instanceof Number number) || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new AuthenticatedUser(number.longValue(), claims.getSubject(), role);
+    }
+
     private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction){
-        return claimsTFunction.apply(Jwts.parser().verifyWith(Key).build().parseSignedClaims(token).getPayload());
+        return claimsTFunction.apply(parseClaims(token));
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        Claims claims = parseClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     public boolean isTokenExpired(String token){
         return extractClaims(token, Claims::getExpiration).before(new Date());
     }
+
+    private HashMap<String, Object> userClaims(UserDetails userDetails){
+        HashMap<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof Utilisateur utilisateur && utilisateur.getId() != null && utilisateur.getRole() != null) {
+            claims.put(CLAIM_USER_ID, utilisateur.getId());
+            claims.put(CLAIM_ROLE, utilisateur.getRole());
+        }
+        return claims;
+    }
 }
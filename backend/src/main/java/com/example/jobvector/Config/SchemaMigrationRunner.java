@@ -0,0 +1,201 @@
+package com.example.jobvector.Config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Migrations versionnées du schéma PostgreSQL : scripts classpath:db/migration/V<version>__<description>.sql.
+ *
+ * Remplace le diff de schéma de ddl-auto=update au démarrage. Chaque script est exécuté une seule fois, dans sa
+ * propre transaction, et enregistré dans schema_migrations avec sa somme de contrôle ; un script modifié après son
+ * application ou un échec de migration arrête le démarrage. Une base créée avant les migrations (tables présentes,
+ * pas d'historique) est enregistrée à la version 1 sans exécuter le schéma de référence, puis reçoit les versions
+ * suivantes. Un verrou consultatif sérialise les instances qui démarrent en même temps.
+ * Un script qui commence par "-- requires-extension: <nom>" n'est appliqué que si l'extension est disponible sur le
+ * serveur (pg_available_extensions) ; sinon il est reporté, sans être enregistré, au prochain démarrage.
+ * Exécuté avant la création de l'EntityManagerFactory. Rien à faire hors PostgreSQL (schéma des tests créé par Hibernate).
+ */
+@Component
+public class SchemaMigrationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationRunner.class);
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern REQUIRED_EXTENSION = Pattern.compile("\\A--\\s*requires-extension:\\s*(\\w+)");
+    private static final int BASELINE_VERSION = 1;
+
+    // Clé du verrou consultatif PostgreSQL propre aux migrations
+    private static final long LOCK_KEY = 7_245_310_044L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    record Migration(int version, String description, Resource script, long checksum, String requiredExtension) {
+    }
+
+    /**
+     * L'EntityManagerFactory (et donc tout accès JPA) attend que le schéma soit à jour
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class EntityManagerFactoryDependency {
+
+        @Bean
+        static EntityManagerFactoryDependsOnPostProcessor schemaMigrationDependsOnPostProcessor() {
+            return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrationRunner.class);
+        }
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+
+            List<Migration> migrations = loadMigrations();
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            jdbc.queryForObject("SELECT pg_advisory_lock(?)", Object.class, LOCK_KEY);
+            try {
+                migrate(connection, jdbc, migrations);
+            } finally {
+                jdbc.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, LOCK_KEY);
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("Migration du schéma impossible: " + e.getMessage(), e);
+        }
+    }
+
+    private void migrate(Connection connection, JdbcTemplate jdbc, List<Migration> migrations) throws SQLException {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version INTEGER PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "checksum BIGINT NOT NULL, " +
+                "installed_on TIMESTAMP NOT NULL DEFAULT now(), " +
+                "execution_time_ms BIGINT NOT NULL)");
+
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbc.query("SELECT version, checksum FROM schema_migrations", rs -> {
+            applied.put(rs.getInt("version"), rs.getLong("checksum"));
+        });
+
+        if (applied.isEmpty() && tableExists(jdbc, "utilisateur")) {
+            // Base tenue jusqu'ici par ddl-auto=update : le schéma de référence est déjà en place
+            Migration baseline = migrations.stream().filter(m -> m.version() == BASELINE_VERSION).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Script de référence V" + BASELINE_VERSION + " introuvable"));
+            recordApplied(jdbc, baseline, 0);
+            applied.put(baseline.version(), baseline.checksum());
+            logger.info("Base existante enregistrée à la version {} du schéma", BASELINE_VERSION);
+        }
+
+        int executed = 0;
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.version());
+            if (checksum != null) {
+                if (checksum != migration.checksum()) {
+                    throw new IllegalStateException("Migration V" + migration.version() + " (" + migration.description() +
+                            ") modifiée après son application");
+                }
+                continue;
+            }
+            if (migration.requiredExtension() != null && !extensionAvailable(jdbc, migration.requiredExtension())) {
+                logger.warn("Migration V{} ({}) reportée : extension {} indisponible sur le serveur", migration.version(),
+                        migration.description(), migration.requiredExtension());
+                continue;
+            }
+            apply(connection, jdbc, migration);
+            executed++;
+        }
+
+        if (executed > 0) {
+            logger.info("{} migration(s) de schéma appliquée(s), version courante {}", executed,
+                    migrations.get(migrations.size() - 1).version());
+        }
+    }
+
+    private void apply(Connection connection, JdbcTemplate jdbc, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+            recordApplied(jdbc, migration, System.currentTimeMillis() - start);
+            connection.commit();
+            logger.info("Migration V{} ({}) appliquée en {} ms", migration.version(), migration.description(),
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            connection.rollback();
+            throw new IllegalStateException("Échec de la migration V" + migration.version() + " (" +
+                    migration.description() + "): " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void recordApplied(JdbcTemplate jdbc, Migration migration, long executionTimeMs) {
+        jdbc.update("INSERT INTO schema_migrations (version, description, checksum, execution_time_ms) VALUES (?, ?, ?, ?)",
+                migration.version(), migration.description(), migration.checksum(), executionTimeMs);
+    }
+
+    private boolean tableExists(JdbcTemplate jdbc, String table) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE table_schema = current_schema() AND table_name = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean extensionAvailable(JdbcTemplate jdbc, String extension) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM pg_available_extensions WHERE name = ?",
+                Integer.class, extension);
+        return count != null && count > 0;
+    }
+
+    static List<Migration> loadMigrations() throws IOException {
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            Matcher matcher = FILE_NAME.matcher(script.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            byte[] content = script.getContentAsByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            Matcher extension = REQUIRED_EXTENSION.matcher(new String(content, StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2), script, crc.getValue(),
+                    extension.lookingAt() ? extension.group(1) : null));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Deux migrations pour la version V" + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.jobvector.Config;
 
 import com.example.jobvector.Service.UtilisateurdetaisService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,6 +28,10 @@ public class SecurityConfig {
     @Autowired
     private JWTAuthFilter jwtAuthFilter;
 
+    // Coût BCrypt (log2 du nombre de tours) ; les empreintes plus faibles sont recalculées à la connexion
+    @Value("${app.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength;
+
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception{
@@ -70,7 +75,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -0,0 +1,45 @@
+package com.example.jobvector.Config;
+
+/**
+ * Classe de charge du thread courant, qui détermine le pool de connexions utilisé (voir DataSourceConfig).
+ *
+ * INTERACTIVE par défaut (requêtes HTTP, démarrage) ; les exécuteurs des traitements de fond enveloppent leurs
+ * tâches avec wrap() pour que leurs transactions ne prennent jamais les connexions des requêtes web.
+ */
+public enum Workload {
+
+    /** Requêtes web : pool primaire (spring.datasource.hikari), réplique pour les transactions readOnly */
+    INTERACTIVE,
+
+    /** Traitements unitaires en arrière-plan (extraction de CV, synchronisation d'index) */
+    BACKGROUND,
+
+    /** Traitements de masse (re-scoring, précalcul des correspondances CV/offres) */
+    BATCH;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : INTERACTIVE;
+    }
+
+    /**
+     * Tâche exécutée sous cette classe de charge, le thread retrouvant ensuite la précédente
+     */
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            Workload previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
@@ -1,16 +1,20 @@
 package com.example.jobvector.Controller;
 
+import com.example.jobvector.Config.AuthenticatedUser;
 import com.example.jobvector.Dto.ApplicationDto;
+import com.example.jobvector.Dto.EmployerDashboardDto;
+import com.example.jobvector.Dto.RescoringJobDto;
 import com.example.jobvector.Model.Application;
-import com.example.jobvector.Model.Utilisateur;
 import com.example.jobvector.Repository.ApplicationRepository;
-import com.example.jobvector.Repository.UtilisateurRepository;
+import com.example.jobvector.Service.ApplicationRescoringService;
 import com.example.jobvector.Service.ApplicationService;
+import com.example.jobvector.Service.JobOffreStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.file.Files;
@@ -28,10 +32,13 @@ public class ApplicationController {
     private ApplicationService applicationService;
     
     @Autowired
-    private ApplicationRepository applicationRepository;
+    private ApplicationRescoringService applicationRescoringService;
+    
+    @Autowired
+    private JobOffreStatsService jobOffreStatsService;
     
     @Autowired
-    private UtilisateurRepository utilisateurRepository;
+    private ApplicationRepository applicationRepository;
     
     // ========== ROUTES CANDIDAT ==========
     
@@ -53,13 +60,18 @@ public class ApplicationController {
     /**
      * Récupérer mes candidatures
      * GET /api/candidate/applications?page=0&size=10
+     * Avec ?cursor= (vide pour la première page, puis nextCursor) : pagination par curseur, total sur demande (withTotal)
      */
     @GetMapping("/candidate/applications")
     public ResponseEntity<ApplicationDto> getMyCandidatures(@RequestParam(defaultValue = "0") int page,
-                                                           @RequestParam(defaultValue = "10") int size) {
+                                                           @RequestParam(defaultValue = "10") int size,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "false") boolean withTotal) {
         logger.info("Récupération des candidatures du candidat - Page: {}, Size: {}", page, size);
         
-        ApplicationDto response = applicationService.getMyCandidatures(page, size);
+        ApplicationDto response = cursor != null
+                ? applicationService.getMyCandidaturesByCursor(cursor, size, withTotal)
+                : applicationService.getMyCandidatures(page, size);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     
@@ -93,30 +105,84 @@ public class ApplicationController {
     
     // ========== ROUTES EMPLOYEUR ==========
     
+    /**
+     * Tableau de bord : candidatures par statut et scores de chaque offre de l'employeur
+     * GET /api/employer/dashboard
+     */
+    @GetMapping("/employer/dashboard")
+    public ResponseEntity<EmployerDashboardDto> getEmployerDashboard() {
+        logger.info("Récupération du tableau de bord employeur");
+        
+        EmployerDashboardDto response = jobOffreStatsService.getEmployerDashboard();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
     /**
      * Récupérer toutes les candidatures reçues
-     * GET /api/employer/applications?page=0&size=10
+     * GET /api/employer/applications?page=0&size=10 (ou ?cursor= pour la pagination par curseur)
      */
     @GetMapping("/employer/applications")
     public ResponseEntity<ApplicationDto> getAllReceivedApplications(@RequestParam(defaultValue = "0") int page,
-                                                                   @RequestParam(defaultValue = "30") int size) {
+                                                                   @RequestParam(defaultValue = "30") int size,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "false") boolean withTotal) {
         logger.info("Récupération de toutes les candidatures reçues - Page: {}, Size: {}", page, size);
         
-        ApplicationDto response = applicationService.getReceivedApplications(null, page, size);
+        ApplicationDto response = cursor != null
+                ? applicationService.getReceivedApplicationsByCursor(null, cursor, size, withTotal)
+                : applicationService.getReceivedApplications(null, page, size);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     
     /**
      * Récupérer les candidatures pour une offre spécifique
-     * GET /api/employer/job-offers/{jobOfferId}/applications?page=0&size=10
+     * GET /api/employer/job-offers/{jobOfferId}/applications?page=0&size=10 (ou ?cursor= pour la pagination par curseur)
      */
     @GetMapping("/employer/job-offers/{jobOfferId}/applications")
     public ResponseEntity<ApplicationDto> getJobOfferApplications(@PathVariable Long jobOfferId,
                                                                 @RequestParam(defaultValue = "0") int page,
-                                                                @RequestParam(defaultValue = "10") int size) {
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "false") boolean withTotal) {
         logger.info("Récupération des candidatures pour l'offre: {} - Page: {}, Size: {}", jobOfferId, page, size);
         
-        ApplicationDto response = applicationService.getReceivedApplications(jobOfferId, page, size);
+        ApplicationDto response = cursor != null
+                ? applicationService.getReceivedApplicationsByCursor(jobOfferId, cursor, size, withTotal)
+                : applicationService.getReceivedApplications(jobOfferId, page, size);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
+    /**
+     * Recalculer en masse les scores des candidatures d'une offre
+     * POST /api/employer/job-offers/{jobOfferId}/applications/rescore
+     */
+    @PostMapping("/employer/job-offers/{jobOfferId}/applications/rescore")
+    public ResponseEntity<RescoringJobDto> rescoreJobOfferApplications(@PathVariable Long jobOfferId) {
+        logger.info("Re-scoring des candidatures de l'offre: {}", jobOfferId);
+        
+        RescoringJobDto response = applicationRescoringService.rescoreJobOffer(jobOfferId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
+    /**
+     * Suivre l'avancement d'un re-scoring
+     * GET /api/employer/rescoring-jobs/{jobId}
+     */
+    @GetMapping("/employer/rescoring-jobs/{jobId}")
+    public ResponseEntity<RescoringJobDto> getRescoringJob(@PathVariable String jobId) {
+        RescoringJobDto response = applicationRescoringService.getRescoringJob(jobId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
+    /**
+     * Annuler un re-scoring en cours
+     * DELETE /api/employer/rescoring-jobs/{jobId}
+     */
+    @DeleteMapping("/employer/rescoring-jobs/{jobId}")
+    public ResponseEntity<RescoringJobDto> cancelRescoringJob(@PathVariable String jobId) {
+        logger.info("Annulation du re-scoring: {}", jobId);
+        
+        RescoringJobDto response = applicationRescoringService.cancelRescoringJob(jobId);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     
@@ -164,14 +230,13 @@ public class ApplicationController {
         logger.info("Téléchargement du CV pour la candidature: {}", id);
         
         try {
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<AuthenticatedUser> utilisateurOptional = AuthenticatedUser.current();
             
             if (utilisateurOptional.isEmpty()) {
                 return ResponseEntity.status(404).body("Utilisateur non trouvé");
             }
             
-            Utilisateur employeur = utilisateurOptional.get();
+            AuthenticatedUser employeur = utilisateurOptional.get();
             
             // Récupérer la candidature
             Optional<Application> applicationOptional = applicationRepository.findById(id);
@@ -182,7 +247,7 @@ public class ApplicationController {
             Application application = applicationOptional.get();
             
             // Vérifier que la candidature appartient à l'employeur
-            if (!application.getJobOffre().getEmployeur().getId().equals(employeur.getId())) {
+            if (!application.getJobOffre().getEmployeur().getId().equals(employeur.id())) {
                 return ResponseEntity.status(403).body("Accès refusé");
             }
             
@@ -198,7 +263,8 @@ public class ApplicationController {
                 return ResponseEntity.status(404).body("Fichier CV non trouvé sur le serveur");
             }
             
-            byte[] fileContent = Files.readAllBytes(filePath);
+            // ETag fort = empreinte du fichier : un If-None-Match correspondant reçoit un 304 sans relire le PDF
+            String fileHash = applicationService.getOrComputeCvFileHash(application);
             
             // Créer un nom de fichier descriptif
             String candidatNom = application.getCandidat().getNom();
@@ -207,9 +273,12 @@ public class ApplicationController {
             String fileName = String.format("CV_%s_%s_%s.pdf", candidatPrenom, candidatNom, jobTitle.replaceAll("[^a-zA-Z0-9]", "_"));
             
             return ResponseEntity.ok()
+                    .eTag("\"cv-" + fileHash + "\"")
+                    .lastModified(Files.getLastModifiedTime(filePath).toMillis())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
                     .header("Content-Type", "application/pdf")
                     .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
-                    .body(fileContent);
+                    .body(new FileSystemResource(filePath));
                     
         } catch (Exception e) {
             logger.error("Erreur lors du téléchargement du CV: {}", e.getMessage(), e);
@@ -217,6 +286,42 @@ public class ApplicationController {
         }
     }
     
+    // ========== ROUTES ADMINISTRATEUR ==========
+    
+    /**
+     * Recalculer les scores de toutes les candidatures (après un changement des règles de matching)
+     * POST /api/admin/applications/rescore
+     */
+    @PostMapping("/admin/applications/rescore")
+    public ResponseEntity<RescoringJobDto> rescoreAllApplications() {
+        logger.info("Re-scoring de toutes les candidatures");
+        
+        RescoringJobDto response = applicationRescoringService.rescoreAllJobOffers();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
+    /**
+     * Suivre l'avancement d'un re-scoring
+     * GET /api/admin/rescoring-jobs/{jobId}
+     */
+    @GetMapping("/admin/rescoring-jobs/{jobId}")
+    public ResponseEntity<RescoringJobDto> getAdminRescoringJob(@PathVariable String jobId) {
+        RescoringJobDto response = applicationRescoringService.getRescoringJob(jobId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
+    /**
+     * Annuler un re-scoring en cours
+     * DELETE /api/admin/rescoring-jobs/{jobId}
+     */
+    @DeleteMapping("/admin/rescoring-jobs/{jobId}")
+    public ResponseEntity<RescoringJobDto> cancelAdminRescoringJob(@PathVariable String jobId) {
+        logger.info("Annulation du re-scoring: {}", jobId);
+        
+        RescoringJobDto response = applicationRescoringService.cancelRescoringJob(jobId);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+    
     // ========== CLASSES INTERNES ==========
     
     /**
@@ -1,5 +1,6 @@
 package com.example.jobvector.Controller;
 
+import com.example.jobvector.Config.AuthenticatedUser;
 import com.example.jobvector.Dto.BaseResponseDto;
 import com.example.jobvector.Dto.CvDto;
 import com.example.jobvector.Dto.CvProcessingJobDto;
@@ -17,8 +18,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -87,12 +86,9 @@ public class CvController {
             }
             
             // Obtenir l'utilisateur connecté
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            Long utilisateurId = getUserIdFromEmail(email);
+            Long utilisateurId = getCurrentUserId();
             
-            Utilisateur utilisateur = utilisateurRepository.findById(utilisateurId)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+            Utilisateur utilisateur = utilisateurRepository.getReferenceById(utilisateurId);
             
             // Save file immediately
             String fileName = saveFile(file);
@@ -109,7 +105,7 @@ public class CvController {
             job.setStatusDetails("CV file uploaded, waiting to start processing...");
             job = jobRepository.save(job);
             
-            logger.info("Created CV processing job ID: {} for user: {}", job.getId(), email);
+            logger.info("Created CV processing job ID: {} for user: {}", job.getId(), utilisateurId);
             
             // Trigger async processing
             asyncCvProcessingService.processCvAsync(job.getId(), texteExtrait);
@@ -156,11 +152,7 @@ public class CvController {
     public ResponseEntity<?> getMyCv() {
         try {
             // Obtenir l'utilisateur connecté
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            // Obtenir l'ID de l'utilisateur depuis l'email
-            Long utilisateurId = getUserIdFromEmail(email);
+            Long utilisateurId = getCurrentUserId();
             
             // Vérifier si l'utilisateur a un CV
             if (!cvService.hasCv(utilisateurId)) {
@@ -190,11 +182,7 @@ public class CvController {
     public ResponseEntity<?> getCvStatus() {
         try {
             // Obtenir l'utilisateur connecté
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            // Obtenir l'ID de l'utilisateur depuis l'email
-            Long utilisateurId = getUserIdFromEmail(email);
+            Long utilisateurId = getCurrentUserId();
             
             // Vérifier si l'utilisateur a un CV
             boolean hasCv = cvService.hasCv(utilisateurId);
@@ -215,11 +203,7 @@ public class CvController {
     public ResponseEntity<BaseResponseDto> deleteCv() {
         try {
             // Obtenir l'utilisateur connecté
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            // Obtenir l'ID de l'utilisateur depuis l'email
-            Long utilisateurId = getUserIdFromEmail(email);
+            Long utilisateurId = getCurrentUserId();
             
             // Supprimer le CV
             cvService.deleteCv(utilisateurId);
@@ -244,9 +228,7 @@ public class CvController {
     public ResponseEntity<?> getJobStatus(@PathVariable Long jobId) {
         try {
             // Obtenir l'utilisateur connecté
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            Long utilisateurId = getUserIdFromEmail(email);
+            Long utilisateurId = getCurrentUserId();
             
             // Vérifier que le job appartient à l'utilisateur
             CvProcessingJob job = jobRepository.findByIdAndUtilisateurId(jobId, utilisateurId)
@@ -271,10 +253,13 @@ public class CvController {
         }
     }
     
-    private Long getUserIdFromEmail(String email) {
-        Utilisateur utilisateur = utilisateurRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'email: " + email));
-        return utilisateur.getId();
+    /**
+     * Id de l'utilisateur connecté, lu dans le principal du token (sans requête)
+     */
+    private Long getCurrentUserId() {
+        return AuthenticatedUser.current()
+                .map(AuthenticatedUser::id)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
     }
     
     private String saveFile(MultipartFile file) throws IOException {
@@ -1,12 +1,21 @@
 package com.example.jobvector.Controller;
 
+import com.example.jobvector.Dto.CvDto;
 import com.example.jobvector.Dto.JobOffreDto;
 import com.example.jobvector.Model.JobOffre;
 import com.example.jobvector.Service.JobOfferService;
+import com.example.jobvector.Service.PublicJobOfferCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api")
 public class JobOfferController {
@@ -14,51 +23,117 @@ public class JobOfferController {
     @Autowired
     private JobOfferService jobOfferService;
 
+    @Autowired
+    private PublicJobOfferCache publicJobOfferCache;
+
+    @Value("${app.http-cache.job-offer.max-age-seconds:60}")
+    private long jobOfferMaxAgeSeconds;
+
     // ===== ENDPOINTS PUBLICS (TOUS LES UTILISATEURS) =====
 
     /**
      * Récupérer toutes les offres d'emploi actives
      * GET /api/public/job-offers
+     * Avec ?cursor= (vide pour la première page, puis nextCursor) : pagination par curseur, total sur demande (withTotal)
      */
     @GetMapping("/public/job-offers")
     public ResponseEntity<JobOffreDto> getAllActiveJobOffers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
 
-        JobOffreDto response = jobOfferService.getAllActiveJobOffers(page, size);
+        JobOffreDto response = publicJobOfferCache.get(
+                PublicJobOfferCache.key("job-offers", page, size, cursor, withTotal),
+                () -> cursor != null
+                        ? jobOfferService.getActiveJobOffersByCursor(cursor, size, withTotal)
+                        : jobOfferService.getAllActiveJobOffers(page, size));
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     /**
      * Récupérer une offre d'emploi par ID
      * GET /api/public/job-offers/{id}
+     * ETag fort (version de l'offre) et Last-Modified : un If-None-Match / If-Modified-Since à jour reçoit un 304 sans corps
      */
     @GetMapping("/public/job-offers/{id}")
     public ResponseEntity<JobOffreDto> getJobOfferById(@PathVariable Long id) {
         JobOffreDto response = jobOfferService.getJobOfferById(id);
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+        if (response.getStatusCode() != 200) {
+            return ResponseEntity.status(response.getStatusCode()).body(response);
+        }
+
+        LocalDateTime lastModified = response.getDateModification() != null
+                ? response.getDateModification()
+                : response.getDatePublication();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode())
+                .eTag("\"job-offer-" + id + "-v" + response.getVersion() + "\"")
+                .cacheControl(CacheControl.maxAge(jobOfferMaxAgeSeconds, TimeUnit.SECONDS).cachePublic());
+        if (lastModified != null) {
+            builder.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        }
+        return builder.body(response);
     }
 
     /**
      * Rechercher des offres d'emploi par mot-clé
-     * GET /api/public/job-offers/search
+     * GET /api/public/job-offers/search?mode=hybrid pour la recherche lexicale + vectorielle classée par pertinence
      */
     @GetMapping("/public/job-offers/search")
     public ResponseEntity<JobOffreDto> searchJobOffers(
             @RequestParam String keyword,
+            @RequestParam(defaultValue = "keyword") String mode,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        JobOffreDto response = jobOfferService.searchJobOffers(keyword, page, size);
+        JobOffreDto response = publicJobOfferCache.get(
+                PublicJobOfferCache.key("search", PublicJobOfferCache.text(keyword), mode, page, size),
+                () -> "hybrid".equalsIgnoreCase(mode)
+                        ? jobOfferService.searchJobOffersHybrid(keyword, page, size)
+                        : jobOfferService.searchJobOffers(keyword, page, size));
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
     /**
      * Rechercher des offres d'emploi avec filtres avancés
-     * GET /api/public/job-offers/search/filters
+     * GET /api/public/job-offers/search/filters (même pagination par curseur que /public/job-offers)
      */
     @GetMapping("/public/job-offers/search/filters")
     public ResponseEntity<JobOffreDto> searchJobOffersWithFilters(
+            @RequestParam(required = false) String titre,
+            @RequestParam(required = false) String localisation,
+            @RequestParam(required = false) String secteurActivite,
+            @RequestParam(required = false) JobOffre.TypePoste typePoste,
+            @RequestParam(required = false) JobOffre.ModaliteTravail modaliteTravail,
+            @RequestParam(required = false) Integer experienceMin,
+            @RequestParam(required = false) Double salaireMin,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        JobOffreDto response = publicJobOfferCache.get(
+                PublicJobOfferCache.key("search/filters", PublicJobOfferCache.text(titre),
+                        PublicJobOfferCache.text(localisation), PublicJobOfferCache.text(secteurActivite), typePoste,
+                        modaliteTravail, experienceMin, salaireMin, page, size, cursor, withTotal),
+                () -> cursor != null
+                        ? jobOfferService.searchJobOffersWithFiltersByCursor(
+                                titre, localisation, secteurActivite, typePoste, modaliteTravail,
+                                experienceMin, salaireMin, cursor, size, withTotal)
+                        : jobOfferService.searchJobOffersWithFilters(
+                                titre, localisation, secteurActivite, typePoste, modaliteTravail,
+                                experienceMin, salaireMin, page, size));
+
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Recherche par mot-clé (BM25) avec filtres et facettes, sur l'index plein texte en mémoire
+     * GET /api/public/job-offers/search/faceted
+     */
+    @GetMapping("/public/job-offers/search/faceted")
+    public ResponseEntity<JobOffreDto> searchJobOffersFaceted(
+            @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String titre,
             @RequestParam(required = false) String localisation,
             @RequestParam(required = false) String secteurActivite,
@@ -69,9 +144,9 @@ public class JobOfferController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        JobOffreDto response = jobOfferService.searchJobOffersWithFilters(
-                titre, localisation, secteurActivite, typePoste, modaliteTravail,
-                 experienceMin, salaireMin, page, size);
+        JobOffreDto response = jobOfferService.searchJobOffersFaceted(
+                keyword, titre, localisation, secteurActivite, typePoste, modaliteTravail,
+                experienceMin, salaireMin, page, size);
 
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
@@ -85,7 +160,9 @@ public class JobOfferController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
-        JobOffreDto response = jobOfferService.getRecentJobOffers(page, size);
+        JobOffreDto response = publicJobOfferCache.get(
+                PublicJobOfferCache.key("recent", page, size),
+                () -> jobOfferService.getRecentJobOffers(page, size));
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -105,6 +182,40 @@ public class JobOfferController {
 
     // ===== ENDPOINTS POUR LES CANDIDATS =====
 
+    /**
+     * Récupérer les offres actives les plus proches du CV du candidat connecté
+     * GET /api/candidate/job-offers/best-matches
+     */
+    @GetMapping("/candidate/job-offers/best-matches")
+    public ResponseEntity<JobOffreDto> getBestMatchingJobOffers(
+            @RequestParam(defaultValue = "20") int limit) {
+
+        JobOffreDto response = jobOfferService.getBestMatchingJobOffers(limit);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Classement pré-calculé des meilleures offres pour le CV du candidat connecté
+     * GET /api/candidate/job-offers/matches
+     */
+    @GetMapping("/candidate/job-offers/matches")
+    public ResponseEntity<JobOffreDto> getJobOfferMatches(
+            @RequestParam(defaultValue = "20") int limit) {
+
+        JobOffreDto response = jobOfferService.getPrecomputedJobOfferMatches(limit);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Scorer le CV du candidat connecté contre une page d'offres
+     * GET /api/candidate/job-offers/match-scores?ids=1,2,3
+     */
+    @GetMapping("/candidate/job-offers/match-scores")
+    public ResponseEntity<JobOffreDto> getMatchScores(@RequestParam List<Long> ids) {
+        JobOffreDto response = jobOfferService.getMatchScores(ids);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * Sauvegarder une offre d'emploi en favori (CANDIDATE seulement)
      * POST /api/candidate/job-offers/{id}/favorite
@@ -155,6 +266,32 @@ public class JobOfferController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    /**
+     * Rechercher les candidats dont le CV correspond le mieux à une offre (EMPLOYEUR propriétaire seulement)
+     * GET /api/employer/job-offers/{id}/candidates
+     */
+    @GetMapping("/employer/job-offers/{id}/candidates")
+    public ResponseEntity<CvDto> sourceCandidates(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        CvDto response = jobOfferService.sourceCandidatesForJobOffer(id, limit);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Classement pré-calculé des meilleurs candidats d'une offre
+     * GET /api/employer/job-offers/{id}/matches
+     */
+    @GetMapping("/employer/job-offers/{id}/matches")
+    public ResponseEntity<CvDto> getCandidateMatches(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        CvDto response = jobOfferService.getPrecomputedCandidateMatches(id, limit);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     /**
      * Supprimer une offre d'emploi (EMPLOYEUR propriétaire seulement)
      * DELETE /api/employer/job-offers/{id}
@@ -0,0 +1,109 @@
+package com.example.jobvector.Controller;
+
+import com.example.jobvector.Dto.ScoringProfileDto;
+import com.example.jobvector.Service.ScoringProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class ScoringProfileController {
+
+    @Autowired
+    private ScoringProfileService scoringProfileService;
+
+    // ===== ENDPOINTS POUR LES EMPLOYEURS =====
+
+    /**
+     * Pondérations appliquées à toutes les offres de l'employeur connecté
+     * GET /api/employer/scoring-profile
+     */
+    @GetMapping("/employer/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> getEmployerProfile() {
+        ScoringProfileDto response = scoringProfileService.getEmployerProfile();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Créer ou modifier le profil de l'employeur connecté (re-pondère ses candidatures)
+     * PUT /api/employer/scoring-profile
+     */
+    @PutMapping("/employer/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> saveEmployerProfile(@RequestBody ScoringProfileDto request) {
+        ScoringProfileDto response = scoringProfileService.saveEmployerProfile(request);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Revenir aux pondérations globales
+     * DELETE /api/employer/scoring-profile
+     */
+    @DeleteMapping("/employer/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> deleteEmployerProfile() {
+        ScoringProfileDto response = scoringProfileService.deleteEmployerProfile();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Pondérations effectives d'une offre
+     * GET /api/employer/job-offers/{id}/scoring-profile
+     */
+    @GetMapping("/employer/job-offers/{id}/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> getJobOfferProfile(@PathVariable Long id) {
+        ScoringProfileDto response = scoringProfileService.getJobOfferProfile(id);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Créer ou modifier le profil propre à une offre (re-pondère ses candidatures)
+     * PUT /api/employer/job-offers/{id}/scoring-profile
+     */
+    @PutMapping("/employer/job-offers/{id}/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> saveJobOfferProfile(@PathVariable Long id, @RequestBody ScoringProfileDto request) {
+        ScoringProfileDto response = scoringProfileService.saveJobOfferProfile(id, request);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Supprimer le profil propre à une offre
+     * DELETE /api/employer/job-offers/{id}/scoring-profile
+     */
+    @DeleteMapping("/employer/job-offers/{id}/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> deleteJobOfferProfile(@PathVariable Long id) {
+        ScoringProfileDto response = scoringProfileService.deleteJobOfferProfile(id);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    // ===== ENDPOINTS POUR LES ADMINISTRATEURS =====
+
+    /**
+     * Pondérations globales
+     * GET /api/admin/scoring-profile
+     */
+    @GetMapping("/admin/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> getGlobalProfile() {
+        ScoringProfileDto response = scoringProfileService.getGlobalProfile();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Modifier les pondérations globales à chaud
+     * PUT /api/admin/scoring-profile
+     */
+    @PutMapping("/admin/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> saveGlobalProfile(@RequestBody ScoringProfileDto request) {
+        ScoringProfileDto response = scoringProfileService.saveGlobalProfile(request);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Revenir aux pondérations de la configuration
+     * DELETE /api/admin/scoring-profile
+     */
+    @DeleteMapping("/admin/scoring-profile")
+    public ResponseEntity<ScoringProfileDto> deleteGlobalProfile() {
+        ScoringProfileDto response = scoringProfileService.deleteGlobalProfile();
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.jobvector.Controller;
+
+import com.example.jobvector.Dto.SearchPlanReportDto;
+import com.example.jobvector.Service.SearchPlanReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class SearchReportController {
+
+    @Autowired
+    private SearchPlanReportService searchPlanReportService;
+
+    // ===== ENDPOINTS POUR LES ADMINISTRATEURS =====
+
+    /**
+     * Comparer les plans d'exécution de la recherche ILIKE et de la recherche plein texte
+     * GET /api/admin/search/plan-report?keyword=java&syntheticRows=500000
+     */
+    @GetMapping("/admin/search/plan-report")
+    public ResponseEntity<SearchPlanReportDto> getPlanReport(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int syntheticRows) {
+
+        SearchPlanReportDto response = searchPlanReportService.buildPlanReport(keyword, syntheticRows);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
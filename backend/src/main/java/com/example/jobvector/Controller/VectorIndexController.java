@@ -0,0 +1,49 @@
+package com.example.jobvector.Controller;
+
+import com.example.jobvector.Dto.VectorIndexReportDto;
+import com.example.jobvector.Dto.BaseResponseDto;
+import com.example.jobvector.Service.CvJobMatchService;
+import com.example.jobvector.Service.VectorIndexReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class VectorIndexController {
+
+    @Autowired
+    private VectorIndexReportService vectorIndexReportService;
+
+    @Autowired
+    private CvJobMatchService cvJobMatchService;
+
+    // ===== ENDPOINTS POUR LES ADMINISTRATEURS =====
+
+    /**
+     * Mesurer le rappel et la latence des recherches quantifiées face au cosinus exact
+     * GET /api/admin/vector-index/quantization-report
+     */
+    @GetMapping("/admin/vector-index/quantization-report")
+    public ResponseEntity<VectorIndexReportDto> getQuantizationReport(
+            @RequestParam(defaultValue = "100") int queries,
+            @RequestParam(defaultValue = "10") int k) {
+
+        VectorIndexReportDto response = vectorIndexReportService.buildQuantizationReport(queries, k);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    /**
+     * Reconstruire en arrière-plan les classements pré-calculés CV / offres
+     * POST /api/admin/vector-index/matches/rebuild
+     */
+    @PostMapping("/admin/vector-index/matches/rebuild")
+    public ResponseEntity<BaseResponseDto> rebuildMatches() {
+        cvJobMatchService.rebuildAsync();
+
+        BaseResponseDto response = new BaseResponseDto();
+        response.setStatusCode(202);
+        response.setMessage("Reconstruction des classements lancée");
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
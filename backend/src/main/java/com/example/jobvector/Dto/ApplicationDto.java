@@ -46,6 +46,8 @@ public class ApplicationDto extends BaseResponseDto {
     private Double scoreCompetencesTransversales;
     private Double scoreExperience;
     private Double scoreFormation;
+    private Double scoreLangues;
+    private Double scoreCosinus;
     
     // Commentaires
     private String commentaireEmployeur; // Visible uniquement par l'employeur
@@ -65,6 +67,10 @@ public class ApplicationDto extends BaseResponseDto {
     private Integer size;
     private Long totalElements;
     private Integer totalPages;
+
+    // Pagination par curseur : position de la page suivante (null s'il n'y en a plus), total estimé
+    private String nextCursor;
+    private Boolean totalApproximatif;
     
     // Statistiques (pour employeur)
     private Long totalCandidatures;
@@ -1,4 +1,5 @@
 package com.example.jobvector.Dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -41,6 +42,12 @@ public class CvDto extends BaseResponseDto {
     private Boolean embeddingGenerated;
     private Integer embeddingSize;
     
+    // Sourcing de candidats : similarité CV / offre [0, 1] et liste de profils
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double scoreMatching;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CvDto> cvs;
+    
     // Custom setter to handle both String and Array from AI response
     @JsonSetter("motsClesGeneres")
     public void setMotsClesGeneres(Object motsClesGeneres) {
@@ -0,0 +1,35 @@
+package com.example.jobvector.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployerDashboardDto extends BaseResponseDto {
+    // Toutes offres confondues
+    private Integer nbOffres;
+    private Long nbCandidatures;
+    private Map<String, Long> candidaturesParStatut;
+
+    private List<JobOffreStatsDto> offres;
+
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class JobOffreStatsDto {
+        private Long jobOffreId;
+        private String titre;
+        private String statut;
+        private Long nbCandidatures;
+        private Map<String, Long> candidaturesParStatut;
+        private Long nbCandidaturesScorees;
+        private Double scoreMoyen;
+        private Double scoreMax;
+        private LocalDateTime dateMiseAJour;
+    }
+}
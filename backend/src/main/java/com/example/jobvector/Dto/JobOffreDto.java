@@ -8,6 +8,7 @@ import lombok.EqualsAndHashCode;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -22,6 +23,8 @@ public class JobOffreDto extends BaseResponseDto {
     private String localisation;
     private LocalDateTime datePublication;
     private String statut;
+    private Long version;
+    private LocalDateTime dateModification;
 
     // === NOUVEAUX CHAMPS POUR LE MATCHING ===
 
@@ -58,6 +61,19 @@ public class JobOffreDto extends BaseResponseDto {
     // Champ embedding (optionnel dans le DTO)
     private String embedding;
 
+    // Score de similarité CV / offre [0, 1] (recherche des meilleures offres)
+    private Double scoreMatching;
+
+    // Sous-scores de matching du CV du candidat (scoring d'une page d'offres)
+    private Double scoreCompetencesTechniques;
+    private Double scoreCompetencesTransversales;
+    private Double scoreExperience;
+    private Double scoreFormation;
+    private Double scoreLangues;
+
+    // Score de pertinence BM25 (recherche à facettes)
+    private Double scorePertinence;
+
     // Pour les réponses de liste
     private List<JobOffreDto> jobOffers;
 
@@ -65,4 +81,11 @@ public class JobOffreDto extends BaseResponseDto {
     private Integer page;
     private Integer size;
     private Long totalElements;
+
+    // Pagination par curseur : position de la page suivante (null s'il n'y en a plus), total estimé
+    private String nextCursor;
+    private Boolean totalApproximatif;
+
+    // Facettes de la recherche : facette -> valeur -> nombre d'offres
+    private Map<String, Map<String, Long>> facets;
 }
@@ -0,0 +1,23 @@
+package com.example.jobvector.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RescoringJobDto extends BaseResponseDto {
+    private String jobId;
+    private Long jobOffreId; // null = toutes les offres
+    private String status;
+    private Long total;
+    private Long processed;
+    private Long failed;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String errorMessage;
+}
@@ -0,0 +1,29 @@
+package com.example.jobvector.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScoringProfileDto extends BaseResponseDto {
+    private Long id; // null = pondérations par défaut de la configuration
+    private String scope;
+    private Long employeurId;
+    private Long jobOffreId;
+    
+    private Double poidsCompetencesTechniques;
+    private Double poidsExperience;
+    private Double poidsLangues;
+    private Double poidsCompetencesTransversales;
+    private Double poidsFormation;
+    
+    private LocalDateTime dateModification;
+    
+    // Résultat de la re-pondération des candidatures existantes
+    private Integer candidaturesRecalculees;
+    private Long dureeRecalculMs;
+}
@@ -0,0 +1,30 @@
+package com.example.jobvector.Dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@EqualsAndHashCode(callSuper = true)
+public class SearchPlanReportDto extends BaseResponseDto {
+
+    // Paramètres de la mesure
+    private String keyword;
+    private String table;
+    private Long rows;
+
+    // Requête d'origine : ILIKE '%mot%' sur cinq colonnes
+    private Double ilikeExecutionMs;
+    private Boolean ilikeSeqScan;
+    private List<String> ilikePlan;
+
+    // Recherche plein texte : search_vector @@ tsquery + ts_rank, index GIN
+    private Double fullTextExecutionMs;
+    private Boolean fullTextSeqScan;
+    private List<String> fullTextPlan;
+}
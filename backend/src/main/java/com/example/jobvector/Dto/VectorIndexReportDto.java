@@ -0,0 +1,38 @@
+package com.example.jobvector.Dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@EqualsAndHashCode(callSuper = true)
+public class VectorIndexReportDto extends BaseResponseDto {
+
+    // Paramètres de la mesure
+    private Integer queries;
+    private Integer k;
+    private Integer indexedOffers;
+    private Integer dimension;
+    private Integer oversampling;
+
+    // Recherche exacte (matrice float, cosinus)
+    private Double exactAvgMicros;
+    private Double exactP95Micros;
+
+    // Quantification int8 en mémoire + re-scoring exact
+    private Double int8RecallAtK;
+    private Double int8AvgMicros;
+    private Double int8P95Micros;
+
+    // Index halfvec PostgreSQL + re-scoring exact (si pgvector est disponible)
+    private Double halfvecRecallAtK;
+    private Double halfvecAvgMicros;
+    private Double halfvecP95Micros;
+
+    // Empreinte mémoire de l'index des offres
+    private Long floatMatrixBytes;
+    private Long int8MatrixBytes;
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Getter
 @Setter
@@ -15,11 +16,16 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "applications", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"candidat_id", "job_offre_id"})
+}, indexes = {
+    // Pagination par clé des listes de candidatures (index créés par db/migration, déclarés ici pour le schéma des tests)
+    @Index(name = "idx_applications_job_offre_score", columnList = "job_offre_id, score_global DESC, date_candidature DESC, id DESC"),
+    @Index(name = "idx_applications_candidat_date", columnList = "candidat_id, date_candidature DESC, id DESC")
 })
 public class Application {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "applications_seq")
+    @SequenceGenerator(name = "applications_seq", sequenceName = "applications_seq", allocationSize = 50)
     private Long id;
     
     // Relation avec le candidat
@@ -49,6 +55,10 @@ public class Application {
     @Column(name = "cv_file_path", nullable = true)
     private String cvFilePath;
     
+    // Empreinte SHA-256 (hexadécimal) de la copie du CV, ETag du téléchargement
+    @Column(name = "cv_file_hash", length = 64)
+    private String cvFileHash;
+    
     // Données du CV au moment de la candidature (JSON ou sérialisé)
     @Column(name = "cv_data_snapshot", columnDefinition = "TEXT")
     private String cvDataSnapshot;
@@ -69,6 +79,13 @@ public class Application {
     @Column(name = "score_formation")
     private Double scoreFormation;
     
+    @Column(name = "score_langues")
+    private Double scoreLangues;
+    
+    // Similarité cosinus brute CV / offre, conservée pour analyse comparative
+    @Column(name = "score_cosinus")
+    private Double scoreCosinus;
+    
     // Commentaires de l'employeur
     @Column(name = "commentaire_employeur", columnDefinition = "TEXT")
     private String commentaireEmployeur;
@@ -81,9 +98,10 @@ public class Application {
     @Column(name = "date_modification")
     private LocalDateTime dateModification;
     
-    // Embedding vectoriel du CV au moment de la candidature
-    @Column(name = "cv_embedding", columnDefinition = "TEXT")
-    private String cvEmbedding;
+    // Version de l'embedding du CV au moment de la candidature (référencée, plus copiée)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cv_embedding_id")
+    private Embedding cvEmbedding;
     
     // Métadonnées additionnelles
     @Column(name = "metadata", columnDefinition = "TEXT")
@@ -113,7 +131,8 @@ public class Application {
     // Callbacks JPA
     @PrePersist
     protected void onCreate() {
-        dateCandidature = LocalDateTime.now();
+        // Précision de la base (microsecondes), clé des curseurs de pagination
+        dateCandidature = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         dateModification = LocalDateTime.now();
         if (statut == null) {
             statut = StatutCandidature.EN_ATTENTE;
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @Table(name = "cvs")
 public class Cv {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cvs_seq")
+    @SequenceGenerator(name = "cvs_seq", sequenceName = "cvs_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "chemin_fichier", nullable = false)
@@ -26,8 +27,11 @@ public class Cv {
     @Column(name = "taille_fichier")
     private Long tailleFichier;
     
-    @Column(name = "texte_extrait", columnDefinition = "TEXT")
-    private String texteExtrait;
+    // Texte brut du PDF (table cv_documents), chargé à la demande
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "document_id", referencedColumnName = "id")
+    @JsonIgnore
+    private CvDocument document;
     
     @Column(name = "nom")
     private String nom;
@@ -80,9 +84,11 @@ public class Cv {
     @Column(name = "mots_cles_generes", columnDefinition = "TEXT")
     private String motsClesGeneres;
     
-    // Embedding vectoriel pour le matching
-    @Column(name = "embedding", columnDefinition = "TEXT")
-    private String embedding;
+    // Version courante de l'embedding vectoriel pour le matching (table embeddings), chargée à la demande
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "embedding_id", referencedColumnName = "id")
+    @JsonIgnore
+    private Embedding embeddingVersion;
     
     @Column(name = "date_creation")
     private LocalDateTime dateCreation;
@@ -100,6 +106,24 @@ public class Cv {
     @JsonIgnore
     private CvProcessingJob processingJob;
     
+    /**
+     * Vecteur de la version courante de l'embedding (JSON), ou null s'il n'a pas encore été généré
+     */
+    public String getEmbedding() {
+        return embeddingVersion != null ? embeddingVersion.getVector() : null;
+    }
+    
+    public String getTexteExtrait() {
+        return document != null ? document.getTexteExtrait() : null;
+    }
+    
+    public void setTexteExtrait(String texteExtrait) {
+        if (document == null) {
+            document = new CvDocument();
+        }
+        document.setTexteExtrait(texteExtrait);
+    }
+    
     @PrePersist
     protected void onCreate() {
         dateCreation = LocalDateTime.now();
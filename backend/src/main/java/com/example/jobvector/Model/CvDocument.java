@@ -0,0 +1,21 @@
+package com.example.jobvector.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Texte brut extrait du PDF d'un CV, stocké hors de la table cvs et chargé uniquement quand il est lu
+ * (détail du CV, construction du texte de matching)
+ */
+@Entity
+@Table(name = "cv_documents")
+@Data
+public class CvDocument {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "texte_extrait", columnDefinition = "TEXT")
+    private String texteExtrait;
+}
@@ -0,0 +1,46 @@
+package com.example.jobvector.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Classement pré-calculé CV / offre : une ligne appartient soit au top-N des offres d'un CV (perspective CV),
+ * soit au top-N des CV d'une offre (perspective JOB_OFFER). Maintenu en arrière-plan par CvJobMatchService.
+ */
+@Entity
+@Table(name = "cv_job_matches", indexes = {
+    @Index(name = "idx_cv_job_matches_cv", columnList = "perspective, cv_id, score"),
+    @Index(name = "idx_cv_job_matches_job_offre", columnList = "perspective, job_offre_id, score")
+})
+@Data
+public class CvJobMatch {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Perspective perspective;
+    
+    // Simples identifiants : les lignes sont supprimées par le service quand le CV ou l'offre disparaît
+    @Column(name = "cv_id", nullable = false)
+    private Long cvId;
+    
+    @Column(name = "job_offre_id", nullable = false)
+    private Long jobOffreId;
+    
+    // Similarité cosinus ramenée dans [0, 1]
+    @Column(nullable = false)
+    private Double score;
+    
+    @Column(name = "date_calcul", nullable = false)
+    private LocalDateTime dateCalcul;
+    
+    public enum Perspective {
+        CV,
+        JOB_OFFER
+    }
+}
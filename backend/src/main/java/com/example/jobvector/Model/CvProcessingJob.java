@@ -8,12 +8,15 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cv_processing_jobs")
+@Table(name = "cv_processing_jobs", indexes = {
+    @Index(name = "idx_cv_processing_jobs_utilisateur_date", columnList = "utilisateur_id, created_at DESC")
+})
 @Data
 public class CvProcessingJob {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cv_processing_jobs_seq")
+    @SequenceGenerator(name = "cv_processing_jobs_seq", sequenceName = "cv_processing_jobs_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,54 @@
+package com.example.jobvector.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version d'un embedding (CV ou offre), stockée hors des tables cvs / job_offres.
+ *
+ * Une ligne n'est jamais modifiée : chaque nouvelle génération crée une nouvelle version, référencée par
+ * le propriétaire (cvs.embedding_id, job_offres.embedding_id) et, pour un CV, par les candidatures
+ * envoyées avec cette version (applications.cv_embedding_id). Les versions qui ne sont plus référencées
+ * sont supprimées par EmbeddingStorageService.
+ */
+@Entity
+@Table(name = "embeddings", indexes = {
+    @Index(name = "idx_embeddings_owner", columnList = "owner_type, owner_id")
+})
+@Data
+public class Embedding {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, length = 16)
+    private OwnerType ownerType;
+
+    // Simple identifiant : la version d'un CV supprimé peut rester référencée par ses candidatures
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "model_version", nullable = false, length = 100)
+    private String modelVersion;
+
+    // Vecteur au format JSON, pleine précision
+    @Column(name = "vector", columnDefinition = "TEXT", nullable = false)
+    private String vector;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @PrePersist
+    protected void onCreate() {
+        dateCreation = LocalDateTime.now();
+    }
+
+    public enum OwnerType {
+        CV,
+        JOB_OFFER
+    }
+}
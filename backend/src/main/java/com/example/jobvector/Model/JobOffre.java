@@ -5,19 +5,28 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "job_offres")
+@Table(name = "job_offres", indexes = {
+        // Pagination par clé des offres ; l'index partiel des offres actives n'existe que dans db/migration
+        @Index(name = "idx_job_offres_statut_date", columnList = "statut, date_publication DESC, id DESC"),
+        @Index(name = "idx_job_offres_employeur", columnList = "employeur_id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "job-offre")
 public class JobOffre {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_offres_seq")
+    @SequenceGenerator(name = "job_offres_seq", sequenceName = "job_offres_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -83,9 +92,10 @@ public class JobOffre {
 
 
 
-    // Champ pour l'embedding vectoriel (pgvector) - Activé pour le matching
-    @Column(name = "embedding", columnDefinition = "TEXT")
-    private String embedding;
+    // Version courante de l'embedding vectoriel pour le matching (table embeddings), chargée à la demande
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "embedding_id")
+    private Embedding embeddingVersion;
 
     // === CHAMPS EXISTANTS ===
     private String entreprise;
@@ -97,6 +107,14 @@ public class JobOffre {
     @Column(nullable = false)
     private String statut = "ACTIVE"; // ACTIVE, FERMEE, EXPIREE
 
+    // Version de l'offre (verrouillage optimiste, ETag des réponses HTTP) ; 0 pour les lignes existantes
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version = 0L;
+
+    // Date de dernière modification (en-tête Last-Modified)
+    private LocalDateTime dateModification;
+
     // === ENUMS POUR LE MATCHING ===
 
     public enum NiveauEtude {
@@ -115,11 +133,25 @@ public class JobOffre {
         JUNIOR, CONFIRME, SENIOR, EXPERT, LEAD
     }
 
+    /**
+     * Vecteur de la version courante de l'embedding (JSON), ou null s'il n'a pas encore été généré
+     */
+    public String getEmbedding() {
+        return embeddingVersion != null ? embeddingVersion.getVector() : null;
+    }
+
     // Constructeur pour création
     @PrePersist
     public void prePersist() {
         if (datePublication == null) {
-            datePublication = LocalDateTime.now();
+            // Précision de la base (microsecondes) : la clé des curseurs de pagination doit être identique en mémoire et en base
+            datePublication = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         }
+        dateModification = datePublication;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        dateModification = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
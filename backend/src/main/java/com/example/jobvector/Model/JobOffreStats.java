@@ -0,0 +1,89 @@
+package com.example.jobvector.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agrégats des candidatures d'une offre (tableau de bord employeur) : nombre de candidatures par statut et
+ * scores globaux. Une ligne par offre, tenue à jour par JobOffreStatsService à chaque candidature, changement
+ * de statut, retrait ou recalcul des scores, dans la transaction de l'écriture.
+ */
+@Entity
+@Table(name = "job_offre_stats", indexes = {
+    // Tableau de bord : toutes les offres d'un employeur (index créé par db/migration, déclaré ici pour le schéma des tests)
+    @Index(name = "idx_job_offre_stats_employeur", columnList = "employeur_id")
+})
+@Data
+public class JobOffreStats {
+
+    // Simples identifiants (pas de clé étrangère) : la ligne est supprimée avec l'offre par JobOffreStatsService
+    @Id
+    @Column(name = "job_offre_id")
+    private Long jobOffreId;
+
+    @Column(name = "employeur_id", nullable = false)
+    private Long employeurId;
+
+    @Column(name = "nb_candidatures", nullable = false)
+    private long nbCandidatures;
+
+    // Un compteur par Application.StatutCandidature (colonne nb_<statut>)
+    @Column(name = "nb_en_attente", nullable = false)
+    private long nbEnAttente;
+
+    @Column(name = "nb_vue", nullable = false)
+    private long nbVue;
+
+    @Column(name = "nb_preselectionne", nullable = false)
+    private long nbPreselectionne;
+
+    @Column(name = "nb_entretien", nullable = false)
+    private long nbEntretien;
+
+    @Column(name = "nb_accepte", nullable = false)
+    private long nbAccepte;
+
+    @Column(name = "nb_refuse", nullable = false)
+    private long nbRefuse;
+
+    @Column(name = "nb_retiree", nullable = false)
+    private long nbRetiree;
+
+    // Candidatures scorées, somme et maximum de leurs scores globaux (moyenne = somme / nombre)
+    @Column(name = "nb_scores", nullable = false)
+    private long nbScores;
+
+    @Column(name = "somme_scores", nullable = false)
+    private double sommeScores;
+
+    @Column(name = "score_max")
+    private Double scoreMax;
+
+    @Column(name = "date_mise_a_jour")
+    private LocalDateTime dateMiseAJour;
+
+    /**
+     * Colonne du compteur d'un statut
+     */
+    public static String countColumn(Application.StatutCandidature statut) {
+        return "nb_" + statut.name().toLowerCase();
+    }
+
+    public long getCount(Application.StatutCandidature statut) {
+        return switch (statut) {
+            case EN_ATTENTE -> nbEnAttente;
+            case VUE -> nbVue;
+            case PRESELECTIONNE -> nbPreselectionne;
+            case ENTRETIEN -> nbEntretien;
+            case ACCEPTE -> nbAccepte;
+            case REFUSE -> nbRefuse;
+            case RETIREE -> nbRetiree;
+        };
+    }
+
+    public Double getScoreMoyen() {
+        return nbScores > 0 ? sommeScores / nbScores : null;
+    }
+}
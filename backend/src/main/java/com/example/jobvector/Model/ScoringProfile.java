@@ -0,0 +1,60 @@
+package com.example.jobvector.Model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pondérations du score global de matching.
+ * Un profil s'applique à toute la plateforme (GLOBAL), à toutes les offres d'un employeur (EMPLOYER)
+ * ou à une seule offre (JOB_OFFER) ; le profil le plus spécifique l'emporte.
+ * Au plus un profil par portée et par employeur / offre (index uniques partiels de V13).
+ */
+@Entity
+@Table(name = "scoring_profiles")
+@Data
+public class ScoringProfile {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Scope scope;
+    
+    // Simples identifiants (pas de clé étrangère), renseignés selon le scope : employeur_id pour EMPLOYER,
+    // job_offre_id pour JOB_OFFER. Le profil d'une offre est supprimé avec elle par ScoringProfileService.
+    @Column(name = "employeur_id")
+    private Long employeurId;
+    
+    @Column(name = "job_offre_id")
+    private Long jobOffreId;
+    
+    @Column(name = "poids_competences_techniques", nullable = false)
+    private Double poidsCompetencesTechniques;
+    
+    @Column(name = "poids_experience", nullable = false)
+    private Double poidsExperience;
+    
+    @Column(name = "poids_langues", nullable = false)
+    private Double poidsLangues;
+    
+    @Column(name = "poids_competences_transversales", nullable = false)
+    private Double poidsCompetencesTransversales;
+    
+    @Column(name = "poids_formation", nullable = false)
+    private Double poidsFormation;
+    
+    @UpdateTimestamp
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+    
+    public enum Scope {
+        GLOBAL,
+        EMPLOYER,
+        JOB_OFFER
+    }
+}
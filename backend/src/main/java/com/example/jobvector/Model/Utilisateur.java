@@ -6,6 +6,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,12 +22,20 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+   @Index(name = "idx_utilisateur_email", columnList = "email", unique = true)
+})
+// Relu par e-mail à chaque requête authentifiée : entité et résolution e-mail -> id en cache de second niveau
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "utilisateur")
+@NaturalIdCache(region = "utilisateur-email")
 public class Utilisateur implements UserDetails {
    @Id
    @GeneratedValue(strategy = GenerationType.AUTO)
    private Long id;
    private String nom;
    private String prenom;
+   // Identifiant naturel, modifiable par un administrateur
+   @NaturalId(mutable = true)
    private String email;
    private String password;
    private String role;
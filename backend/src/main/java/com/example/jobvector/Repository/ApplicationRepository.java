@@ -6,9 +6,11 @@ import com.example.jobvector.Model.Utilisateur;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,8 +19,18 @@ import java.util.Optional;
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
     
+    // Listes affichées : projection ApplicationSummary, sans metadata, embedding ni snapshot du CV, en une requête
+    String SUMMARY_SELECT = "SELECT new com.example.jobvector.Repository.ApplicationSummary(" +
+            "a.id, a.statut, a.dateCandidature, a.dateModification, a.lettreMotivation, a.cvFilePath, " +
+            "a.commentairePublic, a.scoreGlobal, a.scoreCompetencesTechniques, " +
+            "a.scoreCompetencesTransversales, a.scoreExperience, a.scoreFormation, a.scoreLangues, a.scoreCosinus, " +
+            "a.commentaireEmployeur, c.id, c.nom, c.prenom, c.email, j.id, j.titre, j.entreprise, j.localisation) " +
+            "FROM Application a JOIN a.candidat c JOIN a.jobOffre j ";
+    
     // Recherche par candidat
-    Page<Application> findByCandidat(Utilisateur candidat, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE a.candidat = :candidat",
+           countQuery = "SELECT COUNT(a) FROM Application a WHERE a.candidat = :candidat")
+    Page<ApplicationSummary> findByCandidat(@Param("candidat") Utilisateur candidat, Pageable pageable);
     List<Application> findByCandidatId(Long candidatId);
     
     // Recherche par offre d'emploi
@@ -39,8 +51,9 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     Optional<Application> findByCandidatAndJobOffre(Utilisateur candidat, JobOffre jobOffre);
     
     // Recherche par employeur (via les offres d'emploi)
-    @Query("SELECT a FROM Application a WHERE a.jobOffre.employeur = :employeur")
-    Page<Application> findByEmployeur(@Param("employeur") Utilisateur employeur, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE j.employeur = :employeur",
+           countQuery = "SELECT COUNT(a) FROM Application a WHERE a.jobOffre.employeur = :employeur")
+    Page<ApplicationSummary> findByEmployeur(@Param("employeur") Utilisateur employeur, Pageable pageable);
     
     @Query("SELECT a FROM Application a WHERE a.jobOffre.employeur = :employeur AND a.statut = :statut")
     Page<Application> findByEmployeurAndStatut(@Param("employeur") Utilisateur employeur, 
@@ -51,9 +64,99 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     @Query("SELECT a FROM Application a WHERE a.dateCandidature >= :dateDebut ORDER BY a.dateCandidature DESC")
     Page<Application> findRecentApplications(@Param("dateDebut") LocalDateTime dateDebut, Pageable pageable);
     
+    // Pagination par clé : candidatures situées après (score, date, id) dans l'ordre décroissant
+    String SCORE_KEYSET = "(a.scoreGlobal < :afterScore OR (a.scoreGlobal = :afterScore AND " +
+            "(a.dateCandidature < :afterDate OR (a.dateCandidature = :afterDate AND a.id < :afterId))))";
+
+    String DATE_KEYSET = "(a.dateCandidature < :afterDate OR (a.dateCandidature = :afterDate AND a.id < :afterId))";
+
+    @Query(SUMMARY_SELECT + "WHERE a.candidat = :candidat AND " + DATE_KEYSET +
+           " ORDER BY a.dateCandidature DESC, a.id DESC")
+    List<ApplicationSummary> findByCandidatBefore(@Param("candidat") Utilisateur candidat,
+                                           @Param("afterDate") LocalDateTime afterDate,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE a.jobOffre = :jobOffre AND a.scoreGlobal IS NOT NULL AND " + SCORE_KEYSET +
+           " ORDER BY a.scoreGlobal DESC, a.dateCandidature DESC, a.id DESC")
+    List<ApplicationSummary> findByJobOffreScoredBefore(@Param("jobOffre") JobOffre jobOffre,
+                                                 @Param("afterScore") Double afterScore,
+                                                 @Param("afterDate") LocalDateTime afterDate,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
+    // Candidatures scorées après le curseur, puis toutes les candidatures sans score
+    @Query(SUMMARY_SELECT + "WHERE j.employeur = :employeur AND " +
+           "(a.scoreGlobal IS NULL OR " + SCORE_KEYSET + ")" +
+           " ORDER BY a.scoreGlobal DESC NULLS LAST, a.dateCandidature DESC, a.id DESC")
+    List<ApplicationSummary> findByEmployeurScoredBefore(@Param("employeur") Utilisateur employeur,
+                                                  @Param("afterScore") Double afterScore,
+                                                  @Param("afterDate") LocalDateTime afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    // Suite de la liste quand le curseur est déjà dans les candidatures sans score
+    @Query(SUMMARY_SELECT + "WHERE j.employeur = :employeur AND a.scoreGlobal IS NULL AND " + DATE_KEYSET +
+           " ORDER BY a.dateCandidature DESC, a.id DESC")
+    List<ApplicationSummary> findByEmployeurUnscoredBefore(@Param("employeur") Utilisateur employeur,
+                                                    @Param("afterDate") LocalDateTime afterDate,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    // Empreinte du CV calculée à la volée pour les candidatures antérieures à la colonne cv_file_hash
+    @Modifying
+    @Transactional
+    @Query("UPDATE Application a SET a.cvFileHash = :hash WHERE a.id = :id")
+    int updateCvFileHash(@Param("id") Long id, @Param("hash") String hash);
+
     // Candidatures avec score ordonné par score décroissant
-    @Query("SELECT a FROM Application a WHERE a.jobOffre = :jobOffre AND a.scoreGlobal IS NOT NULL ORDER BY a.scoreGlobal DESC")
-    Page<Application> findByJobOffreOrderByScoreDesc(@Param("jobOffre") JobOffre jobOffre, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE a.jobOffre = :jobOffre AND a.scoreGlobal IS NOT NULL ORDER BY a.scoreGlobal DESC",
+           countQuery = "SELECT COUNT(a) FROM Application a WHERE a.jobOffre = :jobOffre AND a.scoreGlobal IS NOT NULL")
+    Page<ApplicationSummary> findByJobOffreOrderByScoreDesc(@Param("jobOffre") JobOffre jobOffre, Pageable pageable);
+    
+    // Re-scoring en masse : id, version d'embedding de la candidature et CV courant du candidat (avec son texte),
+    // par lots keyset sur l'id
+    @Query("SELECT a.id, v.vector, c FROM Application a JOIN a.candidat u JOIN u.cv c LEFT JOIN a.cvEmbedding v " +
+           "LEFT JOIN FETCH c.document " +
+           "WHERE a.jobOffre.id = :jobOffreId AND a.id > :afterId ORDER BY a.id")
+    List<Object[]> findRescoringRowsAfter(@Param("jobOffreId") Long jobOffreId,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+    
+    Long countByJobOffreId(Long jobOffreId);
+    
+    @Query("SELECT DISTINCT a.jobOffre.id FROM Application a")
+    List<Long> findDistinctJobOffreIds();
+    
+    // Re-pondération : score global recalculé à partir des sous-scores stockés, en une seule requête ensembliste
+    // (sous-scores absents remplacés par les valeurs neutres de MatchingService)
+    String WEIGHTED_GLOBAL_SCORE = "a.scoreGlobal = :wTech * COALESCE(a.scoreCompetencesTechniques, 0.6) " +
+            "+ :wExp * COALESCE(a.scoreExperience, 0.6) + :wLang * COALESCE(a.scoreLangues, 0.7) " +
+            "+ :wSoft * COALESCE(a.scoreCompetencesTransversales, 0.6) + :wEdu * COALESCE(a.scoreFormation, 0.7)";
+    
+    @Modifying
+    @Query("UPDATE Application a SET " + WEIGHTED_GLOBAL_SCORE + " WHERE a.scoreGlobal IS NOT NULL AND a.jobOffre.id = :jobOffreId")
+    int reweightByJobOffre(@Param("jobOffreId") Long jobOffreId,
+                           @Param("wTech") double wTech, @Param("wExp") double wExp, @Param("wLang") double wLang,
+                           @Param("wSoft") double wSoft, @Param("wEdu") double wEdu);
+    
+    // Offres de l'employeur sans profil de pondération propre
+    @Modifying
+    @Query("UPDATE Application a SET " + WEIGHTED_GLOBAL_SCORE + " WHERE a.scoreGlobal IS NOT NULL AND a.jobOffre.id IN " +
+           "(SELECT j.id FROM JobOffre j WHERE j.employeur.id = :employeurId AND j.id NOT IN " +
+           "(SELECT p.jobOffreId FROM ScoringProfile p WHERE p.jobOffreId IS NOT NULL))")
+    int reweightByEmployeur(@Param("employeurId") Long employeurId,
+                            @Param("wTech") double wTech, @Param("wExp") double wExp, @Param("wLang") double wLang,
+                            @Param("wSoft") double wSoft, @Param("wEdu") double wEdu);
+    
+    // Offres sans profil propre dont l'employeur n'a pas de profil non plus
+    @Modifying
+    @Query("UPDATE Application a SET " + WEIGHTED_GLOBAL_SCORE + " WHERE a.scoreGlobal IS NOT NULL AND a.jobOffre.id IN " +
+           "(SELECT j.id FROM JobOffre j WHERE j.id NOT IN " +
+           "(SELECT p.jobOffreId FROM ScoringProfile p WHERE p.jobOffreId IS NOT NULL) AND j.employeur.id NOT IN " +
+           "(SELECT p.employeurId FROM ScoringProfile p WHERE p.employeurId IS NOT NULL))")
+    int reweightWithDefaultProfile(@Param("wTech") double wTech, @Param("wExp") double wExp, @Param("wLang") double wLang,
+                                   @Param("wSoft") double wSoft, @Param("wEdu") double wEdu);
     
     // Statistiques pour un employeur
     @Query("SELECT COUNT(a) FROM Application a WHERE a.jobOffre.employeur = :employeur")
@@ -0,0 +1,66 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.Application;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection des listes de candidatures (ApplicationRepository.SUMMARY_SELECT) : colonnes affichées de la
+ * candidature, du candidat et de l'offre en une requête, sans metadata, version d'embedding ni snapshot JSON du CV
+ * (renvoyé seulement pour une candidature seule) et sans hydrater les entités Utilisateur / Cv / JobOffre.
+ */
+public record ApplicationSummary(
+        Long id,
+        Application.StatutCandidature statut,
+        LocalDateTime dateCandidature,
+        LocalDateTime dateModification,
+        String lettreMotivation,
+        String cvFilePath,
+        String commentairePublic,
+        Double scoreGlobal,
+        Double scoreCompetencesTechniques,
+        Double scoreCompetencesTransversales,
+        Double scoreExperience,
+        Double scoreFormation,
+        Double scoreLangues,
+        Double scoreCosinus,
+        String commentaireEmployeur,
+        Long candidatId,
+        String candidatNom,
+        String candidatPrenom,
+        String candidatEmail,
+        Long jobOffreId,
+        String jobOffreTitre,
+        String jobOffreEntreprise,
+        String jobOffreLocalisation) {
+
+    /**
+     * Même projection construite depuis une entité déjà chargée (candidature créée ou modifiée)
+     */
+    public static ApplicationSummary of(Application application) {
+        return new ApplicationSummary(
+                application.getId(),
+                application.getStatut(),
+                application.getDateCandidature(),
+                application.getDateModification(),
+                application.getLettreMotivation(),
+                application.getCvFilePath(),
+                application.getCommentairePublic(),
+                application.getScoreGlobal(),
+                application.getScoreCompetencesTechniques(),
+                application.getScoreCompetencesTransversales(),
+                application.getScoreExperience(),
+                application.getScoreFormation(),
+                application.getScoreLangues(),
+                application.getScoreCosinus(),
+                application.getCommentaireEmployeur(),
+                application.getCandidat().getId(),
+                application.getCandidat().getNom(),
+                application.getCandidat().getPrenom(),
+                application.getCandidat().getEmail(),
+                application.getJobOffre().getId(),
+                application.getJobOffre().getTitre(),
+                application.getJobOffre().getEntreprise(),
+                application.getJobOffre().getLocalisation());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.CvJobMatch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CvJobMatchRepository extends JpaRepository<CvJobMatch, Long> {
+    
+    // Meilleures offres d'un CV (index perspective, cv_id, score)
+    List<CvJobMatch> findByPerspectiveAndCvIdOrderByScoreDesc(CvJobMatch.Perspective perspective, Long cvId, Pageable pageable);
+    
+    // Meilleurs CV d'une offre (index perspective, job_offre_id, score)
+    List<CvJobMatch> findByPerspectiveAndJobOffreIdOrderByScoreDesc(CvJobMatch.Perspective perspective, Long jobOffreId, Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.example.jobvector.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection du profil candidat exposé au sourcing (CvRepository.findProfileSummariesByIds) : ni le texte
+ * extrait, ni l'embedding, ni le chemin du fichier ne sont lus.
+ */
+public record CvProfileSummary(
+        Long id,
+        String nom,
+        String prenom,
+        String email,
+        String competencesTechniques,
+        String competencesTransversales,
+        Integer experienceAnnees,
+        String niveauEtude,
+        String langues,
+        String resumeProfessionnel,
+        LocalDateTime dateModification) {
+}
@@ -1,11 +1,16 @@
 package com.example.jobvector.Repository;
 
 import com.example.jobvector.Model.Cv;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,8 +19,42 @@ public interface CvRepository extends JpaRepository<Cv, Long> {
     @Query("SELECT c FROM Cv c WHERE c.utilisateur.id = :utilisateurId")
     Optional<Cv> findByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
     
+    // CV avec son texte extrait, pour les heuristiques de matching exécutées hors transaction
+    @Query("SELECT c FROM Cv c LEFT JOIN FETCH c.document WHERE c.utilisateur.id = :utilisateurId")
+    Optional<Cv> findWithDocumentByUtilisateurId(@Param("utilisateurId") Long utilisateurId);
+    
     @Query("SELECT c FROM Cv c WHERE c.utilisateur.email = :email")
     Optional<Cv> findByUtilisateurEmail(@Param("email") String email);
     
     boolean existsByUtilisateurId(Long utilisateurId);
-}
\ No newline at end of file
+
+    // Profils candidats du sourcing, sans texte extrait ni embedding
+    @Query("SELECT new com.example.jobvector.Repository.CvProfileSummary(c.id, c.nom, c.prenom, c.email, " +
+           "c.competencesTechniques, c.competencesTransversales, c.experienceAnnees, c.niveauEtude, c.langues, " +
+           "c.resumeProfessionnel, c.dateModification) FROM Cv c WHERE c.id IN :ids")
+    List<CvProfileSummary> findProfileSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Chargement par lots (keyset sur l'id) des embeddings de CV, pour l'index HNSW
+    @Query("SELECT c.id, v.vector FROM Cv c JOIN c.embeddingVersion v WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findEmbeddingsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id, v.vector FROM Cv c JOIN c.embeddingVersion v WHERE c.dateModification > :since " +
+           "AND c.id > :afterId ORDER BY c.id")
+    List<Object[]> findEmbeddingsModifiedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id FROM Cv c WHERE c.embeddingVersion IS NOT NULL")
+    List<Long> findIdsWithEmbedding();
+
+    // CV avec leur embedding courant en une requête (re-scoring halfvec)
+    @EntityGraph(attributePaths = "embeddingVersion")
+    List<Cv> findWithEmbeddingByIdIn(Collection<Long> ids);
+
+    @Query("SELECT v.vector FROM Cv c JOIN c.embeddingVersion v WHERE c.id = :id")
+    Optional<String> findEmbeddingVectorById(@Param("id") Long id);
+
+    // Génération de candidats sur la colonne halfvec des embeddings (PostgreSQL + pgvector), à re-scorer en pleine précision
+    @Query(value = "SELECT c.id FROM cvs c JOIN embeddings e ON e.id = c.embedding_id " +
+           "WHERE e.owner_type = 'CV' AND e.embedding_half IS NOT NULL " +
+           "ORDER BY e.embedding_half <=> CAST(:query AS halfvec) LIMIT :limit", nativeQuery = true)
+    List<Long> findNearestIdsByHalfvec(@Param("query") String query, @Param("limit") int limit);
+}
@@ -0,0 +1,20 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.Embedding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmbeddingRepository extends JpaRepository<Embedding, Long> {
+
+    // Versions d'un propriétaire qui ne sont plus ni courantes (CV / offre) ni référencées par une candidature
+    @Modifying
+    @Query("DELETE FROM Embedding e WHERE e.ownerType = :ownerType AND e.ownerId = :ownerId " +
+           "AND NOT EXISTS (SELECT c.id FROM Cv c WHERE c.embeddingVersion = e) " +
+           "AND NOT EXISTS (SELECT j.id FROM JobOffre j WHERE j.embeddingVersion = e) " +
+           "AND NOT EXISTS (SELECT a.id FROM Application a WHERE a.cvEmbedding = e)")
+    int deleteUnreferencedVersions(@Param("ownerType") Embedding.OwnerType ownerType, @Param("ownerId") Long ownerId);
+}
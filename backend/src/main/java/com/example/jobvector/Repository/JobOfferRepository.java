@@ -4,20 +4,39 @@ import com.example.jobvector.Model.JobOffre;
 import com.example.jobvector.Model.Utilisateur;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JobOfferRepository extends JpaRepository<JobOffre, Long> {
 
+    // Listes d'offres : projection JobOffreSummary (sans l'embedding, employeur joint dans la même requête)
+    String SUMMARY_SELECT = "SELECT new com.example.jobvector.Repository.JobOffreSummary(" +
+            "j.id, j.titre, j.description, j.localisation, j.datePublication, j.statut, j.version, j.dateModification, " +
+            "j.entreprise, j.typeContrat, j.salaire, j.experience, j.competencesTechniques, j.competencesTransversales, " +
+            "j.experienceMinRequise, j.niveauEtudeMin, j.languesRequises, j.secteurActivite, j.missionPrincipale, " +
+            "j.responsabilites, j.outilsTechnologies, j.typePoste, j.modaliteTravail, " +
+            "e.id, e.nom, e.prenom, e.email, LENGTH(v.vector)) " +
+            "FROM JobOffre j LEFT JOIN j.employeur e LEFT JOIN j.embeddingVersion v ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE j.id IN :ids")
+    List<JobOffreSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
     // Recherche par employeur
     Page<JobOffre> findByEmployeur(Utilisateur employeur, Pageable pageable);
+
+    // Filtre sur la clé étrangère : "j.employeur = :employeur" viserait la jointure externe e et empêcherait l'index
+    @Query(value = SUMMARY_SELECT + "WHERE j.employeur.id = :employeurId",
+           countQuery = "SELECT COUNT(j) FROM JobOffre j WHERE j.employeur.id = :employeurId")
+    Page<JobOffreSummary> findSummariesByEmployeur(@Param("employeurId") Long employeurId, Pageable pageable);
     List<JobOffre> findByEmployeurId(Long employeurId);
 
     // Recherche par statut
@@ -65,8 +84,8 @@ public interface JobOfferRepository extends JpaRepository<JobOffre, Long> {
     // Recherche dans les outils/technologies
     Page<JobOffre> findByOutilsTechnologiesContainingIgnoreCase(String outils, Pageable pageable);
 
-    // Recherche complexe avec plusieurs critères - Version corrigée pour PostgreSQL
-    @Query(value = "SELECT * FROM job_offres j WHERE " +
+    // Recherche complexe avec plusieurs critères - Version corrigée pour PostgreSQL (ids, projections lues ensuite)
+    @Query(value = "SELECT j.id FROM job_offres j WHERE " +
            "(:titre IS NULL OR j.titre ILIKE CONCAT('%', :titre, '%')) AND " +
            "(:localisation IS NULL OR j.localisation ILIKE CONCAT('%', :localisation, '%')) AND " +
            "(:secteurActivite IS NULL OR j.secteur_activite ILIKE CONCAT('%', :secteurActivite, '%')) AND " +
@@ -85,7 +104,7 @@ public interface JobOfferRepository extends JpaRepository<JobOffre, Long> {
            "(:salaireMin IS NULL OR j.salaire >= :salaireMin) AND " +
            "(:statut IS NULL OR j.statut = :statut)",
            nativeQuery = true)
-    Page<JobOffre> findWithFilters(
+    Page<Long> findIdsWithFilters(
             @Param("titre") String titre,
             @Param("localisation") String localisation,
             @Param("secteurActivite") String secteurActivite,
@@ -97,8 +116,42 @@ public interface JobOfferRepository extends JpaRepository<JobOffre, Long> {
             Pageable pageable
     );
 
-    // Recherche textuelle dans la description - Version native PostgreSQL
-    @Query(value = "SELECT * FROM job_offres j WHERE " +
+    // Pagination par clé (datePublication, id) des offres actives, sans OFFSET ni COUNT
+    @Query(SUMMARY_SELECT + "WHERE j.statut = 'ACTIVE' AND " +
+           "(j.datePublication < :afterDate OR (j.datePublication = :afterDate AND j.id < :afterId)) " +
+           "ORDER BY j.datePublication DESC, j.id DESC")
+    List<JobOffreSummary> findActiveBefore(@Param("afterDate") LocalDateTime afterDate,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    // Recherche avec filtres, pagination par clé (datePublication, id)
+    @Query(SUMMARY_SELECT + "WHERE " +
+           "(:titre IS NULL OR j.titre ILIKE CONCAT('%', :titre, '%')) AND " +
+           "(:localisation IS NULL OR j.localisation ILIKE CONCAT('%', :localisation, '%')) AND " +
+           "(:secteurActivite IS NULL OR j.secteurActivite ILIKE CONCAT('%', :secteurActivite, '%')) AND " +
+           "(:typePoste IS NULL OR j.typePoste = :typePoste) AND " +
+           "(:modaliteTravail IS NULL OR j.modaliteTravail = :modaliteTravail) AND " +
+           "(:experienceMin IS NULL OR j.experienceMinRequise <= :experienceMin) AND " +
+           "(:salaireMin IS NULL OR j.salaire >= :salaireMin) AND " +
+           "j.statut = :statut AND " +
+           "(j.datePublication < :afterDate OR (j.datePublication = :afterDate AND j.id < :afterId)) " +
+           "ORDER BY j.datePublication DESC, j.id DESC")
+    List<JobOffreSummary> findWithFiltersBefore(
+            @Param("titre") String titre,
+            @Param("localisation") String localisation,
+            @Param("secteurActivite") String secteurActivite,
+            @Param("typePoste") JobOffre.TypePoste typePoste,
+            @Param("modaliteTravail") JobOffre.ModaliteTravail modaliteTravail,
+            @Param("experienceMin") Integer experienceMin,
+            @Param("salaireMin") Double salaireMin,
+            @Param("statut") String statut,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // Recherche textuelle dans la description - Version native PostgreSQL (ids, projections lues ensuite)
+    @Query(value = "SELECT j.id FROM job_offres j WHERE " +
            "j.description ILIKE CONCAT('%', :keyword, '%') OR " +
            "j.titre ILIKE CONCAT('%', :keyword, '%') OR " +
            "j.competences_techniques ILIKE CONCAT('%', :keyword, '%') OR " +
@@ -111,7 +164,42 @@ public interface JobOfferRepository extends JpaRepository<JobOffre, Long> {
            "j.competences_transversales ILIKE CONCAT('%', :keyword, '%') OR " +
            "j.outils_technologies ILIKE CONCAT('%', :keyword, '%')",
            nativeQuery = true)
-    Page<JobOffre> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    Page<Long> searchIdsByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    // Recherche plein texte classée par ts_rank (PostgreSQL uniquement, colonne générée search_vector + index GIN)
+    @Query(value = "SELECT j.id FROM job_offres j, " +
+           "(SELECT websearch_to_tsquery('french', :keyword) || websearch_to_tsquery('english', :keyword) AS q) query " +
+           "WHERE j.search_vector @@ query.q " +
+           "ORDER BY ts_rank(j.search_vector, query.q) DESC, j.date_publication DESC, j.id DESC",
+           countQuery = "SELECT COUNT(*) FROM job_offres j " +
+           "WHERE j.search_vector @@ (websearch_to_tsquery('french', :keyword) || websearch_to_tsquery('english', :keyword))",
+           nativeQuery = true)
+    Page<Long> searchIdsByFullText(@Param("keyword") String keyword, Pageable pageable);
+
+    // Volet lexical plein texte de la recherche hybride (PostgreSQL uniquement)
+    @Query(value = "SELECT j.id FROM job_offres j, " +
+           "(SELECT websearch_to_tsquery('french', :keyword) || websearch_to_tsquery('english', :keyword) AS q) query " +
+           "WHERE j.statut = 'ACTIVE' AND j.search_vector @@ query.q " +
+           "ORDER BY ts_rank(j.search_vector, query.q) DESC, j.id DESC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findFullTextCandidateIds(@Param("keyword") String keyword, @Param("limit") int limit);
+
+    // Volet lexical de la recherche hybride : ids des offres actives, les correspondances sur le titre d'abord
+    @Query(value = "SELECT j.id FROM job_offres j WHERE j.statut = 'ACTIVE' AND (" +
+           "j.titre ILIKE CONCAT('%', :keyword, '%') OR " +
+           "j.competences_techniques ILIKE CONCAT('%', :keyword, '%') OR " +
+           "j.outils_technologies ILIKE CONCAT('%', :keyword, '%') OR " +
+           "j.competences_transversales ILIKE CONCAT('%', :keyword, '%') OR " +
+           "j.description ILIKE CONCAT('%', :keyword, '%')) " +
+           "ORDER BY CASE " +
+           "WHEN j.titre ILIKE CONCAT('%', :keyword, '%') THEN 0 " +
+           "WHEN j.competences_techniques ILIKE CONCAT('%', :keyword, '%') " +
+           "OR j.outils_technologies ILIKE CONCAT('%', :keyword, '%') THEN 1 " +
+           "ELSE 2 END, j.date_publication DESC, j.id DESC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<Long> findLexicalCandidateIds(@Param("keyword") String keyword, @Param("limit") int limit);
 
     // Compter les offres par employeur
     Long countByEmployeur(Utilisateur employeur);
@@ -120,10 +208,36 @@ public interface JobOfferRepository extends JpaRepository<JobOffre, Long> {
     Long countByStatut(String statut);
 
     // Offres actives non expirées (dateExpiration removed)
-    @Query("SELECT j FROM JobOffre j WHERE j.statut = 'ACTIVE'")
-    Page<JobOffre> findActiveNonExpired(Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE j.statut = 'ACTIVE'",
+           countQuery = "SELECT COUNT(j) FROM JobOffre j WHERE j.statut = 'ACTIVE'")
+    Page<JobOffreSummary> findActiveNonExpired(Pageable pageable);
 
     // Offres récentes (dernières 30 jours)
-    @Query("SELECT j FROM JobOffre j WHERE j.datePublication >= :dateDebut ORDER BY j.datePublication DESC")
-    Page<JobOffre> findRecentOffers(@Param("dateDebut") LocalDateTime dateDebut, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + "WHERE j.datePublication >= :dateDebut ORDER BY j.datePublication DESC",
+           countQuery = "SELECT COUNT(j) FROM JobOffre j WHERE j.datePublication >= :dateDebut")
+    Page<JobOffreSummary> findRecentOffers(@Param("dateDebut") LocalDateTime dateDebut, Pageable pageable);
+
+    // Chargement par lots (keyset sur l'id) des offres actives, pour l'index plein texte en mémoire
+    @Query("SELECT j FROM JobOffre j WHERE j.statut = 'ACTIVE' AND j.id > :afterId ORDER BY j.id")
+    List<JobOffre> findActiveAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Chargement par lots (keyset sur l'id) des embeddings des offres actives, pour l'index vectoriel en mémoire
+    @Query("SELECT j.id, v.vector FROM JobOffre j JOIN j.embeddingVersion v WHERE j.statut = 'ACTIVE' AND j.id > :afterId ORDER BY j.id")
+    List<Object[]> findActiveEmbeddingsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Offres avec leur embedding courant en une requête (re-scoring, scores de matching, traitements en arrière-plan)
+    @EntityGraph(attributePaths = "embeddingVersion")
+    List<JobOffre> findWithEmbeddingByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "embeddingVersion")
+    Optional<JobOffre> findWithEmbeddingById(Long id);
+
+    @Query("SELECT v.vector FROM JobOffre j JOIN j.embeddingVersion v WHERE j.id = :id")
+    Optional<String> findEmbeddingVectorById(@Param("id") Long id);
+
+    // Génération de candidats sur la colonne halfvec des embeddings (PostgreSQL + pgvector), à re-scorer en pleine précision
+    @Query(value = "SELECT j.id FROM job_offres j JOIN embeddings e ON e.id = j.embedding_id " +
+           "WHERE j.statut = 'ACTIVE' AND e.owner_type = 'JOB_OFFER' AND e.embedding_half IS NOT NULL " +
+           "ORDER BY e.embedding_half <=> CAST(:query AS halfvec) LIMIT :limit", nativeQuery = true)
+    List<Long> findNearestActiveIdsByHalfvec(@Param("query") String query, @Param("limit") int limit);
 }
@@ -0,0 +1,18 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.JobOffreStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobOffreStatsRepository extends JpaRepository<JobOffreStats, Long> {
+    
+    // Tableau de bord employeur : agrégats, titre et statut de chaque offre, les plus récentes d'abord
+    @Query("SELECT s, j.titre, j.statut FROM JobOffreStats s JOIN JobOffre j ON j.id = s.jobOffreId " +
+           "WHERE s.employeurId = :employeurId ORDER BY j.datePublication DESC, j.id DESC")
+    List<Object[]> findDashboardRows(@Param("employeurId") Long employeurId);
+}
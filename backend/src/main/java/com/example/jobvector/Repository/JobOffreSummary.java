@@ -0,0 +1,78 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection des listes d'offres : les colonnes affichées, lues par une expression constructeur JPQL
+ * (JobOfferRepository.SUMMARY_SELECT). L'embedding n'est ni transféré ni hydraté (seule sa longueur est lue)
+ * et les champs affichés de l'employeur viennent d'une jointure dans la même requête.
+ */
+public record JobOffreSummary(
+        Long id,
+        String titre,
+        String description,
+        String localisation,
+        LocalDateTime datePublication,
+        String statut,
+        Long version,
+        LocalDateTime dateModification,
+        String entreprise,
+        String typeContrat,
+        Double salaire,
+        Integer experience,
+        String competencesTechniques,
+        String competencesTransversales,
+        Integer experienceMinRequise,
+        JobOffre.NiveauEtude niveauEtudeMin,
+        String languesRequises,
+        String secteurActivite,
+        String missionPrincipale,
+        String responsabilites,
+        String outilsTechnologies,
+        JobOffre.TypePoste typePoste,
+        JobOffre.ModaliteTravail modaliteTravail,
+        Long employeurId,
+        String employeurNom,
+        String employeurPrenom,
+        String employeurEmail,
+        Integer embeddingLength) {
+
+    /**
+     * Même projection construite depuis une entité déjà chargée (détail d'une offre, création, modification)
+     */
+    public static JobOffreSummary of(JobOffre jobOffre) {
+        Utilisateur employeur = jobOffre.getEmployeur();
+        return new JobOffreSummary(
+                jobOffre.getId(),
+                jobOffre.getTitre(),
+                jobOffre.getDescription(),
+                jobOffre.getLocalisation(),
+                jobOffre.getDatePublication(),
+                jobOffre.getStatut(),
+                jobOffre.getVersion(),
+                jobOffre.getDateModification(),
+                jobOffre.getEntreprise(),
+                jobOffre.getTypeContrat(),
+                jobOffre.getSalaire(),
+                jobOffre.getExperience(),
+                jobOffre.getCompetencesTechniques(),
+                jobOffre.getCompetencesTransversales(),
+                jobOffre.getExperienceMinRequise(),
+                jobOffre.getNiveauEtudeMin(),
+                jobOffre.getLanguesRequises(),
+                jobOffre.getSecteurActivite(),
+                jobOffre.getMissionPrincipale(),
+                jobOffre.getResponsabilites(),
+                jobOffre.getOutilsTechnologies(),
+                jobOffre.getTypePoste(),
+                jobOffre.getModaliteTravail(),
+                employeur != null ? employeur.getId() : null,
+                employeur != null ? employeur.getNom() : null,
+                employeur != null ? employeur.getPrenom() : null,
+                employeur != null ? employeur.getEmail() : null,
+                jobOffre.getEmbedding() != null ? jobOffre.getEmbedding().length() : null);
+    }
+}
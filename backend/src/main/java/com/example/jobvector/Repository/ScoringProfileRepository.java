@@ -0,0 +1,19 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.ScoringProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ScoringProfileRepository extends JpaRepository<ScoringProfile, Long> {
+    
+    Optional<ScoringProfile> findFirstByScope(ScoringProfile.Scope scope);
+    
+    Optional<ScoringProfile> findByScopeAndEmployeurId(ScoringProfile.Scope scope, Long employeurId);
+    
+    Optional<ScoringProfile> findByScopeAndJobOffreId(ScoringProfile.Scope scope, Long jobOffreId);
+    
+    void deleteByScopeAndJobOffreId(ScoringProfile.Scope scope, Long jobOffreId);
+}
@@ -0,0 +1,13 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.Utilisateur;
+
+import java.util.Optional;
+
+/**
+ * Recherche par e-mail via l'identifiant naturel : servie par le cache de second niveau quand il est actif
+ */
+public interface UtilisateurNaturalIdRepository {
+
+    Optional<Utilisateur> findByEmail(String email);
+}
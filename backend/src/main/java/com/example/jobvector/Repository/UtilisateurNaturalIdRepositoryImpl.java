@@ -0,0 +1,24 @@
+package com.example.jobvector.Repository;
+
+import com.example.jobvector.Model.Utilisateur;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UtilisateurNaturalIdRepositoryImpl implements UtilisateurNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Utilisateur> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Utilisateur.class).loadOptional(email);
+    }
+}
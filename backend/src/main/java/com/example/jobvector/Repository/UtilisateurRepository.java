@@ -3,9 +3,5 @@ package com.example.jobvector.Repository;
 import com.example.jobvector.Model.Utilisateur;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
-
-public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
-
-    Optional<Utilisateur> findByEmail(String email);
+public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long>, UtilisateurNaturalIdRepository {
 }
@@ -0,0 +1,405 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.AuthenticatedUser;
+import com.example.jobvector.Config.Workload;
+import com.example.jobvector.Dto.RescoringJobDto;
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Repository.ApplicationRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-scoring en masse des candidatures d'une offre (ou de toutes les offres).
+ *
+ * Les vecteurs des exigences de l'offre sont calculés une seule fois, puis les candidatures sont lues par
+ * lots keyset, scorées en parallèle dans un ForkJoinPool dédié (calcul purement CPU sur les vecteurs déjà
+ * chargés) et écrites par batch JDBC. Les traitements passent un par un dans une file mono-thread, avec
+ * une pause configurable entre deux lots pour limiter la charge sur la base.
+ */
+@Service
+public class ApplicationRescoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationRescoringService.class);
+
+    private static final String UPDATE_SCORES_SQL = "UPDATE applications SET score_global = ?, " +
+            "score_competences_techniques = ?, score_competences_transversales = ?, score_experience = ?, " +
+            "score_formation = ?, score_langues = ?, score_cosinus = ?, date_modification = ? WHERE id = ?";
+
+    // Nombre de traitements terminés conservés pour la consultation de l'avancement
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JobOffreStatsService jobOffreStatsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.rescoring.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.rescoring.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.rescoring.pause-between-batches-ms:0}")
+    private long pauseBetweenBatchesMs;
+
+    @Value("${app.rescoring.on-job-offer-update:true}")
+    private boolean rescoreOnJobOfferUpdate;
+
+    private final Map<String, RescoringJob> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService jobExecutor;
+    private ForkJoinPool scoringPool;
+
+    @PostConstruct
+    public void init() {
+        jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(Workload.BATCH.wrap(runnable), "application-rescoring");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        scoringPool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelled = true);
+        jobExecutor.shutdownNow();
+        scoringPool.shutdownNow();
+    }
+
+    // ===== DÉCLENCHEMENT =====
+
+    /**
+     * Recalculer les scores de toutes les candidatures d'une offre (EMPLOYEUR propriétaire ou ADMIN)
+     */
+    public RescoringJobDto rescoreJobOffer(Long jobOfferId) {
+        RescoringJobDto response = new RescoringJobDto();
+
+        Optional<AuthenticatedUser> currentUser = getCurrentUser();
+        if (currentUser.isEmpty()) {
+            response.setStatusCode(404);
+            response.setMessage("Utilisateur non trouvé");
+            return response;
+        }
+
+        Optional<JobOffre> jobOfferOptional = jobOfferRepository.findById(jobOfferId);
+        if (jobOfferOptional.isEmpty()) {
+            response.setStatusCode(404);
+            response.setMessage("Offre d'emploi non trouvée");
+            return response;
+        }
+
+        if (!canAccess(currentUser.get(), jobOfferOptional.get().getEmployeur().getId())) {
+            response.setStatusCode(403);
+            response.setMessage("Vous n'avez pas le droit de recalculer les scores de cette offre");
+            return response;
+        }
+
+        RescoringJob job = submit(jobOfferId, jobOfferOptional.get().getEmployeur().getId());
+        response = toDto(job);
+        response.setStatusCode(202);
+        response.setMessage("Recalcul des scores lancé");
+        return response;
+    }
+
+    /**
+     * Recalculer les scores des candidatures de toutes les offres (ADMIN), après un changement des règles de matching
+     */
+    public RescoringJobDto rescoreAllJobOffers() {
+        RescoringJob job = submit(null, null);
+        RescoringJobDto response = toDto(job);
+        response.setStatusCode(202);
+        response.setMessage("Recalcul des scores de toutes les candidatures lancé");
+        return response;
+    }
+
+    /**
+     * Relancer automatiquement le re-scoring quand les critères de matching d'une offre ont changé
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (!rescoreOnJobOfferUpdate || event.getType() != JobOfferChangedEvent.Type.UPDATED
+                || !event.isMatchingCriteriaChanged()) {
+            return;
+        }
+
+        // Un re-scoring encore en cours pour cette offre travaille sur les anciens critères
+        jobs.values().stream()
+                .filter(job -> Objects.equals(job.jobOffreId, event.getJobOfferId()) && !job.isFinished())
+                .forEach(job -> job.cancelled = true);
+
+        submit(event.getJobOfferId(), event.getJobOffre().getEmployeur().getId());
+    }
+
+    // ===== SUIVI =====
+
+    /**
+     * Consulter l'avancement d'un re-scoring
+     */
+    public RescoringJobDto getRescoringJob(String jobId) {
+        RescoringJobDto response = new RescoringJobDto();
+        RescoringJob job = jobs.get(jobId);
+        Optional<AuthenticatedUser> currentUser = getCurrentUser();
+
+        if (job == null || currentUser.isEmpty() || !canAccess(currentUser.get(), job.ownerId)) {
+            response.setStatusCode(404);
+            response.setMessage("Traitement de re-scoring non trouvé");
+            return response;
+        }
+
+        response = toDto(job);
+        response.setStatusCode(200);
+        response.setMessage("Avancement du re-scoring récupéré");
+        return response;
+    }
+
+    /**
+     * Annuler un re-scoring (il s'arrête à la fin du lot en cours)
+     */
+    public RescoringJobDto cancelRescoringJob(String jobId) {
+        RescoringJobDto response = getRescoringJob(jobId);
+        if (response.getStatusCode() != 200) {
+            return response;
+        }
+
+        RescoringJob job = jobs.get(jobId);
+        if (job.isFinished()) {
+            response.setStatusCode(409);
+            response.setMessage("Le re-scoring est déjà terminé");
+            return response;
+        }
+
+        job.cancelled = true;
+        response.setMessage("Annulation demandée");
+        return response;
+    }
+
+    // ===== TRAITEMENT =====
+
+    private RescoringJob submit(Long jobOffreId, Long ownerId) {
+        RescoringJob job = new RescoringJob(UUID.randomUUID().toString(), jobOffreId, ownerId);
+        evictFinishedJobs();
+        jobs.put(job.id, job);
+        jobExecutor.submit(() -> run(job));
+        return job;
+    }
+
+    private void run(RescoringJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.status = "RUNNING";
+        long start = System.currentTimeMillis();
+
+        try {
+            List<Long> jobOffreIds = job.jobOffreId != null
+                    ? List.of(job.jobOffreId)
+                    : applicationRepository.findDistinctJobOffreIds().stream().sorted().toList();
+
+            for (Long jobOffreId : jobOffreIds) {
+                job.total.addAndGet(applicationRepository.countByJobOffreId(jobOffreId));
+            }
+
+            for (Long jobOffreId : jobOffreIds) {
+                if (job.cancelled) {
+                    break;
+                }
+                rescoreApplications(job, jobOffreId);
+                jobOffreStatsService.refreshScores(jobOffreId);
+            }
+
+            job.status = job.cancelled ? "CANCELLED" : "COMPLETED";
+            logger.info("Re-scoring {} terminé ({}): {} candidatures recalculées, {} en échec en {} ms",
+                    job.id, job.status, job.processed.get(), job.failed.get(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.errorMessage = e.getMessage();
+            logger.error("Erreur lors du re-scoring {}: {}", job.id, e.getMessage());
+        } finally {
+            job.completedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Re-scorer toutes les candidatures d'une offre, lot par lot
+     */
+    private void rescoreApplications(RescoringJob job, Long jobOffreId) throws Exception {
+        Optional<JobOffre> jobOfferOptional = jobOfferRepository.findWithEmbeddingById(jobOffreId);
+        if (jobOfferOptional.isEmpty()) {
+            return;
+        }
+
+        JobOffre jobOffer = jobOfferOptional.get();
+        // Un seul appel au service d'embedding pour toute l'offre
+        JobRequirementVectors requirements = matchingService.prepareRequirementVectors(jobOffer);
+
+        TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+
+        long afterId = 0L;
+        while (!job.cancelled) {
+            final long cursor = afterId;
+            List<Object[]> rows = readTransaction.execute(status ->
+                    applicationRepository.findRescoringRowsAfter(jobOffreId, cursor, PageRequest.of(0, batchSize)));
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+
+            List<Object[]> updates = scoringPool.submit(() -> rows.parallelStream()
+                    .map(row -> score(jobOffer, requirements, row))
+                    .toList()).get();
+
+            List<Object[]> batchArgs = new ArrayList<>(updates.size());
+            for (Object[] update : updates) {
+                if (update != null) {
+                    batchArgs.add(update);
+                }
+            }
+            writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SCORES_SQL, batchArgs));
+
+            job.processed.addAndGet(batchArgs.size());
+            job.failed.addAndGet(updates.size() - batchArgs.size());
+
+            if (pauseBetweenBatchesMs > 0 && rows.size() == batchSize) {
+                TimeUnit.MILLISECONDS.sleep(pauseBetweenBatchesMs);
+            }
+        }
+    }
+
+    /**
+     * Scorer une candidature : retourne les paramètres de l'UPDATE, ou null en cas d'échec (embedding manquant
+     * compris : les scores existants sont conservés plutôt qu'écrasés par des scores par défaut)
+     */
+    private Object[] score(JobOffre jobOffer, JobRequirementVectors requirements, Object[] row) {
+        Long applicationId = (Long) row[0];
+        try {
+            float[] cvVector = EmbeddingVectors.parse((String) row[1]);
+            Map<String, Double> scores = matchingService
+                    .tryCalculateMatchingScores((Cv) row[2], cvVector, jobOffer, requirements).orElse(null);
+            if (scores == null) {
+                return null;
+            }
+
+            return new Object[] {
+                    scores.getOrDefault("global", 0.0),
+                    scores.getOrDefault("competencesTechniques", 0.0),
+                    scores.getOrDefault("competencesTransversales", 0.0),
+                    scores.getOrDefault("experience", 0.0),
+                    scores.getOrDefault("formation", 0.0),
+                    scores.getOrDefault("langues", 0.0),
+                    scores.getOrDefault("cosineBaseline", 0.0),
+                    Timestamp.valueOf(LocalDateTime.now()),
+                    applicationId
+            };
+        } catch (Exception e) {
+            logger.warn("Re-scoring impossible pour la candidature {}: {}", applicationId, e.getMessage());
+            return null;
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES =====
+
+    private Optional<AuthenticatedUser> getCurrentUser() {
+        return AuthenticatedUser.current();
+    }
+
+    private boolean canAccess(AuthenticatedUser user, Long ownerId) {
+        return user.hasRole("ADMIN") || (ownerId != null && ownerId.equals(user.id()));
+    }
+
+    private void evictFinishedJobs() {
+        List<RescoringJob> finished = jobs.values().stream()
+                .filter(RescoringJob::isFinished)
+                .sorted(Comparator.comparing((RescoringJob job) -> job.completedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS + 1; i++) {
+            jobs.remove(finished.get(i).id);
+        }
+    }
+
+    private RescoringJobDto toDto(RescoringJob job) {
+        RescoringJobDto dto = new RescoringJobDto();
+        dto.setJobId(job.id);
+        dto.setJobOffreId(job.jobOffreId);
+        dto.setStatus(job.cancelled && !job.isFinished() ? "CANCELLING" : job.status);
+        dto.setTotal(job.total.get());
+        dto.setProcessed(job.processed.get());
+        dto.setFailed(job.failed.get());
+        dto.setCreatedAt(job.createdAt);
+        dto.setStartedAt(job.startedAt);
+        dto.setCompletedAt(job.completedAt);
+        dto.setErrorMessage(job.errorMessage);
+        return dto;
+    }
+
+    /**
+     * État en mémoire d'un traitement de re-scoring
+     */
+    private static final class RescoringJob {
+
+        private final String id;
+        private final Long jobOffreId;
+        private final Long ownerId;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile String status = "PENDING";
+        private volatile boolean cancelled = false;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime completedAt;
+        private volatile String errorMessage;
+
+        RescoringJob(String id, Long jobOffreId, Long ownerId) {
+            this.id = id;
+            this.jobOffreId = jobOffreId;
+            this.ownerId = ownerId;
+        }
+
+        boolean isFinished() {
+            return completedAt != null;
+        }
+    }
+}
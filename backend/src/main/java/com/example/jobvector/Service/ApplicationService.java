@@ -1,5 +1,6 @@
 package com.example.jobvector.Service;
 
+import com.example.jobvector.Config.AuthenticatedUser;
 import com.example.jobvector.Dto.ApplicationDto;
 
 import com.example.jobvector.Model.Application;
@@ -7,6 +8,7 @@ import com.example.jobvector.Model.Cv;
 import com.example.jobvector.Model.JobOffre;
 import com.example.jobvector.Model.Utilisateur;
 import com.example.jobvector.Repository.ApplicationRepository;
+import com.example.jobvector.Repository.ApplicationSummary;
 import com.example.jobvector.Repository.CvRepository;
 import com.example.jobvector.Repository.JobOfferRepository;
 import com.example.jobvector.Repository.UtilisateurRepository;
@@ -16,18 +18,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -55,6 +60,9 @@ public class ApplicationService {
     @Autowired
     private MatchingService matchingService;
     
+    @Autowired
+    private JobOffreStatsService jobOffreStatsService;
+    
     @Value("${app.upload.cv.directory}")
     private String cvDirectory;
     
@@ -70,8 +78,7 @@ public class ApplicationService {
         
         try {
             // Récupérer l'utilisateur connecté
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
             
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -82,7 +89,7 @@ public class ApplicationService {
             Utilisateur candidat = utilisateurOptional.get();
             
             // Vérifier que l'utilisateur est un candidat
-            if (!"CANDIDATE".equals(candidat.getRole())) {
+            if (!currentUserHasRole("CANDIDATE")) {
                 response.setStatusCode(403);
                 response.setMessage("Seuls les candidats peuvent postuler aux offres d'emploi");
                 return response;
@@ -134,10 +141,8 @@ public class ApplicationService {
             String cvDataSnapshot = createCvDataSnapshot(cv);
             application.setCvDataSnapshot(cvDataSnapshot);
             
-            // Copier l'embedding du CV
-            if (cv.getEmbedding() != null) {
-                application.setCvEmbedding(cv.getEmbedding());
-            }
+            // Référencer la version courante de l'embedding du CV (table embeddings)
+            application.setCvEmbedding(cv.getEmbeddingVersion());
             
             // Générer un nom de fichier temporaire pour le CV
             String tempFileName = String.format("%d_%d_%d.pdf", 
@@ -152,6 +157,7 @@ public class ApplicationService {
             try {
                 cvCopyPath = copyCvForApplicationWithFileName(cv, tempFileName);
                 application.setCvFilePath(cvCopyPath);
+                application.setCvFileHash(sha256(Paths.get(cvCopyPath)));
                 
                 // Sauvegarder la candidature avec le chemin du CV
                 savedApplication = applicationRepository.save(application);
@@ -172,6 +178,8 @@ public class ApplicationService {
                            savedApplication.getId(), e.getMessage());
             }
             
+            jobOffreStatsService.recordApplication(savedApplication);
+            
             response = convertToDto(savedApplication);
             response.setStatusCode(201);
             response.setMessage("Votre candidature a été soumise avec succès");
@@ -188,12 +196,12 @@ public class ApplicationService {
     /**
      * Récupérer les candidatures du candidat connecté
      */
+    @Transactional(readOnly = true)
     public ApplicationDto getMyCandidatures(int page, int size) {
         ApplicationDto response = new ApplicationDto();
         
         try {
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
             
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -204,7 +212,7 @@ public class ApplicationService {
             Utilisateur candidat = utilisateurOptional.get();
             
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateCandidature"));
-            Page<Application> applicationsPage = applicationRepository.findByCandidat(candidat, pageable);
+            Page<ApplicationSummary> applicationsPage = applicationRepository.findByCandidat(candidat, pageable);
             
             response = convertToDto(applicationsPage, false); // false = ne pas inclure les scores
             response.setStatusCode(200);
@@ -219,6 +227,48 @@ public class ApplicationService {
         return response;
     }
     
+    /**
+     * Récupérer les candidatures du candidat connecté par curseur (dateCandidature, id), sans COUNT par défaut
+     */
+    @Transactional(readOnly = true)
+    public ApplicationDto getMyCandidaturesByCursor(String cursor, int size, boolean withTotal) {
+        ApplicationDto response = new ApplicationDto();
+        
+        try {
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
+            
+            if (utilisateurOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+            
+            Utilisateur candidat = utilisateurOptional.get();
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            
+            List<ApplicationSummary> applications = applicationRepository.findByCandidatBefore(
+                    candidat, position.date(), position.id(), PageRequest.of(0, cursorPageSize(size) + 1));
+            
+            response = convertToDto(applications, cursorPageSize(size), false, false);
+            if (withTotal) {
+                response.setTotalElements(applicationRepository.countByCandidat(candidat));
+                response.setTotalApproximatif(false);
+            }
+            response.setStatusCode(200);
+            response.setMessage("Candidatures récupérées avec succès");
+            
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setMessage("Curseur de pagination invalide");
+        } catch (Exception e) {
+            logger.error("Erreur lors de la récupération des candidatures: {}", e.getMessage(), e);
+            response.setStatusCode(500);
+            response.setMessage("Erreur interne du serveur");
+        }
+        
+        return response;
+    }
+    
     /**
      * Retirer une candidature
      */
@@ -226,8 +276,7 @@ public class ApplicationService {
         ApplicationDto response = new ApplicationDto();
         
         try {
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
             
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -262,8 +311,10 @@ public class ApplicationService {
             }
             
             // Marquer comme retirée
+            Application.StatutCandidature previousStatut = application.getStatut();
             application.setStatut(Application.StatutCandidature.RETIREE);
             applicationRepository.save(application);
+            jobOffreStatsService.recordStatusChange(application, previousStatut);
             
             response = convertToDto(application);
             response.setStatusCode(200);
@@ -283,12 +334,12 @@ public class ApplicationService {
     /**
      * Récupérer les candidatures reçues pour les offres de l'employeur
      */
+    @Transactional(readOnly = true)
     public ApplicationDto getReceivedApplications(Long jobOfferId, int page, int size) {
         ApplicationDto response = new ApplicationDto();
         
         try {
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
             
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -298,7 +349,7 @@ public class ApplicationService {
             
             Utilisateur employeur = utilisateurOptional.get();
             
-            Page<Application> applicationsPage;
+            Page<ApplicationSummary> applicationsPage;
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "scoreGlobal", "dateCandidature"));
             
             if (jobOfferId != null) {
@@ -338,6 +389,84 @@ public class ApplicationService {
         return response;
     }
     
+    /**
+     * Récupérer les candidatures reçues par curseur (scoreGlobal, dateCandidature, id), sans COUNT par défaut
+     */
+    @Transactional(readOnly = true)
+    public ApplicationDto getReceivedApplicationsByCursor(Long jobOfferId, String cursor, int size, boolean withTotal) {
+        ApplicationDto response = new ApplicationDto();
+        
+        try {
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
+            
+            if (utilisateurOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+            
+            Utilisateur employeur = utilisateurOptional.get();
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            Pageable pageable = PageRequest.of(0, cursorPageSize(size) + 1);
+            
+            List<ApplicationSummary> applications;
+            Long total = null;
+            
+            if (jobOfferId != null) {
+                // Candidatures scorées d'une offre spécifique
+                Optional<JobOffre> jobOfferOptional = jobOfferRepository.findById(jobOfferId);
+                if (jobOfferOptional.isEmpty()) {
+                    response.setStatusCode(404);
+                    response.setMessage("Offre d'emploi non trouvée");
+                    return response;
+                }
+                
+                JobOffre jobOffer = jobOfferOptional.get();
+                
+                // Vérifier que l'offre appartient à l'employeur
+                if (!jobOffer.getEmployeur().getId().equals(employeur.getId())) {
+                    response.setStatusCode(403);
+                    response.setMessage("Vous n'avez pas accès aux candidatures de cette offre");
+                    return response;
+                }
+                
+                applications = position.score() != null
+                        ? applicationRepository.findByJobOffreScoredBefore(jobOffer, position.score(), position.date(), position.id(), pageable)
+                        : List.of();
+                if (withTotal) {
+                    // Compte toutes les candidatures de l'offre, y compris celles pas encore scorées
+                    total = applicationRepository.countByJobOffre(jobOffer);
+                }
+            } else {
+                // Toutes les candidatures de l'employeur : scorées d'abord, puis sans score
+                applications = position.score() != null
+                        ? applicationRepository.findByEmployeurScoredBefore(employeur, position.score(), position.date(), position.id(), pageable)
+                        : applicationRepository.findByEmployeurUnscoredBefore(employeur, position.date(), position.id(), pageable);
+                if (withTotal) {
+                    total = applicationRepository.countByEmployeur(employeur);
+                }
+            }
+            
+            response = convertToDto(applications, cursorPageSize(size), true, true);
+            if (total != null) {
+                response.setTotalElements(total);
+                response.setTotalApproximatif(jobOfferId != null);
+            }
+            response.setStatusCode(200);
+            response.setMessage("Candidatures récupérées avec succès");
+            
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setMessage("Curseur de pagination invalide");
+        } catch (Exception e) {
+            logger.error("Erreur lors de la récupération des candidatures: {}", e.getMessage(), e);
+            response.setStatusCode(500);
+            response.setMessage("Erreur interne du serveur");
+        }
+        
+        return response;
+    }
+    
     /**
      * Changer le statut d'une candidature
      */
@@ -346,8 +475,7 @@ public class ApplicationService {
         ApplicationDto response = new ApplicationDto();
         
         try {
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
             
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -375,6 +503,7 @@ public class ApplicationService {
             }
             
             // Mettre à jour le statut et les commentaires
+            Application.StatutCandidature previousStatut = application.getStatut();
             application.setStatut(newStatus);
             if (commentaireEmployeur != null) {
                 application.setCommentaireEmployeur(commentaireEmployeur);
@@ -384,6 +513,7 @@ public class ApplicationService {
             }
             
             applicationRepository.save(application);
+            jobOffreStatsService.recordStatusChange(application, previousStatut);
             
             response = convertToDto(application);
             response.setStatusCode(200);
@@ -399,6 +529,45 @@ public class ApplicationService {
     }
     
     // ===== MÉTHODES UTILITAIRES =====
+
+    /**
+     * Référence vers l'utilisateur authentifié construite depuis le principal du token, sans lecture en base
+     * (l'entité n'est chargée que si un autre champ que l'id est lu)
+     */
+    private Optional<Utilisateur> getCurrentUtilisateur() {
+        return AuthenticatedUser.current().map(user -> utilisateurRepository.getReferenceById(user.id()));
+    }
+
+    private static boolean currentUserHasRole(String role) {
+        return AuthenticatedUser.current().map(user -> user.hasRole(role)).orElse(false);
+    }
+    
+    /**
+     * Empreinte SHA-256 de la copie du CV d'une candidature, calculée et enregistrée à la première demande
+     * pour les candidatures antérieures à la colonne cv_file_hash
+     */
+    public String getOrComputeCvFileHash(Application application) throws IOException {
+        if (application.getCvFileHash() == null) {
+            String hash = sha256(Paths.get(application.getCvFilePath()));
+            applicationRepository.updateCvFileHash(application.getId(), hash);
+            application.setCvFileHash(hash);
+        }
+        return application.getCvFileHash();
+    }
+    
+    private static String sha256(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
     
     /**
      * Copier le CV pour une candidature spécifique avec un nom de fichier personnalisé
@@ -493,7 +662,8 @@ public class ApplicationService {
         try {
             if (matchingService != null && application.getCandidat() != null && application.getCandidat().getCv() != null) {
                 Cv candidateCv = application.getCandidat().getCv();
-                Map<String, Double> scores = matchingService.calculateMatchingScores(application.getCvEmbedding(), 
+                String cvEmbedding = application.getCvEmbedding() != null ? application.getCvEmbedding().getVector() : null;
+                Map<String, Double> scores = matchingService.calculateMatchingScores(cvEmbedding, 
                                                                                    application.getJobOffre(),
                                                                                    candidateCv);
                 
@@ -502,6 +672,8 @@ public class ApplicationService {
                 application.setScoreCompetencesTransversales(scores.getOrDefault("competencesTransversales", 0.0));
                 application.setScoreExperience(scores.getOrDefault("experience", 0.0));
                 application.setScoreFormation(scores.getOrDefault("formation", 0.0));
+                application.setScoreLangues(scores.getOrDefault("langues", 0.0));
+                application.setScoreCosinus(scores.getOrDefault("cosineBaseline", 0.0));
                 
                 applicationRepository.save(application);
             }
@@ -511,38 +683,70 @@ public class ApplicationService {
     }
     
     /**
-     * Convertir Application en DTO
+     * Convertir Application en DTO, avec le snapshot du CV (absent des listes)
      */
     private ApplicationDto convertToDto(Application application) {
-        ApplicationDto dto = new ApplicationDto();
-        dto.setId(application.getId());
-        dto.setStatut(application.getStatut());
-        dto.setDateCandidature(application.getDateCandidature());
-        dto.setDateModification(application.getDateModification());
-        dto.setLettreMotivation(application.getLettreMotivation());
-        dto.setCvFilePath(application.getCvFilePath());
-        dto.setCommentairePublic(application.getCommentairePublic());
+        ApplicationDto dto = convertToDto(ApplicationSummary.of(application));
         dto.setCvDataSnapshot(application.getCvDataSnapshot());
+        return dto;
+    }
+    
+    /**
+     * Convertir une projection ApplicationSummary en DTO (sans les scores)
+     */
+    private ApplicationDto convertToDto(ApplicationSummary application) {
+        ApplicationDto dto = new ApplicationDto();
+        dto.setId(application.id());
+        dto.setStatut(application.statut());
+        dto.setDateCandidature(application.dateCandidature());
+        dto.setDateModification(application.dateModification());
+        dto.setLettreMotivation(application.lettreMotivation());
+        dto.setCvFilePath(application.cvFilePath());
+        dto.setCommentairePublic(application.commentairePublic());
         
         // Informations du candidat
-        dto.setCandidatId(application.getCandidat().getId());
-        dto.setCandidatNom(application.getCandidat().getNom());
-        dto.setCandidatPrenom(application.getCandidat().getPrenom());
-        dto.setCandidatEmail(application.getCandidat().getEmail());
+        dto.setCandidatId(application.candidatId());
+        dto.setCandidatNom(application.candidatNom());
+        dto.setCandidatPrenom(application.candidatPrenom());
+        dto.setCandidatEmail(application.candidatEmail());
         
         // Informations de l'offre
-        dto.setJobOffreId(application.getJobOffre().getId());
-        dto.setJobOffreTitre(application.getJobOffre().getTitre());
-        dto.setJobOffreEntreprise(application.getJobOffre().getEntreprise());
-        dto.setJobOffreLocalisation(application.getJobOffre().getLocalisation());
+        dto.setJobOffreId(application.jobOffreId());
+        dto.setJobOffreTitre(application.jobOffreTitre());
+        dto.setJobOffreEntreprise(application.jobOffreEntreprise());
+        dto.setJobOffreLocalisation(application.jobOffreLocalisation());
+        
+        return dto;
+    }
+    
+    /**
+     * Page lue par curseur : `applications` contient jusqu'à size + 1 candidatures, la dernière indiquant qu'il reste une page
+     */
+    private ApplicationDto convertToDto(List<ApplicationSummary> applications, int size, boolean includeScores, boolean scoreCursor) {
+        List<ApplicationSummary> pageContent = applications.size() > size ? applications.subList(0, size) : applications;
+        ApplicationDto dto = convertToDto(new PageImpl<>(pageContent), includeScores);
+        dto.setPage(null);
+        dto.setSize(size);
+        dto.setTotalElements(null);
+        dto.setTotalPages(null);
+        
+        if (applications.size() > size) {
+            ApplicationSummary last = pageContent.get(pageContent.size() - 1);
+            dto.setNextCursor(new KeysetCursor(scoreCursor ? last.scoreGlobal() : null,
+                    last.dateCandidature(), last.id()).encode());
+        }
         
         return dto;
     }
     
+    private static int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+    
     /**
-     * Convertir Page<Application> en DTO avec gestion des scores
+     * Convertir Page<ApplicationSummary> en DTO avec gestion des scores
      */
-    private ApplicationDto convertToDto(Page<Application> applicationsPage, boolean includeScores) {
+    private ApplicationDto convertToDto(Page<ApplicationSummary> applicationsPage, boolean includeScores) {
         ApplicationDto dto = new ApplicationDto();
         
         List<ApplicationDto> applicationDtos = applicationsPage.getContent().stream()
@@ -551,12 +755,14 @@ public class ApplicationService {
                     
                     // Inclure les scores seulement si demandé (pour les employeurs)
                     if (includeScores) {
-                        appDto.setScoreGlobal(app.getScoreGlobal());
-                        appDto.setScoreCompetencesTechniques(app.getScoreCompetencesTechniques());
-                        appDto.setScoreCompetencesTransversales(app.getScoreCompetencesTransversales());
-                        appDto.setScoreExperience(app.getScoreExperience());
-                        appDto.setScoreFormation(app.getScoreFormation());
-                        appDto.setCommentaireEmployeur(app.getCommentaireEmployeur());
+                        appDto.setScoreGlobal(app.scoreGlobal());
+                        appDto.setScoreCompetencesTechniques(app.scoreCompetencesTechniques());
+                        appDto.setScoreCompetencesTransversales(app.scoreCompetencesTransversales());
+                        appDto.setScoreExperience(app.scoreExperience());
+                        appDto.setScoreFormation(app.scoreFormation());
+                        appDto.setScoreLangues(app.scoreLangues());
+                        appDto.setScoreCosinus(app.scoreCosinus());
+                        appDto.setCommentaireEmployeur(app.commentaireEmployeur());
                     }
                     
                     return appDto;
@@ -1,5 +1,6 @@
 package com.example.jobvector.Service;
 
+import com.example.jobvector.Config.AsyncConfig;
 import com.example.jobvector.Dto.CvDto;
 import com.example.jobvector.Model.Cv;
 import com.example.jobvector.Model.CvProcessingJob;
@@ -9,6 +10,7 @@ import com.example.jobvector.Repository.CvRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,11 +35,20 @@ public class AsyncCvProcessingService {
     @Autowired
     private PythonEmbeddingService pythonEmbeddingService;
     
+    @Autowired
+    private EmbeddingStorageService embeddingStorageService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
     /**
      * Process CV asynchronously in the background
      * This method runs in a separate thread and updates job status throughout processing
      */
-    @Async
+    @Async(AsyncConfig.CV_PROCESSING_EXECUTOR)
     @Transactional
     public void processCvAsync(Long jobId, String texteExtrait) {
         CvProcessingJob job = jobRepository.findById(jobId)
@@ -102,8 +113,9 @@ public class AsyncCvProcessingService {
             // Generate embedding
             String embedding = pythonEmbeddingService.generateCvEmbedding(cv);
             if (embedding != null && !embedding.isEmpty()) {
-                cv.setEmbedding(embedding);
-                cvRepository.save(cv);
+                cv = embeddingStorageService.saveCvEmbedding(cv, embedding);
+                eventPublisher.publishEvent(new CvChangedEvent(CvChangedEvent.Type.UPSERTED, cv));
+                cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.CV, cv.getId());
                 logger.info("Embedding generated for job ID: {}", jobId);
             } else {
                 logger.warn("Failed to generate embedding for job ID: {}", jobId);
@@ -0,0 +1,221 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.Workload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bus d'invalidation des caches en mémoire entre les instances du backend, sur PostgreSQL LISTEN/NOTIFY.
+ *
+ * JobOfferService, CvService, UserManagementService et ScoringProfileService publient l'identifiant de chaque offre,
+ * CV, utilisateur ou profil de pondération écrit ; chaque autre instance le reçoit sur une connexion dédiée (hors des pools) et le republie localement en
+ * CacheInvalidationEvent, que les caches écoutent pour évincer les éléments concernés. Une notification émise dans
+ * une transaction n'est diffusée qu'à son commit. Après une coupure de la connexion d'écoute, les notifications
+ * perdues ne sont pas rejouées : tous les caches sont vidés à la reconnexion, avec le dernier instant où l'écoute
+ * fonctionnait pour que les index persistants ne rattrapent que la période de coupure.
+ * Inactif hors PostgreSQL (tests) ou avec app.cache-invalidation.enabled=false.
+ * Métriques Micrometer : jobvector.cache.invalidation{direction=published|received}.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "jobvector_cache_invalidation";
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache-invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache-invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    // Identifie les notifications émises par cette instance, déjà appliquées localement
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean active;
+    private Thread listenerThread;
+
+    // Dernier instant où la connexion d'écoute a répondu : toute notification antérieure a été reçue
+    private volatile LocalDateTime listeningUntil;
+
+    private Counter published;
+    private Counter received;
+
+    @PostConstruct
+    public void init() {
+        published = Counter.builder("jobvector.cache.invalidation").tag("direction", "published").register(meterRegistry);
+        received = Counter.builder("jobvector.cache.invalidation").tag("direction", "received").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !isPostgreSql()) {
+            logger.info("Bus d'invalidation des caches inactif");
+            return;
+        }
+
+        active = true;
+        listeningUntil = LocalDateTime.now();
+        listenerThread = new Thread(Workload.BACKGROUND.wrap(this::listen), "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        active = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    // ===== PUBLICATION =====
+
+    /**
+     * Annoncer aux autres instances l'écriture d'un élément (dans la transaction en cours s'il y en a une)
+     */
+    public void publish(CacheInvalidationEvent.Kind kind, Long id) {
+        if (!active || id == null) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, nodeId + "|" + kind + "|" + id);
+            published.increment();
+        } catch (DataAccessException e) {
+            // Le TTL des caches reste le filet de sécurité
+            logger.warn("Invalidation {} {} non diffusée: {}", kind, id, e.getMessage());
+        }
+    }
+
+    // ===== RÉCEPTION =====
+
+    /**
+     * Appliquer une notification reçue : nœud émetteur|type|id, ignorée si elle vient de cette instance
+     */
+    public void receive(String payload) {
+        String[] parts = payload != null ? payload.split("\\|") : new String[0];
+        if (parts.length != 3) {
+            logger.warn("Notification d'invalidation illisible: {}", payload);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+
+        CacheInvalidationEvent event;
+        try {
+            event = new CacheInvalidationEvent(CacheInvalidationEvent.Kind.valueOf(parts[1]), Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Notification d'invalidation illisible: {}", payload);
+            return;
+        }
+        deliver(event);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void deliver(CacheInvalidationEvent event) {
+        received.increment();
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            logger.error("Erreur lors de l'invalidation {} {}: {}", event.getKind(), event.getId(), e.getMessage());
+        }
+    }
+
+    private void listen() {
+        boolean missed = false;
+        while (active) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                logger.info("Bus d'invalidation des caches à l'écoute (nœud {})", nodeId);
+
+                if (missed) {
+                    // Notifications manquées depuis la dernière écoute réussie : tout invalider
+                    for (CacheInvalidationEvent.Kind kind : CacheInvalidationEvent.Kind.values()) {
+                        deliver(new CacheInvalidationEvent(kind, null, listeningUntil));
+                    }
+                    missed = false;
+                }
+
+                while (active) {
+                    LocalDateTime polledAt = LocalDateTime.now();
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    listeningUntil = polledAt;
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!active) {
+                    return;
+                }
+                missed = true;
+                logger.warn("Connexion du bus d'invalidation perdue: {} ; nouvelle tentative dans {} ms",
+                        e.getMessage(), reconnectDelayMs);
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isPostgreSql() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.jobvector.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Invalidation reçue d'un autre nœud par CacheInvalidationBus, publiée localement pour que chaque cache en mémoire
+ * évince les éléments concernés. Les écritures faites sur ce nœud passent, elles, par JobOfferChangedEvent et
+ * CvChangedEvent (ou par Hibernate pour le cache de second niveau).
+ *
+ * id null : tout le contenu du type est à invalider (notifications perdues pendant une reconnexion du bus) ; since
+ * donne alors le dernier instant où le bus était à l'écoute, à partir duquel les écritures ont pu être manquées.
+ */
+public class CacheInvalidationEvent {
+
+    public enum Kind {
+        JOB_OFFER, USER, CV, SCORING_PROFILE
+    }
+
+    private final Kind kind;
+    private final Long id;
+    private final LocalDateTime since;
+
+    public CacheInvalidationEvent(Kind kind, Long id) {
+        this(kind, id, null);
+    }
+
+    public CacheInvalidationEvent(Kind kind, Long id, LocalDateTime since) {
+        this.kind = kind;
+        this.id = id;
+        this.since = since;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public boolean isAll() {
+        return id == null;
+    }
+
+    public boolean concerns(Kind kind) {
+        return this.kind == kind;
+    }
+}
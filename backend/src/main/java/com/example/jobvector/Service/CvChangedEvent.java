@@ -0,0 +1,34 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.Cv;
+
+/**
+ * Événement publié lorsqu'un CV est enregistré avec son embedding ou supprimé.
+ * Écouté après le commit de la transaction par les composants qui indexent les CV.
+ */
+public class CvChangedEvent {
+
+    public enum Type {
+        UPSERTED, DELETED
+    }
+
+    private final Type type;
+    private final Cv cv;
+
+    public CvChangedEvent(Type type, Cv cv) {
+        this.type = type;
+        this.cv = cv;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Cv getCv() {
+        return cv;
+    }
+
+    public Long getCvId() {
+        return cv.getId();
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.Workload;
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.CvJobMatch;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maintenance de la table cv_job_matches : top-N des offres de chaque CV et top-N des CV de chaque offre.
+ *
+ * Chaque changement de CV ou d'offre est traité de manière incrémentale dans une file mono-thread
+ * en arrière-plan : seules les listes touchées sont recalculées (le CV ou l'offre modifié, les listes
+ * dans lesquelles il entre ou dont il sort). Les tableaux de bord lisent ensuite ces classements
+ * par une simple requête indexée, sans aucun calcul vectoriel à la lecture.
+ * Un changement reçu avant que l'index vectoriel nécessaire soit prêt est noté et retraité, à partir de l'état
+ * courant en base, dès que l'index l'est.
+ */
+@Service
+public class CvJobMatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CvJobMatchService.class);
+
+    private static final String CV = CvJobMatch.Perspective.CV.name();
+    private static final String JOB_OFFER = CvJobMatch.Perspective.JOB_OFFER.name();
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cv_job_matches (perspective, cv_id, job_offre_id, score, date_calcul) VALUES (?, ?, ?, ?, ?)";
+
+    // Délai entre deux tentatives (reconstruction, changements en attente) tant que les index vectoriels ne sont pas prêts
+    private static final long REBUILD_RETRY_SECONDS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JobOfferVectorIndex jobOfferVectorIndex;
+
+    @Autowired
+    private CvVectorIndex cvVectorIndex;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Value("${app.matches.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.matches.top-n:50}")
+    private int topN;
+
+    // Nombre de CV (resp. d'offres) examinés lorsqu'une offre (resp. un CV) peut entrer dans des classements existants
+    @Value("${app.matches.fanout:200}")
+    private int fanout;
+
+    @Value("${app.matches.load-batch-size:500}")
+    private int loadBatchSize;
+
+    private ScheduledExecutorService executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    // CV et offres reçus avant que l'index vectoriel soit prêt (lus et modifiés sur le seul thread de l'executor)
+    private final Set<Long> pendingCvs = new HashSet<>();
+    private final Set<Long> pendingJobOffers = new HashSet<>();
+    private boolean pendingRetryScheduled = false;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(Workload.BATCH.wrap(runnable), "cv-job-matches");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===== DÉCLENCHEMENT =====
+
+    /**
+     * Construire les classements au premier démarrage (table vide), une fois les index vectoriels prêts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeOnStartup() {
+        if (!enabled) {
+            return;
+        }
+
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cv_job_matches", Long.class);
+        if (count != null && count == 0) {
+            scheduleRebuild(0);
+        }
+    }
+
+    /**
+     * Reconstruire entièrement les classements en arrière-plan
+     */
+    public void rebuildAsync() {
+        scheduleRebuild(0);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCvChanged(CvChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        Long cvId = event.getCvId();
+        if (event.getType() == CvChangedEvent.Type.DELETED) {
+            submit(() -> removeCv(cvId));
+        } else {
+            float[] vector = EmbeddingVectors.parse(event.getCv().getEmbedding());
+            submit(() -> upsertCv(cvId, vector));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        JobOffre jobOffre = event.getJobOffre();
+        Long jobOfferId = jobOffre.getId();
+        if (event.getType() == JobOfferChangedEvent.Type.DELETED || !"ACTIVE".equals(jobOffre.getStatut())) {
+            submit(() -> removeJobOffer(jobOfferId));
+        } else {
+            float[] vector = EmbeddingVectors.parse(jobOffre.getEmbedding());
+            submit(() -> upsertJobOffer(jobOfferId, vector));
+        }
+    }
+
+    // ===== MISE À JOUR INCRÉMENTALE =====
+
+    /**
+     * Un CV a été créé ou ré-analysé : recalculer ses meilleures offres et l'insérer dans le classement
+     * des offres proches (les {@code fanout} plus proches) dont il dépasse le dernier CV retenu
+     */
+    private void upsertCv(Long cvId, float[] vector) {
+        if (vector == null) {
+            removeCv(cvId);
+            return;
+        }
+        if (!jobOfferVectorIndex.isReady()) {
+            markPending(pendingCvs, cvId);
+            return;
+        }
+
+        // Parcours exact de l'index en mémoire, limité aux offres les plus proches du CV
+        List<VectorMatch> nearestOffers = jobOfferVectorIndex.searchExact(vector, Math.max(topN, fanout));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> previousOffers = findJobOffersContaining(cvId);
+            jdbcTemplate.update("DELETE FROM cv_job_matches WHERE cv_id = ?", cvId);
+
+            insertList(CV, cvId, nearestOffers.subList(0, Math.min(topN, nearestOffers.size())), true);
+
+            Map<Long, Threshold> thresholds = findThresholds(JOB_OFFER, "job_offre_id",
+                    nearestOffers.stream().map(VectorMatch::id).collect(Collectors.toList()));
+            Set<Long> touchedOffers = new HashSet<>();
+            List<Object[]> rows = new ArrayList<>();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (VectorMatch match : nearestOffers) {
+                Threshold threshold = thresholds.get(match.id());
+                double score = EmbeddingVectors.toMatchingScore(match.similarity());
+                if (threshold == null || threshold.count() < topN || score > threshold.minScore()) {
+                    rows.add(new Object[] {JOB_OFFER, cvId, match.id(), score, now});
+                    touchedOffers.add(match.id());
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            touchedOffers.forEach(jobOfferId -> trim(JOB_OFFER, "job_offre_id", jobOfferId));
+
+            // Offres qui contenaient ce CV et dont il est sorti : compléter leur classement
+            previousOffers.removeAll(touchedOffers);
+            previousOffers.forEach(jobOfferId -> refillJobOffer(jobOfferId, cvId));
+        });
+    }
+
+    /**
+     * Un CV a été supprimé : le retirer partout et compléter les classements d'offres qui le contenaient
+     */
+    private void removeCv(Long cvId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> previousOffers = findJobOffersContaining(cvId);
+            jdbcTemplate.update("DELETE FROM cv_job_matches WHERE cv_id = ?", cvId);
+            previousOffers.forEach(jobOfferId -> refillJobOffer(jobOfferId, cvId));
+        });
+    }
+
+    /**
+     * Une offre active a été créée ou modifiée : recalculer ses meilleurs CV et l'insérer dans le classement
+     * des CV proches (les {@code fanout} plus proches) dont elle dépasse la dernière offre retenue
+     */
+    private void upsertJobOffer(Long jobOfferId, float[] vector) {
+        if (vector == null) {
+            removeJobOffer(jobOfferId);
+            return;
+        }
+        if (!cvVectorIndex.isReady()) {
+            markPending(pendingJobOffers, jobOfferId);
+            return;
+        }
+
+        List<VectorMatch> nearestCvs = cvVectorIndex.search(vector, Math.max(topN, fanout));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> previousCvs = findCvsContaining(jobOfferId);
+            jdbcTemplate.update("DELETE FROM cv_job_matches WHERE job_offre_id = ?", jobOfferId);
+
+            insertList(JOB_OFFER, jobOfferId, nearestCvs.subList(0, Math.min(topN, nearestCvs.size())), false);
+
+            Map<Long, Threshold> thresholds = findThresholds(CV, "cv_id",
+                    nearestCvs.stream().map(VectorMatch::id).collect(Collectors.toList()));
+            Set<Long> touchedCvs = new HashSet<>();
+            List<Object[]> rows = new ArrayList<>();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (VectorMatch match : nearestCvs) {
+                Threshold threshold = thresholds.get(match.id());
+                double score = EmbeddingVectors.toMatchingScore(match.similarity());
+                if (threshold == null || threshold.count() < topN || score > threshold.minScore()) {
+                    rows.add(new Object[] {CV, match.id(), jobOfferId, score, now});
+                    touchedCvs.add(match.id());
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            touchedCvs.forEach(cvId -> trim(CV, "cv_id", cvId));
+
+            previousCvs.removeAll(touchedCvs);
+            previousCvs.forEach(cvId -> refillCv(cvId, jobOfferId));
+        });
+    }
+
+    /**
+     * Une offre a été supprimée ou désactivée : la retirer partout et compléter les classements de CV
+     */
+    private void removeJobOffer(Long jobOfferId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> previousCvs = findCvsContaining(jobOfferId);
+            jdbcTemplate.update("DELETE FROM cv_job_matches WHERE job_offre_id = ?", jobOfferId);
+            previousCvs.forEach(cvId -> refillCv(cvId, jobOfferId));
+        });
+    }
+
+    /**
+     * Noter un CV ou une offre à retraiter et planifier une nouvelle tentative
+     */
+    private void markPending(Set<Long> pending, Long ownerId) {
+        pending.add(ownerId);
+        if (!pendingRetryScheduled) {
+            pendingRetryScheduled = true;
+            executor.schedule(this::processPending, REBUILD_RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Retraiter les changements en attente à partir de l'état courant en base (ils sont de nouveau notés
+     * si l'index n'est toujours pas prêt)
+     */
+    private void processPending() {
+        pendingRetryScheduled = false;
+
+        List<Long> cvIds = new ArrayList<>(pendingCvs);
+        pendingCvs.clear();
+        for (Long cvId : cvIds) {
+            run(() -> upsertCv(cvId, cvRepository.findEmbeddingVectorById(cvId).map(EmbeddingVectors::parse).orElse(null)));
+        }
+
+        List<Long> jobOfferIds = new ArrayList<>(pendingJobOffers);
+        pendingJobOffers.clear();
+        for (Long jobOfferId : jobOfferIds) {
+            run(() -> upsertJobOffer(jobOfferId, jobOfferRepository.findWithEmbeddingById(jobOfferId)
+                    .filter(jobOffre -> "ACTIVE".equals(jobOffre.getStatut()))
+                    .map(jobOffre -> EmbeddingVectors.parse(jobOffre.getEmbedding()))
+                    .orElse(null)));
+        }
+    }
+
+    // ===== RECONSTRUCTION COMPLÈTE =====
+
+    private void scheduleRebuild(long delaySeconds) {
+        executor.schedule(() -> {
+            if (!jobOfferVectorIndex.isReady() || !cvVectorIndex.isReady()) {
+                scheduleRebuild(REBUILD_RETRY_SECONDS);
+                return;
+            }
+            rebuild();
+        }, delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            jdbcTemplate.update("DELETE FROM cv_job_matches");
+
+            int cvs = 0;
+            long afterId = 0L;
+            while (true) {
+                List<Object[]> rows = cvRepository.findEmbeddingsAfter(afterId, PageRequest.of(0, loadBatchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    recomputeCv(afterId, EmbeddingVectors.parse((String) row[1]), null);
+                    cvs++;
+                }
+            }
+
+            int jobOffers = 0;
+            afterId = 0L;
+            while (true) {
+                List<Object[]> rows = jobOfferRepository.findActiveEmbeddingsAfter(afterId, PageRequest.of(0, loadBatchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    recomputeJobOffer(afterId, EmbeddingVectors.parse((String) row[1]), null);
+                    jobOffers++;
+                }
+            }
+
+            logger.info("Classements CV / offres reconstruits: {} CV, {} offres en {} ms",
+                    cvs, jobOffers, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Erreur lors de la reconstruction des classements CV / offres: {}", e.getMessage());
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES =====
+
+    /**
+     * Compléter le classement d'un CV après la sortie d'une offre (l'offre exclue peut encore être dans l'index)
+     */
+    private void refillCv(Long cvId, Long excludedJobOfferId) {
+        cvRepository.findEmbeddingVectorById(cvId)
+                .map(EmbeddingVectors::parse)
+                .ifPresent(vector -> recomputeCv(cvId, vector, excludedJobOfferId));
+    }
+
+    private void refillJobOffer(Long jobOfferId, Long excludedCvId) {
+        jobOfferRepository.findEmbeddingVectorById(jobOfferId)
+                .map(EmbeddingVectors::parse)
+                .ifPresent(vector -> recomputeJobOffer(jobOfferId, vector, excludedCvId));
+    }
+
+    private void recomputeCv(Long cvId, float[] vector, Long excludedJobOfferId) {
+        if (vector == null || !jobOfferVectorIndex.isReady()) {
+            return;
+        }
+        List<VectorMatch> matches = jobOfferVectorIndex.search(vector, topN + 1).stream()
+                .filter(match -> !match.id().equals(excludedJobOfferId))
+                .limit(topN)
+                .collect(Collectors.toList());
+
+        jdbcTemplate.update("DELETE FROM cv_job_matches WHERE perspective = ? AND cv_id = ?", CV, cvId);
+        insertList(CV, cvId, matches, true);
+    }
+
+    private void recomputeJobOffer(Long jobOfferId, float[] vector, Long excludedCvId) {
+        if (vector == null || !cvVectorIndex.isReady()) {
+            return;
+        }
+        List<VectorMatch> matches = cvVectorIndex.search(vector, topN + 1).stream()
+                .filter(match -> !match.id().equals(excludedCvId))
+                .limit(topN)
+                .collect(Collectors.toList());
+
+        jdbcTemplate.update("DELETE FROM cv_job_matches WHERE perspective = ? AND job_offre_id = ?", JOB_OFFER, jobOfferId);
+        insertList(JOB_OFFER, jobOfferId, matches, false);
+    }
+
+    /**
+     * Insérer le classement d'un CV (ownerIsCv) ou d'une offre
+     */
+    private void insertList(String perspective, Long ownerId, List<VectorMatch> matches, boolean ownerIsCv) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(matches.size());
+        for (VectorMatch match : matches) {
+            rows.add(new Object[] {
+                    perspective,
+                    ownerIsCv ? ownerId : match.id(),
+                    ownerIsCv ? match.id() : ownerId,
+                    EmbeddingVectors.toMatchingScore(match.similarity()),
+                    now
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Ne garder que les N meilleures lignes d'un classement
+     */
+    private void trim(String perspective, String ownerColumn, Long ownerId) {
+        jdbcTemplate.update("DELETE FROM cv_job_matches WHERE perspective = ? AND " + ownerColumn + " = ? AND id NOT IN " +
+                "(SELECT id FROM cv_job_matches WHERE perspective = ? AND " + ownerColumn + " = ? " +
+                "ORDER BY score DESC, id LIMIT ?)", perspective, ownerId, perspective, ownerId, topN);
+    }
+
+    /**
+     * Taille et plus faible score des classements des propriétaires donnés
+     */
+    private Map<Long, Threshold> findThresholds(String perspective, String ownerColumn, Collection<Long> ownerIds) {
+        Map<Long, Threshold> thresholds = new HashMap<>();
+        if (ownerIds.isEmpty()) {
+            return thresholds;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(ownerColumn)
+                .append(", COUNT(*), MIN(score) FROM cv_job_matches WHERE perspective = ? AND ").append(ownerColumn)
+                .append(" IN (").append(ownerIds.stream().map(id -> "?").collect(Collectors.joining(","))).append(")")
+                .append(" GROUP BY ").append(ownerColumn);
+        List<Object> args = new ArrayList<>();
+        args.add(perspective);
+        args.addAll(ownerIds);
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            thresholds.put(rs.getLong(1), new Threshold(rs.getInt(2), rs.getDouble(3)));
+        }, args.toArray());
+        return thresholds;
+    }
+
+    private Set<Long> findJobOffersContaining(Long cvId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT job_offre_id FROM cv_job_matches WHERE perspective = ? AND cv_id = ?", Long.class, JOB_OFFER, cvId));
+    }
+
+    private Set<Long> findCvsContaining(Long jobOfferId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT cv_id FROM cv_job_matches WHERE perspective = ? AND job_offre_id = ?", Long.class, CV, jobOfferId));
+    }
+
+    private void submit(Runnable task) {
+        executor.execute(() -> run(task));
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            logger.error("Erreur lors de la mise à jour des classements CV / offres: {}", e.getMessage());
+        }
+    }
+
+    private record Threshold(int count, double minScore) {
+    }
+}
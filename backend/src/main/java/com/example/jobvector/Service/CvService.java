@@ -11,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -38,6 +39,15 @@ public class CvService {
     @Autowired
     private PythonEmbeddingService pythonEmbeddingService;
     
+    @Autowired
+    private EmbeddingStorageService embeddingStorageService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+    
     @Value("${app.upload.cv.directory}")
     private String uploadDirectory;
     
@@ -91,12 +101,13 @@ public class CvService {
             String embedding = pythonEmbeddingService.generateCvEmbedding(cv);
             
             if (embedding != null && !embedding.isEmpty()) {
-                cv.setEmbedding(embedding);
-                cv = cvRepository.save(cv);
+                cv = embeddingStorageService.saveCvEmbedding(cv, embedding);
+                eventPublisher.publishEvent(new CvChangedEvent(CvChangedEvent.Type.UPSERTED, cv));
                 logger.info("Embedding vectoriel généré et sauvegardé pour le CV ID: {}", cv.getId());
             } else {
                 logger.warn("Échec de la génération d'embedding pour le CV ID: {}", cv.getId());
             }
+            cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.CV, cv.getId());
             
             logger.info("CV uploadé avec succès pour l'utilisateur: {} - Embedding généré", utilisateur.getEmail());
             
@@ -136,6 +147,8 @@ public class CvService {
         
         // Supprimer l'enregistrement de la base de données
         cvRepository.delete(cv);
+        eventPublisher.publishEvent(new CvChangedEvent(CvChangedEvent.Type.DELETED, cv));
+        cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.CV, cv.getId());
         
         logger.info("CV supprimé avec succès pour l'utilisateur ID: {}", utilisateurId);
     }
@@ -0,0 +1,1008 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.Workload;
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Repository.CvRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index HNSW (graphe de plus proches voisins approximatifs) des embeddings de CV, pour le sourcing
+ * de candidats par les employeurs.
+ *
+ * Le graphe vit hors du tas Java, dans un fichier mappé en mémoire : chaque nœud est un enregistrement
+ * de taille fixe (id du CV, niveau, marqueur de suppression, vecteur normalisé, listes de voisins par niveau).
+ * Au redémarrage, le fichier est simplement re-mappé et l'index répond immédiatement ; seule la table
+ * id -> nœud est reconstruite sur le tas, puis une synchronisation en arrière-plan rattrape les CV modifiés
+ * ou supprimés pendant l'arrêt ; un fichier illisible, incohérent ou tronqué est reconstruit depuis la base.
+ * Chaque écriture ne force sur disque que l'en-tête et les blocs de nœuds qu'elle a modifiés.
+ * Les suppressions sont des pierres tombales : le nœud reste dans le graphe pour la navigation mais n'est
+ * plus jamais retourné. Quand elles dépassent une part du fichier (compaction.tombstone-ratio), les nœuds vivants
+ * sont réinsérés en arrière-plan dans un nouveau fichier, qui remplace l'ancien par un renommage atomique.
+ */
+@Component
+public class CvVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CvVectorIndex.class);
+
+    // ===== FORMAT DU FICHIER =====
+
+    private static final int MAGIC = 0x4A564849; // "JVHI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int MAX_LEVEL = 6;
+    private static final int NODES_PER_CHUNK = 16384;
+
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_DIMENSION = 8;
+    private static final int H_M = 12;
+    private static final int H_NODE_COUNT = 16;
+    private static final int H_ENTRY_POINT = 20;
+    private static final int H_ENTRY_LEVEL = 24;
+    private static final int H_LAST_SYNC = 32;
+
+    private static final int R_ID = 0;
+    private static final int R_LEVEL = 8;
+    private static final int R_DELETED = 12;
+    private static final int R_VECTOR = 16;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Value("${app.vector-index.cv.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.vector-index.cv.path:data/vector-index/cvs.hnsw}")
+    private String indexPath;
+
+    @Value("${app.vector-index.cv.dimension:384}")
+    private int configuredDimension;
+
+    @Value("${app.vector-index.cv.m:16}")
+    private int configuredM;
+
+    @Value("${app.vector-index.cv.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${app.vector-index.cv.ef-search:64}")
+    private int efSearch;
+
+    @Value("${app.vector-index.cv.load-batch-size:500}")
+    private int loadBatchSize;
+
+    // Part de pierres tombales (0 : jamais) à partir de laquelle le fichier est compacté
+    @Value("${app.vector-index.cv.compaction.tombstone-ratio:0.3}")
+    private double compactionTombstoneRatio;
+
+    @Value("${app.vector-index.cv.compaction.min-tombstones:1000}")
+    private int compactionMinTombstones;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final Map<Long, Integer> nodeByCvId = new HashMap<>();
+    // Blocs modifiés depuis le dernier flush
+    private final BitSet dirtyChunks = new BitSet();
+
+    private int dimension;
+    private int m;
+    private int recordSize;
+    private int neighborsOffset;
+    private double levelMultiplier;
+    private int nodeCount;
+    private int entryPoint = -1;
+    private int entryLevel = -1;
+
+    private volatile boolean ready = false;
+
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    // Écritures reçues pendant une compaction (vecteur null = suppression), rejouées sur le nouveau fichier
+    private Map<Long, float[]> changesDuringCompaction;
+
+    private record Scored(int node, float similarity) {
+    }
+
+    // ===== CYCLE DE VIE =====
+
+    /**
+     * Ouvrir (ou créer) le fichier d'index au démarrage, puis synchroniser avec la base en arrière-plan
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void openOnStartup() {
+        if (!enabled) {
+            logger.info("Index HNSW des CV désactivé");
+            return;
+        }
+
+        boolean created;
+        lock.writeLock().lock();
+        try {
+            created = open(Paths.get(indexPath));
+            ready = true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Impossible d'ouvrir l'index HNSW des CV ({}): {}", indexPath, e.getMessage());
+            return;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Thread syncThread = new Thread(Workload.BACKGROUND.wrap(() -> {
+            try {
+                if (created) {
+                    buildFromDatabase();
+                } else {
+                    catchUpWithDatabase();
+                }
+            } catch (Exception e) {
+                logger.error("Erreur lors de la synchronisation de l'index HNSW des CV: {}", e.getMessage());
+            }
+        }), "cv-index-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            if (channel != null) {
+                flush();
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Erreur lors de la fermeture de l'index HNSW des CV: {}", e.getMessage());
+        } finally {
+            channel = null;
+            chunks.clear();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tenir l'index à jour à chaque création, modification ou suppression de CV
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCvChanged(CvChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+
+        Cv cv = event.getCv();
+        if (event.getType() == CvChangedEvent.Type.DELETED) {
+            remove(cv.getId());
+        } else {
+            upsert(cv.getId(), EmbeddingVectors.parse(cv.getEmbedding()));
+        }
+    }
+
+    /**
+     * CV écrit par une autre instance : relire son embedding en base
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (!ready || !event.concerns(CacheInvalidationEvent.Kind.CV)) {
+            return;
+        }
+        if (event.isAll()) {
+            // Reprendre à la coupure du bus : H_LAST_SYNC avance aussi avec les écritures locales faites entre-temps
+            catchUpWithDatabase(event.getSince());
+            return;
+        }
+
+        Optional<String> embedding = cvRepository.findEmbeddingVectorById(event.getId());
+        if (embedding.isPresent()) {
+            upsert(event.getId(), EmbeddingVectors.parse(embedding.get()));
+        } else {
+            remove(event.getId());
+        }
+    }
+
+    // ===== MISE À JOUR =====
+
+    /**
+     * Insérer ou remplacer le vecteur d'un CV (l'ancien nœud devient une pierre tombale)
+     */
+    public void upsert(Long cvId, float[] vector) {
+        if (cvId == null) {
+            return;
+        }
+        if (vector == null) {
+            remove(cvId);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (upsertInternal(cvId, vector)) {
+                touch();
+                flush();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Marquer le nœud d'un CV comme supprimé
+     */
+    public void remove(Long cvId) {
+        lock.writeLock().lock();
+        try {
+            if (removeInternal(cvId)) {
+                touch();
+                flush();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactIfNeeded();
+    }
+
+    // ===== COMPACTION =====
+
+    /**
+     * Lancer une compaction en arrière-plan si les pierres tombales dépassent le seuil configuré
+     */
+    private void compactIfNeeded() {
+        if (compactionTombstoneRatio <= 0 || compacting.get()) {
+            return;
+        }
+
+        int tombstones;
+        int nodes;
+        lock.readLock().lock();
+        try {
+            nodes = nodeCount;
+            tombstones = nodeCount - nodeByCvId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (tombstones < Math.max(1, compactionMinTombstones) || tombstones < compactionTombstoneRatio * nodes) {
+            return;
+        }
+
+        Thread compactionThread = new Thread(Workload.BACKGROUND.wrap(this::compact), "cv-index-compaction");
+        compactionThread.setDaemon(true);
+        compactionThread.start();
+    }
+
+    /**
+     * Réécrire les seuls nœuds vivants dans un nouveau fichier, construit hors verrou à côté de l'index, puis le
+     * substituer à l'ancien (renommage atomique) sous un verrou d'écriture court. Les écritures reçues entre-temps
+     * sont rejouées sur le nouveau fichier juste avant la substitution ; en cas d'échec, l'ancien fichier est conservé.
+     */
+    public void compact() {
+        if (!ready || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Path path = Paths.get(indexPath);
+        Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        CvVectorIndex compacted = new CvVectorIndex();
+        int scanned;
+        int previousNodeCount;
+
+        lock.writeLock().lock();
+        try {
+            changesDuringCompaction = new LinkedHashMap<>();
+            scanned = nodeCount;
+            compacted.configuredDimension = dimension;
+            compacted.configuredM = m;
+            compacted.efConstruction = efConstruction;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Files.deleteIfExists(compactedPath);
+            compacted.open(compactedPath);
+
+            // Copie des nœuds vivants par lots sous verrou de lecture, insertion dans le nouveau graphe hors verrou
+            for (int from = 0; from < scanned; from += loadBatchSize) {
+                List<Long> cvIds = new ArrayList<>(loadBatchSize);
+                List<float[]> vectors = new ArrayList<>(loadBatchSize);
+                lock.readLock().lock();
+                try {
+                    for (int node = from; node < Math.min(scanned, from + loadBatchSize); node++) {
+                        if (!isDeleted(node)) {
+                            cvIds.add(cvId(node));
+                            vectors.add(vector(node));
+                        }
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                for (int i = 0; i < cvIds.size(); i++) {
+                    compacted.upsertInternal(cvIds.get(i), vectors.get(i));
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (channel == null) {
+                    throw new IllegalStateException("index fermé pendant la compaction");
+                }
+                changesDuringCompaction.forEach((cvId, vector) -> {
+                    if (vector == null) {
+                        compacted.removeInternal(cvId);
+                    } else {
+                        compacted.upsertInternal(cvId, vector);
+                    }
+                });
+                compacted.touch();
+                compacted.header.putLong(H_LAST_SYNC, header.getLong(H_LAST_SYNC));
+                compacted.flush();
+
+                Files.move(compactedPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                previousNodeCount = nodeCount;
+                channel.close();
+                adopt(compacted);
+            } finally {
+                changesDuringCompaction = null;
+                lock.writeLock().unlock();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Erreur lors de la compaction de l'index HNSW des CV, fichier précédent conservé: {}", e.getMessage());
+            compacted.close();
+            try {
+                Files.deleteIfExists(compactedPath);
+            } catch (IOException ignored) {
+                // Fichier temporaire écrasé à la prochaine compaction
+            }
+            return;
+        } finally {
+            compacting.set(false);
+        }
+
+        logger.info("Index HNSW des CV compacté: {} nœuds -> {} en {} ms",
+                previousNodeCount, nodeCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Reprendre le fichier et l'état d'un index compacté (sous verrou d'écriture)
+     */
+    private void adopt(CvVectorIndex compacted) {
+        channel = compacted.channel;
+        header = compacted.header;
+        chunks.clear();
+        chunks.addAll(compacted.chunks);
+        dirtyChunks.clear();
+        nodeByCvId.clear();
+        nodeByCvId.putAll(compacted.nodeByCvId);
+        dimension = compacted.dimension;
+        m = compacted.m;
+        recordSize = compacted.recordSize;
+        neighborsOffset = compacted.neighborsOffset;
+        levelMultiplier = compacted.levelMultiplier;
+        nodeCount = compacted.nodeCount;
+        entryPoint = compacted.entryPoint;
+        entryLevel = compacted.entryLevel;
+    }
+
+    // ===== RECHERCHE =====
+
+    /**
+     * Rechercher les K CV les plus proches d'un vecteur, par similarité cosinus décroissante
+     */
+    public List<VectorMatch> search(float[] query, int k) {
+        if (query == null || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        float[] normalizedQuery = Arrays.copyOf(query, query.length);
+        if (!EmbeddingVectors.normalize(normalizedQuery)) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready || entryPoint < 0 || normalizedQuery.length != dimension) {
+                return Collections.emptyList();
+            }
+
+            Scored entry = new Scored(entryPoint, similarity(normalizedQuery, entryPoint));
+            for (int level = entryLevel; level > 0; level--) {
+                entry = greedySearch(normalizedQuery, entry, level);
+            }
+
+            // Élargir le faisceau si des pierres tombales risquent d'occuper une partie des résultats
+            int ef = Math.max(efSearch, k + Math.min(nodeCount - nodeByCvId.size(), k));
+            List<Scored> candidates = searchLayer(normalizedQuery, List.of(entry), ef, 0);
+
+            List<VectorMatch> matches = new ArrayList<>(k);
+            for (Scored candidate : candidates) {
+                if (!isDeleted(candidate.node())) {
+                    matches.add(new VectorMatch(cvId(candidate.node()), candidate.similarity()));
+                    if (matches.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeByCvId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== SYNCHRONISATION AVEC LA BASE =====
+
+    private void buildFromDatabase() {
+        long start = System.currentTimeMillis();
+        int indexed = applyFromDatabase(null);
+        logger.info("Index HNSW des CV construit: {} CV en {} ms", indexed, System.currentTimeMillis() - start);
+        compactIfNeeded();
+    }
+
+    /**
+     * Rattraper les CV modifiés pendant l'arrêt (depuis la dernière synchronisation du fichier)
+     */
+    private void catchUpWithDatabase() {
+        long lastSync;
+        lock.readLock().lock();
+        try {
+            lastSync = header.getLong(H_LAST_SYNC);
+        } finally {
+            lock.readLock().unlock();
+        }
+        catchUpWithDatabase(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSync), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Rattraper les CV modifiés depuis lastSeen (null : tous) et poser des pierres tombales sur les CV disparus
+     */
+    private void catchUpWithDatabase(LocalDateTime lastSeen) {
+        long start = System.currentTimeMillis();
+
+        // Marge d'une minute pour absorber les écarts d'horloge entre l'application et la base
+        int updated = applyFromDatabase(lastSeen != null ? lastSeen.minusMinutes(1) : null);
+
+        Set<Long> existingIds = new HashSet<>(cvRepository.findIdsWithEmbedding());
+        List<Long> staleIds;
+        lock.readLock().lock();
+        try {
+            staleIds = nodeByCvId.keySet().stream().filter(id -> !existingIds.contains(id)).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        staleIds.forEach(this::remove);
+
+        logger.info("Index HNSW des CV ouvert ({} CV): {} mis à jour, {} supprimés en {} ms",
+                size(), updated, staleIds.size(), System.currentTimeMillis() - start);
+        compactIfNeeded();
+    }
+
+    private int applyFromDatabase(LocalDateTime modifiedSince) {
+        long afterId = 0L;
+        int applied = 0;
+
+        while (true) {
+            PageRequest batch = PageRequest.of(0, loadBatchSize);
+            List<Object[]> rows = modifiedSince == null
+                    ? cvRepository.findEmbeddingsAfter(afterId, batch)
+                    : cvRepository.findEmbeddingsModifiedSince(modifiedSince, afterId, batch);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    afterId = (Long) row[0];
+                    float[] vector = EmbeddingVectors.parse((String) row[1]);
+                    if (vector != null && upsertInternal(afterId, vector)) {
+                        applied++;
+                    }
+                }
+                touch();
+                flush();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        return applied;
+    }
+
+    // ===== OUVERTURE DU FICHIER =====
+
+    /**
+     * @return true si un nouveau fichier d'index a été créé (à remplir depuis la base)
+     */
+    private boolean open(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        chunks.clear();
+        dirtyChunks.clear();
+        boolean created = channel.size() < HEADER_SIZE;
+        header = map(0, HEADER_SIZE);
+
+        if (!created) {
+            try {
+                load();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Fichier d'index HNSW des CV invalide, reconstruction: {} ({})", path, e.getMessage());
+                chunks.clear();
+                dirtyChunks.clear();
+                channel.truncate(0);
+                header = map(0, HEADER_SIZE);
+                created = true;
+            }
+        }
+
+        if (created) {
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, FORMAT_VERSION);
+            header.putInt(H_DIMENSION, configuredDimension);
+            header.putInt(H_M, configuredM);
+            header.putInt(H_NODE_COUNT, 0);
+            header.putInt(H_ENTRY_POINT, -1);
+            header.putInt(H_ENTRY_LEVEL, -1);
+            header.putLong(H_LAST_SYNC, 0L);
+            header.force();
+            readHeader();
+            nodeByCvId.clear();
+        }
+
+        logger.info("Index HNSW des CV {}: {} ({} nœuds, {} CV actifs)",
+                created ? "créé" : "ouvert", path.toAbsolutePath(), nodeCount, nodeByCvId.size());
+        return created;
+    }
+
+    /**
+     * Charger un fichier existant : vérifier l'en-tête et la taille, mapper les blocs de nœuds,
+     * puis reconstruire la table id -> nœud (seule structure sur le tas). Toute incohérence lève une exception.
+     */
+    private void load() throws IOException {
+        if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != FORMAT_VERSION) {
+            throw new IllegalStateException("format inconnu");
+        }
+
+        readHeader();
+        if (dimension <= 0 || m <= 1 || recordSize <= 0 || nodeCount < 0 || entryPoint >= nodeCount || entryLevel > MAX_LEVEL
+                || (entryPoint < 0) != (nodeCount == 0)) {
+            throw new IllegalStateException("en-tête incohérent");
+        }
+        if (dimension != configuredDimension || m != configuredM) {
+            logger.warn("Paramètres de l'index HNSW existant conservés (dimension={}, m={})", dimension, m);
+        }
+
+        // Vérifier la taille avant de mapper : un mapping au-delà de la fin du fichier l'agrandirait
+        if (channel.size() < HEADER_SIZE + (long) nodeCount * recordSize) {
+            throw new IllegalStateException("fichier tronqué");
+        }
+        if (nodeCount > 0) {
+            ensureChunk(nodeCount - 1);
+        }
+
+        nodeByCvId.clear();
+        for (int node = 0; node < nodeCount; node++) {
+            if (!isDeleted(node)) {
+                nodeByCvId.put(cvId(node), node);
+            }
+        }
+    }
+
+    private void readHeader() {
+        dimension = header.getInt(H_DIMENSION);
+        m = header.getInt(H_M);
+        nodeCount = header.getInt(H_NODE_COUNT);
+        entryPoint = header.getInt(H_ENTRY_POINT);
+        entryLevel = header.getInt(H_ENTRY_LEVEL);
+
+        levelMultiplier = 1.0 / Math.log(m);
+        neighborsOffset = R_VECTOR + dimension * Float.BYTES;
+        recordSize = neighborsOffset + (1 + 2 * m) * Integer.BYTES + MAX_LEVEL * (1 + m) * Integer.BYTES;
+    }
+
+    private MappedByteBuffer map(long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private MappedByteBuffer chunk(int node) {
+        return chunks.get(node / NODES_PER_CHUNK);
+    }
+
+    private MappedByteBuffer modified(int node) {
+        dirtyChunks.set(node / NODES_PER_CHUNK);
+        return chunk(node);
+    }
+
+    private int offset(int node) {
+        return (node % NODES_PER_CHUNK) * recordSize;
+    }
+
+    private void ensureChunk(int node) throws IOException {
+        int chunkIndex = node / NODES_PER_CHUNK;
+        while (chunks.size() <= chunkIndex) {
+            long position = HEADER_SIZE + (long) chunks.size() * NODES_PER_CHUNK * recordSize;
+            chunks.add(map(position, (long) NODES_PER_CHUNK * recordSize));
+        }
+    }
+
+    private void touch() {
+        header.putInt(H_NODE_COUNT, nodeCount);
+        header.putInt(H_ENTRY_POINT, entryPoint);
+        header.putInt(H_ENTRY_LEVEL, entryLevel);
+        header.putLong(H_LAST_SYNC, System.currentTimeMillis());
+    }
+
+    /**
+     * Écrire sur disque l'en-tête et les seuls blocs modifiés depuis le dernier flush
+     */
+    private void flush() {
+        for (int chunkIndex = dirtyChunks.nextSetBit(0); chunkIndex >= 0; chunkIndex = dirtyChunks.nextSetBit(chunkIndex + 1)) {
+            chunks.get(chunkIndex).force();
+        }
+        dirtyChunks.clear();
+        header.force();
+    }
+
+    // ===== ALGORITHME HNSW =====
+
+    private boolean upsertInternal(Long cvId, float[] vector) {
+        if (changesDuringCompaction != null) {
+            changesDuringCompaction.put(cvId, vector);
+        }
+        if (vector.length != dimension || !EmbeddingVectors.normalize(vector)) {
+            logger.warn("Embedding invalide ignoré pour le CV {}", cvId);
+            return false;
+        }
+
+        Integer existing = nodeByCvId.get(cvId);
+        if (existing != null) {
+            if (sameVector(vector, existing)) {
+                return false;
+            }
+            markDeleted(existing);
+        }
+
+        try {
+            ensureChunk(nodeCount);
+        } catch (IOException e) {
+            logger.error("Impossible d'agrandir l'index HNSW des CV: {}", e.getMessage());
+            return false;
+        }
+
+        int node = nodeCount;
+        int level = randomLevel();
+        writeNode(node, cvId, level, vector);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            entryLevel = level;
+        } else {
+            Scored entry = new Scored(entryPoint, similarity(vector, entryPoint));
+            for (int l = entryLevel; l > level; l--) {
+                entry = greedySearch(vector, entry, l);
+            }
+
+            List<Scored> entries = List.of(entry);
+            for (int l = Math.min(level, entryLevel); l >= 0; l--) {
+                List<Scored> candidates = searchLayer(vector, entries, efConstruction, l);
+                List<Scored> selected = selectNeighbors(candidates, m);
+                writeNeighbors(node, l, selected);
+                for (Scored neighbor : selected) {
+                    addLink(neighbor.node(), node, neighbor.similarity(), l);
+                }
+                entries = candidates;
+            }
+
+            if (level > entryLevel) {
+                entryPoint = node;
+                entryLevel = level;
+            }
+        }
+
+        nodeCount++;
+        nodeByCvId.put(cvId, node);
+        return true;
+    }
+
+    private boolean removeInternal(Long cvId) {
+        if (changesDuringCompaction != null) {
+            changesDuringCompaction.put(cvId, null);
+        }
+        Integer node = nodeByCvId.get(cvId);
+        if (node == null) {
+            return false;
+        }
+        markDeleted(node);
+        return true;
+    }
+
+    private void markDeleted(int node) {
+        modified(node).putInt(offset(node) + R_DELETED, 1);
+        nodeByCvId.remove(cvId(node));
+    }
+
+    private int randomLevel() {
+        double uniform = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return Math.min((int) (-Math.log(uniform) * levelMultiplier), MAX_LEVEL);
+    }
+
+    /**
+     * Descente gloutonne sur un niveau supérieur : suivre le meilleur voisin tant qu'il améliore la similarité
+     */
+    private Scored greedySearch(float[] query, Scored entry, int level) {
+        Scored current = entry;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : neighbors(current.node(), level)) {
+                float similarity = similarity(query, neighbor);
+                if (similarity > current.similarity()) {
+                    current = new Scored(neighbor, similarity);
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Recherche en faisceau (largeur ef) sur un niveau ; résultats triés par similarité décroissante
+     */
+    private List<Scored> searchLayer(float[] query, List<Scored> entries, int ef, int level) {
+        BitSet visited = new BitSet(nodeCount + 1);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::similarity).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::similarity));
+
+        for (Scored entry : entries) {
+            visited.set(entry.node());
+            candidates.add(entry);
+            results.add(entry);
+            if (results.size() > ef) {
+                results.poll();
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            Scored current = candidates.poll();
+            if (results.size() >= ef && current.similarity() < results.peek().similarity()) {
+                break;
+            }
+
+            for (int neighbor : neighbors(current.node(), level)) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+
+                float similarity = similarity(query, neighbor);
+                if (results.size() < ef || similarity > results.peek().similarity()) {
+                    Scored scored = new Scored(neighbor, similarity);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Scored::similarity).reversed());
+        return sorted;
+    }
+
+    /**
+     * Heuristique de sélection HNSW : garder un candidat seulement s'il est plus proche de la requête
+     * que de tous les voisins déjà retenus (diversité des directions), puis compléter avec les plus proches
+     */
+    private List<Scored> selectNeighbors(List<Scored> candidates, int maxNeighbors) {
+        List<Scored> selected = new ArrayList<>(maxNeighbors);
+        List<Scored> pruned = new ArrayList<>();
+
+        for (Scored candidate : candidates) {
+            if (selected.size() == maxNeighbors) {
+                break;
+            }
+            float[] candidateVector = vector(candidate.node());
+            boolean diverse = true;
+            for (Scored kept : selected) {
+                if (similarity(candidateVector, kept.node()) > candidate.similarity()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+
+        for (int i = 0; i < pruned.size() && selected.size() < maxNeighbors; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    /**
+     * Ajouter le lien retour voisin -> nouveau nœud, en élaguant la liste du voisin si elle est pleine
+     */
+    private void addLink(int target, int newNode, float similarity, int level) {
+        int maxNeighbors = level == 0 ? 2 * m : m;
+        int[] current = neighbors(target, level);
+
+        if (current.length < maxNeighbors) {
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = newNode;
+            writeNeighbors(target, level, extended);
+            return;
+        }
+
+        float[] targetVector = vector(target);
+        List<Scored> candidates = new ArrayList<>(current.length + 1);
+        for (int neighbor : current) {
+            candidates.add(new Scored(neighbor, similarity(targetVector, neighbor)));
+        }
+        candidates.add(new Scored(newNode, similarity));
+        candidates.sort(Comparator.comparingDouble(Scored::similarity).reversed());
+
+        List<Scored> selected = selectNeighbors(candidates, maxNeighbors);
+        writeNeighbors(target, level, selected.stream().mapToInt(Scored::node).toArray());
+    }
+
+    // ===== ACCÈS AUX ENREGISTREMENTS =====
+
+    private void writeNode(int node, long cvId, int level, float[] vector) {
+        MappedByteBuffer buffer = modified(node);
+        int base = offset(node);
+        buffer.putLong(base + R_ID, cvId);
+        buffer.putInt(base + R_LEVEL, level);
+        buffer.putInt(base + R_DELETED, 0);
+        for (int i = 0; i < dimension; i++) {
+            buffer.putFloat(base + R_VECTOR + i * Float.BYTES, vector[i]);
+        }
+        for (int l = 0; l <= MAX_LEVEL; l++) {
+            buffer.putInt(neighborsPosition(node, l), 0);
+        }
+    }
+
+    private int neighborsPosition(int node, int level) {
+        int position = offset(node) + neighborsOffset;
+        if (level > 0) {
+            position += (1 + 2 * m) * Integer.BYTES + (level - 1) * (1 + m) * Integer.BYTES;
+        }
+        return position;
+    }
+
+    private int[] neighbors(int node, int level) {
+        MappedByteBuffer buffer = chunk(node);
+        int position = neighborsPosition(node, level);
+        int count = buffer.getInt(position);
+        int[] neighbors = new int[count];
+        for (int i = 0; i < count; i++) {
+            neighbors[i] = buffer.getInt(position + (i + 1) * Integer.BYTES);
+        }
+        return neighbors;
+    }
+
+    private void writeNeighbors(int node, int level, List<Scored> neighbors) {
+        writeNeighbors(node, level, neighbors.stream().mapToInt(Scored::node).toArray());
+    }
+
+    private void writeNeighbors(int node, int level, int[] neighbors) {
+        MappedByteBuffer buffer = modified(node);
+        int position = neighborsPosition(node, level);
+        for (int i = 0; i < neighbors.length; i++) {
+            buffer.putInt(position + (i + 1) * Integer.BYTES, neighbors[i]);
+        }
+        buffer.putInt(position, neighbors.length);
+    }
+
+    private long cvId(int node) {
+        return chunk(node).getLong(offset(node) + R_ID);
+    }
+
+    private boolean isDeleted(int node) {
+        return chunk(node).getInt(offset(node) + R_DELETED) != 0;
+    }
+
+    private float[] vector(int node) {
+        MappedByteBuffer buffer = chunk(node);
+        int base = offset(node) + R_VECTOR;
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = buffer.getFloat(base + i * Float.BYTES);
+        }
+        return vector;
+    }
+
+    private boolean sameVector(float[] vector, int node) {
+        MappedByteBuffer buffer = chunk(node);
+        int base = offset(node) + R_VECTOR;
+        for (int i = 0; i < dimension; i++) {
+            if (buffer.getFloat(base + i * Float.BYTES) != vector[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Produit scalaire (= similarité cosinus, vecteurs normalisés) lu directement dans le fichier mappé
+     */
+    private float similarity(float[] query, int node) {
+        MappedByteBuffer buffer = chunk(node);
+        int base = offset(node) + R_VECTOR;
+        int upperBound = dimension & ~3;
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+
+        int i = 0;
+        for (; i < upperBound; i += 4) {
+            int position = base + i * Float.BYTES;
+            s0 += query[i] * buffer.getFloat(position);
+            s1 += query[i + 1] * buffer.getFloat(position + 4);
+            s2 += query[i + 2] * buffer.getFloat(position + 8);
+            s3 += query[i + 3] * buffer.getFloat(position + 12);
+        }
+        for (; i < dimension; i++) {
+            s0 += query[i] * buffer.getFloat(base + i * Float.BYTES);
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+}
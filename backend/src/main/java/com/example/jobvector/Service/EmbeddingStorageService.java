@@ -0,0 +1,89 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.Embedding;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Repository.EmbeddingRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Enregistrement des embeddings dans la table embeddings (une version par génération).
+ *
+ * Le CV ou l'offre pointe vers sa version courante ; l'ancienne version est supprimée dès qu'elle n'est plus
+ * référencée, sauf si des candidatures envoyées avec elle la référencent encore.
+ */
+@Service
+public class EmbeddingStorageService {
+
+    @Autowired
+    private EmbeddingRepository embeddingRepository;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Value("${app.embedding.model-version:all-MiniLM-L6-v2}")
+    private String modelVersion;
+
+    /**
+     * Enregistrer une nouvelle version de l'embedding d'un CV déjà sauvegardé et la rendre courante
+     */
+    @Transactional
+    public Cv saveCvEmbedding(Cv cv, String vector) {
+        cv.setEmbeddingVersion(newVersion(Embedding.OwnerType.CV, cv.getId(), vector));
+        Cv savedCv = cvRepository.saveAndFlush(cv);
+        embeddingRepository.deleteUnreferencedVersions(Embedding.OwnerType.CV, savedCv.getId());
+        return savedCv;
+    }
+
+    /**
+     * Enregistrer une nouvelle version de l'embedding d'une offre déjà sauvegardée et la rendre courante
+     */
+    @Transactional
+    public JobOffre saveJobOfferEmbedding(JobOffre jobOffre, String vector) {
+        jobOffre.setEmbeddingVersion(newVersion(Embedding.OwnerType.JOB_OFFER, jobOffre.getId(), vector));
+        JobOffre savedJobOffre = jobOfferRepository.saveAndFlush(jobOffre);
+        embeddingRepository.deleteUnreferencedVersions(Embedding.OwnerType.JOB_OFFER, savedJobOffre.getId());
+        return savedJobOffre;
+    }
+
+    /**
+     * Supprimer les versions d'un CV supprimé (celles des candidatures envoyées sont conservées)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCvChanged(CvChangedEvent event) {
+        if (event.getType() == CvChangedEvent.Type.DELETED) {
+            embeddingRepository.deleteUnreferencedVersions(Embedding.OwnerType.CV, event.getCvId());
+        }
+    }
+
+    /**
+     * Supprimer les versions d'une offre supprimée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (event.getType() == JobOfferChangedEvent.Type.DELETED) {
+            embeddingRepository.deleteUnreferencedVersions(Embedding.OwnerType.JOB_OFFER, event.getJobOfferId());
+        }
+    }
+
+    private Embedding newVersion(Embedding.OwnerType ownerType, Long ownerId, String vector) {
+        Embedding embedding = new Embedding();
+        embedding.setOwnerType(ownerType);
+        embedding.setOwnerId(ownerId);
+        embedding.setModelVersion(modelVersion);
+        embedding.setVector(vector);
+        return embeddingRepository.save(embedding);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.jobvector.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilitaires pour manipuler les embeddings vectoriels en mémoire
+ * (parsing du JSON stocké en base, normalisation, produit scalaire)
+ */
+public final class EmbeddingVectors {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmbeddingVectors() {
+    }
+
+    /**
+     * Parser un embedding JSON ("[0.12, -0.03, ...]") en tableau de floats
+     *
+     * @return le vecteur, ou null si le JSON est absent ou invalide
+     */
+    public static float[] parse(String embeddingJson) {
+        if (embeddingJson == null || embeddingJson.isBlank()) {
+            return null;
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(embeddingJson)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return null;
+            }
+
+            float[] buffer = new float[384];
+            int length = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null || !token.isNumeric()) {
+                    return null;
+                }
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                buffer[length++] = parser.getFloatValue();
+            }
+
+            return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Normaliser un vecteur (norme L2 = 1) en place, pour que le produit scalaire
+     * soit directement la similarité cosinus
+     *
+     * @return false si le vecteur est nul
+     */
+    public static boolean normalize(float[] vector) {
+        double norm = 0.0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0.0) {
+            return false;
+        }
+
+        float inverse = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inverse;
+        }
+        return true;
+    }
+
+    /**
+     * Produit scalaire entre un vecteur et une ligne d'une matrice contiguë.
+     * Quatre accumulateurs indépendants pour laisser le JIT pipeliner la boucle.
+     */
+    public static float dot(float[] query, float[] matrix, int offset) {
+        int length = query.length;
+        int upperBound = length & ~3;
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+
+        int i = 0;
+        for (; i < upperBound; i += 4) {
+            s0 += query[i] * matrix[offset + i];
+            s1 += query[i + 1] * matrix[offset + i + 1];
+            s2 += query[i + 2] * matrix[offset + i + 2];
+            s3 += query[i + 3] * matrix[offset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += query[i] * matrix[offset + i];
+        }
+
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Quantification scalaire int8 symétrique d'un vecteur : codes = round(x / échelle) dans [-127, 127]
+     *
+     * @return l'échelle à multiplier pour revenir aux valeurs d'origine
+     */
+    public static float quantize(float[] vector, byte[] codes, int offset) {
+        float max = 0f;
+        for (float value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        if (max == 0f) {
+            Arrays.fill(codes, offset, offset + vector.length, (byte) 0);
+            return 0f;
+        }
+
+        float scale = max / 127f;
+        float inverse = 1f / scale;
+        for (int i = 0; i < vector.length; i++) {
+            codes[offset + i] = (byte) Math.round(vector[i] * inverse);
+        }
+        return scale;
+    }
+
+    /**
+     * Produit scalaire entier entre deux vecteurs quantifiés int8 (à multiplier par le produit des échelles)
+     */
+    public static int dot(byte[] query, byte[] matrix, int offset) {
+        int length = query.length;
+        int upperBound = length & ~3;
+        int s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+
+        int i = 0;
+        for (; i < upperBound; i += 4) {
+            s0 += query[i] * matrix[offset + i];
+            s1 += query[i + 1] * matrix[offset + i + 1];
+            s2 += query[i + 2] * matrix[offset + i + 2];
+            s3 += query[i + 3] * matrix[offset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += query[i] * matrix[offset + i];
+        }
+
+        return s0 + s1 + s2 + s3;
+    }
+
+    /**
+     * Sérialiser un vecteur au format texte accepté par pgvector ("[0.1,0.2,...]")
+     */
+    public static String toVectorLiteral(float[] vector) {
+        StringBuilder builder = new StringBuilder(vector.length * 10);
+        builder.append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(vector[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Re-scorer exactement (pleine précision) des candidats issus d'une recherche approximative
+     * et garder les K meilleurs
+     */
+    public static <T> List<VectorMatch> rescore(float[] query, List<T> candidates,
+                                                Function<T, Long> idExtractor, Function<T, String> embeddingExtractor, int k) {
+        List<VectorMatch> matches = new ArrayList<>(candidates.size());
+        for (T candidate : candidates) {
+            float[] vector = parse(embeddingExtractor.apply(candidate));
+            if (vector != null) {
+                matches.add(new VectorMatch(idExtractor.apply(candidate), cosine(query, vector)));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(VectorMatch::similarity).reversed());
+        return matches.size() > k ? new ArrayList<>(matches.subList(0, k)) : matches;
+    }
+
+    /**
+     * Similarité cosinus entre deux vecteurs quelconques (non normalisés)
+     */
+    public static double cosine(float[] a, float[] b) {
+        if (a == null || b == null || a.length != b.length) {
+            return 0.0;
+        }
+
+        double dot = 0.0, normA = 0.0, normB = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0.0 || normB == 0.0) {
+            return 0.0;
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    /**
+     * Ramener une similarité cosinus [-1, 1] dans l'échelle des scores de matching [0, 1]
+     * (même convention que MatchingService)
+     */
+    public static double toMatchingScore(double cosine) {
+        return Math.max(0.0, Math.min(1.0, (cosine + 1.0) / 2.0));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Éviction du cache de second niveau Hibernate pour les écritures faites par une autre instance
+ * (celles de cette instance sont appliquées au cache par Hibernate lui-même)
+ */
+@Component
+public class EntityCacheInvalidator {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (event.getKind()) {
+            case JOB_OFFER -> evict(cache, JobOffre.class, event);
+            case USER -> {
+                evict(cache, Utilisateur.class, event);
+                // Résolution e-mail -> id : l'ancienne adresse n'est pas connue ici
+                cache.evictNaturalIdData(Utilisateur.class);
+            }
+            case CV, SCORING_PROFILE -> {
+                // Ni Cv ni ScoringProfile ne sont en cache de second niveau
+            }
+        }
+    }
+
+    private void evict(Cache cache, Class<?> entityClass, CacheInvalidationEvent event) {
+        if (event.isAll()) {
+            cache.evictEntityData(entityClass);
+        } else {
+            cache.evictEntityData(entityClass, event.getId());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.FullTextSearchSupport;
+import com.example.jobvector.Repository.JobOfferRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recherche hybride des offres : un volet lexical (plein texte ts_rank sur PostgreSQL, ILIKE sinon) et
+ * un volet vectoriel (embedding de la requête + index en mémoire) exécutés en parallèle, puis fusionnés par
+ * Reciprocal Rank Fusion : score(offre) = somme sur les volets de 1 / (k + rang).
+ *
+ * Le volet vectoriel est borné par un délai : s'il ne répond pas à temps (service d'embedding lent ou
+ * indisponible, index non chargé), il est annulé et la recherche se contente du classement lexical. Il en va de
+ * même quand tous les threads sont occupés et la file d'attente pleine : la demande est refusée aussitôt.
+ * Les embeddings des requêtes sont mis en cache (LRU) pour ne vectoriser qu'une fois les recherches fréquentes.
+ */
+@Service
+public class HybridJobOfferSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridJobOfferSearchService.class);
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private FullTextSearchSupport fullTextSearchSupport;
+
+    @Autowired
+    private JobOfferVectorIndex jobOfferVectorIndex;
+
+    @Autowired
+    private PythonEmbeddingService pythonEmbeddingService;
+
+    // Nombre de candidats retenus par chaque volet avant fusion
+    @Value("${app.search.hybrid.candidates:100}")
+    private int candidates;
+
+    @Value("${app.search.hybrid.rrf-k:60}")
+    private int rrfK;
+
+    @Value("${app.search.hybrid.vector-timeout-ms:800}")
+    private long vectorTimeoutMs;
+
+    @Value("${app.search.hybrid.threads:4}")
+    private int threads;
+
+    @Value("${app.search.hybrid.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${app.search.hybrid.query-cache.max-size:1000}")
+    private int queryCacheMaxSize;
+
+    private ThreadPoolExecutor executor;
+
+    private Map<String, float[]> queryEmbeddings;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "hybrid-search-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        queryEmbeddings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > queryCacheMaxSize;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ids des offres actives correspondant à la requête, du plus au moins pertinent (au plus `candidates` offres)
+     */
+    public List<Long> search(String keyword) {
+        String query = keyword.trim();
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Volet vectoriel en arrière-plan, volet lexical sur le thread appelant (même transaction)
+        Future<List<Long>> vectorLeg;
+        try {
+            vectorLeg = executor.submit(() -> searchVector(query));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Volet vectoriel de la recherche hybride refusé (file pleine)");
+            vectorLeg = null;
+        }
+
+        List<Long> lexicalIds = fullTextSearchSupport.isAvailable()
+                ? jobOfferRepository.findFullTextCandidateIds(query, candidates)
+                : jobOfferRepository.findLexicalCandidateIds(query, candidates);
+
+        return fuse(List.of(lexicalIds, awaitVectorLeg(vectorLeg)));
+    }
+
+    /**
+     * Résultat du volet vectoriel dans le délai restant, sinon annulé (thread interrompu) et classement vide
+     */
+    private List<Long> awaitVectorLeg(Future<List<Long>> vectorLeg) {
+        if (vectorLeg == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return vectorLeg.get(vectorTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            vectorLeg.cancel(true);
+            logger.debug("Volet vectoriel de la recherche hybride hors délai ({} ms)", vectorTimeoutMs);
+        } catch (ExecutionException e) {
+            logger.warn("Volet vectoriel de la recherche hybride en échec: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            vectorLeg.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Reciprocal Rank Fusion des classements (rangs à partir de 1), égalités départagées par l'ordre des volets
+     */
+    List<Long> fuse(List<List<Long>> rankings) {
+        Map<Long, Double> scores = new HashMap<>();
+        List<Long> order = new ArrayList<>();
+        for (List<Long> ranking : rankings) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                Long id = ranking.get(rank);
+                if (!scores.containsKey(id)) {
+                    order.add(id);
+                }
+                scores.merge(id, 1.0 / (rrfK + rank + 1), Double::sum);
+            }
+        }
+
+        // Tri stable : à score égal, l'ordre de première apparition est conservé
+        order.sort((a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        return order.size() > candidates ? new ArrayList<>(order.subList(0, candidates)) : order;
+    }
+
+    private List<Long> searchVector(String query) {
+        if (!jobOfferVectorIndex.isReady()) {
+            return Collections.emptyList();
+        }
+
+        float[] embedding = embedQuery(query);
+        if (embedding == null) {
+            return Collections.emptyList();
+        }
+
+        return jobOfferVectorIndex.search(embedding, candidates).stream()
+                .map(VectorMatch::id)
+                .toList();
+    }
+
+    private float[] embedQuery(String query) {
+        String key = query.toLowerCase(Locale.ROOT);
+        synchronized (queryEmbeddings) {
+            float[] cached = queryEmbeddings.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        float[] embedding = pythonEmbeddingService.generateEmbeddingsBatch(List.of(query)).get(0);
+        if (embedding != null) {
+            synchronized (queryEmbeddings) {
+                queryEmbeddings.put(key, embedding);
+            }
+        }
+        return embedding;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.JobOffre;
+
+/**
+ * Événement publié par JobOfferService à chaque création, modification ou suppression d'offre.
+ * Les composants qui maintiennent un état dérivé des offres (index, caches...) l'écoutent
+ * après le commit de la transaction.
+ */
+public class JobOfferChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final JobOffre jobOffre;
+    private final boolean matchingCriteriaChanged;
+
+    public JobOfferChangedEvent(Type type, JobOffre jobOffre) {
+        this(type, jobOffre, false);
+    }
+
+    public JobOfferChangedEvent(Type type, JobOffre jobOffre, boolean matchingCriteriaChanged) {
+        this.type = type;
+        this.jobOffre = jobOffre;
+        this.matchingCriteriaChanged = matchingCriteriaChanged;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public JobOffre getJobOffre() {
+        return jobOffre;
+    }
+
+    /**
+     * Les champs utilisés par le matching ont-ils changé (les scores des candidatures sont alors à recalculer) ?
+     */
+    public boolean isMatchingCriteriaChanged() {
+        return matchingCriteriaChanged;
+    }
+
+    public Long getJobOfferId() {
+        return jobOffre.getId();
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Repository.JobOfferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index plein texte en mémoire des offres actives, pour la recherche publique à facettes.
+ *
+ * Index inversé terme -> (offre -> fréquence pondérée par champ : titre x3, compétences techniques / outils x2,
+ * autres champs x1), classement BM25 (k1 = 1.2, b = 0.75), textes mis en minuscules et sans accents.
+ * Une recherche parcourt une seule fois les offres candidates : filtres, score, comptage des facettes
+ * (typePoste, modaliteTravail, secteurActivite, tranches de salaire et d'expérience) et sélection de la page
+ * dans un tas borné, sans requête de pagination ni countQuery séparées.
+ * L'index est chargé au démarrage puis tenu à jour à partir des JobOfferChangedEvent publiés par JobOfferService.
+ * Une reconstruction charge un nouveau corpus hors verrou et ne le substitue à l'ancien qu'une fois complet.
+ */
+@Component
+public class JobOfferSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobOfferSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "de", "des", "du", "la", "le", "les", "un", "une", "et", "en", "au", "aux", "pour", "par", "sur", "avec",
+            "dans", "ou", "the", "and", "of", "to", "in", "for", "with", "on", "at", "or");
+
+    public static final String FACET_TYPE_POSTE = "typePoste";
+    public static final String FACET_MODALITE_TRAVAIL = "modaliteTravail";
+    public static final String FACET_SECTEUR_ACTIVITE = "secteurActivite";
+    public static final String FACET_SALAIRE = "salaire";
+    public static final String FACET_EXPERIENCE = "experience";
+
+    private static final String NON_PRECISE = "NON_PRECISE";
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Value("${app.search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.index.load-batch-size:500}")
+    private int loadBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Corpus corpus = new Corpus();
+
+    // Écritures reçues pendant une reconstruction (offre null = suppression), rejouées sur le nouveau corpus
+    private Map<Long, JobOffre> changesDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Champs d'une offre conservés par l'index (filtres, facettes, tri)
+     */
+    private record IndexedJobOffer(Long id, Map<String, Float> termFrequencies, float length,
+                                   String titre, String localisation, String secteurActivite,
+                                   JobOffre.TypePoste typePoste, JobOffre.ModaliteTravail modaliteTravail,
+                                   Integer experienceMinRequise, Double salaire, LocalDateTime datePublication) {
+    }
+
+    private record Hit(IndexedJobOffer document, double score) {
+    }
+
+    // ===== CYCLE DE VIE =====
+
+    /**
+     * Charger toutes les offres actives au démarrage (lots keyset sur l'id)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            logger.info("Index plein texte des offres désactivé");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Reconstruire entièrement l'index à partir de la base, dans un nouveau corpus substitué à la fin
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Corpus rebuilt = new Corpus();
+        try {
+            while (true) {
+                List<JobOffre> jobOffers = jobOfferRepository.findActiveAfter(afterId, PageRequest.of(0, loadBatchSize));
+                if (jobOffers.isEmpty()) {
+                    break;
+                }
+                for (JobOffre jobOffre : jobOffers) {
+                    afterId = jobOffre.getId();
+                    rebuilt.upsert(jobOffre);
+                }
+            }
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Erreur lors du chargement de l'index plein texte des offres, index précédent conservé: {}",
+                    e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach((id, jobOffre) -> {
+                if (jobOffre != null) {
+                    rebuilt.upsert(jobOffre);
+                } else {
+                    rebuilt.remove(id);
+                }
+            });
+            changesDuringRebuild = null;
+            corpus = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Index plein texte des offres chargé: {} offres actives en {} ms", rebuilt.documents.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Tenir l'index à jour après chaque création / modification / suppression d'offre
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        JobOffre jobOffre = event.getJobOffre();
+        if (event.getType() == JobOfferChangedEvent.Type.DELETED || !"ACTIVE".equals(jobOffre.getStatut())) {
+            remove(jobOffre.getId());
+        } else {
+            upsert(jobOffre);
+        }
+    }
+
+    /**
+     * Offre écrite par une autre instance : la relire en base
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (!enabled || !event.concerns(CacheInvalidationEvent.Kind.JOB_OFFER)) {
+            return;
+        }
+        if (event.isAll()) {
+            rebuild();
+            return;
+        }
+
+        Optional<JobOffre> jobOffre = jobOfferRepository.findById(event.getId())
+                .filter(offer -> "ACTIVE".equals(offer.getStatut()));
+        if (jobOffre.isPresent()) {
+            upsert(jobOffre.get());
+        } else {
+            remove(event.getId());
+        }
+    }
+
+    // ===== MISE À JOUR =====
+
+    /**
+     * Ajouter ou remplacer une offre
+     */
+    public void upsert(JobOffre jobOffre) {
+        lock.writeLock().lock();
+        try {
+            corpus.upsert(jobOffre);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(jobOffre.getId(), jobOffre);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer une offre de l'index
+     */
+    public void remove(Long jobOfferId) {
+        lock.writeLock().lock();
+        try {
+            corpus.remove(jobOfferId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(jobOfferId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== RECHERCHE =====
+
+    /**
+     * Recherche classée (BM25 si keyword, sinon date de publication) avec facettes, filtres équivalents à findIdsWithFilters
+     */
+    public JobOfferSearchResult search(String keyword, String titre, String localisation, String secteurActivite,
+                                       JobOffre.TypePoste typePoste, JobOffre.ModaliteTravail modaliteTravail,
+                                       Integer experienceMin, Double salaireMin, int page, int size) {
+        List<String> queryTerms = keyword != null ? tokenize(keyword).stream().distinct().toList() : List.of();
+        String titreFilter = fold(titre);
+        String localisationFilter = fold(localisation);
+        String secteurFilter = fold(secteurActivite);
+
+        int limit = Math.max(0, page) * Math.max(0, size) + Math.max(0, size);
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score)
+                .thenComparing(hit -> hit.document().datePublication(), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(hit -> hit.document().id());
+        // Tas des `limit` meilleurs résultats, le moins bon en tête
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, limit), ranking);
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String facet : List.of(FACET_TYPE_POSTE, FACET_MODALITE_TRAVAIL, FACET_SECTEUR_ACTIVITE, FACET_SALAIRE, FACET_EXPERIENCE)) {
+            facets.put(facet, new LinkedHashMap<>());
+        }
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            Corpus current = corpus;
+            Map<Long, Double> scores = null;
+            if (!queryTerms.isEmpty()) {
+                scores = current.scoreBm25(queryTerms);
+            }
+            Iterable<Long> candidateIds = scores != null ? scores.keySet() : current.documents.keySet();
+
+            for (Long id : candidateIds) {
+                IndexedJobOffer document = current.documents.get(id);
+                if (document == null
+                        || (titreFilter != null && (document.titre() == null || !document.titre().contains(titreFilter)))
+                        || (localisationFilter != null && (document.localisation() == null || !document.localisation().contains(localisationFilter)))
+                        || (secteurFilter != null && (document.secteurActivite() == null || !fold(document.secteurActivite()).contains(secteurFilter)))
+                        || (typePoste != null && typePoste != document.typePoste())
+                        || (modaliteTravail != null && modaliteTravail != document.modaliteTravail())
+                        || (experienceMin != null && (document.experienceMinRequise() == null || document.experienceMinRequise() > experienceMin))
+                        || (salaireMin != null && (document.salaire() == null || document.salaire() < salaireMin))) {
+                    continue;
+                }
+
+                total++;
+                countFacet(facets, FACET_TYPE_POSTE, document.typePoste() != null ? document.typePoste().name() : NON_PRECISE);
+                countFacet(facets, FACET_MODALITE_TRAVAIL, document.modaliteTravail() != null ? document.modaliteTravail().name() : NON_PRECISE);
+                countFacet(facets, FACET_SECTEUR_ACTIVITE, document.secteurActivite() != null ? document.secteurActivite() : NON_PRECISE);
+                countFacet(facets, FACET_SALAIRE, salaryBucket(document.salaire()));
+                countFacet(facets, FACET_EXPERIENCE, experienceBucket(document.experienceMinRequise()));
+
+                if (limit > 0) {
+                    Hit hit = new Hit(document, scores != null ? scores.get(id) : 0.0);
+                    if (top.size() < limit) {
+                        top.add(hit);
+                    } else if (ranking.compare(hit, top.peek()) > 0) {
+                        top.poll();
+                        top.add(hit);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> ordered = new ArrayList<>(top);
+        ordered.sort(ranking.reversed());
+        int from = Math.min(Math.max(0, page) * Math.max(0, size), ordered.size());
+        List<Long> ids = ordered.subList(from, ordered.size()).stream().map(hit -> hit.document().id()).toList();
+        List<Double> hitScores = ordered.subList(from, ordered.size()).stream().map(Hit::score).toList();
+
+        return new JobOfferSearchResult(ids, hitScores, total, facets);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return corpus.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void countFacet(Map<String, Map<String, Long>> facets, String facet, String value) {
+        facets.get(facet).merge(value, 1L, Long::sum);
+    }
+
+    private static String salaryBucket(Double salaire) {
+        if (salaire == null) {
+            return NON_PRECISE;
+        }
+        if (salaire < 1000) {
+            return "0-1000";
+        }
+        if (salaire < 2000) {
+            return "1000-2000";
+        }
+        if (salaire < 3000) {
+            return "2000-3000";
+        }
+        if (salaire < 5000) {
+            return "3000-5000";
+        }
+        return "5000+";
+    }
+
+    private static String experienceBucket(Integer experience) {
+        if (experience == null) {
+            return NON_PRECISE;
+        }
+        if (experience <= 1) {
+            return "0-1";
+        }
+        if (experience <= 4) {
+            return "2-4";
+        }
+        if (experience <= 9) {
+            return "5-9";
+        }
+        return "10+";
+    }
+
+    /**
+     * Documents indexés, index inversé terme -> (offre -> fréquence) et longueur totale (longueur moyenne BM25)
+     */
+    private static final class Corpus {
+
+        private final Map<Long, IndexedJobOffer> documents = new HashMap<>();
+        private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+        private double totalLength = 0.0;
+
+        void upsert(JobOffre jobOffre) {
+            remove(jobOffre.getId());
+
+            Map<String, Float> termFrequencies = new HashMap<>();
+            addTerms(termFrequencies, jobOffre.getTitre(), 3.0f);
+            addTerms(termFrequencies, jobOffre.getCompetencesTechniques(), 2.0f);
+            addTerms(termFrequencies, jobOffre.getOutilsTechnologies(), 2.0f);
+            addTerms(termFrequencies, jobOffre.getCompetencesTransversales(), 1.0f);
+            addTerms(termFrequencies, jobOffre.getDescription(), 1.0f);
+            addTerms(termFrequencies, jobOffre.getMissionPrincipale(), 1.0f);
+            addTerms(termFrequencies, jobOffre.getSecteurActivite(), 1.0f);
+            addTerms(termFrequencies, jobOffre.getLocalisation(), 1.0f);
+
+            float length = 0.0f;
+            for (Map.Entry<String, Float> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(jobOffre.getId(), entry.getValue());
+                length += entry.getValue();
+            }
+
+            documents.put(jobOffre.getId(), new IndexedJobOffer(jobOffre.getId(), termFrequencies, length,
+                    fold(jobOffre.getTitre()), fold(jobOffre.getLocalisation()), jobOffre.getSecteurActivite(),
+                    jobOffre.getTypePoste(), jobOffre.getModaliteTravail(), jobOffre.getExperienceMinRequise(),
+                    jobOffre.getSalaire(), jobOffre.getDatePublication()));
+            totalLength += length;
+        }
+
+        void remove(Long jobOfferId) {
+            IndexedJobOffer previous = documents.remove(jobOfferId);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.termFrequencies().keySet()) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(jobOfferId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            totalLength -= previous.length();
+        }
+
+        Map<Long, Double> scoreBm25(List<String> queryTerms) {
+            Map<Long, Double> scores = new HashMap<>();
+            int n = documents.size();
+            double averageLength = n > 0 ? totalLength / n : 1.0;
+
+            for (String term : queryTerms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+                for (Map.Entry<Long, Float> entry : posting.entrySet()) {
+                    double tf = entry.getValue();
+                    double length = documents.get(entry.getKey()).length();
+                    double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(entry.getKey(), score, Double::sum);
+                }
+            }
+            return scores;
+        }
+    }
+
+    // ===== ANALYSE DU TEXTE =====
+
+    private static void addTerms(Map<String, Float> termFrequencies, String text, float weight) {
+        for (String term : tokenize(text)) {
+            termFrequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Découper en termes : minuscules, sans accents, séparateurs non alphanumériques (sauf + et # : c++, c#)
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        String folded = fold(text);
+        if (folded == null) {
+            return terms;
+        }
+        for (String token : folded.split("[^a-z0-9+#]+")) {
+            if (!token.isEmpty() && (token.length() > 1 || Character.isDigit(token.charAt(0))) && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static String fold(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.jobvector.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page de résultats de l'index plein texte : ids classés (et leur score BM25), nombre total d'offres
+ * correspondantes et facettes (facette -> valeur -> nombre d'offres)
+ */
+public record JobOfferSearchResult(List<Long> ids, List<Double> scores, long totalElements,
+                                   Map<String, Map<String, Long>> facets) {
+}
@@ -1,24 +1,43 @@
 package com.example.jobvector.Service;
 
+import com.example.jobvector.Config.AuthenticatedUser;
+import com.example.jobvector.Config.FullTextSearchSupport;
+import com.example.jobvector.Config.HalfvecSupport;
+import com.example.jobvector.Dto.CvDto;
 import com.example.jobvector.Dto.JobOffreDto;
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.CvJobMatch;
 import com.example.jobvector.Model.JobOffre;
 import com.example.jobvector.Model.Utilisateur;
+import com.example.jobvector.Repository.CvJobMatchRepository;
+import com.example.jobvector.Repository.CvProfileSummary;
+import com.example.jobvector.Repository.CvRepository;
 import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.JobOffreSummary;
 import com.example.jobvector.Repository.UtilisateurRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +46,9 @@ public class JobOfferService {
 
     private static final Logger logger = LoggerFactory.getLogger(JobOfferService.class);
 
+    // Nombre maximal d'offres scorées en un appel (une page de liste)
+    private static final int MAX_MATCH_SCORE_OFFERS = 100;
+
     @Autowired
     private JobOfferRepository jobOfferRepository;
 
@@ -36,22 +58,94 @@ public class JobOfferService {
     @Autowired
     private PythonEmbeddingService pythonEmbeddingService;
 
+    @Autowired
+    private EmbeddingStorageService embeddingStorageService;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Autowired
+    private JobOfferVectorIndex jobOfferVectorIndex;
+
+    @Autowired
+    private CvVectorIndex cvVectorIndex;
+
+    @Autowired
+    private HalfvecSupport halfvecSupport;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private CvJobMatchRepository cvJobMatchRepository;
+
+    @Autowired
+    private HybridJobOfferSearchService hybridJobOfferSearchService;
+
+    @Autowired
+    private JobOfferSearchIndex jobOfferSearchIndex;
+
+    @Autowired
+    private FullTextSearchSupport fullTextSearchSupport;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.vector-index.halfvec.oversampling:4}")
+    private int halfvecOversampling;
+
     // ===== MÉTHODES PUBLIQUES (TOUS LES UTILISATEURS) =====
 
     /**
      * Récupérer toutes les offres d'emploi actives avec pagination
      */
+    @Transactional(readOnly = true)
     public JobOffreDto getAllActiveJobOffers(int page, int size) {
         // Pour les requêtes JPQL, utiliser le nom de propriété Java
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "datePublication"));
-        Page<JobOffre> jobOffers = jobOfferRepository.findActiveNonExpired(pageable);
+        Page<JobOffreSummary> jobOffers = jobOfferRepository.findActiveNonExpired(pageable);
 
         return convertToDto(jobOffers);
     }
 
+    /**
+     * Récupérer les offres actives par curseur (datePublication, id) : coût constant quelle que soit la profondeur.
+     * Total facultatif, estimé à partir de l'index plein texte en mémoire quand il est chargé.
+     */
+    @Transactional(readOnly = true)
+    public JobOffreDto getActiveJobOffersByCursor(String cursor, int size, boolean withTotal) {
+        JobOffreDto response = new JobOffreDto();
+
+        try {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            List<JobOffreSummary> jobOffers = jobOfferRepository.findActiveBefore(
+                    position.date(), position.id(), PageRequest.of(0, cursorPageSize(size) + 1));
+
+            response = convertToDto(jobOffers, cursorPageSize(size));
+            if (withTotal) {
+                boolean approximate = jobOfferSearchIndex.isReady();
+                response.setTotalElements(approximate ? jobOfferSearchIndex.size() : jobOfferRepository.countByStatut("ACTIVE"));
+                response.setTotalApproximatif(approximate);
+            }
+
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setMessage("Curseur de pagination invalide");
+        }
+
+        return response;
+    }
+
     /**
      * Récupérer une offre d'emploi par ID
      */
+    @Transactional(readOnly = true)
     public JobOffreDto getJobOfferById(Long id) {
         JobOffreDto response = new JobOffreDto();
 
@@ -72,17 +166,107 @@ public class JobOfferService {
     /**
      * Rechercher des offres d'emploi par mot-clé
      */
+    @Transactional(readOnly = true)
     public JobOffreDto searchJobOffers(String keyword, int page, int size) {
         // Pour les requêtes natives SQL, utiliser le nom de colonne PostgreSQL
+        if (fullTextSearchSupport.isAvailable()) {
+            // Classement par pertinence (ts_rank), le tri est porté par la requête
+            return convertToDto(toSummaryPage(jobOfferRepository.searchIdsByFullText(keyword, PageRequest.of(page, size))));
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date_publication"));
-        Page<JobOffre> jobOffers = jobOfferRepository.searchByKeyword(keyword, pageable);
+        Page<Long> jobOfferIds = jobOfferRepository.searchIdsByKeyword(keyword, pageable);
 
-        return convertToDto(jobOffers);
+        return convertToDto(toSummaryPage(jobOfferIds));
+    }
+
+    /**
+     * Recherche hybride (lexicale + vectorielle, fusion RRF) : page des offres classées par pertinence
+     */
+    @Transactional(readOnly = true)
+    public JobOffreDto searchJobOffersHybrid(String keyword, int page, int size) {
+        JobOffreDto response = new JobOffreDto();
+
+        try {
+            List<Long> rankedIds = hybridJobOfferSearchService.search(keyword);
+
+            int from = Math.min(Math.max(page, 0) * Math.max(size, 0), rankedIds.size());
+            int to = Math.min(from + Math.max(size, 0), rankedIds.size());
+            List<Long> pageIds = rankedIds.subList(from, to);
+            List<JobOffreDto> jobOfferDtos = findSummariesInOrder(pageIds).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+
+            response.setJobOffers(jobOfferDtos);
+            response.setPage(page);
+            response.setSize(size);
+            response.setTotalElements((long) rankedIds.size());
+            response.setStatusCode(200);
+            response.setMessage("Offres d'emploi récupérées avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors de la recherche des offres d'emploi: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Recherche à facettes sur l'index plein texte en mémoire : classement BM25, filtres et comptage des facettes
+     * en un seul parcours de l'index
+     */
+    @Transactional(readOnly = true)
+    public JobOffreDto searchJobOffersFaceted(
+            String keyword, String titre, String localisation, String secteurActivite,
+            JobOffre.TypePoste typePoste, JobOffre.ModaliteTravail modaliteTravail,
+            Integer experienceMin, Double salaireMin, int page, int size) {
+        JobOffreDto response = new JobOffreDto();
+
+        if (!jobOfferSearchIndex.isReady()) {
+            response.setStatusCode(503);
+            response.setMessage("L'index de recherche des offres n'est pas disponible");
+            return response;
+        }
+
+        try {
+            JobOfferSearchResult result = jobOfferSearchIndex.search(keyword, titre, localisation, secteurActivite,
+                    typePoste, modaliteTravail, experienceMin, salaireMin, page, size);
+
+            Map<Long, JobOffreSummary> jobOffersById = findSummariesById(result.ids());
+
+            List<JobOffreDto> jobOfferDtos = new ArrayList<>();
+            for (int i = 0; i < result.ids().size(); i++) {
+                JobOffreSummary jobOffre = jobOffersById.get(result.ids().get(i));
+                if (jobOffre != null) {
+                    JobOffreDto dto = convertToDto(jobOffre);
+                    if (keyword != null && !keyword.isBlank()) {
+                        dto.setScorePertinence(result.scores().get(i));
+                    }
+                    jobOfferDtos.add(dto);
+                }
+            }
+
+            response.setJobOffers(jobOfferDtos);
+            response.setFacets(result.facets());
+            response.setPage(page);
+            response.setSize(size);
+            response.setTotalElements(result.totalElements());
+            response.setStatusCode(200);
+            response.setMessage("Offres d'emploi récupérées avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors de la recherche des offres d'emploi: " + e.getMessage());
+        }
+
+        return response;
     }
 
     /**
      * Rechercher des offres d'emploi avec filtres avancés
      */
+    @Transactional(readOnly = true)
     public JobOffreDto searchJobOffersWithFilters(
             String titre, String localisation, String secteurActivite,
             JobOffre.TypePoste typePoste, JobOffre.ModaliteTravail modaliteTravail,
@@ -95,25 +279,271 @@ public class JobOfferService {
         String typePosteStr = typePoste != null ? typePoste.name() : null;
         String modaliteTravailStr = modaliteTravail != null ? modaliteTravail.name() : null;
 
-        Page<JobOffre> jobOffers = jobOfferRepository.findWithFilters(
+        Page<Long> jobOfferIds = jobOfferRepository.findIdsWithFilters(
                 titre, localisation, secteurActivite, typePosteStr, modaliteTravailStr,
                 experienceMin, salaireMin, "ACTIVE", pageable);
 
-        return convertToDto(jobOffers);
+        return convertToDto(toSummaryPage(jobOfferIds));
+    }
+
+    /**
+     * Rechercher des offres avec filtres avancés, par curseur (datePublication, id) et sans COUNT.
+     * Total facultatif, estimé à partir de l'index plein texte en mémoire (absent s'il n'est pas chargé).
+     */
+    @Transactional(readOnly = true)
+    public JobOffreDto searchJobOffersWithFiltersByCursor(
+            String titre, String localisation, String secteurActivite,
+            JobOffre.TypePoste typePoste, JobOffre.ModaliteTravail modaliteTravail,
+            Integer experienceMin, Double salaireMin, String cursor, int size, boolean withTotal) {
+        JobOffreDto response = new JobOffreDto();
+
+        try {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            List<JobOffreSummary> jobOffers = jobOfferRepository.findWithFiltersBefore(
+                    titre, localisation, secteurActivite, typePoste, modaliteTravail,
+                    experienceMin, salaireMin, "ACTIVE", position.date(), position.id(),
+                    PageRequest.of(0, cursorPageSize(size) + 1));
+
+            response = convertToDto(jobOffers, cursorPageSize(size));
+            if (withTotal && jobOfferSearchIndex.isReady()) {
+                response.setTotalElements(jobOfferSearchIndex.search(null, titre, localisation, secteurActivite,
+                        typePoste, modaliteTravail, experienceMin, salaireMin, 0, 0).totalElements());
+                response.setTotalApproximatif(true);
+            }
+
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setMessage("Curseur de pagination invalide");
+        }
+
+        return response;
     }
 
     /**
      * Récupérer les offres récentes (30 derniers jours)
      */
+    @Transactional(readOnly = true)
     public JobOffreDto getRecentJobOffers(int page, int size) {
         LocalDateTime dateDebut = LocalDateTime.now().minusDays(30);
         // Pour les requêtes JPQL, utiliser le nom de propriété Java
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "datePublication"));
-        Page<JobOffre> jobOffers = jobOfferRepository.findRecentOffers(dateDebut, pageable);
+        Page<JobOffreSummary> jobOffers = jobOfferRepository.findRecentOffers(dateDebut, pageable);
 
         return convertToDto(jobOffers);
     }
 
+    // ===== MÉTHODES POUR LES CANDIDATS =====
+
+    /**
+     * Meilleures offres pré-calculées pour le CV du candidat connecté (table cv_job_matches)
+     */
+    @Transactional(readOnly = true)
+    public JobOffreDto getPrecomputedJobOfferMatches(int limit) {
+        JobOffreDto response = new JobOffreDto();
+
+        try {
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
+
+            if (utilisateurOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+
+            Optional<Cv> cvOptional = cvRepository.findByUtilisateurId(utilisateurOptional.get().getId());
+            if (cvOptional.isEmpty()) {
+                response.setStatusCode(400);
+                response.setMessage("Vous devez d'abord télécharger votre CV");
+                return response;
+            }
+
+            List<CvJobMatch> matches = cvJobMatchRepository.findByPerspectiveAndCvIdOrderByScoreDesc(
+                    CvJobMatch.Perspective.CV, cvOptional.get().getId(), PageRequest.of(0, Math.max(1, Math.min(limit, 100))));
+
+            Map<Long, JobOffreSummary> jobOffersById = findSummariesById(
+                    matches.stream().map(CvJobMatch::getJobOffreId).collect(Collectors.toList()));
+
+            List<JobOffreDto> jobOfferDtos = matches.stream()
+                    .filter(match -> jobOffersById.containsKey(match.getJobOffreId()))
+                    .map(match -> {
+                        JobOffreDto dto = convertToDto(jobOffersById.get(match.getJobOffreId()));
+                        dto.setScoreMatching(match.getScore());
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+
+            response.setJobOffers(jobOfferDtos);
+            response.setSize(jobOfferDtos.size());
+            response.setTotalElements((long) jobOfferDtos.size());
+            response.setStatusCode(200);
+            response.setMessage("Offres correspondant à votre CV récupérées avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors de la récupération des offres correspondantes: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Scorer le CV du candidat connecté contre une liste d'offres (typiquement la page affichée) :
+     * le CV et les offres sont lus dans une courte transaction, puis, sans connexion tenue, au plus un appel
+     * /embed_batch pour les exigences absentes du cache et un calcul purement CPU de tous les sous-scores
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JobOffreDto getMatchScores(List<Long> jobOfferIds) {
+        JobOffreDto response = new JobOffreDto();
+
+        try {
+            List<Long> ids = jobOfferIds == null ? List.of() : jobOfferIds.stream().filter(Objects::nonNull).distinct().toList();
+            if (ids.isEmpty() || ids.size() > MAX_MATCH_SCORE_OFFERS) {
+                response.setStatusCode(400);
+                response.setMessage("Indiquez entre 1 et " + MAX_MATCH_SCORE_OFFERS + " offres à scorer");
+                return response;
+            }
+
+            Optional<AuthenticatedUser> currentUser = AuthenticatedUser.current();
+            if (currentUser.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+
+            TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+            readTransaction.setReadOnly(true);
+            MatchScoreInputs inputs = readTransaction.execute(status -> {
+                // Texte extrait chargé ici : les heuristiques de matching le lisent hors transaction
+                Cv found = cvRepository.findWithDocumentByUtilisateurId(currentUser.get().id()).orElse(null);
+                float[] vector = found != null ? EmbeddingVectors.parse(found.getEmbedding()) : null;
+                return new MatchScoreInputs(found, vector,
+                        vector != null ? jobOfferRepository.findWithEmbeddingByIdIn(ids) : List.of());
+            });
+
+            Cv cv = inputs.cv();
+            if (cv == null) {
+                response.setStatusCode(400);
+                response.setMessage("Vous devez d'abord télécharger votre CV");
+                return response;
+            }
+
+            float[] cvVector = inputs.cvVector();
+            if (cvVector == null) {
+                response.setStatusCode(400);
+                response.setMessage("L'embedding de votre CV n'est pas encore disponible");
+                return response;
+            }
+
+            long start = System.currentTimeMillis();
+            Map<Long, JobOffre> jobOffersById = inputs.jobOffers().stream()
+                    .collect(Collectors.toMap(JobOffre::getId, Function.identity()));
+            List<JobOffre> jobOffers = ids.stream().map(jobOffersById::get).filter(Objects::nonNull).toList();
+            List<JobRequirementVectors> requirements = matchingService.prepareRequirementVectors(jobOffers);
+
+            List<JobOffreDto> scores = new ArrayList<>(jobOffers.size());
+            for (int i = 0; i < jobOffers.size(); i++) {
+                Map<String, Double> matchingScores = matchingService.calculateMatchingScores(
+                        cv, cvVector, jobOffers.get(i), requirements.get(i));
+
+                JobOffreDto dto = new JobOffreDto();
+                dto.setId(jobOffers.get(i).getId());
+                dto.setScoreMatching(matchingScores.get("global"));
+                dto.setScoreCompetencesTechniques(matchingScores.get("competencesTechniques"));
+                dto.setScoreCompetencesTransversales(matchingScores.get("competencesTransversales"));
+                dto.setScoreExperience(matchingScores.get("experience"));
+                dto.setScoreFormation(matchingScores.get("formation"));
+                dto.setScoreLangues(matchingScores.get("langues"));
+                scores.add(dto);
+            }
+            logger.debug("{} offres scorées pour le CV {} en {} ms", scores.size(), cv.getId(), System.currentTimeMillis() - start);
+
+            response.setJobOffers(scores);
+            response.setSize(scores.size());
+            response.setTotalElements((long) scores.size());
+            response.setStatusCode(200);
+            response.setMessage("Scores de matching calculés avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors du calcul des scores de matching: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    // CV, vecteur du CV et offres lus dans la transaction de getMatchScores
+    private record MatchScoreInputs(Cv cv, float[] cvVector, List<JobOffre> jobOffers) {
+    }
+
+    /**
+     * Récupérer les offres actives les plus proches du CV du candidat connecté,
+     * via l'index vectoriel en mémoire (aucun calcul d'embedding ni chargement ligne par ligne)
+     */
+    @Transactional(readOnly = true)
+    public JobOffreDto getBestMatchingJobOffers(int limit) {
+        JobOffreDto response = new JobOffreDto();
+
+        try {
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
+
+            if (utilisateurOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+
+            Optional<Cv> cvOptional = cvRepository.findByUtilisateurId(utilisateurOptional.get().getId());
+            if (cvOptional.isEmpty()) {
+                response.setStatusCode(400);
+                response.setMessage("Vous devez d'abord télécharger votre CV");
+                return response;
+            }
+
+            float[] cvVector = EmbeddingVectors.parse(cvOptional.get().getEmbedding());
+            if (cvVector == null) {
+                response.setStatusCode(400);
+                response.setMessage("L'embedding de votre CV n'est pas encore disponible");
+                return response;
+            }
+
+            int k = Math.max(1, Math.min(limit, 100));
+            List<VectorMatch> matches;
+            if (jobOfferVectorIndex.isReady()) {
+                matches = jobOfferVectorIndex.search(cvVector, k);
+            } else if (halfvecSupport.isAvailable()) {
+                matches = searchJobOffersByHalfvec(cvVector, k);
+            } else {
+                response.setStatusCode(503);
+                response.setMessage("L'index des offres n'est pas disponible");
+                return response;
+            }
+
+            Map<Long, JobOffreSummary> jobOffersById = findSummariesById(
+                    matches.stream().map(VectorMatch::id).collect(Collectors.toList()));
+
+            List<JobOffreDto> jobOfferDtos = matches.stream()
+                    .filter(match -> jobOffersById.containsKey(match.id()))
+                    .map(match -> {
+                        JobOffreDto dto = convertToDto(jobOffersById.get(match.id()));
+                        dto.setScoreMatching(EmbeddingVectors.toMatchingScore(match.similarity()));
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+
+            response.setJobOffers(jobOfferDtos);
+            response.setSize(jobOfferDtos.size());
+            response.setTotalElements((long) jobOfferDtos.size());
+            response.setStatusCode(200);
+            response.setMessage("Offres les plus pertinentes pour votre CV récupérées avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors du calcul des offres correspondantes: " + e.getMessage());
+        }
+
+        return response;
+    }
+
     // ===== MÉTHODES POUR LES EMPLOYEURS =====
 
     /**
@@ -124,8 +554,7 @@ public class JobOfferService {
 
         try {
             // Récupérer l'utilisateur connecté
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
 
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -136,7 +565,7 @@ public class JobOfferService {
             Utilisateur employeur = utilisateurOptional.get();
 
             // Vérifier que l'utilisateur est un employeur
-            if (!"EMPLOYER".equals(employeur.getRole()) && !"ADMIN".equals(employeur.getRole())) {
+            if (!currentUserHasRole("EMPLOYER") && !currentUserHasRole("ADMIN")) {
                 response.setStatusCode(403);
                 response.setMessage("Seuls les employeurs peuvent créer des offres d'emploi");
                 return response;
@@ -175,13 +604,15 @@ public class JobOfferService {
             String embedding = pythonEmbeddingService.generateJobOfferEmbedding(savedJobOffer);
             
             if (embedding != null && !embedding.isEmpty()) {
-                savedJobOffer.setEmbedding(embedding);
-                savedJobOffer = jobOfferRepository.save(savedJobOffer);
+                savedJobOffer = embeddingStorageService.saveJobOfferEmbedding(savedJobOffer, embedding);
                 logger.info("Embedding vectoriel généré et sauvegardé pour l'offre d'emploi ID: {}", savedJobOffer.getId());
             } else {
                 logger.warn("Échec de la génération d'embedding pour l'offre d'emploi ID: {}", savedJobOffer.getId());
             }
 
+            eventPublisher.publishEvent(new JobOfferChangedEvent(JobOfferChangedEvent.Type.CREATED, savedJobOffer));
+            cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.JOB_OFFER, savedJobOffer.getId());
+
             response = convertToDto(savedJobOffer);
             response.setStatusCode(201);
             response.setMessage("Offre d'emploi créée avec succès et embedding généré");
@@ -202,8 +633,7 @@ public class JobOfferService {
 
         try {
             // Récupérer l'utilisateur connecté
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
 
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -225,12 +655,15 @@ public class JobOfferService {
 
             // Vérifier que l'utilisateur est le propriétaire ou un admin
             if (!jobOffer.getEmployeur().getId().equals(currentUser.getId()) &&
-                !"ADMIN".equals(currentUser.getRole())) {
+                !currentUserHasRole("ADMIN")) {
                 response.setStatusCode(403);
                 response.setMessage("Vous n'avez pas le droit de modifier cette offre d'emploi");
                 return response;
             }
 
+            // Texte vectorisé avant modification, pour savoir si l'embedding et les scores sont à recalculer
+            String previousJobText = pythonEmbeddingService.buildJobOfferText(jobOffer);
+
             // Mettre à jour les champs
             if (jobOfferDto.getTitre() != null) jobOffer.setTitre(jobOfferDto.getTitre());
             if (jobOfferDto.getDescription() != null) jobOffer.setDescription(jobOfferDto.getDescription());
@@ -256,7 +689,17 @@ public class JobOfferService {
             if (jobOfferDto.getModaliteTravail() != null) jobOffer.setModaliteTravail(jobOfferDto.getModaliteTravail());
             // ...existing code...
 
+            boolean matchingCriteriaChanged = !previousJobText.equals(pythonEmbeddingService.buildJobOfferText(jobOffer));
+            String embedding = matchingCriteriaChanged ? pythonEmbeddingService.generateJobOfferEmbedding(jobOffer) : null;
+
             JobOffre updatedJobOffer = jobOfferRepository.save(jobOffer);
+            if (embedding != null && !embedding.isEmpty()) {
+                updatedJobOffer = embeddingStorageService.saveJobOfferEmbedding(updatedJobOffer, embedding);
+                logger.info("Embedding vectoriel régénéré pour l'offre d'emploi ID: {}", updatedJobOffer.getId());
+            }
+            eventPublisher.publishEvent(new JobOfferChangedEvent(JobOfferChangedEvent.Type.UPDATED, updatedJobOffer,
+                    matchingCriteriaChanged));
+            cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.JOB_OFFER, updatedJobOffer.getId());
 
             response = convertToDto(updatedJobOffer);
             response.setStatusCode(200);
@@ -273,13 +716,13 @@ public class JobOfferService {
     /**
      * Récupérer les offres d'emploi d'un employeur
      */
+    @Transactional(readOnly = true)
     public JobOffreDto getMyJobOffers(int page, int size) {
         JobOffreDto response = new JobOffreDto();
 
         try {
             // Récupérer l'utilisateur connecté
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
 
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -289,7 +732,7 @@ public class JobOfferService {
 
             Utilisateur employeur = utilisateurOptional.get();
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "datePublication"));
-            Page<JobOffre> jobOffers = jobOfferRepository.findByEmployeur(employeur, pageable);
+            Page<JobOffreSummary> jobOffers = jobOfferRepository.findSummariesByEmployeur(employeur.getId(), pageable);
 
             response = convertToDto(jobOffers);
             response.setStatusCode(200);
@@ -303,6 +746,84 @@ public class JobOfferService {
         return response;
     }
 
+    /**
+     * Rechercher les CV les plus proches d'une offre dans l'index HNSW (EMPLOYEUR propriétaire ou ADMIN)
+     */
+    @Transactional(readOnly = true)
+    public CvDto sourceCandidatesForJobOffer(Long id, int limit) {
+        CvDto response = new CvDto();
+
+        try {
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
+
+            if (utilisateurOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+
+            Utilisateur currentUser = utilisateurOptional.get();
+
+            Optional<JobOffre> jobOfferOptional = jobOfferRepository.findById(id);
+            if (jobOfferOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Offre d'emploi non trouvée");
+                return response;
+            }
+
+            JobOffre jobOffer = jobOfferOptional.get();
+
+            if (!jobOffer.getEmployeur().getId().equals(currentUser.getId()) &&
+                !currentUserHasRole("ADMIN")) {
+                response.setStatusCode(403);
+                response.setMessage("Vous n'avez pas accès aux candidats de cette offre d'emploi");
+                return response;
+            }
+
+            float[] jobVector = EmbeddingVectors.parse(jobOffer.getEmbedding());
+            if (jobVector == null) {
+                response.setStatusCode(400);
+                response.setMessage("L'embedding de cette offre n'est pas encore disponible");
+                return response;
+            }
+
+            int k = Math.max(1, Math.min(limit, 100));
+            List<VectorMatch> matches;
+            if (cvVectorIndex.isReady()) {
+                matches = cvVectorIndex.search(jobVector, k);
+            } else if (halfvecSupport.isAvailable()) {
+                matches = searchCvsByHalfvec(jobVector, k);
+            } else {
+                response.setStatusCode(503);
+                response.setMessage("L'index des CV n'est pas disponible");
+                return response;
+            }
+
+            Map<Long, CvProfileSummary> cvsById = cvRepository.findProfileSummariesByIds(
+                            matches.stream().map(VectorMatch::id).collect(Collectors.toList())).stream()
+                    .collect(Collectors.toMap(CvProfileSummary::id, Function.identity()));
+
+            List<CvDto> cvDtos = matches.stream()
+                    .filter(match -> cvsById.containsKey(match.id()))
+                    .map(match -> {
+                        CvDto dto = convertToCandidateProfile(cvsById.get(match.id()));
+                        dto.setScoreMatching(EmbeddingVectors.toMatchingScore(match.similarity()));
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+
+            response.setCvs(cvDtos);
+            response.setStatusCode(200);
+            response.setMessage("Candidats correspondants récupérés avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors de la recherche de candidats: " + e.getMessage());
+        }
+
+        return response;
+    }
+
     /**
      * Supprimer une offre d'emploi (EMPLOYEUR propriétaire ou ADMIN)
      */
@@ -311,8 +832,7 @@ public class JobOfferService {
 
         try {
             // Récupérer l'utilisateur connecté
-            String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Utilisateur> utilisateurOptional = utilisateurRepository.findByEmail(userEmail);
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
 
             if (utilisateurOptional.isEmpty()) {
                 response.setStatusCode(404);
@@ -334,13 +854,15 @@ public class JobOfferService {
 
             // Vérifier que l'utilisateur est le propriétaire ou un admin
             if (!jobOffer.getEmployeur().getId().equals(currentUser.getId()) &&
-                !"ADMIN".equals(currentUser.getRole())) {
+                !currentUserHasRole("ADMIN")) {
                 response.setStatusCode(403);
                 response.setMessage("Vous n'avez pas le droit de supprimer cette offre d'emploi");
                 return response;
             }
 
             jobOfferRepository.delete(jobOffer);
+            eventPublisher.publishEvent(new JobOfferChangedEvent(JobOfferChangedEvent.Type.DELETED, jobOffer));
+            cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.JOB_OFFER, jobOffer.getId());
 
             response.setStatusCode(200);
             response.setMessage("Offre d'emploi supprimée avec succès");
@@ -355,57 +877,222 @@ public class JobOfferService {
 
     // ===== MÉTHODES UTILITAIRES =====
 
+    /**
+     * Référence vers l'utilisateur authentifié construite depuis le principal du token, sans lecture en base
+     * (l'entité n'est chargée que si un autre champ que l'id est lu)
+     */
+    private Optional<Utilisateur> getCurrentUtilisateur() {
+        return AuthenticatedUser.current().map(user -> utilisateurRepository.getReferenceById(user.id()));
+    }
+
+    private static boolean currentUserHasRole(String role) {
+        return AuthenticatedUser.current().map(user -> user.hasRole(role)).orElse(false);
+    }
+
+    /**
+     * Candidats générés par l'index halfvec de PostgreSQL, re-scorés sur les embeddings pleine précision
+     */
+    @Transactional(readOnly = true)
+    public List<VectorMatch> searchJobOffersByHalfvec(float[] query, int k) {
+        List<Long> candidateIds = jobOfferRepository.findNearestActiveIdsByHalfvec(
+                EmbeddingVectors.toVectorLiteral(query), k * halfvecOversampling);
+        return EmbeddingVectors.rescore(query, jobOfferRepository.findWithEmbeddingByIdIn(candidateIds),
+                JobOffre::getId, JobOffre::getEmbedding, k);
+    }
+
+    private List<VectorMatch> searchCvsByHalfvec(float[] query, int k) {
+        List<Long> candidateIds = cvRepository.findNearestIdsByHalfvec(
+                EmbeddingVectors.toVectorLiteral(query), k * halfvecOversampling);
+        return EmbeddingVectors.rescore(query, cvRepository.findWithEmbeddingByIdIn(candidateIds),
+                Cv::getId, Cv::getEmbedding, k);
+    }
+
+    /**
+     * Meilleurs CV pré-calculés pour une offre (table cv_job_matches, EMPLOYEUR propriétaire ou ADMIN)
+     */
+    @Transactional(readOnly = true)
+    public CvDto getPrecomputedCandidateMatches(Long id, int limit) {
+        CvDto response = new CvDto();
+
+        try {
+            Optional<Utilisateur> utilisateurOptional = getCurrentUtilisateur();
+
+            if (utilisateurOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+
+            Utilisateur currentUser = utilisateurOptional.get();
+
+            Optional<JobOffre> jobOfferOptional = jobOfferRepository.findById(id);
+            if (jobOfferOptional.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Offre d'emploi non trouvée");
+                return response;
+            }
+
+            if (!jobOfferOptional.get().getEmployeur().getId().equals(currentUser.getId()) &&
+                !currentUserHasRole("ADMIN")) {
+                response.setStatusCode(403);
+                response.setMessage("Vous n'avez pas accès aux candidats de cette offre d'emploi");
+                return response;
+            }
+
+            List<CvJobMatch> matches = cvJobMatchRepository.findByPerspectiveAndJobOffreIdOrderByScoreDesc(
+                    CvJobMatch.Perspective.JOB_OFFER, id, PageRequest.of(0, Math.max(1, Math.min(limit, 100))));
+
+            Map<Long, CvProfileSummary> cvsById = cvRepository.findProfileSummariesByIds(
+                            matches.stream().map(CvJobMatch::getCvId).collect(Collectors.toList())).stream()
+                    .collect(Collectors.toMap(CvProfileSummary::id, Function.identity()));
+
+            List<CvDto> cvDtos = matches.stream()
+                    .filter(match -> cvsById.containsKey(match.getCvId()))
+                    .map(match -> {
+                        CvDto dto = convertToCandidateProfile(cvsById.get(match.getCvId()));
+                        dto.setScoreMatching(match.getScore());
+                        return dto;
+                    })
+                    .collect(Collectors.toList());
+
+            response.setCvs(cvDtos);
+            response.setStatusCode(200);
+            response.setMessage("Candidats correspondants récupérés avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors de la récupération des candidats: " + e.getMessage());
+        }
+
+        return response;
+    }
+
     /**
      * Convertir une entité JobOffre en DTO
      */
     private JobOffreDto convertToDto(JobOffre jobOffer) {
+        return convertToDto(JobOffreSummary.of(jobOffer));
+    }
+
+    /**
+     * Convertir une projection JobOffreSummary en DTO
+     */
+    private JobOffreDto convertToDto(JobOffreSummary jobOffer) {
         JobOffreDto dto = new JobOffreDto();
-        dto.setId(jobOffer.getId());
-        dto.setTitre(jobOffer.getTitre());
-        dto.setDescription(jobOffer.getDescription());
-        dto.setLocalisation(jobOffer.getLocalisation());
-        dto.setDatePublication(jobOffer.getDatePublication());
-        // dto.setDateExpiration(jobOffer.getDateExpiration());
-        dto.setStatut(jobOffer.getStatut());
-        dto.setEntreprise(jobOffer.getEntreprise());
-        dto.setTypeContrat(jobOffer.getTypeContrat());
-        dto.setSalaire(jobOffer.getSalaire());
-        dto.setExperience(jobOffer.getExperience());
+        dto.setId(jobOffer.id());
+        dto.setTitre(jobOffer.titre());
+        dto.setDescription(jobOffer.description());
+        dto.setLocalisation(jobOffer.localisation());
+        dto.setDatePublication(jobOffer.datePublication());
+        dto.setStatut(jobOffer.statut());
+        dto.setVersion(jobOffer.version());
+        dto.setDateModification(jobOffer.dateModification());
+        dto.setEntreprise(jobOffer.entreprise());
+        dto.setTypeContrat(jobOffer.typeContrat());
+        dto.setSalaire(jobOffer.salaire());
+        dto.setExperience(jobOffer.experience());
 
         // Nouveaux champs
-        dto.setCompetencesTechniques(jobOffer.getCompetencesTechniques());
-        dto.setCompetencesTransversales(jobOffer.getCompetencesTransversales());
-        dto.setExperienceMinRequise(jobOffer.getExperienceMinRequise());
-        dto.setNiveauEtudeMin(jobOffer.getNiveauEtudeMin());
-        dto.setLanguesRequises(jobOffer.getLanguesRequises());
-        dto.setSecteurActivite(jobOffer.getSecteurActivite());
-        dto.setMissionPrincipale(jobOffer.getMissionPrincipale());
-        dto.setResponsabilites(jobOffer.getResponsabilites());
-        dto.setOutilsTechnologies(jobOffer.getOutilsTechnologies());
-        dto.setTypePoste(jobOffer.getTypePoste());
-        dto.setModaliteTravail(jobOffer.getModaliteTravail());
-        // ...existing code...
+        dto.setCompetencesTechniques(jobOffer.competencesTechniques());
+        dto.setCompetencesTransversales(jobOffer.competencesTransversales());
+        dto.setExperienceMinRequise(jobOffer.experienceMinRequise());
+        dto.setNiveauEtudeMin(jobOffer.niveauEtudeMin());
+        dto.setLanguesRequises(jobOffer.languesRequises());
+        dto.setSecteurActivite(jobOffer.secteurActivite());
+        dto.setMissionPrincipale(jobOffer.missionPrincipale());
+        dto.setResponsabilites(jobOffer.responsabilites());
+        dto.setOutilsTechnologies(jobOffer.outilsTechnologies());
+        dto.setTypePoste(jobOffer.typePoste());
+        dto.setModaliteTravail(jobOffer.modaliteTravail());
 
         // Informations de l'employeur
-        if (jobOffer.getEmployeur() != null) {
-            dto.setEmployeurId(jobOffer.getEmployeur().getId());
-            dto.setEmployeurNom(jobOffer.getEmployeur().getNom());
-            dto.setEmployeurPrenom(jobOffer.getEmployeur().getPrenom());
-            dto.setEmployeurEmail(jobOffer.getEmployeur().getEmail());
+        if (jobOffer.employeurId() != null) {
+            dto.setEmployeurId(jobOffer.employeurId());
+            dto.setEmployeurNom(jobOffer.employeurNom());
+            dto.setEmployeurPrenom(jobOffer.employeurPrenom());
+            dto.setEmployeurEmail(jobOffer.employeurEmail());
         }
 
         // Ajouter l'embedding dans la réponse (pour confirmation)
-        if (jobOffer.getEmbedding() != null && !jobOffer.getEmbedding().isEmpty()) {
-            dto.setEmbedding("Embedding généré (" + jobOffer.getEmbedding().length() + " caractères)");
+        if (jobOffer.embeddingLength() != null && jobOffer.embeddingLength() > 0) {
+            dto.setEmbedding("Embedding généré (" + jobOffer.embeddingLength() + " caractères)");
         }
 
         return dto;
     }
 
     /**
-     * Convertir une page d'entités JobOffre en DTO avec pagination
+     * Projections des offres indexées par id (une requête, sans embedding)
+     */
+    private Map<Long, JobOffreSummary> findSummariesById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return jobOfferRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(JobOffreSummary::id, Function.identity()));
+    }
+
+    /**
+     * Projections des offres dans l'ordre des ids (classement calculé ailleurs), les ids disparus étant ignorés
+     */
+    private List<JobOffreSummary> findSummariesInOrder(List<Long> ids) {
+        Map<Long, JobOffreSummary> summariesById = findSummariesById(ids);
+        return ids.stream().map(summariesById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Page d'ids (requêtes natives) complétée par les projections, en conservant l'ordre et le total de la page
+     */
+    private Page<JobOffreSummary> toSummaryPage(Page<Long> idPage) {
+        return new PageImpl<>(findSummariesInOrder(idPage.getContent()), idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Profil candidat exposé au sourcing (sans le texte brut ni le chemin du fichier)
+     */
+    private CvDto convertToCandidateProfile(CvProfileSummary cv) {
+        CvDto dto = new CvDto();
+        dto.setId(cv.id());
+        dto.setNom(cv.nom());
+        dto.setPrenom(cv.prenom());
+        dto.setEmail(cv.email());
+        dto.setCompetencesTechniques(cv.competencesTechniques());
+        dto.setCompetencesTransversales(cv.competencesTransversales());
+        dto.setExperienceAnnees(cv.experienceAnnees());
+        dto.setNiveauEtude(cv.niveauEtude());
+        dto.setLangues(cv.langues());
+        dto.setResumeProfessionnel(cv.resumeProfessionnel());
+        dto.setDateModification(cv.dateModification());
+        return dto;
+    }
+
+    /**
+     * Page lue par curseur : `jobOffers` contient jusqu'à size + 1 offres, la dernière indiquant qu'il reste une page
+     */
+    private JobOffreDto convertToDto(List<JobOffreSummary> jobOffers, int size) {
+        JobOffreDto response = new JobOffreDto();
+
+        List<JobOffreSummary> pageContent = jobOffers.size() > size ? jobOffers.subList(0, size) : jobOffers;
+        response.setJobOffers(pageContent.stream().map(this::convertToDto).collect(Collectors.toList()));
+        response.setSize(size);
+        if (jobOffers.size() > size) {
+            JobOffreSummary last = pageContent.get(pageContent.size() - 1);
+            response.setNextCursor(new KeysetCursor(null, last.datePublication(), last.id()).encode());
+        }
+        response.setStatusCode(200);
+        response.setMessage("Offres d'emploi récupérées avec succès");
+
+        return response;
+    }
+
+    private static int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+
+    /**
+     * Convertir une page de projections JobOffreSummary en DTO avec pagination
      */
-    private JobOffreDto convertToDto(Page<JobOffre> jobOfferPage) {
+    private JobOffreDto convertToDto(Page<JobOffreSummary> jobOfferPage) {
         JobOffreDto response = new JobOffreDto();
 
         List<JobOffreDto> jobOfferDtos = jobOfferPage.getContent().stream()
@@ -0,0 +1,469 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Repository.JobOfferRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index vectoriel exact, en mémoire, des offres d'emploi actives.
+ *
+ * Les embeddings normalisés sont rangés ligne par ligne dans une seule matrice float[] contiguë :
+ * scorer un CV contre toutes les offres revient à un parcours séquentiel de la matrice (produit scalaire
+ * = similarité cosinus), sans accès base ni parsing JSON. L'index est chargé au démarrage puis tenu à jour
+ * de manière incrémentale à partir des JobOfferChangedEvent publiés par JobOfferService.
+ * Une copie quantifiée en int8 de la matrice (4x plus compacte) sert à la génération rapide de candidats,
+ * la matrice float n'étant relue que pour re-scorer exactement ces candidats.
+ * Une reconstruction (démarrage, reconnexion du bus d'invalidation) charge une nouvelle matrice hors verrou et ne
+ * la substitue à l'ancienne qu'une fois complète : les recherches continuent sur l'ancienne, conservée en cas d'échec.
+ */
+@Component
+public class JobOfferVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobOfferVectorIndex.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Value("${app.vector-index.job-offers.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.vector-index.job-offers.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    @Value("${app.vector-index.job-offers.quantization.enabled:true}")
+    private boolean quantizationEnabled;
+
+    @Value("${app.vector-index.job-offers.quantization.oversampling:4}")
+    private int oversampling;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Matrix matrix = new Matrix();
+
+    // Écritures reçues pendant une reconstruction (vecteur null = suppression), rejouées sur la nouvelle matrice
+    private Map<Long, float[]> changesDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    // ===== CYCLE DE VIE =====
+
+    /**
+     * Charger les embeddings de toutes les offres actives au démarrage (lots keyset sur l'id)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            logger.info("Index vectoriel des offres désactivé");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Reconstruire entièrement l'index à partir de la base, dans une nouvelle matrice substituée à la fin
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+        int loaded = 0;
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Matrix rebuilt = new Matrix();
+        try {
+            while (true) {
+                List<Object[]> rows = jobOfferRepository.findActiveEmbeddingsAfter(afterId, PageRequest.of(0, loadBatchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    afterId = id;
+                    if (rebuilt.upsert(id, EmbeddingVectors.parse((String) row[1]))) {
+                        loaded++;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Erreur lors du chargement de l'index vectoriel des offres, index précédent conservé: {}",
+                    e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach((id, vector) -> {
+                if (!rebuilt.upsert(id, vector)) {
+                    rebuilt.remove(id);
+                }
+            });
+            changesDuringRebuild = null;
+            matrix = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Index vectoriel des offres chargé: {} offres actives en {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Tenir l'index à jour après chaque création / modification / suppression d'offre
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        JobOffre jobOffre = event.getJobOffre();
+        if (event.getType() == JobOfferChangedEvent.Type.DELETED || !"ACTIVE".equals(jobOffre.getStatut())) {
+            remove(jobOffre.getId());
+        } else {
+            upsert(jobOffre.getId(), jobOffre.getEmbedding());
+        }
+    }
+
+    /**
+     * Offre écrite par une autre instance : relire son embedding en base
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (!enabled || !event.concerns(CacheInvalidationEvent.Kind.JOB_OFFER)) {
+            return;
+        }
+        if (event.isAll()) {
+            rebuild();
+            return;
+        }
+
+        Optional<JobOffre> jobOffre = jobOfferRepository.findWithEmbeddingById(event.getId())
+                .filter(offer -> "ACTIVE".equals(offer.getStatut()));
+        if (jobOffre.isPresent()) {
+            upsert(event.getId(), jobOffre.get().getEmbedding());
+        } else {
+            remove(event.getId());
+        }
+    }
+
+    // ===== MISE À JOUR =====
+
+    /**
+     * Ajouter ou remplacer le vecteur d'une offre
+     */
+    public void upsert(Long jobOfferId, String embeddingJson) {
+        float[] vector = EmbeddingVectors.parse(embeddingJson);
+
+        lock.writeLock().lock();
+        try {
+            if (!matrix.upsert(jobOfferId, vector)) {
+                matrix.remove(jobOfferId);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(jobOfferId, vector);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer une offre de l'index
+     */
+    public void remove(Long jobOfferId) {
+        lock.writeLock().lock();
+        try {
+            matrix.remove(jobOfferId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(jobOfferId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== RECHERCHE =====
+
+    /**
+     * Retourner les K offres les plus proches d'un vecteur, par similarité cosinus décroissante.
+     * Avec la quantification activée, les candidats sont d'abord générés sur la matrice int8
+     * (K x facteur de sur-échantillonnage), puis re-scorés exactement sur les vecteurs float.
+     */
+    public List<VectorMatch> search(float[] query, int k) {
+        return quantizationEnabled ? searchQuantized(query, k) : searchExact(query, k);
+    }
+
+    /**
+     * Parcours exact de la matrice float (référence pour le rapport de rappel)
+     */
+    public List<VectorMatch> searchExact(float[] query, int k) {
+        float[] normalizedQuery = normalizedCopy(query);
+        if (normalizedQuery == null || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Matrix current = matrix;
+            if (current.size == 0 || normalizedQuery.length != current.dimension) {
+                return Collections.emptyList();
+            }
+
+            TopK top = new TopK(Math.min(k, current.size));
+            for (int row = 0, offset = 0; row < current.size; row++, offset += current.dimension) {
+                top.offer(EmbeddingVectors.dot(normalizedQuery, current.vectors, offset), row);
+            }
+            return top.toMatches(current.ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Génération de candidats sur les codes int8 puis re-scoring exact des candidats retenus
+     */
+    public List<VectorMatch> searchQuantized(float[] query, int k) {
+        float[] normalizedQuery = normalizedCopy(query);
+        if (normalizedQuery == null || k <= 0) {
+            return Collections.emptyList();
+        }
+
+        byte[] queryCodes = new byte[normalizedQuery.length];
+        float queryScale = EmbeddingVectors.quantize(normalizedQuery, queryCodes, 0);
+
+        lock.readLock().lock();
+        try {
+            Matrix current = matrix;
+            if (current.size == 0 || normalizedQuery.length != current.dimension) {
+                return Collections.emptyList();
+            }
+
+            TopK candidates = new TopK(Math.min(k * Math.max(1, oversampling), current.size));
+            for (int row = 0, offset = 0; row < current.size; row++, offset += current.dimension) {
+                candidates.offer(queryScale * current.scales[row] * EmbeddingVectors.dot(queryCodes, current.codes, offset), row);
+            }
+
+            TopK top = new TopK(Math.min(k, candidates.size));
+            for (int i = 0; i < candidates.size; i++) {
+                int row = candidates.rows[i];
+                top.offer(EmbeddingVectors.dot(normalizedQuery, current.vectors, row * current.dimension), row);
+            }
+            return top.toMatches(current.ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getOversampling() {
+        return oversampling;
+    }
+
+    public int getDimension() {
+        lock.readLock().lock();
+        try {
+            return matrix.dimension;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return matrix.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES =====
+
+    private static float[] normalizedCopy(float[] query) {
+        if (query == null) {
+            return null;
+        }
+        float[] normalized = Arrays.copyOf(query, query.length);
+        return EmbeddingVectors.normalize(normalized) ? normalized : null;
+    }
+
+    /**
+     * Matrice [capacity x dimension] des vecteurs normalisés, ligne i <-> ids[i], et sa copie quantifiée en int8
+     * (une échelle par ligne) parcourue pour la génération de candidats
+     */
+    private static final class Matrix {
+
+        private float[] vectors = new float[0];
+        private byte[] codes = new byte[0];
+        private float[] scales = new float[0];
+        private long[] ids = new long[0];
+        private final Map<Long, Integer> rowById = new HashMap<>();
+        private int size = 0;
+        private int dimension = -1;
+
+        boolean upsert(Long id, float[] vector) {
+            if (id == null || vector == null || !EmbeddingVectors.normalize(vector)) {
+                return false;
+            }
+
+            if (dimension == -1) {
+                dimension = vector.length;
+            } else if (vector.length != dimension) {
+                logger.warn("Embedding de dimension {} ignoré pour l'offre {} (dimension de l'index: {})", vector.length, id, dimension);
+                return false;
+            }
+
+            Integer row = rowById.get(id);
+            if (row == null) {
+                ensureCapacity(size + 1);
+                row = size++;
+                ids[row] = id;
+                rowById.put(id, row);
+            }
+            System.arraycopy(vector, 0, vectors, row * dimension, dimension);
+            scales[row] = EmbeddingVectors.quantize(vector, codes, row * dimension);
+            return true;
+        }
+
+        void remove(Long id) {
+            Integer row = rowById.remove(id);
+            if (row == null) {
+                return;
+            }
+
+            // Déplacer la dernière ligne dans le trou pour garder la matrice contiguë
+            int last = --size;
+            if (row != last) {
+                System.arraycopy(vectors, last * dimension, vectors, row * dimension, dimension);
+                System.arraycopy(codes, last * dimension, codes, row * dimension, dimension);
+                scales[row] = scales[last];
+                ids[row] = ids[last];
+                rowById.put(ids[row], row);
+            }
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(INITIAL_CAPACITY, ids.length * 2);
+            while (capacity < required) {
+                capacity *= 2;
+            }
+            ids = Arrays.copyOf(ids, capacity);
+            vectors = Arrays.copyOf(vectors, capacity * dimension);
+            codes = Arrays.copyOf(codes, capacity * dimension);
+            scales = Arrays.copyOf(scales, capacity);
+        }
+    }
+
+    /**
+     * Tas minimal borné à K éléments : la racine est le plus faible score retenu
+     */
+    private static final class TopK {
+
+        private final float[] scores;
+        private final int[] rows;
+        private int size = 0;
+
+        TopK(int capacity) {
+            scores = new float[capacity];
+            rows = new int[capacity];
+        }
+
+        void offer(float score, int row) {
+            if (size < scores.length) {
+                scores[size] = score;
+                rows[size] = row;
+                siftUp(size++);
+            } else if (size > 0 && score > scores[0]) {
+                scores[0] = score;
+                rows[0] = row;
+                siftDown();
+            }
+        }
+
+        List<VectorMatch> toMatches(long[] ids) {
+            List<VectorMatch> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                matches.add(new VectorMatch(ids[rows[i]], scores[i]));
+            }
+            matches.sort((a, b) -> Double.compare(b.similarity(), a.similarity()));
+            return matches;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] <= scores[index]) {
+                    break;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown() {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    break;
+                }
+                int smallest = left;
+                int right = left + 1;
+                if (right < size && scores[right] < scores[left]) {
+                    smallest = right;
+                }
+                if (scores[index] <= scores[smallest]) {
+                    break;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+    }
+}
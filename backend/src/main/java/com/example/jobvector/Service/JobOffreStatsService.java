@@ -0,0 +1,234 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.AuthenticatedUser;
+import com.example.jobvector.Dto.EmployerDashboardDto;
+import com.example.jobvector.Model.Application;
+import com.example.jobvector.Model.JobOffreStats;
+import com.example.jobvector.Repository.JobOffreStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Agrégats des candidatures par offre (table job_offre_stats) et tableau de bord employeur.
+ *
+ * Les compteurs sont mis à jour par des UPDATE atomiques (colonne = colonne + 1) dans la transaction de
+ * l'écriture : candidature, changement de statut, retrait. Le score maximum ne pouvant pas être décrémenté, les
+ * agrégats de scores sont recalculés depuis les candidatures de l'offre après un re-scoring ou une
+ * re-pondération. Le tableau de bord est ainsi une seule lecture indexée, quel que soit le nombre de candidatures.
+ * Une ligne absente (offre antérieure aux agrégats) est reconstruite depuis les candidatures à la première écriture.
+ */
+@Service
+@Transactional
+public class JobOffreStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobOffreStatsService.class);
+
+    private static final String INSERT_FROM_APPLICATIONS_SQL = "INSERT INTO job_offre_stats (job_offre_id, employeur_id, " +
+            "nb_candidatures, " + Arrays.stream(Application.StatutCandidature.values())
+                    .map(JobOffreStats::countColumn).collect(Collectors.joining(", ")) +
+            ", nb_scores, somme_scores, score_max, date_mise_a_jour) " +
+            "SELECT j.id, j.employeur_id, COUNT(a.id), " + Arrays.stream(Application.StatutCandidature.values())
+                    .map(statut -> "COUNT(CASE WHEN a.statut = '" + statut.name() + "' THEN 1 END)")
+                    .collect(Collectors.joining(", ")) +
+            ", COUNT(a.score_global), COALESCE(SUM(a.score_global), 0), MAX(a.score_global), LOCALTIMESTAMP " +
+            "FROM job_offres j LEFT JOIN applications a ON a.job_offre_id = j.id " +
+            "WHERE j.id = ? AND NOT EXISTS (SELECT 1 FROM job_offre_stats s WHERE s.job_offre_id = j.id) " +
+            "GROUP BY j.id, j.employeur_id";
+
+    private static final String REFRESH_SCORES_SQL = "UPDATE job_offre_stats s SET " +
+            "nb_scores = (SELECT COUNT(a.score_global) FROM applications a WHERE a.job_offre_id = s.job_offre_id), " +
+            "somme_scores = (SELECT COALESCE(SUM(a.score_global), 0) FROM applications a WHERE a.job_offre_id = s.job_offre_id), " +
+            "score_max = (SELECT MAX(a.score_global) FROM applications a WHERE a.job_offre_id = s.job_offre_id), " +
+            "date_mise_a_jour = LOCALTIMESTAMP";
+
+    @Autowired
+    private JobOffreStatsRepository jobOffreStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // ===== MISE À JOUR INCRÉMENTALE =====
+
+    /**
+     * Compter une nouvelle candidature (et son score global s'il est déjà calculé)
+     */
+    public void recordApplication(Application application) {
+        Long jobOffreId = application.getJobOffre().getId();
+        String column = JobOffreStats.countColumn(application.getStatut());
+        String sql = "UPDATE job_offre_stats SET nb_candidatures = nb_candidatures + 1, " +
+                column + " = " + column + " + 1, date_mise_a_jour = LOCALTIMESTAMP";
+
+        int updated;
+        Double score = application.getScoreGlobal();
+        if (score != null) {
+            updated = jdbcTemplate.update(sql + ", nb_scores = nb_scores + 1, somme_scores = somme_scores + ?, " +
+                    "score_max = CASE WHEN score_max IS NULL OR score_max < ? THEN ? ELSE score_max END " +
+                    "WHERE job_offre_id = ?", score, score, score, jobOffreId);
+        } else {
+            updated = jdbcTemplate.update(sql + " WHERE job_offre_id = ?", jobOffreId);
+        }
+
+        if (updated == 0) {
+            rebuild(jobOffreId);
+        }
+    }
+
+    /**
+     * Déplacer une candidature d'un compteur de statut à l'autre (changement de statut, retrait)
+     */
+    public void recordStatusChange(Application application, Application.StatutCandidature previousStatut) {
+        if (previousStatut == application.getStatut()) {
+            return;
+        }
+
+        Long jobOffreId = application.getJobOffre().getId();
+        String from = JobOffreStats.countColumn(previousStatut);
+        String to = JobOffreStats.countColumn(application.getStatut());
+        int updated = jdbcTemplate.update("UPDATE job_offre_stats SET " + from + " = " + from + " - 1, " +
+                to + " = " + to + " + 1, date_mise_a_jour = LOCALTIMESTAMP WHERE job_offre_id = ?", jobOffreId);
+
+        if (updated == 0) {
+            rebuild(jobOffreId);
+        }
+    }
+
+    // ===== RECALCUL DES SCORES =====
+
+    /**
+     * Recalculer les agrégats de scores d'une offre depuis ses candidatures (après un re-scoring)
+     */
+    public void refreshScores(Long jobOffreId) {
+        jdbcTemplate.update(REFRESH_SCORES_SQL + " WHERE s.job_offre_id = ?", jobOffreId);
+    }
+
+    /**
+     * Recalculer les agrégats de scores des offres d'un employeur (après une re-pondération)
+     */
+    public void refreshScoresByEmployeur(Long employeurId) {
+        jdbcTemplate.update(REFRESH_SCORES_SQL + " WHERE s.employeur_id = ?", employeurId);
+    }
+
+    /**
+     * Recalculer les agrégats de scores de toutes les offres (après une re-pondération globale)
+     */
+    public void refreshAllScores() {
+        int updated = jdbcTemplate.update(REFRESH_SCORES_SQL);
+        logger.info("Agrégats de scores recalculés pour {} offres", updated);
+    }
+
+    /**
+     * Créer la ligne d'une nouvelle offre, supprimer celle d'une offre supprimée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> jdbcTemplate.update(INSERT_FROM_APPLICATIONS_SQL, event.getJobOfferId());
+            case DELETED -> jobOffreStatsRepository.deleteById(event.getJobOfferId());
+            default -> { }
+        }
+    }
+
+    // ===== TABLEAU DE BORD =====
+
+    /**
+     * Tableau de bord de l'employeur connecté : candidatures par statut et scores de chacune de ses offres
+     */
+    @Transactional(readOnly = true)
+    public EmployerDashboardDto getEmployerDashboard() {
+        EmployerDashboardDto response = new EmployerDashboardDto();
+
+        try {
+            Optional<AuthenticatedUser> currentUser = AuthenticatedUser.current();
+            if (currentUser.isEmpty()) {
+                response.setStatusCode(404);
+                response.setMessage("Utilisateur non trouvé");
+                return response;
+            }
+
+            List<EmployerDashboardDto.JobOffreStatsDto> offres = new ArrayList<>();
+            Map<String, Long> totalParStatut = emptyCountsByStatut();
+            long total = 0;
+
+            for (Object[] row : jobOffreStatsRepository.findDashboardRows(currentUser.get().id())) {
+                JobOffreStats stats = (JobOffreStats) row[0];
+                EmployerDashboardDto.JobOffreStatsDto offre = convertToDto(stats, (String) row[1], (String) row[2]);
+                offre.getCandidaturesParStatut().forEach((statut, count) -> totalParStatut.merge(statut, count, Long::sum));
+                total += stats.getNbCandidatures();
+                offres.add(offre);
+            }
+
+            response.setNbOffres(offres.size());
+            response.setNbCandidatures(total);
+            response.setCandidaturesParStatut(totalParStatut);
+            response.setOffres(offres);
+            response.setStatusCode(200);
+            response.setMessage("Tableau de bord récupéré avec succès");
+
+        } catch (Exception e) {
+            logger.error("Erreur lors de la récupération du tableau de bord: {}", e.getMessage(), e);
+            response.setStatusCode(500);
+            response.setMessage("Erreur interne du serveur");
+        }
+
+        return response;
+    }
+
+    // ===== MÉTHODES UTILITAIRES =====
+
+    /**
+     * Reconstruire la ligne d'une offre depuis ses candidatures, écriture en cours comprise
+     */
+    private void rebuild(Long jobOffreId) {
+        entityManager.flush();
+        jdbcTemplate.update(INSERT_FROM_APPLICATIONS_SQL, jobOffreId);
+        logger.info("Agrégats des candidatures de l'offre {} reconstruits", jobOffreId);
+    }
+
+    private EmployerDashboardDto.JobOffreStatsDto convertToDto(JobOffreStats stats, String titre, String statut) {
+        EmployerDashboardDto.JobOffreStatsDto dto = new EmployerDashboardDto.JobOffreStatsDto();
+        dto.setJobOffreId(stats.getJobOffreId());
+        dto.setTitre(titre);
+        dto.setStatut(statut);
+        dto.setNbCandidatures(stats.getNbCandidatures());
+
+        Map<String, Long> parStatut = emptyCountsByStatut();
+        for (Application.StatutCandidature statutCandidature : Application.StatutCandidature.values()) {
+            parStatut.put(statutCandidature.name(), stats.getCount(statutCandidature));
+        }
+        dto.setCandidaturesParStatut(parStatut);
+
+        dto.setNbCandidaturesScorees(stats.getNbScores());
+        dto.setScoreMoyen(stats.getScoreMoyen());
+        dto.setScoreMax(stats.getScoreMax());
+        dto.setDateMiseAJour(stats.getDateMiseAJour());
+        return dto;
+    }
+
+    private static Map<String, Long> emptyCountsByStatut() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Application.StatutCandidature statut : Application.StatutCandidature.values()) {
+            counts.put(statut.name(), 0L);
+        }
+        return counts;
+    }
+}
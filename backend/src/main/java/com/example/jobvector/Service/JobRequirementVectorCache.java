@@ -0,0 +1,75 @@
+package com.example.jobvector.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU des vecteurs d'exigences des offres : une offre n'est vectorisée qu'une fois tant qu'elle
+ * n'est pas modifiée, le scoring d'une page d'offres se fait alors sans aucun appel au service d'embedding.
+ * Seuls les vecteurs complets sont mis en cache (pas ceux calculés pendant une panne du service).
+ */
+@Component
+public class JobRequirementVectorCache {
+
+    private final Map<Long, JobRequirementVectors> entries;
+
+    public JobRequirementVectorCache(@Value("${app.matching.requirement-cache.max-size:10000}") int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, JobRequirementVectors> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized JobRequirementVectors get(Long jobOfferId) {
+        return jobOfferId != null ? entries.get(jobOfferId) : null;
+    }
+
+    public synchronized void put(JobRequirementVectors vectors) {
+        if (vectors.getJobOfferId() != null) {
+            entries.put(vectors.getJobOfferId(), vectors);
+        }
+    }
+
+    public synchronized void evict(Long jobOfferId) {
+        entries.remove(jobOfferId);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Invalider les vecteurs d'une offre modifiée ou supprimée
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE) // avant le re-scoring automatique, qui relit les vecteurs
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (event.getType() != JobOfferChangedEvent.Type.CREATED) {
+            evict(event.getJobOfferId());
+        }
+    }
+
+    /**
+     * Offre écrite par une autre instance
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (!event.concerns(CacheInvalidationEvent.Kind.JOB_OFFER)) {
+            return;
+        }
+        if (event.isAll()) {
+            clear();
+        } else {
+            evict(event.getId());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.jobvector.Service;
+
+/**
+ * Vecteurs des exigences d'une offre, calculés une seule fois (un appel /embed_batch) puis réutilisés
+ * pour scorer autant de CV que nécessaire sans aucun appel réseau.
+ * Un vecteur null signifie que l'exigence est absente de l'offre ou que le service d'embedding était indisponible.
+ */
+public class JobRequirementVectors {
+
+    private final Long jobOfferId;
+    private final float[] jobEmbedding;
+    private final float[] competencesTechniques;
+    private final float[] competencesTransversales;
+    private final float[] formation;
+
+    public JobRequirementVectors(Long jobOfferId, float[] jobEmbedding, float[] competencesTechniques,
+                                 float[] competencesTransversales, float[] formation) {
+        this.jobOfferId = jobOfferId;
+        this.jobEmbedding = jobEmbedding;
+        this.competencesTechniques = competencesTechniques;
+        this.competencesTransversales = competencesTransversales;
+        this.formation = formation;
+    }
+
+    public Long getJobOfferId() {
+        return jobOfferId;
+    }
+
+    public float[] getJobEmbedding() {
+        return jobEmbedding;
+    }
+
+    public float[] getCompetencesTechniques() {
+        return competencesTechniques;
+    }
+
+    public float[] getCompetencesTransversales() {
+        return competencesTransversales;
+    }
+
+    public float[] getFormation() {
+        return formation;
+    }
+}
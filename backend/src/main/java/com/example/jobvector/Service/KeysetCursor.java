@@ -0,0 +1,50 @@
+package com.example.jobvector.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Curseur opaque de pagination par clé (seek) : position du dernier élément d'une page dans l'ordre
+ * (score décroissant,) date décroissante, id décroissant. La page suivante est lue avec un prédicat
+ * "après cette position" sur un index, sans OFFSET : son coût ne dépend pas de la profondeur.
+ * Le score est null pour les listes triées par date seule ou quand le dernier élément n'a pas de score.
+ */
+public record KeysetCursor(Double score, LocalDateTime date, Long id) {
+
+    private static final String VERSION = "v1";
+
+    // Position avant le premier élément : toutes les lignes réelles sont "après"
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public static KeysetCursor first() {
+        return new KeysetCursor(Double.MAX_VALUE, FIRST_DATE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Décoder un curseur reçu du client (vide ou null : première page)
+     *
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return first();
+        }
+
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            Double score = parts[1].isEmpty() ? null : Double.valueOf(parts[1]);
+            return new KeysetCursor(score, LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Curseur invalide", e);
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + (score != null ? score : "") + "|" + date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
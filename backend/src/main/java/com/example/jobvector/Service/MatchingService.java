@@ -2,15 +2,20 @@ package com.example.jobvector.Service;
 
 import com.example.jobvector.Model.JobOffre;
 import com.example.jobvector.Model.Cv;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service pour calculer les scores de matching entre CV et offres d'emploi
@@ -20,11 +25,22 @@ import java.util.Map;
 public class MatchingService {
     
     private static final Logger logger = LoggerFactory.getLogger(MatchingService.class);
-    private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Autowired
     private PythonEmbeddingService pythonEmbeddingService;
     
+    @Autowired
+    private ScoringProfileService scoringProfileService;
+    
+    @Autowired
+    private JobRequirementVectorCache requirementVectorCache;
+    
+    @Value("${app.matching.weighted-scoring.enabled:true}")
+    private boolean weightedScoringEnabled;
+    
+    // Niveaux d'étude évalués par règles ; les autres passent par la similarité "Education <niveau>"
+    private static final Set<String> RULE_BASED_EDUCATION_LEVELS = Set.of("BAC_PLUS_5", "BAC_PLUS_3", "BAC_PLUS_2");
+    
     /**
      * Calculer les scores de matching entre un CV et une offre d'emploi
      * VERSION AMÉLIORÉE avec pondération intelligente
@@ -35,36 +51,139 @@ public class MatchingService {
      * @return Map contenant les différents scores de matching
      */
     public Map<String, Double> calculateMatchingScores(String cvEmbedding, JobOffre jobOffer, Cv cv) {
+        // Vérifier que l'embedding du CV est valide
+        float[] cvVector = EmbeddingVectors.parse(cvEmbedding);
+        if (cvVector == null) {
+            logger.warn("Embedding du CV manquant - attribution de scores par défaut");
+            return getDefaultScores();
+        }
+        
+        return calculateMatchingScores(cv, cvVector, jobOffer, prepareRequirementVectors(jobOffer));
+    }
+    
+    /**
+     * Pré-calculer les vecteurs des exigences d'une offre en un seul appel /embed_batch
+     * (embedding de l'offre si absent en base, compétences techniques et transversales, niveau d'étude)
+     */
+    public JobRequirementVectors prepareRequirementVectors(JobOffre jobOffer) {
+        return prepareRequirementVectors(List.of(jobOffer)).get(0);
+    }
+    
+    /**
+     * Pré-calculer les vecteurs des exigences de plusieurs offres : les offres déjà en cache ne coûtent rien,
+     * les textes des autres sont dédupliqués et vectorisés en un seul appel /embed_batch
+     * 
+     * @return les vecteurs, dans l'ordre des offres
+     */
+    public List<JobRequirementVectors> prepareRequirementVectors(List<JobOffre> jobOffers) {
+        JobRequirementVectors[] result = new JobRequirementVectors[jobOffers.size()];
+        Map<String, Integer> textIndexes = new LinkedHashMap<>();
+        List<int[]> missingIndexes = new ArrayList<>();
+        List<Integer> missingPositions = new ArrayList<>();
+        
+        for (int i = 0; i < jobOffers.size(); i++) {
+            JobOffre jobOffer = jobOffers.get(i);
+            result[i] = requirementVectorCache.get(jobOffer.getId());
+            if (result[i] != null) {
+                continue;
+            }
+            
+            String educationLevel = jobOffer.getNiveauEtudeMin() != null ? jobOffer.getNiveauEtudeMin().toString() : null;
+            missingPositions.add(i);
+            missingIndexes.add(new int[] {
+                    EmbeddingVectors.parse(jobOffer.getEmbedding()) == null
+                            ? addText(textIndexes, pythonEmbeddingService.buildJobOfferText(jobOffer)) : -1,
+                    addText(textIndexes, jobOffer.getCompetencesTechniques()),
+                    addText(textIndexes, jobOffer.getCompetencesTransversales()),
+                    educationLevel != null && !RULE_BASED_EDUCATION_LEVELS.contains(educationLevel)
+                            ? addText(textIndexes, "Education " + educationLevel) : -1
+            });
+        }
+        
+        if (missingPositions.isEmpty()) {
+            return Arrays.asList(result);
+        }
+        
+        List<String> texts = new ArrayList<>(textIndexes.keySet());
+        List<float[]> vectors = texts.isEmpty() ? List.of() : pythonEmbeddingService.generateEmbeddingsBatch(texts);
+        if (vectors == null || vectors.size() != texts.size()) {
+            vectors = new ArrayList<>();
+            for (int i = 0; i < texts.size(); i++) {
+                vectors.add(null);
+            }
+        }
+        
+        for (int m = 0; m < missingPositions.size(); m++) {
+            int position = missingPositions.get(m);
+            int[] indexes = missingIndexes.get(m);
+            JobOffre jobOffer = jobOffers.get(position);
+            
+            float[] jobEmbedding = indexes[0] >= 0 ? vectors.get(indexes[0]) : EmbeddingVectors.parse(jobOffer.getEmbedding());
+            float[] technical = indexes[1] >= 0 ? vectors.get(indexes[1]) : null;
+            float[] soft = indexes[2] >= 0 ? vectors.get(indexes[2]) : null;
+            float[] education = indexes[3] >= 0 ? vectors.get(indexes[3]) : null;
+            
+            result[position] = new JobRequirementVectors(jobOffer.getId(), jobEmbedding, technical, soft, education);
+            
+            boolean complete = jobEmbedding != null && (indexes[1] < 0 || technical != null)
+                    && (indexes[2] < 0 || soft != null) && (indexes[3] < 0 || education != null);
+            if (complete) {
+                requirementVectorCache.put(result[position]);
+            }
+        }
+        
+        return Arrays.asList(result);
+    }
+    
+    /**
+     * Calculer les scores de matching à partir de vecteurs déjà chargés : aucun appel réseau
+     * tant que les vecteurs d'exigences sont disponibles (utilisable en parallèle pour le re-scoring en masse)
+     */
+    public Map<String, Double> calculateMatchingScores(Cv cv, float[] cvVector, JobOffre jobOffer,
+                                                       JobRequirementVectors requirements) {
+        return tryCalculateMatchingScores(cv, cvVector, jobOffer, requirements).orElseGet(this::getDefaultScores);
+    }
+    
+    /**
+     * Même calcul, sans scores par défaut : vide si un embedding manque ou si le calcul échoue
+     * (le re-scoring ne doit pas persister de scores fictifs)
+     */
+    public Optional<Map<String, Double>> tryCalculateMatchingScores(Cv cv, float[] cvVector, JobOffre jobOffer,
+                                                                    JobRequirementVectors requirements) {
         Map<String, Double> scores = new HashMap<>();
         
         try {
-            // Vérifier que l'embedding du CV est valide
-            if (cvEmbedding == null || cvEmbedding.isEmpty()) {
-                logger.warn("Embedding du CV manquant - attribution de scores par défaut");
-                return getDefaultScores();
+            if (cvVector == null) {
+                logger.warn("Embedding du CV manquant - scores non calculés pour l'offre ID: {}", jobOffer.getId());
+                return Optional.empty();
             }
             
-            // Générer l'embedding de l'offre d'emploi
-            String jobOfferEmbedding = pythonEmbeddingService.generateJobOfferEmbedding(jobOffer);
+            if (requirements.getJobEmbedding() == null) {
+                logger.warn("Impossible de générer l'embedding pour l'offre ID: {} - scores non calculés", jobOffer.getId());
+                return Optional.empty();
+            }
             
-            if (jobOfferEmbedding == null || jobOfferEmbedding.isEmpty()) {
-                logger.warn("Impossible de générer l'embedding pour l'offre ID: {} - scores par défaut", jobOffer.getId());
-                return getDefaultScores();
+            // Texte du CV construit une seule fois pour toutes les heuristiques
+            String cvText = pythonEmbeddingService.buildCvText(cv);
+            if (cvText == null) {
+                cvText = "";
             }
             
             // Calculer les scores spécifiques par domaine AVANT le score global
             // FIXE CRITIQUE: Utiliser les données du CV au lieu du texte générique
-            double techScore = calculateTechnicalSkillsScore(cv, jobOffer);
-            double expScore = calculateExperienceScore(cv, jobOffer);
-            double langScore = calculateLanguageScore(cv, jobOffer);
-            double softScore = calculateSoftSkillsScore(cv, jobOffer);
-            double eduScore = calculateEducationScore(cv, jobOffer);
-            
-            // NOUVEAU: Calcul du score global pondéré (formule métier)
-            double weightedGlobalScore = calculateWeightedGlobalScore(techScore, expScore, langScore, softScore, eduScore);
+            double techScore = calculateTechnicalSkillsScore(cvText, cvVector, requirements.getCompetencesTechniques(), jobOffer);
+            double expScore = calculateExperienceScore(cv, cvText, jobOffer);
+            double langScore = calculateLanguageScore(cvText, jobOffer);
+            double softScore = calculateSoftSkillsScore(cvText, cvVector, requirements.getCompetencesTransversales(), jobOffer);
+            double eduScore = calculateEducationScore(cvText, cvVector, requirements.getFormation(), jobOffer);
             
             // Calculer aussi la similarité cosinus traditionnelle pour comparaison
-            double cosineSimilarity = calculateCosineSimilarity(cvEmbedding, jobOfferEmbedding);
+            double cosineSimilarity = calculateCosineSimilarity(cvVector, requirements.getJobEmbedding());
+            
+            // Score global pondéré selon le profil de l'offre (offre > employeur > global)
+            double weightedGlobalScore = weightedScoringEnabled
+                    ? scoringProfileService.getWeights(jobOffer).apply(techScore, expScore, langScore, softScore, eduScore)
+                    : cosineSimilarity;
             
             // Utiliser le score pondéré comme score global principal
             scores.put("global", weightedGlobalScore);
@@ -75,46 +194,37 @@ public class MatchingService {
             scores.put("formation", eduScore);
             scores.put("langues", langScore); // NOUVEAU
             
-            logger.info("Scores de matching calculés pour l'offre ID: {} - Score global pondéré: {:.3f} (cosine: {:.3f})", 
+            logger.debug("Scores de matching calculés pour l'offre ID: {} - Score global pondéré: {} (cosine: {})", 
                        jobOffer.getId(), weightedGlobalScore, cosineSimilarity);
             
         } catch (Exception e) {
             logger.error("Erreur lors du calcul des scores de matching pour l'offre ID: {}: {}", 
                         jobOffer.getId(), e.getMessage());
-            scores = getDefaultScores();
+            return Optional.empty();
         }
         
-        return scores;
+        return Optional.of(scores);
     }
     
-    /**
-     * NOUVEAU: Calcul du score global avec pondération métier
-     * Formule: 40% tech + 20% exp + 20% langues + 10% soft + 10% formation
-     */
-    private double calculateWeightedGlobalScore(double techScore, double expScore, double langScore, 
-                                              double softScore, double eduScore) {
-        double weightedScore = (techScore * 0.4) +      // 40% - Compétences techniques
-                              (expScore * 0.2) +        // 20% - Expérience
-                              (langScore * 0.2) +       // 20% - Langues  
-                              (softScore * 0.1) +       // 10% - Compétences transversales
-                              (eduScore * 0.1);         // 10% - Formation
-        
-        // Assurer que le score reste dans [0, 1]
-        return Math.max(0.0, Math.min(1.0, weightedScore));
+    private static int addText(Map<String, Integer> textIndexes, String text) {
+        if (text == null || text.isEmpty()) {
+            return -1;
+        }
+        return textIndexes.computeIfAbsent(text, key -> textIndexes.size());
     }
     
     /**
      * NOUVEAU: Calcul du score des langues - VERSION AMÉLIORÉE
      * Évalue la correspondance des compétences linguistiques
      */
-    private double calculateLanguageScore(Cv cv, JobOffre jobOffer) {
+    private double calculateLanguageScore(String cvText, JobOffre jobOffer) {
         try {
             if (jobOffer.getLanguesRequises() == null || jobOffer.getLanguesRequises().isEmpty()) {
                 return 0.8; // Score par défaut si pas de langues spécifiées
             }
             
             String requiredLanguages = jobOffer.getLanguesRequises().toLowerCase();
-            String cvText = pythonEmbeddingService.buildCvText(cv).toLowerCase();
+            cvText = cvText.toLowerCase();
             
             logger.debug("Évaluation langues: requis='{}', CV analysé", requiredLanguages);
             
@@ -185,60 +295,38 @@ public class MatchingService {
     }
     
     /**
-     * Calculer la similarité cosinus entre deux embeddings
+     * Calculer la similarité cosinus entre deux embeddings, normalisée entre 0 et 1
      */
-    private double calculateCosineSimilarity(String embedding1, String embedding2) {
-        try {
-            // Parser les embeddings JSON
-            double[] vector1 = parseEmbeddingJson(embedding1);
-            double[] vector2 = parseEmbeddingJson(embedding2);
-            
-            if (vector1.length != vector2.length) {
-                logger.warn("Dimensions des embeddings différentes: {} vs {}", vector1.length, vector2.length);
-                return 0.5;
-            }
-            
-            // Calculer la similarité cosinus
-            double dotProduct = 0.0;
-            double norm1 = 0.0;
-            double norm2 = 0.0;
-            
-            for (int i = 0; i < vector1.length; i++) {
-                dotProduct += vector1[i] * vector2[i];
-                norm1 += vector1[i] * vector1[i];
-                norm2 += vector2[i] * vector2[i];
-            }
-            
-            norm1 = Math.sqrt(norm1);
-            norm2 = Math.sqrt(norm2);
-            
-            if (norm1 == 0.0 || norm2 == 0.0) {
-                return 0.0;
-            }
-            
-            double similarity = dotProduct / (norm1 * norm2);
-            
-            // Normaliser le score entre 0 et 1
-            return Math.max(0.0, Math.min(1.0, (similarity + 1.0) / 2.0));
-            
-        } catch (Exception e) {
-            logger.error("Erreur lors du calcul de similarité cosinus: {}", e.getMessage());
+    private double calculateCosineSimilarity(float[] vector1, float[] vector2) {
+        if (vector1.length != vector2.length) {
+            logger.warn("Dimensions des embeddings différentes: {} vs {}", vector1.length, vector2.length);
             return 0.5;
         }
+        
+        return EmbeddingVectors.toMatchingScore(EmbeddingVectors.cosine(vector1, vector2));
+    }
+    
+    /**
+     * Similarité texte CV / exigence : cosinus avec le vecteur pré-calculé de l'exigence (même modèle et même
+     * texte que l'embedding du CV, donc identique à /similarity), ou appel au service si le vecteur manque
+     */
+    private double calculateRequirementSimilarity(String cvText, float[] cvVector, float[] requirementVector, String requirementText) {
+        if (requirementVector != null && requirementVector.length == cvVector.length) {
+            return Math.max(0.0, Math.min(1.0, EmbeddingVectors.cosine(cvVector, requirementVector)));
+        }
+        return pythonEmbeddingService.calculateSimilarity(cvText, requirementText);
     }
     
     /**
      * Calculer le score pour les compétences techniques
      */
-    private double calculateTechnicalSkillsScore(Cv cv, JobOffre jobOffer) {
+    private double calculateTechnicalSkillsScore(String cvText, float[] cvVector, float[] requirementVector, JobOffre jobOffer) {
         try {
             if (jobOffer.getCompetencesTechniques() == null || jobOffer.getCompetencesTechniques().isEmpty()) {
                 return 0.7; // Score par défaut si pas de compétences techniques spécifiées
             }
             
-            // Utiliser le service Python pour calculer la similarité
-            String cvText = pythonEmbeddingService.buildCvText(cv);
-            double similarity = pythonEmbeddingService.calculateSimilarity(cvText, jobOffer.getCompetencesTechniques());
+            double similarity = calculateRequirementSimilarity(cvText, cvVector, requirementVector, jobOffer.getCompetencesTechniques());
             
             return Math.max(0.0, Math.min(1.0, similarity));
             
@@ -251,14 +339,13 @@ public class MatchingService {
     /**
      * Calculer le score pour les compétences transversales
      */
-    private double calculateSoftSkillsScore(Cv cv, JobOffre jobOffer) {
+    private double calculateSoftSkillsScore(String cvText, float[] cvVector, float[] requirementVector, JobOffre jobOffer) {
         try {
             if (jobOffer.getCompetencesTransversales() == null || jobOffer.getCompetencesTransversales().isEmpty()) {
                 return 0.7; // Score par défaut
             }
             
-            String cvText = pythonEmbeddingService.buildCvText(cv);
-            double similarity = pythonEmbeddingService.calculateSimilarity(cvText, jobOffer.getCompetencesTransversales());
+            double similarity = calculateRequirementSimilarity(cvText, cvVector, requirementVector, jobOffer.getCompetencesTransversales());
             
             return Math.max(0.0, Math.min(1.0, similarity));
             
@@ -272,7 +359,7 @@ public class MatchingService {
      * Calculer le score d'expérience - VERSION AMÉLIORÉE
      * Utilise une formule intelligente basée sur l'écart d'expérience
      */
-    private double calculateExperienceScore(Cv cv, JobOffre jobOffer) {
+    private double calculateExperienceScore(Cv cv, String cvText, JobOffre jobOffer) {
         try {
             int requiredExperience = jobOffer.getExperienceMinRequise() != null ? jobOffer.getExperienceMinRequise() : 0;
             int candidateExperience = cv.getExperienceAnnees() != null ? cv.getExperienceAnnees() : 0;
@@ -316,7 +403,6 @@ public class MatchingService {
             }
             
             // Bonus pour profils étudiants avec projets
-            String cvText = pythonEmbeddingService.buildCvText(cv);
             if (candidateExperience <= 2 && cvText.toLowerCase().contains("projet")) {
                 baseScore += 0.1; // Bonus projets pour jeunes diplômés
             }
@@ -342,14 +428,13 @@ public class MatchingService {
      * Calculer le score de formation - VERSION AMÉLIORÉE
      * Évalue la correspondance du niveau d'étude avec une logique métier
      */
-    private double calculateEducationScore(Cv cv, JobOffre jobOffer) {
+    private double calculateEducationScore(String cvText, float[] cvVector, float[] educationVector, JobOffre jobOffer) {
         try {
             if (jobOffer.getNiveauEtudeMin() == null) {
                 return 0.8; // Score par défaut si pas de niveau requis
             }
             
             String requiredLevel = jobOffer.getNiveauEtudeMin().toString();
-            String cvText = pythonEmbeddingService.buildCvText(cv);
             
             logger.debug("Évaluation formation: requis={}, CV contient formations", requiredLevel);
             
@@ -401,7 +486,7 @@ public class MatchingService {
                     
                 default:
                     // Utiliser la similarité textuelle comme fallback
-                    baseScore = pythonEmbeddingService.calculateSimilarity(cvText, "Education " + requiredLevel);
+                    baseScore = calculateRequirementSimilarity(cvText, cvVector, educationVector, "Education " + requiredLevel);
                     break;
             }
             
@@ -434,42 +519,6 @@ public class MatchingService {
         }
     }
     
-    /**
-     * Parser un embedding JSON en tableau de doubles
-     */
-    private double[] parseEmbeddingJson(String embeddingJson) throws Exception {
-        if (embeddingJson == null || embeddingJson.trim().isEmpty()) {
-            throw new IllegalArgumentException("L'embedding JSON ne peut pas être vide");
-        }
-        
-        try {
-            JsonNode jsonNode = objectMapper.readTree(embeddingJson);
-            
-            if (!jsonNode.isArray()) {
-                throw new IllegalArgumentException("L'embedding doit être un tableau JSON");
-            }
-            
-            double[] vector = new double[jsonNode.size()];
-            for (int i = 0; i < jsonNode.size(); i++) {
-                JsonNode element = jsonNode.get(i);
-                if (element.isNumber()) {
-                    vector[i] = element.asDouble();
-                } else {
-                    logger.warn("Élément non numérique dans l'embedding à l'index {}: {}", i, element.toString());
-                    vector[i] = 0.0; // Valeur par défaut
-                }
-            }
-            
-            return vector;
-            
-        } catch (Exception e) {
-            logger.error("Erreur lors du parsing de l'embedding JSON: {}", e.getMessage());
-            logger.debug("JSON problématique (premiers 100 caractères): {}", 
-                        embeddingJson.substring(0, Math.min(100, embeddingJson.length())));
-            throw new Exception("Impossible de parser l'embedding JSON: " + e.getMessage());
-        }
-    }
-    
     /**
      * Retourner des scores par défaut en cas d'erreur - VERSION MISE À JOUR
      */
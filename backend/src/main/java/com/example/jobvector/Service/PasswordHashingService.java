@@ -0,0 +1,144 @@
+package com.example.jobvector.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hachage et vérification des mots de passe (BCrypt) dans un pool de threads dédié et borné.
+ *
+ * Le coût BCrypt est volontairement élevé : exécuté sur les threads Tomcat, un pic de connexions occupe
+ * tous les cœurs et affame les autres endpoints. Ici au plus `threads` hachages tournent en parallèle ;
+ * les demandes suivantes attendent dans une file bornée, et au-delà elles sont refusées immédiatement
+ * (RejectedExecutionException, traduite en 503 par UserManagementService) au lieu de s'accumuler.
+ * Métriques Micrometer : jobvector.password.hash{operation=encode|matches} (durée du hachage),
+ * jobvector.password.hash.rejected et jobvector.password.hash.queue.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 : moitié des cœurs disponibles (au moins 1)
+    @Value("${app.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.password-hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Délai maximal d'attente d'un résultat (file + hachage)
+    @Value("${app.password-hashing.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    // Empreinte de référence vérifiée pour les comptes inexistants (calculée au premier besoin)
+    private volatile String unknownUserHash;
+
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        encodeTimer = Timer.builder("jobvector.password.hash").tag("operation", "encode").register(meterRegistry);
+        matchesTimer = Timer.builder("jobvector.password.hash").tag("operation", "matches").register(meterRegistry);
+        rejected = Counter.builder("jobvector.password.hash.rejected").register(meterRegistry);
+        Gauge.builder("jobvector.password.hash.queue", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hacher un mot de passe avec le coût BCrypt configuré
+     *
+     * @throws RejectedExecutionException si la file de hachage est pleine
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Vérifier un mot de passe contre son empreinte
+     *
+     * @throws RejectedExecutionException si la file de hachage est pleine
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Vérification factice pour un email inconnu : même coût qu'un mot de passe erroné (pas de fuite par le temps de réponse)
+     */
+    public void matchesUnknownUser(String rawPassword) {
+        if (unknownUserHash == null) {
+            unknownUserHash = encode("unknown-user-password");
+        }
+        matches(rawPassword, unknownUserHash);
+    }
+
+    /**
+     * Vrai si l'empreinte a été calculée avec un coût inférieur au coût configuré et doit être recalculée
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new RejectedExecutionException("Délai de hachage du mot de passe dépassé", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException : new IllegalStateException(e.getCause());
+        }
+    }
+}
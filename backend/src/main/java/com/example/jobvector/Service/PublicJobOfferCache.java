@@ -0,0 +1,181 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Dto.JobOffreDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache LRU borné des réponses des endpoints publics d'offres (liste, recherche, filtres, offres récentes),
+ * indexé par les paramètres normalisés de la requête.
+ *
+ * Les requêtes identiques qui manquent le cache en même temps sont regroupées (single-flight) : une seule
+ * interroge la base, les autres attendent son résultat. Toute création / modification / suppression d'offre
+ * vide le cache ; un compteur de génération empêche qu'un chargement commencé avant l'invalidation y soit
+ * rangé. Une durée de vie courte sert de filet pour les écritures qui ne passent pas par JobOfferService.
+ * Métriques Micrometer : jobvector.public.cache.requests{result=hit|miss|coalesced}, .size et .hit.ratio.
+ */
+@Component
+public class PublicJobOfferCache {
+
+    private record Entry(JobOffreDto response, long expiresAt) {
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.public-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.public-cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${app.public-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<JobOffreDto>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter coalesced;
+
+    @PostConstruct
+    public void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        hits = Counter.builder("jobvector.public.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("jobvector.public.cache.requests").tag("result", "miss").register(meterRegistry);
+        coalesced = Counter.builder("jobvector.public.cache.requests").tag("result", "coalesced").register(meterRegistry);
+        Gauge.builder("jobvector.public.cache.size", this, PublicJobOfferCache::size).register(meterRegistry);
+        Gauge.builder("jobvector.public.cache.hit.ratio", this, PublicJobOfferCache::hitRatio).register(meterRegistry);
+    }
+
+    /**
+     * Clé : nom de l'endpoint puis paramètres tels quels (curseurs, énumérations, nombres). Un paramètre absent
+     * reste distinct d'un texte vide. Les champs de texte libre passent par {@link #text(String)}.
+     */
+    public static String key(String endpoint, Object... parameters) {
+        return endpoint + "?" + Arrays.stream(parameters)
+                .map(parameter -> parameter == null ? "\u0000" : parameter.toString())
+                .collect(Collectors.joining("\u0001"));
+    }
+
+    /**
+     * Champ de texte libre (mot-clé, titre, localisation, secteur) recherché sans tenir compte de la casse (ILIKE,
+     * plein texte) : en minuscules dans la clé. Les espaces sont conservés, ils font partie du motif recherché.
+     */
+    public static String text(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Réponse en cache, ou chargée une seule fois pour toutes les requêtes concurrentes de même clé.
+     * Seules les réponses 200 sont conservées.
+     */
+    public JobOffreDto get(String key, Supplier<JobOffreDto> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.response();
+            }
+        }
+
+        CompletableFuture<JobOffreDto> future = new CompletableFuture<>();
+        CompletableFuture<JobOffreDto> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        try {
+            JobOffreDto response = loader.get();
+            if (response.getStatusCode() == 200) {
+                synchronized (entries) {
+                    // Pas de mise en cache si une offre a changé pendant le chargement
+                    if (generation.get() == loadGeneration) {
+                        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlSeconds * 1000));
+                    }
+                }
+            }
+            future.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Vider le cache après chaque création / modification / suppression d'offre
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Offre écrite par une autre instance
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (event.concerns(CacheInvalidationEvent.Kind.JOB_OFFER)) {
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double hitRatio() {
+        double served = hits.count() + coalesced.count();
+        double total = served + misses.count();
+        return total > 0 ? served / total : 0.0;
+    }
+}
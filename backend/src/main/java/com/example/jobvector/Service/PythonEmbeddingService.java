@@ -4,14 +4,18 @@ import com.example.jobvector.Model.Cv;
 import com.example.jobvector.Model.JobOffre;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,9 +35,24 @@ public class PythonEmbeddingService {
     @Value("${app.embedding.fallback-enabled:true}")
     private boolean fallbackEnabled;
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${app.embedding.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+    
+    // Un appel bloqué au-delà libère son thread (requête HTTP, recherche hybride, traitements en arrière-plan)
+    @Value("${app.embedding.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+    
+    private RestTemplate restTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    @PostConstruct
+    public void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        restTemplate = new RestTemplate(requestFactory);
+    }
+    
     /**
      * Générer un embedding pour un CV via le service Python
      */
@@ -136,6 +155,54 @@ public class PythonEmbeddingService {
         }
     }
     
+    /**
+     * Générer les embeddings de plusieurs textes en un seul appel /embed_batch
+     * Pas de fallback aléatoire ici : un texte non vectorisé reste à null et l'appelant décide
+     * 
+     * @return une liste de même taille que texts (éléments null en cas d'échec)
+     */
+    public List<float[]> generateEmbeddingsBatch(List<String> texts) {
+        List<float[]> embeddings = new ArrayList<>(texts.size());
+        
+        if (usePythonService && !texts.isEmpty()) {
+            try {
+                Map<String, List<String>> requestBody = new HashMap<>();
+                requestBody.put("texts", texts);
+                
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.APPLICATION_JSON);
+                
+                HttpEntity<Map<String, List<String>>> request = new HttpEntity<>(requestBody, headers);
+                
+                String url = embeddingServiceUrl + "/embed_batch";
+                ResponseEntity<String> response = restTemplate.exchange(
+                    url, HttpMethod.POST, request, String.class
+                );
+                
+                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                    JsonNode embeddingsNode = objectMapper.readTree(response.getBody()).get("embeddings");
+                    if (embeddingsNode != null && embeddingsNode.isArray() && embeddingsNode.size() == texts.size()) {
+                        for (JsonNode embeddingNode : embeddingsNode) {
+                            embeddings.add(EmbeddingVectors.parse(embeddingNode.toString()));
+                        }
+                        logger.debug("{} embeddings générés via /embed_batch", embeddings.size());
+                        return embeddings;
+                    }
+                }
+                
+                logger.error("Réponse invalide du service d'embedding (batch): {}", response.getBody());
+            } catch (Exception e) {
+                logger.error("Erreur lors de l'appel batch au service d'embedding: {}", e.getMessage());
+            }
+        }
+        
+        embeddings.clear();
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(null);
+        }
+        return embeddings;
+    }
+    
     /**
      * Calculer la similarité entre deux textes via le service Python
      * AMÉLIORÉ: Avec timeout et logique de fallback intelligente
@@ -459,7 +526,7 @@ public class PythonEmbeddingService {
      * Construire le texte complet de l'offre d'emploi - VERSION ENRICHIE
      * Structure optimisée pour le matching précis
      */
-    private String buildJobOfferText(JobOffre jobOffer) {
+    public String buildJobOfferText(JobOffre jobOffer) {
         StringBuilder text = new StringBuilder();
         
         // SECTION 1: Informations du poste
@@ -0,0 +1,433 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.AuthenticatedUser;
+import com.example.jobvector.Dto.ScoringProfileDto;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.ScoringProfile;
+import com.example.jobvector.Repository.ApplicationRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.ScoringProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Profils de pondération du score global de matching (global, par employeur, par offre).
+ *
+ * Les pondérations effectives de chaque offre sont mises en cache et invalidées à chaque modification
+ * de profil, sur cette instance comme sur les autres (CacheInvalidationBus) : un changement est pris en
+ * compte à chaud, sans redémarrage. Les scores globaux des candidatures existantes sont alors recalculés
+ * en une seule requête UPDATE à partir des sous-scores déjà stockés, sans aucun appel au service
+ * d'embedding. Avec app.matching.weighted-scoring.enabled=false, le score global est la similarité
+ * cosinus : les profils sont enregistrés mais les candidatures ne sont pas re-pondérées.
+ */
+@Service
+@Transactional
+public class ScoringProfileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringProfileService.class);
+
+    @Autowired
+    private ScoringProfileRepository scoringProfileRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private JobOffreStatsService jobOffreStatsService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${app.matching.weighted-scoring.enabled:true}")
+    private boolean weightedScoringEnabled;
+
+    // Pondérations par défaut, utilisées tant qu'aucun profil GLOBAL n'est enregistré
+    @Value("${app.matching.weights.technical:0.4}")
+    private double defaultTechnicalWeight;
+
+    @Value("${app.matching.weights.experience:0.2}")
+    private double defaultExperienceWeight;
+
+    @Value("${app.matching.weights.languages:0.2}")
+    private double defaultLanguagesWeight;
+
+    @Value("${app.matching.weights.soft-skills:0.1}")
+    private double defaultSoftSkillsWeight;
+
+    @Value("${app.matching.weights.education:0.1}")
+    private double defaultEducationWeight;
+
+    private final Map<Long, ScoringWeights> weightsByJobOffer = new ConcurrentHashMap<>();
+    private volatile ScoringWeights globalWeights;
+
+    // ===== RÉSOLUTION DES PONDÉRATIONS =====
+
+    /**
+     * Pondérations effectives d'une offre : profil de l'offre, sinon de l'employeur, sinon global
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ScoringWeights getWeights(JobOffre jobOffer) {
+        if (jobOffer == null || jobOffer.getId() == null) {
+            return getGlobalWeights();
+        }
+
+        ScoringWeights weights = weightsByJobOffer.get(jobOffer.getId());
+        if (weights == null) {
+            Long employeurId = jobOffer.getEmployeur() != null ? jobOffer.getEmployeur().getId() : null;
+            weights = resolveWeights(jobOffer.getId(), employeurId);
+            weightsByJobOffer.put(jobOffer.getId(), weights);
+        }
+        return weights;
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ScoringWeights getGlobalWeights() {
+        ScoringWeights weights = globalWeights;
+        if (weights == null) {
+            weights = scoringProfileRepository.findFirstByScope(ScoringProfile.Scope.GLOBAL)
+                    .map(ScoringWeights::of)
+                    .orElseGet(this::getDefaultWeights);
+            globalWeights = weights;
+        }
+        return weights;
+    }
+
+    // ===== PROFIL GLOBAL (ADMIN) =====
+
+    @Transactional(readOnly = true)
+    public ScoringProfileDto getGlobalProfile() {
+        ScoringProfileDto response = scoringProfileRepository.findFirstByScope(ScoringProfile.Scope.GLOBAL)
+                .map(this::convertToDto)
+                .orElseGet(() -> convertToDto(ScoringProfile.Scope.GLOBAL, getGlobalWeights()));
+        response.setStatusCode(200);
+        response.setMessage("Profil de pondération global récupéré");
+        return response;
+    }
+
+    public ScoringProfileDto saveGlobalProfile(ScoringProfileDto request) {
+        ScoringProfile profile = scoringProfileRepository.findFirstByScope(ScoringProfile.Scope.GLOBAL)
+                .orElseGet(ScoringProfile::new);
+        profile.setScope(ScoringProfile.Scope.GLOBAL);
+        return saveProfile(profile, request);
+    }
+
+    public ScoringProfileDto deleteGlobalProfile() {
+        Optional<ScoringProfile> profile = scoringProfileRepository.findFirstByScope(ScoringProfile.Scope.GLOBAL);
+        profile.ifPresent(scoringProfileRepository::delete);
+        scoringProfileRepository.flush();
+        invalidateCache(profile.map(ScoringProfile::getId).orElse(null));
+
+        ScoringWeights weights = getDefaultWeights();
+        return reweighted(convertToDto(ScoringProfile.Scope.GLOBAL, weights), () -> reweightWithDefaultProfile(weights),
+                "Profil global supprimé, pondérations par défaut rétablies");
+    }
+
+    // ===== PROFIL EMPLOYEUR =====
+
+    @Transactional(readOnly = true)
+    public ScoringProfileDto getEmployerProfile() {
+        Optional<AuthenticatedUser> currentUser = getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return error(404, "Utilisateur non trouvé");
+        }
+
+        Long employeurId = currentUser.get().id();
+        ScoringProfileDto response = scoringProfileRepository.findByScopeAndEmployeurId(ScoringProfile.Scope.EMPLOYER, employeurId)
+                .map(this::convertToDto)
+                .orElseGet(() -> convertToDto(ScoringProfile.Scope.GLOBAL, getGlobalWeights()));
+        response.setStatusCode(200);
+        response.setMessage("Profil de pondération récupéré");
+        return response;
+    }
+
+    public ScoringProfileDto saveEmployerProfile(ScoringProfileDto request) {
+        Optional<AuthenticatedUser> currentUser = getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return error(404, "Utilisateur non trouvé");
+        }
+
+        Long employeurId = currentUser.get().id();
+        ScoringProfile profile = scoringProfileRepository.findByScopeAndEmployeurId(ScoringProfile.Scope.EMPLOYER, employeurId)
+                .orElseGet(ScoringProfile::new);
+        profile.setScope(ScoringProfile.Scope.EMPLOYER);
+        profile.setEmployeurId(employeurId);
+        return saveProfile(profile, request);
+    }
+
+    public ScoringProfileDto deleteEmployerProfile() {
+        Optional<AuthenticatedUser> currentUser = getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return error(404, "Utilisateur non trouvé");
+        }
+
+        Long employeurId = currentUser.get().id();
+        Optional<ScoringProfile> profile = scoringProfileRepository.findByScopeAndEmployeurId(ScoringProfile.Scope.EMPLOYER, employeurId);
+        if (profile.isEmpty()) {
+            return error(404, "Aucun profil de pondération propre à cet employeur");
+        }
+
+        scoringProfileRepository.delete(profile.get());
+        scoringProfileRepository.flush();
+        invalidateCache(profile.get().getId());
+
+        ScoringWeights weights = getGlobalWeights();
+        return reweighted(convertToDto(ScoringProfile.Scope.GLOBAL, weights), () -> reweightEmployer(employeurId, weights),
+                "Profil supprimé, pondérations globales rétablies");
+    }
+
+    // ===== PROFIL D'UNE OFFRE =====
+
+    @Transactional(readOnly = true)
+    public ScoringProfileDto getJobOfferProfile(Long jobOfferId) {
+        Optional<JobOffre> jobOffer = findOwnedJobOffer(jobOfferId);
+        if (jobOffer.isEmpty()) {
+            return error(404, "Offre d'emploi non trouvée");
+        }
+
+        ScoringProfileDto response = scoringProfileRepository.findByScopeAndJobOffreId(ScoringProfile.Scope.JOB_OFFER, jobOfferId)
+                .or(() -> scoringProfileRepository.findByScopeAndEmployeurId(ScoringProfile.Scope.EMPLOYER, jobOffer.get().getEmployeur().getId()))
+                .map(this::convertToDto)
+                .orElseGet(() -> convertToDto(ScoringProfile.Scope.GLOBAL, getGlobalWeights()));
+        response.setStatusCode(200);
+        response.setMessage("Profil de pondération de l'offre récupéré");
+        return response;
+    }
+
+    public ScoringProfileDto saveJobOfferProfile(Long jobOfferId, ScoringProfileDto request) {
+        Optional<JobOffre> jobOffer = findOwnedJobOffer(jobOfferId);
+        if (jobOffer.isEmpty()) {
+            return error(404, "Offre d'emploi non trouvée");
+        }
+
+        ScoringProfile profile = scoringProfileRepository.findByScopeAndJobOffreId(ScoringProfile.Scope.JOB_OFFER, jobOfferId)
+                .orElseGet(ScoringProfile::new);
+        profile.setScope(ScoringProfile.Scope.JOB_OFFER);
+        profile.setJobOffreId(jobOfferId);
+        return saveProfile(profile, request);
+    }
+
+    public ScoringProfileDto deleteJobOfferProfile(Long jobOfferId) {
+        Optional<JobOffre> jobOffer = findOwnedJobOffer(jobOfferId);
+        if (jobOffer.isEmpty()) {
+            return error(404, "Offre d'emploi non trouvée");
+        }
+
+        Optional<ScoringProfile> profile = scoringProfileRepository.findByScopeAndJobOffreId(ScoringProfile.Scope.JOB_OFFER, jobOfferId);
+        if (profile.isEmpty()) {
+            return error(404, "Aucun profil de pondération propre à cette offre");
+        }
+
+        scoringProfileRepository.delete(profile.get());
+        scoringProfileRepository.flush();
+        invalidateCache(profile.get().getId());
+
+        ScoringWeights weights = getWeights(jobOffer.get());
+        return reweighted(convertToDto(ScoringProfile.Scope.JOB_OFFER, weights), () -> reweightJobOffer(jobOfferId, weights),
+                "Profil de l'offre supprimé, pondérations héritées rétablies");
+    }
+
+    /**
+     * Supprimer le profil d'une offre supprimée
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        if (event.getType() == JobOfferChangedEvent.Type.DELETED) {
+            scoringProfileRepository.deleteByScopeAndJobOffreId(ScoringProfile.Scope.JOB_OFFER, event.getJobOfferId());
+            weightsByJobOffer.remove(event.getJobOfferId());
+        }
+    }
+
+    /**
+     * Profil ou offre écrit par une autre instance : l'employeur d'une offre, ou le profil dont elle hérite,
+     * a pu changer
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (event.concerns(CacheInvalidationEvent.Kind.SCORING_PROFILE)) {
+            weightsByJobOffer.clear();
+            globalWeights = null;
+        } else if (event.concerns(CacheInvalidationEvent.Kind.JOB_OFFER)) {
+            if (event.isAll()) {
+                weightsByJobOffer.clear();
+            } else {
+                weightsByJobOffer.remove(event.getId());
+            }
+        }
+    }
+
+    // ===== MÉTHODES UTILITAIRES =====
+
+    /**
+     * Valider et enregistrer un profil, puis re-pondérer les candidatures concernées
+     */
+    private ScoringProfileDto saveProfile(ScoringProfile profile, ScoringProfileDto request) {
+        ScoringWeights weights = ScoringWeights.normalized(
+                valueOrZero(request.getPoidsCompetencesTechniques()), valueOrZero(request.getPoidsExperience()),
+                valueOrZero(request.getPoidsLangues()), valueOrZero(request.getPoidsCompetencesTransversales()),
+                valueOrZero(request.getPoidsFormation()));
+        if (weights == null) {
+            return error(400, "Les pondérations doivent être positives et de somme non nulle");
+        }
+
+        // Pondérations stockées normalisées (somme = 1)
+        profile.setPoidsCompetencesTechniques(weights.technical());
+        profile.setPoidsExperience(weights.experience());
+        profile.setPoidsLangues(weights.languages());
+        profile.setPoidsCompetencesTransversales(weights.softSkills());
+        profile.setPoidsFormation(weights.education());
+        ScoringProfile savedProfile = scoringProfileRepository.saveAndFlush(profile);
+        invalidateCache(savedProfile.getId());
+
+        ScoringProfileDto response = convertToDto(savedProfile);
+        return switch (savedProfile.getScope()) {
+            case JOB_OFFER -> reweighted(response, () -> reweightJobOffer(savedProfile.getJobOffreId(), weights),
+                    "Profil de pondération de l'offre enregistré");
+            case EMPLOYER -> reweighted(response, () -> reweightEmployer(savedProfile.getEmployeurId(), weights),
+                    "Profil de pondération enregistré");
+            case GLOBAL -> reweighted(response, () -> reweightWithDefaultProfile(weights),
+                    "Profil de pondération global enregistré");
+        };
+    }
+
+    private ScoringProfileDto reweighted(ScoringProfileDto response, IntSupplier update, String message) {
+        long start = System.currentTimeMillis();
+        // Score global = similarité cosinus, indépendant des pondérations : rien à recalculer
+        int updated = weightedScoringEnabled ? update.getAsInt() : 0;
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Re-pondération des scores globaux: {} candidatures en {} ms", updated, elapsed);
+
+        response.setCandidaturesRecalculees(updated);
+        response.setDureeRecalculMs(elapsed);
+        response.setStatusCode(200);
+        response.setMessage(message);
+        return response;
+    }
+
+    /**
+     * Re-pondérer les candidatures d'une offre, puis ses agrégats de scores (tableau de bord)
+     */
+    private int reweightJobOffer(Long jobOfferId, ScoringWeights weights) {
+        int updated = applicationRepository.reweightByJobOffre(jobOfferId,
+                weights.technical(), weights.experience(), weights.languages(), weights.softSkills(), weights.education());
+        jobOffreStatsService.refreshScores(jobOfferId);
+        return updated;
+    }
+
+    private int reweightEmployer(Long employeurId, ScoringWeights weights) {
+        int updated = applicationRepository.reweightByEmployeur(employeurId,
+                weights.technical(), weights.experience(), weights.languages(), weights.softSkills(), weights.education());
+        jobOffreStatsService.refreshScoresByEmployeur(employeurId);
+        return updated;
+    }
+
+    private int reweightWithDefaultProfile(ScoringWeights weights) {
+        int updated = applicationRepository.reweightWithDefaultProfile(
+                weights.technical(), weights.experience(), weights.languages(), weights.softSkills(), weights.education());
+        jobOffreStatsService.refreshAllScores();
+        return updated;
+    }
+
+    private ScoringWeights resolveWeights(Long jobOfferId, Long employeurId) {
+        Optional<ScoringProfile> profile = scoringProfileRepository.findByScopeAndJobOffreId(ScoringProfile.Scope.JOB_OFFER, jobOfferId);
+        if (profile.isEmpty() && employeurId != null) {
+            profile = scoringProfileRepository.findByScopeAndEmployeurId(ScoringProfile.Scope.EMPLOYER, employeurId);
+        }
+        return profile.map(ScoringWeights::of).orElseGet(this::getGlobalWeights);
+    }
+
+    private ScoringWeights getDefaultWeights() {
+        ScoringWeights weights = ScoringWeights.normalized(defaultTechnicalWeight, defaultExperienceWeight,
+                defaultLanguagesWeight, defaultSoftSkillsWeight, defaultEducationWeight);
+        return weights != null ? weights : new ScoringWeights(0.4, 0.2, 0.2, 0.1, 0.1);
+    }
+
+    /**
+     * Vider le cache maintenant et après le commit (une lecture concurrente a pu y remettre l'ancienne valeur),
+     * et l'annoncer aux autres instances au commit
+     */
+    private void invalidateCache(Long profileId) {
+        weightsByJobOffer.clear();
+        globalWeights = null;
+        cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.SCORING_PROFILE, profileId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    weightsByJobOffer.clear();
+                    globalWeights = null;
+                }
+            });
+        }
+    }
+
+    private Optional<JobOffre> findOwnedJobOffer(Long jobOfferId) {
+        Optional<AuthenticatedUser> currentUser = getCurrentUser();
+        if (currentUser.isEmpty()) {
+            return Optional.empty();
+        }
+        return jobOfferRepository.findById(jobOfferId)
+                .filter(jobOffer -> jobOffer.getEmployeur().getId().equals(currentUser.get().id())
+                        || currentUser.get().hasRole("ADMIN"));
+    }
+
+    private Optional<AuthenticatedUser> getCurrentUser() {
+        return AuthenticatedUser.current();
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private ScoringProfileDto convertToDto(ScoringProfile profile) {
+        ScoringProfileDto dto = new ScoringProfileDto();
+        dto.setId(profile.getId());
+        dto.setScope(profile.getScope().name());
+        dto.setEmployeurId(profile.getEmployeurId());
+        dto.setJobOffreId(profile.getJobOffreId());
+        dto.setPoidsCompetencesTechniques(profile.getPoidsCompetencesTechniques());
+        dto.setPoidsExperience(profile.getPoidsExperience());
+        dto.setPoidsLangues(profile.getPoidsLangues());
+        dto.setPoidsCompetencesTransversales(profile.getPoidsCompetencesTransversales());
+        dto.setPoidsFormation(profile.getPoidsFormation());
+        dto.setDateModification(profile.getDateModification());
+        return dto;
+    }
+
+    private ScoringProfileDto convertToDto(ScoringProfile.Scope scope, ScoringWeights weights) {
+        ScoringProfileDto dto = new ScoringProfileDto();
+        dto.setScope(scope.name());
+        dto.setPoidsCompetencesTechniques(weights.technical());
+        dto.setPoidsExperience(weights.experience());
+        dto.setPoidsLangues(weights.languages());
+        dto.setPoidsCompetencesTransversales(weights.softSkills());
+        dto.setPoidsFormation(weights.education());
+        return dto;
+    }
+
+    private ScoringProfileDto error(int statusCode, String message) {
+        ScoringProfileDto response = new ScoringProfileDto();
+        response.setStatusCode(statusCode);
+        response.setMessage(message);
+        return response;
+    }
+}
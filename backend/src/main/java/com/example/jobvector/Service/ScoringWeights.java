@@ -0,0 +1,40 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Model.ScoringProfile;
+
+/**
+ * Pondérations normalisées (somme = 1) des sous-scores dans le score global de matching
+ */
+public record ScoringWeights(double technical, double experience, double languages, double softSkills, double education) {
+
+    /**
+     * Construire des pondérations normalisées
+     *
+     * @return null si une pondération est négative ou si toutes sont nulles
+     */
+    public static ScoringWeights normalized(double technical, double experience, double languages,
+                                            double softSkills, double education) {
+        if (technical < 0 || experience < 0 || languages < 0 || softSkills < 0 || education < 0) {
+            return null;
+        }
+        double sum = technical + experience + languages + softSkills + education;
+        if (sum <= 0) {
+            return null;
+        }
+        return new ScoringWeights(technical / sum, experience / sum, languages / sum, softSkills / sum, education / sum);
+    }
+
+    public static ScoringWeights of(ScoringProfile profile) {
+        return normalized(profile.getPoidsCompetencesTechniques(), profile.getPoidsExperience(), profile.getPoidsLangues(),
+                profile.getPoidsCompetencesTransversales(), profile.getPoidsFormation());
+    }
+
+    /**
+     * Score global pondéré, borné dans [0, 1]
+     */
+    public double apply(double techScore, double expScore, double langScore, double softScore, double eduScore) {
+        double weightedScore = techScore * technical + expScore * experience + langScore * languages
+                + softScore * softSkills + eduScore * education;
+        return Math.max(0.0, Math.min(1.0, weightedScore));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.FullTextSearchSupport;
+import com.example.jobvector.Dto.SearchPlanReportDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Plans d'exécution (EXPLAIN ANALYZE) de la recherche par mot-clé avant / après la recherche plein texte :
+ * requête ILIKE d'origine contre search_vector + ts_rank, sur job_offres ou sur une table temporaire
+ * d'offres synthétiques de la taille demandée. Tout est exécuté dans une transaction annulée à la fin.
+ */
+@Service
+public class SearchPlanReportService {
+
+    private static final int MAX_SYNTHETIC_ROWS = 2_000_000;
+
+    private static final String BENCH_TABLE = "job_offres_search_bench";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FullTextSearchSupport fullTextSearchSupport;
+
+    /**
+     * Comparer les plans des deux requêtes pour un mot-clé (syntheticRows = 0 : données réelles)
+     */
+    public SearchPlanReportDto buildPlanReport(String keyword, int syntheticRows) {
+        SearchPlanReportDto response = new SearchPlanReportDto();
+
+        if (!fullTextSearchSupport.isAvailable()) {
+            response.setStatusCode(503);
+            response.setMessage("La recherche plein texte PostgreSQL n'est pas disponible");
+            return response;
+        }
+
+        int rows = Math.max(0, Math.min(syntheticRows, MAX_SYNTHETIC_ROWS));
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.executeWithoutResult(status -> {
+                // Rien n'est conservé : ni la table synthétique, ni les effets de bord de EXPLAIN ANALYZE
+                status.setRollbackOnly();
+
+                String table = "job_offres";
+                if (rows > 0) {
+                    createSyntheticTable(rows);
+                    table = BENCH_TABLE;
+                }
+
+                List<String> ilikePlan = jdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS) " +
+                        "SELECT j.id FROM " + table + " j WHERE " +
+                        "j.description ILIKE CONCAT('%', ?, '%') OR " +
+                        "j.titre ILIKE CONCAT('%', ?, '%') OR " +
+                        "j.competences_techniques ILIKE CONCAT('%', ?, '%') OR " +
+                        "j.competences_transversales ILIKE CONCAT('%', ?, '%') OR " +
+                        "j.outils_technologies ILIKE CONCAT('%', ?, '%') " +
+                        "ORDER BY j.id DESC LIMIT 20",
+                        String.class, keyword, keyword, keyword, keyword, keyword);
+
+                List<String> fullTextPlan = jdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS) " +
+                        "SELECT j.id FROM " + table + " j, " +
+                        "(SELECT websearch_to_tsquery('french', ?) || websearch_to_tsquery('english', ?) AS q) query " +
+                        "WHERE j.search_vector @@ query.q " +
+                        "ORDER BY ts_rank(j.search_vector, query.q) DESC LIMIT 20",
+                        String.class, keyword, keyword);
+
+                response.setTable(table);
+                response.setRows(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+                response.setIlikePlan(ilikePlan);
+                response.setIlikeExecutionMs(executionTime(ilikePlan));
+                response.setIlikeSeqScan(hasSeqScan(ilikePlan, table));
+                response.setFullTextPlan(fullTextPlan);
+                response.setFullTextExecutionMs(executionTime(fullTextPlan));
+                response.setFullTextSeqScan(hasSeqScan(fullTextPlan, table));
+            });
+
+            response.setKeyword(keyword);
+            response.setStatusCode(200);
+            response.setMessage("Plans d'exécution générés avec succès");
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Erreur lors de la génération des plans d'exécution: " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Table temporaire d'offres synthétiques avec la même colonne search_vector et le même index GIN que job_offres
+     */
+    private void createSyntheticTable(int rows) {
+        jdbcTemplate.execute("CREATE TEMP TABLE " + BENCH_TABLE + " (" +
+                "id BIGINT PRIMARY KEY, titre VARCHAR(255), competences_techniques TEXT, " +
+                "competences_transversales TEXT, outils_technologies TEXT, description TEXT, " +
+                "search_vector tsvector GENERATED ALWAYS AS (" +
+                FullTextSearchSupport.SEARCH_VECTOR_EXPRESSION + ") STORED) ON COMMIT DROP");
+
+        jdbcTemplate.update("INSERT INTO " + BENCH_TABLE + " (id, titre, competences_techniques, " +
+                "competences_transversales, outils_technologies, description) " +
+                "SELECT i, " +
+                "(ARRAY['Développeur','Ingénieur','Analyste','Consultant','Chef de projet','Architecte'])[1 + i % 6] || ' ' || " +
+                "(ARRAY['Java','Python','Data','DevOps','React','Cloud','Sécurité','Mobile'])[1 + (i / 6) % 8], " +
+                "(ARRAY['Java, Spring Boot, PostgreSQL','Python, Django, Pandas','Kubernetes, Docker, Terraform'," +
+                "'React, TypeScript, Node.js','AWS, Azure, Linux'])[1 + i % 5], " +
+                "(ARRAY['Communication','Leadership','Autonomie','Rigueur','Travail en équipe'])[1 + (i / 5) % 5], " +
+                "(ARRAY['Git, Jira','IntelliJ IDEA, Maven','VS Code, npm','Grafana, Prometheus'])[1 + i % 4], " +
+                "'Offre ' || i || ' ' || md5(i::text) || ' ' || " +
+                "(ARRAY['mission de développement d''applications web','projet de migration vers le cloud'," +
+                "'analyse de données clients','maintenance applicative et support'])[1 + i % 4] " +
+                "FROM generate_series(1, ?) AS s(i)", rows);
+
+        jdbcTemplate.execute("CREATE INDEX ON " + BENCH_TABLE + " USING gin (search_vector)");
+        jdbcTemplate.execute("ANALYZE " + BENCH_TABLE);
+    }
+
+    private static Double executionTime(List<String> plan) {
+        for (String line : plan) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("Execution Time:")) {
+                return Double.parseDouble(trimmed.replace("Execution Time:", "").replace("ms", "").trim());
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasSeqScan(List<String> plan, String table) {
+        return plan.stream().anyMatch(line -> line.contains("Seq Scan on " + table));
+    }
+}
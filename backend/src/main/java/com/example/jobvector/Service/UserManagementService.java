@@ -1,19 +1,21 @@
 package com.example.jobvector.Service;
 
 import com.example.jobvector.Dto.UserDto;
+import com.example.jobvector.Model.Cv;
 import com.example.jobvector.Model.Utilisateur;
 import com.example.jobvector.Model.UserRole;
+import com.example.jobvector.Repository.CvRepository;
 import com.example.jobvector.Repository.UtilisateurRepository;
 import com.example.jobvector.Config.JWTUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Service de gestion des utilisateurs pour l'application JobVector
@@ -32,10 +34,16 @@ public class UserManagementService {
     private JWTUtils jwtUtils;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private CvRepository cvRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
 
     /**
      * INSCRIPTION - Création d'un nouveau compte utilisateur
@@ -75,7 +83,7 @@ public class UserManagementService {
             utilisateur.setRole(role);
             utilisateur.setNom(registrationRequest.getNom());
             utilisateur.setPrenom(registrationRequest.getPrenom());
-            utilisateur.setPassword(passwordEncoder.encode(registrationRequest.getPassword()));
+            utilisateur.setPassword(passwordHashingService.encode(registrationRequest.getPassword()));
 
             Utilisateur savedUser = utilisateurRepository.save(utilisateur);
 
@@ -85,6 +93,9 @@ public class UserManagementService {
                 response.setStatusCode(200);
             }
 
+        } catch (RejectedExecutionException e) {
+            response.setStatusCode(503);
+            response.setMessage("Trop de demandes d'inscription simultanées, veuillez réessayer dans quelques instants");
         } catch (Exception e) {
             response.setStatusCode(500);
             response.setError("Erreur lors de l'inscription: " + e.getMessage());
@@ -100,17 +111,25 @@ public class UserManagementService {
         UserDto response = new UserDto();
 
         try {
-            // Authentification
-            authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getEmail(),
-                    loginRequest.getPassword()
-                )
-            );
-
-            // Récupération de l'utilisateur et génération des tokens
-            Utilisateur user = utilisateurRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+            // Authentification : vérification BCrypt dans le pool de hachage dédié
+            Utilisateur user = loginRequest.getEmail() == null ? null
+                    : utilisateurRepository.findByEmail(loginRequest.getEmail()).orElse(null);
+            String rawPassword = loginRequest.getPassword() == null ? "" : loginRequest.getPassword();
+            if (user == null) {
+                // Même coût qu'un mot de passe erroné, pour ne pas révéler l'existence du compte
+                passwordHashingService.matchesUnknownUser(rawPassword);
+                throw new BadCredentialsException("Bad credentials");
+            }
+            if (!passwordHashingService.matches(rawPassword, user.getPassword())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+
+            // Empreinte calculée avec un ancien coût BCrypt : la recalculer avec le coût configuré
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                user.setPassword(passwordHashingService.encode(rawPassword));
+                user = utilisateurRepository.save(user);
+                cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.USER, user.getId());
+            }
 
             String jwt = jwtUtils.generateToken(user);
             String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), user);
@@ -123,6 +142,9 @@ public class UserManagementService {
             response.setMessage(getLoginSuccessMessageByRole(user.getRole()));
             response.setUtilisateurs(user);
 
+        } catch (RejectedExecutionException e) {
+            response.setStatusCode(503);
+            response.setMessage("Trop de demandes de connexion simultanées, veuillez réessayer dans quelques instants");
         } catch (Exception e) {
             response.setStatusCode(500);
             response.setMessage("Erreur de connexion: " + e.getMessage());
@@ -213,7 +235,12 @@ public class UserManagementService {
 
         try {
             if (utilisateurRepository.existsById(Long.valueOf(userId))) {
+                Optional<Cv> cv = cvRepository.findByUtilisateurId(Long.valueOf(userId));
                 utilisateurRepository.deleteById(Long.valueOf(userId));
+                // Le CV est supprimé en cascade : prévenir les index qui le référencent
+                cv.ifPresent(deletedCv -> eventPublisher.publishEvent(new CvChangedEvent(CvChangedEvent.Type.DELETED, deletedCv)));
+                cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.USER, Long.valueOf(userId));
+                cv.ifPresent(deletedCv -> cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.CV, deletedCv.getId()));
                 response.setStatusCode(200);
                 response.setMessage("Utilisateur supprimé avec succès");
             } else {
@@ -246,10 +273,11 @@ public class UserManagementService {
 
                 // Si un mot de passe est fourni, l'encoder et le mettre à jour
                 if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
-                    existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+                    existingUser.setPassword(passwordHashingService.encode(updatedUser.getPassword()));
                 }
 
                 Utilisateur savedUser = utilisateurRepository.save(existingUser);
+                cacheInvalidationBus.publish(CacheInvalidationEvent.Kind.USER, savedUser.getId());
                 response.setUtilisateurs(savedUser);
                 response.setStatusCode(200);
                 response.setMessage("Utilisateur mis à jour avec succès");
@@ -0,0 +1,161 @@
+package com.example.jobvector.Service;
+
+import com.example.jobvector.Config.HalfvecSupport;
+import com.example.jobvector.Dto.VectorIndexReportDto;
+import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rapport rappel / latence des recherches quantifiées (int8 en mémoire, halfvec PostgreSQL)
+ * comparées au cosinus exact sur les vecteurs pleine précision
+ */
+@Service
+public class VectorIndexReportService {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    @Autowired
+    private JobOfferVectorIndex jobOfferVectorIndex;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private JobOfferService jobOfferService;
+
+    @Autowired
+    private HalfvecSupport halfvecSupport;
+
+    /**
+     * Mesurer la recherche des offres les plus proches avec des embeddings de CV réels comme requêtes
+     * (complétés par des embeddings d'offres si la base contient peu de CV)
+     */
+    @Transactional(readOnly = true)
+    public VectorIndexReportDto buildQuantizationReport(int queryCount, int k) {
+        VectorIndexReportDto response = new VectorIndexReportDto();
+
+        if (!jobOfferVectorIndex.isReady() || jobOfferVectorIndex.size() == 0) {
+            response.setStatusCode(503);
+            response.setMessage("L'index vectoriel des offres est vide ou désactivé");
+            return response;
+        }
+
+        int n = Math.max(1, Math.min(queryCount, 1000));
+        int topK = Math.max(1, Math.min(k, 100));
+        List<float[]> queries = loadQueries(n);
+        if (queries.isEmpty()) {
+            response.setStatusCode(400);
+            response.setMessage("Aucun embedding disponible pour servir de requête");
+            return response;
+        }
+
+        boolean halfvec = halfvecSupport.isAvailable();
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (float[] query : queries) {
+                jobOfferVectorIndex.searchExact(query, topK);
+                jobOfferVectorIndex.searchQuantized(query, topK);
+            }
+        }
+
+        long[] exactMicros = new long[queries.size()];
+        long[] int8Micros = new long[queries.size()];
+        long[] halfvecMicros = new long[queries.size()];
+        double int8Recall = 0.0;
+        double halfvecRecall = 0.0;
+
+        for (int i = 0; i < queries.size(); i++) {
+            float[] query = queries.get(i);
+
+            long start = System.nanoTime();
+            List<VectorMatch> exact = jobOfferVectorIndex.searchExact(query, topK);
+            exactMicros[i] = (System.nanoTime() - start) / 1000;
+
+            start = System.nanoTime();
+            List<VectorMatch> int8 = jobOfferVectorIndex.searchQuantized(query, topK);
+            int8Micros[i] = (System.nanoTime() - start) / 1000;
+            int8Recall += recall(exact, int8);
+
+            if (halfvec) {
+                start = System.nanoTime();
+                List<VectorMatch> half = jobOfferService.searchJobOffersByHalfvec(query, topK);
+                halfvecMicros[i] = (System.nanoTime() - start) / 1000;
+                halfvecRecall += recall(exact, half);
+            }
+        }
+
+        int size = jobOfferVectorIndex.size();
+        int dimension = jobOfferVectorIndex.getDimension();
+        response.setQueries(queries.size());
+        response.setK(topK);
+        response.setIndexedOffers(size);
+        response.setDimension(dimension);
+        response.setOversampling(jobOfferVectorIndex.getOversampling());
+        response.setExactAvgMicros(average(exactMicros));
+        response.setExactP95Micros(percentile95(exactMicros));
+        response.setInt8RecallAtK(int8Recall / queries.size());
+        response.setInt8AvgMicros(average(int8Micros));
+        response.setInt8P95Micros(percentile95(int8Micros));
+        if (halfvec) {
+            response.setHalfvecRecallAtK(halfvecRecall / queries.size());
+            response.setHalfvecAvgMicros(average(halfvecMicros));
+            response.setHalfvecP95Micros(percentile95(halfvecMicros));
+        }
+        response.setFloatMatrixBytes((long) size * dimension * Float.BYTES);
+        response.setInt8MatrixBytes((long) size * dimension + (long) size * Float.BYTES);
+        response.setStatusCode(200);
+        response.setMessage("Rapport de quantification généré avec succès");
+
+        return response;
+    }
+
+    private List<float[]> loadQueries(int n) {
+        List<float[]> queries = new ArrayList<>(n);
+        addQueries(queries, cvRepository.findEmbeddingsAfter(0L, PageRequest.of(0, n)), n);
+        addQueries(queries, jobOfferRepository.findActiveEmbeddingsAfter(0L, PageRequest.of(0, n)), n);
+        return queries;
+    }
+
+    private void addQueries(List<float[]> queries, List<Object[]> rows, int n) {
+        for (Object[] row : rows) {
+            if (queries.size() >= n) {
+                return;
+            }
+            float[] vector = EmbeddingVectors.parse((String) row[1]);
+            if (vector != null && vector.length == jobOfferVectorIndex.getDimension()) {
+                queries.add(vector);
+            }
+        }
+    }
+
+    private static double recall(List<VectorMatch> expected, List<VectorMatch> actual) {
+        if (expected.isEmpty()) {
+            return 1.0;
+        }
+        Set<Long> actualIds = actual.stream().map(VectorMatch::id).collect(Collectors.toSet());
+        long hits = expected.stream().map(VectorMatch::id).filter(actualIds::contains).count();
+        return (double) hits / expected.size();
+    }
+
+    private static double average(long[] values) {
+        return Arrays.stream(values).average().orElse(0.0);
+    }
+
+    private static double percentile95(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95) - 1)];
+    }
+}
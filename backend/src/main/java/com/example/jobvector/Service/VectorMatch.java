@@ -0,0 +1,7 @@
+package com.example.jobvector.Service;
+
+/**
+ * Résultat d'une recherche vectorielle : identifiant de l'entité et similarité cosinus brute [-1, 1]
+ */
+public record VectorMatch(Long id, double similarity) {
+}
@@ -0,0 +1,36 @@
+-- Index des requêtes chaudes : listes paginées par clé, tableau de bord employeur, suivi des traitements de CV
+-- et authentification. Les index de pagination éventuellement créés par ddl-auto=update depuis les entités sont
+-- recréés dans l'ordre de tri des requêtes.
+-- cvs(candidat_id) est déjà couvert par la contrainte d'unicité du one-to-one (V1).
+
+-- Candidatures d'une offre par score décroissant (ApplicationRepository.findByJobOffreScoredBefore)
+drop index if exists idx_applications_job_offre_score;
+create index idx_applications_job_offre_score
+    on applications (job_offre_id, score_global desc, date_candidature desc, id desc);
+
+-- Candidatures d'un candidat, les plus récentes d'abord (findByCandidatBefore)
+drop index if exists idx_applications_candidat_date;
+create index idx_applications_candidat_date
+    on applications (candidat_id, date_candidature desc, id desc);
+
+-- Offres par statut et date de publication (findWithFiltersBefore)
+drop index if exists idx_job_offres_statut_date;
+create index idx_job_offres_statut_date
+    on job_offres (statut, date_publication desc, id desc);
+
+-- Offres actives uniquement : listes publiques et pagination par clé (findActiveBefore)
+create index if not exists idx_job_offres_active_date
+    on job_offres (date_publication desc, id desc)
+    where statut = 'ACTIVE';
+
+-- Offres d'un employeur (tableau de bord, candidatures reçues)
+create index if not exists idx_job_offres_employeur
+    on job_offres (employeur_id);
+
+-- Traitements de CV d'un utilisateur, le plus récent d'abord
+create index if not exists idx_cv_processing_jobs_utilisateur_date
+    on cv_processing_jobs (utilisateur_id, created_at desc);
+
+-- Connexion et authentification par email
+create index if not exists idx_utilisateur_email
+    on utilisateur (email);
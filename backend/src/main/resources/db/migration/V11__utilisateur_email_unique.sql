@@ -0,0 +1,5 @@
+-- L'e-mail devient l'identifiant naturel de Utilisateur (cache de second niveau de la résolution e-mail -> id) :
+-- l'index d'authentification de V10 est recréé unique. Échoue si des comptes partagent déjà une adresse.
+drop index if exists idx_utilisateur_email;
+create unique index idx_utilisateur_email
+    on utilisateur (email);
@@ -0,0 +1,41 @@
+-- Agrégats des candidatures par offre pour le tableau de bord employeur (JobOffreStats), tenus à jour de façon
+-- incrémentale par JobOffreStatsService. Pas de clé étrangère vers job_offres : la ligne peut être écrite avant
+-- le flush de l'offre, et elle est supprimée avec elle par JobOffreStatsService.
+create table if not exists job_offre_stats (
+    job_offre_id bigint not null primary key,
+    employeur_id bigint not null,
+    nb_candidatures bigint not null default 0,
+    nb_en_attente bigint not null default 0,
+    nb_vue bigint not null default 0,
+    nb_preselectionne bigint not null default 0,
+    nb_entretien bigint not null default 0,
+    nb_accepte bigint not null default 0,
+    nb_refuse bigint not null default 0,
+    nb_retiree bigint not null default 0,
+    nb_scores bigint not null default 0,
+    somme_scores double precision not null default 0,
+    score_max double precision,
+    date_mise_a_jour timestamp(6)
+);
+
+-- Tableau de bord : toutes les offres d'un employeur en une lecture
+create index if not exists idx_job_offre_stats_employeur
+    on job_offre_stats (employeur_id);
+
+-- Agrégats des offres existantes
+insert into job_offre_stats (job_offre_id, employeur_id, nb_candidatures, nb_en_attente, nb_vue, nb_preselectionne,
+                             nb_entretien, nb_accepte, nb_refuse, nb_retiree, nb_scores, somme_scores, score_max,
+                             date_mise_a_jour)
+select j.id, j.employeur_id, count(a.id),
+       count(case when a.statut = 'EN_ATTENTE' then 1 end),
+       count(case when a.statut = 'VUE' then 1 end),
+       count(case when a.statut = 'PRESELECTIONNE' then 1 end),
+       count(case when a.statut = 'ENTRETIEN' then 1 end),
+       count(case when a.statut = 'ACCEPTE' then 1 end),
+       count(case when a.statut = 'REFUSE' then 1 end),
+       count(case when a.statut = 'RETIREE' then 1 end),
+       count(a.score_global), coalesce(sum(a.score_global), 0), max(a.score_global), localtimestamp
+from job_offres j
+left join applications a on a.job_offre_id = j.id
+group by j.id, j.employeur_id
+on conflict (job_offre_id) do nothing;
@@ -0,0 +1,17 @@
+-- Un seul profil GLOBAL, un seul profil par employeur et un seul par offre : ScoringProfileService lit ces profils
+-- avec findFirstByScope / findByScopeAndEmployeurId / findByScopeAndJobOffreId. Les doublons laissés par des
+-- enregistrements concurrents sont supprimés en gardant le plus récent.
+delete from scoring_profiles p
+ where exists (select 1 from scoring_profiles newer
+                where newer.scope = p.scope
+                  and newer.id > p.id
+                  and (p.scope = 'GLOBAL'
+                       or (p.scope = 'EMPLOYER' and newer.employeur_id = p.employeur_id)
+                       or (p.scope = 'JOB_OFFER' and newer.job_offre_id = p.job_offre_id)));
+
+create unique index idx_scoring_profiles_global
+    on scoring_profiles (scope) where scope = 'GLOBAL';
+create unique index idx_scoring_profiles_employer
+    on scoring_profiles (employeur_id) where scope = 'EMPLOYER';
+create unique index idx_scoring_profiles_job_offer
+    on scoring_profiles (job_offre_id) where scope = 'JOB_OFFER';
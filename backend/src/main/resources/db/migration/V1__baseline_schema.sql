@@ -0,0 +1,140 @@
+-- Schéma de référence : tables, séquence et clés étrangères produits par le modèle JPA (ddl-auto=update) dans la
+-- version antérieure aux migrations versionnées. Une base existante est enregistrée à cette version sans exécuter
+-- le script (voir SchemaMigrationRunner) ; les évolutions suivantes sont apportées par V2 et au-delà.
+
+create sequence utilisateur_seq start with 1 increment by 50;
+
+create table applications (
+    score_competences_techniques float(53),
+    score_competences_transversales float(53),
+    score_experience float(53),
+    score_formation float(53),
+    score_global float(53),
+    candidat_id bigint not null,
+    date_candidature timestamp(6) not null,
+    date_modification timestamp(6),
+    id bigint generated by default as identity,
+    job_offre_id bigint not null,
+    commentaire_employeur TEXT,
+    commentaire_public TEXT,
+    cv_data_snapshot TEXT,
+    cv_embedding TEXT,
+    cv_file_path varchar(255),
+    lettre_motivation TEXT,
+    metadata TEXT,
+    statut varchar(255) not null check (statut in ('EN_ATTENTE','VUE','PRESELECTIONNE','ENTRETIEN','ACCEPTE','REFUSE','RETIREE')),
+    primary key (id),
+    unique (candidat_id, job_offre_id)
+);
+
+create table cv_processing_jobs (
+    completed_at timestamp(6),
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) not null,
+    utilisateur_id bigint not null,
+    error_message TEXT,
+    file_name varchar(255) not null,
+    file_path varchar(255) not null,
+    status varchar(255) not null check (status in ('PENDING','PROCESSING','COMPLETED','FAILED')),
+    status_details TEXT,
+    primary key (id)
+);
+
+create table cvs (
+    experience_annees integer,
+    candidat_id bigint unique,
+    date_creation timestamp(6),
+    date_modification timestamp(6),
+    id bigint generated by default as identity,
+    processing_job_id bigint unique,
+    taille_fichier bigint,
+    adresse varchar(255),
+    certifications TEXT,
+    chemin_fichier varchar(255) not null,
+    competences_techniques TEXT,
+    competences_transversales TEXT,
+    email varchar(255),
+    embedding TEXT,
+    formations TEXT,
+    langues varchar(255),
+    linkedin_url varchar(255),
+    mots_cles_generes TEXT,
+    niveau_etude varchar(255),
+    nom varchar(255),
+    points_forts TEXT,
+    prenom varchar(255),
+    projets TEXT,
+    resume_professionnel TEXT,
+    telephone varchar(255),
+    texte_extrait TEXT,
+    primary key (id)
+);
+
+create table job_offres (
+    experience integer,
+    experience_min_requise integer,
+    salaire float(53),
+    date_publication timestamp(6),
+    employeur_id bigint not null,
+    id bigint generated by default as identity,
+    competences_techniques TEXT,
+    competences_transversales TEXT,
+    description TEXT,
+    embedding TEXT,
+    entreprise varchar(255),
+    langues_requises TEXT,
+    localisation varchar(255),
+    mission_principale TEXT,
+    modalite_travail varchar(255) check (modalite_travail in ('PRESENTIEL','REMOTE','HYBRIDE')),
+    niveau_etude_min varchar(255) check (niveau_etude_min in ('AUCUN','BAC','BAC_PLUS_2','BAC_PLUS_3','BAC_PLUS_5','DOCTORAT')),
+    outils_technologies TEXT,
+    responsabilites TEXT,
+    secteur_activite varchar(255),
+    statut varchar(255) not null,
+    titre varchar(255) not null,
+    type_contrat varchar(255),
+    type_poste varchar(255) check (type_poste in ('TECHNIQUE','MANAGEMENT','COMMERCIAL','RH','FINANCE','MARKETING','SUPPORT')),
+    primary key (id)
+);
+
+create table utilisateur (
+    cin integer not null,
+    id bigint not null,
+    email varchar(255),
+    nom varchar(255),
+    password varchar(255),
+    prenom varchar(255),
+    role varchar(255),
+    primary key (id)
+);
+
+alter table if exists applications
+    add constraint FKb4995w6oi1lvbmbqe36tnm5o4
+    foreign key (candidat_id)
+    references utilisateur;
+
+alter table if exists applications
+    add constraint FK6bfs0vo575c3ggkg9nqpgju36
+    foreign key (job_offre_id)
+    references job_offres;
+
+alter table if exists cv_processing_jobs
+    add constraint FKpvayfucl37xcfub6wqa2n4x10
+    foreign key (utilisateur_id)
+    references utilisateur;
+
+alter table if exists cvs
+    add constraint FK7krc5a0v3l3reefi5v1lvns6r
+    foreign key (processing_job_id)
+    references cv_processing_jobs;
+
+alter table if exists cvs
+    add constraint FK5uw2k9n1a4hlnr30473rtnkrm
+    foreign key (candidat_id)
+    references utilisateur;
+
+alter table if exists job_offres
+    add constraint FKccql8d999bblmnrttpcpo3l2u
+    foreign key (employeur_id)
+    references utilisateur;
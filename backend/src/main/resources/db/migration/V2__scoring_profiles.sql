@@ -0,0 +1,18 @@
+-- Pondérations de scoring configurables (ScoringProfile) : profil global, par employeur ou par offre, et sous-scores
+-- conservés sur la candidature pour re-pondérer sans recalculer les embeddings.
+alter table applications add column score_langues float(53);
+alter table applications add column score_cosinus float(53);
+
+create table scoring_profiles (
+    poids_competences_techniques float(53) not null,
+    poids_competences_transversales float(53) not null,
+    poids_experience float(53) not null,
+    poids_formation float(53) not null,
+    poids_langues float(53) not null,
+    date_modification timestamp(6),
+    employeur_id bigint,
+    id bigint generated by default as identity,
+    job_offre_id bigint,
+    scope varchar(255) not null check (scope in ('GLOBAL','EMPLOYER','JOB_OFFER')),
+    primary key (id)
+);
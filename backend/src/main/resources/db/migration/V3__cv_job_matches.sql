@@ -0,0 +1,16 @@
+-- Scores de similarité précalculés entre CV et offres (CvJobMatch), lus par perspective et score décroissant.
+create table cv_job_matches (
+    score float(53) not null,
+    cv_id bigint not null,
+    date_calcul timestamp(6) not null,
+    id bigint generated by default as identity,
+    job_offre_id bigint not null,
+    perspective varchar(16) not null check (perspective in ('CV','JOB_OFFER')),
+    primary key (id)
+);
+
+create index idx_cv_job_matches_cv
+    on cv_job_matches (perspective, cv_id, score);
+
+create index idx_cv_job_matches_job_offre
+    on cv_job_matches (perspective, job_offre_id, score);
@@ -0,0 +1,16 @@
+-- Recherche plein texte des offres : colonne générée search_vector (french + english, titre en poids A,
+-- compétences techniques / outils en B, compétences transversales en C, description en D) indexée en GIN.
+-- L'expression doit rester identique à FullTextSearchSupport.SEARCH_VECTOR_EXPRESSION.
+-- L'ajout calcule la colonne pour toutes les offres existantes (réécriture de la table), avant le démarrage du trafic.
+alter table job_offres add column search_vector tsvector generated always as (
+    setweight(to_tsvector('french', coalesce(titre, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(titre, '')), 'A') ||
+    setweight(to_tsvector('french', coalesce(competences_techniques, '') || ' ' || coalesce(outils_technologies, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(competences_techniques, '') || ' ' || coalesce(outils_technologies, '')), 'B') ||
+    setweight(to_tsvector('french', coalesce(competences_transversales, '')), 'C') ||
+    setweight(to_tsvector('french', coalesce(description, '')), 'D') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'D')
+) stored;
+
+create index idx_job_offres_search_vector
+    on job_offres using gin (search_vector);
@@ -0,0 +1,19 @@
+-- requires-extension: pg_trgm
+-- Index trigrammes des champs filtrés par sous-chaîne (ILIKE '%mot%') : titre, localisation et secteur des offres,
+-- commentaires des candidatures. Appliqué dès que l'extension pg_trgm est disponible sur le serveur.
+create extension if not exists pg_trgm;
+
+create index idx_job_offres_titre_trgm
+    on job_offres using gin (titre gin_trgm_ops);
+
+create index idx_job_offres_localisation_trgm
+    on job_offres using gin (localisation gin_trgm_ops);
+
+create index idx_job_offres_secteur_activite_trgm
+    on job_offres using gin (secteur_activite gin_trgm_ops);
+
+create index idx_applications_commentaire_employeur_trgm
+    on applications using gin (commentaire_employeur gin_trgm_ops);
+
+create index idx_applications_commentaire_public_trgm
+    on applications using gin (commentaire_public gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- Requêtes conditionnelles et verrouillage optimiste : version et date de modification des offres (ETag,
+-- Last-Modified), empreinte du fichier de CV joint à une candidature.
+alter table job_offres add column version bigint default 0 not null;
+alter table job_offres add column date_modification timestamp(6);
+alter table applications add column cv_file_hash varchar(64);
@@ -0,0 +1,87 @@
+-- Embeddings versionnés (table embeddings) et texte brut des CV (cv_documents) hors des tables principales.
+-- Le contenu des anciennes colonnes cvs.embedding, cvs.texte_extrait, job_offres.embedding et
+-- applications.cv_embedding est recopié, chaque ligne est reliée à sa version, puis les colonnes sont supprimées.
+-- Les candidatures dont le candidat n'a plus de CV perdent leur copie d'embedding (elles n'étaient déjà plus
+-- re-scorables). Les embeddings repris sont attribués au modèle en service avant la migration.
+create table embeddings (
+    date_creation timestamp(6) not null,
+    id bigint generated by default as identity,
+    owner_id bigint not null,
+    owner_type varchar(16) not null check (owner_type in ('CV','JOB_OFFER')),
+    model_version varchar(100) not null,
+    vector TEXT not null,
+    primary key (id)
+);
+
+create table cv_documents (
+    id bigint generated by default as identity,
+    texte_extrait TEXT,
+    primary key (id)
+);
+
+create index idx_embeddings_owner
+    on embeddings (owner_type, owner_id);
+
+alter table cvs add column document_id bigint unique;
+alter table cvs add column embedding_id bigint;
+alter table job_offres add column embedding_id bigint;
+alter table applications add column cv_embedding_id bigint;
+
+-- Texte brut : le document reprend l'id du CV, aucune correspondance à calculer
+insert into cv_documents (id, texte_extrait)
+select id, texte_extrait from cvs where texte_extrait is not null;
+
+update cvs set document_id = id where texte_extrait is not null;
+
+select setval(pg_get_serial_sequence('cv_documents', 'id'), (select coalesce(max(id), 0) + 1 from cv_documents), false);
+
+-- Embedding courant des CV et des offres
+insert into embeddings (owner_type, owner_id, model_version, vector, date_creation)
+select 'CV', id, 'all-MiniLM-L6-v2', embedding, now() from cvs
+where embedding is not null and embedding <> '';
+
+update cvs c set embedding_id = e.id from embeddings e
+where e.owner_type = 'CV' and e.owner_id = c.id and e.vector = c.embedding;
+
+insert into embeddings (owner_type, owner_id, model_version, vector, date_creation)
+select 'JOB_OFFER', id, 'all-MiniLM-L6-v2', embedding, now() from job_offres
+where embedding is not null and embedding <> '';
+
+update job_offres j set embedding_id = e.id from embeddings e
+where e.owner_type = 'JOB_OFFER' and e.owner_id = j.id and e.vector = j.embedding;
+
+-- Une version par embedding distinct envoyé avec une candidature, sauf s'il est identique à une version existante
+insert into embeddings (owner_type, owner_id, model_version, vector, date_creation)
+select distinct 'CV', c.id, 'all-MiniLM-L6-v2', a.cv_embedding, now()
+from applications a
+join cvs c on c.candidat_id = a.candidat_id
+where a.cv_embedding is not null and a.cv_embedding <> ''
+  and not exists (select 1 from embeddings e where e.owner_type = 'CV' and e.owner_id = c.id and e.vector = a.cv_embedding);
+
+update applications a set cv_embedding_id = e.id from cvs c, embeddings e
+where c.candidat_id = a.candidat_id and e.owner_type = 'CV' and e.owner_id = c.id and e.vector = a.cv_embedding;
+
+alter table cvs drop column texte_extrait;
+alter table cvs drop column embedding;
+alter table job_offres drop column embedding;
+alter table applications drop column cv_embedding;
+
+alter table if exists applications
+    add constraint FK49hd8nbohv99tq5lnkh8uh6hp
+    foreign key (cv_embedding_id)
+    references embeddings;
+
+alter table if exists cvs
+    add constraint FK7f6jy3ej9cef425fsg8q8crb7
+    foreign key (document_id)
+    references cv_documents;
+
+alter table if exists cvs
+    add constraint FKflp9p4daii3o4bs5fk6m2f5y1
+    foreign key (embedding_id)
+    references embeddings;
+
+alter table if exists job_offres
+    add constraint FKlqfo3atu1g4yl8xldibeqbfpi
+    foreign key (embedding_id)
+    references embeddings;
@@ -0,0 +1,37 @@
+-- requires-extension: vector
+-- Embeddings en demi-précision (pgvector halfvec) pour la génération de candidats côté base : colonne
+-- embedding_half tenue à jour par trigger depuis le JSON pleine précision (un vecteur invalide donne NULL),
+-- un index HNSW partiel par type de propriétaire. Les meilleurs candidats sont re-scorés en Java sur le JSON.
+-- Appliqué dès que l'extension vector est disponible sur le serveur ; d'ici là, les index en mémoire sont utilisés.
+create extension if not exists vector;
+
+create or replace function jobvector_sync_embedding_half() returns trigger as '
+begin
+    if new.vector is null or new.vector = '''' then
+        new.embedding_half := null;
+    else
+        begin
+            new.embedding_half := new.vector::halfvec(384);
+        exception when others then
+            new.embedding_half := null;
+        end;
+    end if;
+    return new;
+end' language plpgsql;
+
+alter table embeddings add column embedding_half halfvec(384);
+
+create trigger trg_embeddings_embedding_half
+    before insert or update of vector on embeddings
+    for each row execute function jobvector_sync_embedding_half();
+
+-- Conversion des embeddings existants par le trigger
+update embeddings set vector = vector;
+
+create index idx_embeddings_cv_half
+    on embeddings using hnsw (embedding_half halfvec_cosine_ops)
+    where owner_type = 'CV';
+
+create index idx_embeddings_job_offer_half
+    on embeddings using hnsw (embedding_half halfvec_cosine_ops)
+    where owner_type = 'JOB_OFFER';
@@ -0,0 +1,23 @@
+-- Identifiants IDENTITY remplacés par des séquences allouées par blocs de 50 (allocationSize des @SequenceGenerator) :
+-- Hibernate réserve les ids en mémoire et peut regrouper les INSERT en lots JDBC. Chaque séquence est placée
+-- au-delà du plus grand id existant (le bloc pooled suivant commence à last_value + 1) et la génération côté base
+-- est retirée, pour qu'aucun id ne soit plus attribué hors de la séquence.
+create sequence applications_seq start with 1 increment by 50;
+alter table applications alter column id drop identity if exists;
+alter table applications alter column id drop default;
+select setval('applications_seq', (select coalesce(max(id), 0) from applications) + 50);
+
+create sequence cv_processing_jobs_seq start with 1 increment by 50;
+alter table cv_processing_jobs alter column id drop identity if exists;
+alter table cv_processing_jobs alter column id drop default;
+select setval('cv_processing_jobs_seq', (select coalesce(max(id), 0) from cv_processing_jobs) + 50);
+
+create sequence cvs_seq start with 1 increment by 50;
+alter table cvs alter column id drop identity if exists;
+alter table cvs alter column id drop default;
+select setval('cvs_seq', (select coalesce(max(id), 0) from cvs) + 50);
+
+create sequence job_offres_seq start with 1 increment by 50;
+alter table job_offres alter column id drop identity if exists;
+alter table job_offres alter column id drop default;
+select setval('job_offres_seq', (select coalesce(max(id), 0) from job_offres) + 50);
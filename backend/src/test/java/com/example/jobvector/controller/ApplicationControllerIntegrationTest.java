@@ -11,12 +11,17 @@ import com.example.jobvector.Model.JobOffre;
 import com.example.jobvector.Model.Utilisateur;
 import com.example.jobvector.Repository.ApplicationRepository;
 import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Repository.EmbeddingRepository;
 import com.example.jobvector.Repository.JobOfferRepository;
 import com.example.jobvector.Repository.UtilisateurRepository;
+import com.example.jobvector.Service.EmbeddingStorageService;
 import com.example.jobvector.Service.OllamaAiCvExtractionService;
 import com.example.jobvector.Service.PythonEmbeddingService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -62,6 +67,15 @@ class ApplicationControllerIntegrationTest {
     @Autowired
     private CvRepository cvRepository;
 
+    @Autowired
+    private EmbeddingRepository embeddingRepository;
+
+    @Autowired
+    private EmbeddingStorageService embeddingStorageService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @MockBean
     private OllamaAiCvExtractionService ollamaAiCvExtractionService;
 
@@ -183,9 +197,8 @@ class ApplicationControllerIntegrationTest {
         cv.setAdresse("Test Address");
         cv.setTexteExtrait("Test CV content");
         cv.setFichierPath(testCvPath);
-        cv.setEmbedding("mock-embedding-vector");
         
-        cvRepository.save(cv);
+        embeddingStorageService.saveCvEmbedding(cvRepository.save(cv), "mock-embedding-vector");
     }
 
     @Test
@@ -202,6 +215,36 @@ class ApplicationControllerIntegrationTest {
                 .andExpect(jsonPath("$.statusCode").value(201));
     }
 
+    @Test
+    @DisplayName("Should reference the CV embedding version instead of copying it")
+    void testApplyToJobOffer_ReferencesCvEmbeddingVersion() throws Exception {
+        ApplicationDto applicationDto = new ApplicationDto();
+        applicationDto.setLettreMotivation("Candidature avec embedding");
+
+        MvcResult applyResult = mockMvc.perform(post("/api/candidate/job-offers/" + jobOfferId + "/apply")
+                        .header("Authorization", "Bearer " + candidateToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(applicationDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long applicationId = objectMapper.readTree(applyResult.getResponse().getContentAsString()).get("id").asLong();
+
+        Cv cv = cvRepository.findByUtilisateurEmail("candidate@test.com").orElseThrow();
+        Long sentVersionId = cv.getEmbeddingVersion().getId();
+        assertEquals(sentVersionId, applicationRepository.findById(applicationId).orElseThrow().getCvEmbedding().getId());
+
+        // New versions: the one sent with the application is kept, the intermediate one is dropped
+        cv = embeddingStorageService.saveCvEmbedding(cv, "second-embedding-vector");
+        Long intermediateVersionId = cv.getEmbeddingVersion().getId();
+        cv = embeddingStorageService.saveCvEmbedding(cv, "third-embedding-vector");
+
+        assertEquals("third-embedding-vector", cv.getEmbedding());
+        assertTrue(embeddingRepository.existsById(sentVersionId));
+        assertFalse(embeddingRepository.existsById(intermediateVersionId));
+        assertEquals("mock-embedding-vector",
+                applicationRepository.findById(applicationId).orElseThrow().getCvEmbedding().getVector());
+    }
+
     @Test
     @DisplayName("Should fail to apply without authentication")
     void testApplyToJobOffer_Unauthorized() throws Exception {
@@ -226,10 +269,13 @@ class ApplicationControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(applicationDto)))
                 .andExpect(status().isCreated());
 
+        // Lists carry the cover letter but not the CV snapshot (single-application responses only)
         mockMvc.perform(get("/api/candidate/applications")
                         .header("Authorization", "Bearer " + candidateToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.statusCode").value(200));
+                .andExpect(jsonPath("$.statusCode").value(200))
+                .andExpect(jsonPath("$.applications[0].lettreMotivation").value("My application"))
+                .andExpect(jsonPath("$.applications[0].cvDataSnapshot").doesNotExist());
     }
 
     @Test
@@ -273,6 +319,47 @@ class ApplicationControllerIntegrationTest {
                 .andExpect(jsonPath("$.statusCode").value(200));
     }
 
+    @Test
+    @DisplayName("Should load a page of received applications with a constant number of statements")
+    void testGetAllReceivedApplications_NoNPlusOneQueries() throws Exception {
+        JobOffre jobOffre = jobOfferRepository.findById(jobOfferId).orElseThrow();
+        for (int i = 0; i < 10; i++) {
+            Utilisateur candidat = new Utilisateur();
+            candidat.setNom("Candidat" + i);
+            candidat.setPrenom("Test");
+            candidat.setEmail("listing.candidate" + i + "@test.com");
+            candidat.setPassword("unused");
+            candidat.setRole("CANDIDATE");
+            utilisateurRepository.save(candidat);
+
+            Application application = new Application();
+            application.setCandidat(candidat);
+            application.setJobOffre(jobOffre);
+            application.setLettreMotivation("Candidature " + i);
+            applicationRepository.save(application);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            mockMvc.perform(get("/api/employer/applications")
+                            .header("Authorization", "Bearer " + employerToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.applications.length()").value(10))
+                    .andExpect(jsonPath("$.applications[0].candidatNom").exists())
+                    .andExpect(jsonPath("$.applications[0].jobOffreTitre").value("Développeur Java Senior"));
+
+            // One query for the page (candidate, CV and job offer joined), plus the COUNT when the page is full
+            assertTrue(statistics.getPrepareStatementCount() <= 2,
+                    "Expected at most 2 statements but got " + statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     @DisplayName("Should update application status as employer")
     void testUpdateApplicationStatus_Success() throws Exception {
@@ -302,4 +389,126 @@ class ApplicationControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.statusCode").value(200));
     }
+
+    @Test
+    @DisplayName("Should answer 304 to a conditional CV download with the current ETag")
+    void testDownloadApplicationCv_NotModified() throws Exception {
+        ApplicationDto applicationDto = new ApplicationDto();
+        applicationDto.setLettreMotivation("Application with CV download");
+
+        MvcResult applyResult = mockMvc.perform(post("/api/candidate/job-offers/" + jobOfferId + "/apply")
+                        .header("Authorization", "Bearer " + candidateToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(applicationDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long applicationId = objectMapper.readTree(applyResult.getResponse().getContentAsString()).get("id").asLong();
+
+        MvcResult downloadResult = mockMvc.perform(get("/api/employer/applications/" + applicationId + "/cv")
+                        .header("Authorization", "Bearer " + employerToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("private")))
+                .andReturn();
+        String eTag = downloadResult.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/employer/applications/" + applicationId + "/cv")
+                        .header("Authorization", "Bearer " + employerToken)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("Should start and track bulk rescoring of a job offer's applications as employer")
+    void testRescoreJobOfferApplications_Success() throws Exception {
+        MvcResult rescoreResult = mockMvc.perform(post("/api/employer/job-offers/" + jobOfferId + "/applications/rescore")
+                        .header("Authorization", "Bearer " + employerToken))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.statusCode").value(202))
+                .andExpect(jsonPath("$.jobId").exists())
+                .andReturn();
+
+        String jobId = objectMapper.readTree(rescoreResult.getResponse().getContentAsString()).get("jobId").asText();
+
+        mockMvc.perform(get("/api/employer/rescoring-jobs/" + jobId)
+                        .header("Authorization", "Bearer " + employerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId").value(jobId))
+                .andExpect(jsonPath("$.jobOffreId").value(jobOfferId));
+    }
+
+    @Test
+    @DisplayName("Should keep the employer dashboard in step with applications, status changes and withdrawals")
+    void testEmployerDashboard_FollowsApplicationLifecycle() throws Exception {
+        ApplicationDto applicationDto = new ApplicationDto();
+        applicationDto.setLettreMotivation("Application for the dashboard");
+
+        MvcResult applyResult = mockMvc.perform(post("/api/candidate/job-offers/" + jobOfferId + "/apply")
+                        .header("Authorization", "Bearer " + candidateToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(applicationDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long applicationId = objectMapper.readTree(applyResult.getResponse().getContentAsString()).get("id").asLong();
+        assertDashboardMatchesApplications();
+
+        ApplicationController.ApplicationStatusUpdateRequest statusUpdate =
+            new ApplicationController.ApplicationStatusUpdateRequest();
+        statusUpdate.setStatut(Application.StatutCandidature.ENTRETIEN);
+        mockMvc.perform(put("/api/employer/applications/" + applicationId + "/status")
+                        .header("Authorization", "Bearer " + employerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(statusUpdate)))
+                .andExpect(status().isOk());
+        JsonNode offer = assertDashboardMatchesApplications();
+        assertEquals(1, offer.get("candidaturesParStatut").get("ENTRETIEN").asLong());
+        assertEquals(0, offer.get("candidaturesParStatut").get("EN_ATTENTE").asLong());
+
+        mockMvc.perform(delete("/api/candidate/applications/" + applicationId)
+                        .header("Authorization", "Bearer " + candidateToken))
+                .andExpect(status().isOk());
+        offer = assertDashboardMatchesApplications();
+        assertEquals(1, offer.get("candidaturesParStatut").get("RETIREE").asLong());
+        assertEquals(0, offer.get("candidaturesParStatut").get("ENTRETIEN").asLong());
+    }
+
+    /**
+     * Reads the dashboard and checks the job offer's aggregates against the per-offer aggregate queries
+     */
+    private JsonNode assertDashboardMatchesApplications() throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+
+        MvcResult result = mockMvc.perform(get("/api/employer/dashboard")
+                        .header("Authorization", "Bearer " + employerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nbOffres").value(1))
+                .andReturn();
+        JsonNode dashboard = objectMapper.readTree(result.getResponse().getContentAsString());
+        JsonNode offer = dashboard.get("offres").get(0);
+        assertEquals(jobOfferId, offer.get("jobOffreId").asLong());
+
+        JobOffre jobOffre = jobOfferRepository.findById(jobOfferId).orElseThrow();
+        assertEquals(applicationRepository.countByJobOffre(jobOffre), offer.get("nbCandidatures").asLong());
+        assertEquals(applicationRepository.countByJobOffre(jobOffre), dashboard.get("nbCandidatures").asLong());
+        for (Application.StatutCandidature statut : Application.StatutCandidature.values()) {
+            assertEquals(applicationRepository.countByJobOffreAndStatut(jobOffre, statut),
+                    offer.get("candidaturesParStatut").get(statut.name()).asLong(), statut.name());
+        }
+
+        Double averageScore = applicationRepository.findAverageScoreByJobOffre(jobOffre);
+        Double maxScore = applicationRepository.findMaxScoreByJobOffre(jobOffre);
+        if (averageScore == null) {
+            assertFalse(offer.has("scoreMoyen"));
+        } else {
+            assertEquals(averageScore, offer.get("scoreMoyen").asDouble(), 1e-9);
+        }
+        if (maxScore == null) {
+            assertFalse(offer.has("scoreMax"));
+        } else {
+            assertEquals(maxScore, offer.get("scoreMax").asDouble(), 1e-9);
+        }
+        return offer;
+    }
 }
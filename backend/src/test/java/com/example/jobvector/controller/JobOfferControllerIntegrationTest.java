@@ -148,6 +148,151 @@ class JobOfferControllerIntegrationTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("Should save a normalized scoring profile for a job offer")
+    void testSaveJobOfferScoringProfile_Success() throws Exception {
+        MvcResult createResult = mockMvc.perform(post("/api/employer/job-offers")
+                        .header("Authorization", "Bearer " + employerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validJobOfferDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long jobOfferId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        String weights = "{\"poidsCompetencesTechniques\":2,\"poidsExperience\":1,\"poidsLangues\":1," +
+                "\"poidsCompetencesTransversales\":0,\"poidsFormation\":0}";
+
+        mockMvc.perform(put("/api/employer/job-offers/" + jobOfferId + "/scoring-profile")
+                        .header("Authorization", "Bearer " + employerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(weights))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scope").value("JOB_OFFER"))
+                .andExpect(jsonPath("$.poidsCompetencesTechniques").value(0.5))
+                .andExpect(jsonPath("$.poidsExperience").value(0.25))
+                .andExpect(jsonPath("$.candidaturesRecalculees").value(0));
+
+        mockMvc.perform(put("/api/employer/job-offers/" + jobOfferId + "/scoring-profile")
+                        .header("Authorization", "Bearer " + employerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"poidsCompetencesTechniques\":-1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ========== PUBLIC ENDPOINTS TESTS ==========
+
+    @Test
+    @DisplayName("Should rank lexical matches in hybrid search")
+    void testHybridSearch_Success() throws Exception {
+        createJobOfferAsEmployer();
+
+        mockMvc.perform(get("/api/public/job-offers/search")
+                        .param("keyword", "spring boot")
+                        .param("mode", "hybrid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.jobOffers[0].titre").value(validJobOfferDto.getTitre()));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to a conditional job offer request until the offer changes")
+    void testGetJobOfferById_NotModified() throws Exception {
+        MvcResult createResult = mockMvc.perform(post("/api/employer/job-offers")
+                        .header("Authorization", "Bearer " + employerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validJobOfferDto)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long jobOfferId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+
+        MvcResult getResult = mockMvc.perform(get("/api/public/job-offers/" + jobOfferId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("public")))
+                .andReturn();
+        String eTag = getResult.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/public/job-offers/" + jobOfferId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/public/job-offers/" + jobOfferId).header("If-None-Match", "\"job-offer-" + jobOfferId + "-v99\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should page through active job offers with opaque cursors")
+    void testGetActiveJobOffers_CursorPagination() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createJobOfferAsEmployer();
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/public/job-offers")
+                        .param("cursor", "")
+                        .param("size", "2")
+                        .param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobOffers.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        JsonNode firstBody = objectMapper.readTree(firstPage.getResponse().getContentAsString());
+
+        MvcResult secondPage = mockMvc.perform(get("/api/public/job-offers")
+                        .param("cursor", firstBody.get("nextCursor").asText())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobOffers.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+        JsonNode secondBody = objectMapper.readTree(secondPage.getResponse().getContentAsString());
+
+        long lastIdOfFirstPage = firstBody.get("jobOffers").get(1).get("id").asLong();
+        assertTrue(secondBody.get("jobOffers").get(0).get("id").asLong() < lastIdOfFirstPage);
+
+        mockMvc.perform(get("/api/public/job-offers").param("cursor", "invalide"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should list the employer's job offers from summary projections")
+    void testGetMyJobOffers_SummaryProjection() throws Exception {
+        createJobOfferAsEmployer();
+        createJobOfferAsEmployer();
+
+        mockMvc.perform(get("/api/employer/job-offers/my-offers")
+                        .header("Authorization", "Bearer " + employerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobOffers.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.jobOffers[0].titre").value("Développeur Java Senior"))
+                .andExpect(jsonPath("$.jobOffers[0].responsabilites").value("Développement, Tests, Code Review"))
+                .andExpect(jsonPath("$.jobOffers[0].employeurEmail").value("employer@test.com"))
+                .andExpect(jsonPath("$.jobOffers[0].version").exists());
+    }
+
+    // ========== CANDIDATE ENDPOINTS TESTS ==========
+
+    @Test
+    @DisplayName("Should require a CV before returning best matching job offers")
+    void testGetBestMatchingJobOffers_WithoutCv() throws Exception {
+        mockMvc.perform(get("/api/candidate/job-offers/best-matches")
+                        .header("Authorization", "Bearer " + candidateToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
+    @Test
+    @DisplayName("Should require a CV before scoring a page of job offers")
+    void testGetMatchScores_WithoutCv() throws Exception {
+        mockMvc.perform(get("/api/candidate/job-offers/match-scores")
+                        .param("ids", "1", "2", "3")
+                        .header("Authorization", "Bearer " + candidateToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400));
+    }
+
     // ========== HELPER METHODS ==========
 
     private void createJobOfferAsEmployer() throws Exception {
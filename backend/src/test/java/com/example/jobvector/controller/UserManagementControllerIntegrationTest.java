@@ -1,9 +1,12 @@
 package com.example.jobvector.controller;
 
+import com.example.jobvector.Config.JWTUtils;
 import com.example.jobvector.Dto.UserDto;
+import com.example.jobvector.Model.Utilisateur;
 import com.example.jobvector.Repository.UtilisateurRepository;
 import com.example.jobvector.Service.UserManagementService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -39,6 +43,9 @@ public class UserManagementControllerIntegrationTest {
     @Autowired
     private UserManagementService userManagementService;
 
+    @Autowired
+    private JWTUtils jwtUtils;
+
     private UserDto candidateUserDto;
     private UserDto employerUserDto;
     private UserDto adminUserDto;
@@ -180,6 +187,33 @@ public class UserManagementControllerIntegrationTest {
                 .andExpect(jsonPath("$.expirationTime").exists());
     }
 
+    @Test
+    @DisplayName("Should rehash a password stored with a lower BCrypt cost on login")
+    void testLoginRehashesWeakPassword() throws Exception {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setNom("Legacy");
+        utilisateur.setPrenom("User");
+        utilisateur.setEmail("legacy.hash@example.com");
+        utilisateur.setRole("CANDIDATE");
+        utilisateur.setCin(87654321);
+        utilisateur.setPassword(new BCryptPasswordEncoder(4).encode("Password123!"));
+        utilisateurRepository.save(utilisateur);
+
+        UserDto loginRequest = new UserDto();
+        loginRequest.setEmail("legacy.hash@example.com");
+        loginRequest.setPassword("Password123!");
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statusCode").value(200));
+
+        String storedHash = utilisateurRepository.findByEmail("legacy.hash@example.com").orElseThrow().getPassword();
+        assertTrue(storedHash.startsWith("$2a$10$"), "Password should be rehashed with the configured cost");
+        assertTrue(new BCryptPasswordEncoder().matches("Password123!", storedHash));
+    }
+
     @Test
     @DisplayName("Should fail login with invalid email")
     void testLoginWithInvalidEmail_Failure() throws Exception {
@@ -225,6 +259,28 @@ public class UserManagementControllerIntegrationTest {
                 .andExpect(jsonPath("$.statusCode").value(500));
     }
 
+    @Test
+    @DisplayName("Should issue tokens carrying user id and role claims used to authenticate requests")
+    void testLoginTokenCarriesUserClaims() throws Exception {
+        userManagementService.register(candidateUserDto);
+        Long userId = utilisateurRepository.findByEmail(candidateUserDto.getEmail()).orElseThrow().getId();
+
+        UserDto loginRequest = new UserDto();
+        loginRequest.setEmail(candidateUserDto.getEmail());
+        loginRequest.setPassword(candidateUserDto.getPassword());
+        String token = userManagementService.login(loginRequest).getToken();
+
+        Claims claims = jwtUtils.parseClaims(token);
+        assertEquals(candidateUserDto.getEmail(), claims.getSubject());
+        assertEquals(userId, ((Number) claims.get(JWTUtils.CLAIM_USER_ID)).longValue());
+        assertEquals("CANDIDATE", claims.get(JWTUtils.CLAIM_ROLE, String.class));
+
+        mockMvc.perform(get("/api/user/profile")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.utilisateurs.email").value(candidateUserDto.getEmail()));
+    }
+
     // ========== REFRESH TOKEN TESTS ==========
 
     @Test
@@ -0,0 +1,177 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Dto.JobOffreDto;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.UtilisateurRepository;
+import com.example.jobvector.Service.CacheInvalidationBus;
+import com.example.jobvector.Service.CvVectorIndex;
+import com.example.jobvector.Service.JobRequirementVectorCache;
+import com.example.jobvector.Service.JobRequirementVectors;
+import com.example.jobvector.Service.PublicJobOfferCache;
+import com.example.jobvector.Service.VectorMatch;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Invalidations received from another node (the LISTEN side needs PostgreSQL, so notifications are handed to the
+ * bus directly): every in-process cache must drop or reload the written element.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "app.public-cache.enabled=true"
+})
+@ActiveProfiles("test")
+class CacheInvalidationBusTest {
+
+    private static final String OTHER_NODE = "other-node";
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private PublicJobOfferCache publicJobOfferCache;
+
+    @Autowired
+    private JobRequirementVectorCache jobRequirementVectorCache;
+
+    @Autowired
+    private CvVectorIndex cvVectorIndex;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Utilisateur employer;
+
+    private JobOffre jobOffer;
+
+    @BeforeEach
+    void setUp() {
+        employer = new Utilisateur();
+        employer.setEmail("bus-employer@test.com");
+        employer.setRole("EMPLOYEUR");
+        employer = inTransaction(() -> utilisateurRepository.save(employer));
+
+        JobOffre offer = new JobOffre();
+        offer.setTitre("Offre invalidée");
+        offer.setEmployeur(employer);
+        offer.setStatut("ACTIVE");
+        offer.setDatePublication(LocalDateTime.now());
+        jobOffer = inTransaction(() -> jobOfferRepository.save(offer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(() -> {
+            jobOfferRepository.deleteById(jobOffer.getId());
+            utilisateurRepository.deleteById(employer.getId());
+            return null;
+        });
+        publicJobOfferCache.invalidateAll();
+        jobRequirementVectorCache.clear();
+    }
+
+    @Test
+    @DisplayName("Should drop a job offer from every local cache when another node writes it")
+    void testRemoteJobOfferInvalidation() {
+        inTransaction(() -> jobOfferRepository.findById(jobOffer.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(JobOffre.class, jobOffer.getId()));
+
+        publicJobOfferCache.get(PublicJobOfferCache.key("recent", 10), this::okResponse);
+        assertEquals(1, publicJobOfferCache.size());
+
+        jobRequirementVectorCache.put(new JobRequirementVectors(jobOffer.getId(), new float[] {1f}, null, null, null));
+
+        // Write made by another node
+        jdbcTemplate.update("UPDATE job_offres SET titre = ? WHERE id = ?", "Titre modifié ailleurs", jobOffer.getId());
+
+        // Notifications from this node were already applied locally
+        cacheInvalidationBus.receive(cacheInvalidationBus.getNodeId() + "|JOB_OFFER|" + jobOffer.getId());
+        assertEquals("Offre invalidée", titleOf(jobOffer.getId()));
+        assertEquals(1, publicJobOfferCache.size());
+
+        cacheInvalidationBus.receive(OTHER_NODE + "|JOB_OFFER|" + jobOffer.getId());
+        assertEquals("Titre modifié ailleurs", titleOf(jobOffer.getId()));
+        assertEquals(0, publicJobOfferCache.size());
+        assertNull(jobRequirementVectorCache.get(jobOffer.getId()));
+    }
+
+    @Test
+    @DisplayName("Should drop a user and its email resolution when another node writes it")
+    void testRemoteUserInvalidation() {
+        inTransaction(() -> utilisateurRepository.findByEmail("bus-employer@test.com"));
+        assertTrue(entityManagerFactory.getCache().contains(Utilisateur.class, employer.getId()));
+
+        jdbcTemplate.update("UPDATE utilisateur SET email = ? WHERE id = ?", "bus-employer-renamed@test.com", employer.getId());
+
+        cacheInvalidationBus.receive(OTHER_NODE + "|USER|" + employer.getId());
+        assertFalse(entityManagerFactory.getCache().contains(Utilisateur.class, employer.getId()));
+        assertTrue(inTransaction(() -> utilisateurRepository.findByEmail("bus-employer@test.com")).isEmpty());
+        assertTrue(inTransaction(() -> utilisateurRepository.findByEmail("bus-employer-renamed@test.com")).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should reload a CV vector from the database when another node writes it, and ignore garbage")
+    void testRemoteCvInvalidation() {
+        long cvId = 9_000_001L;
+        float[] vector = new float[384];
+        vector[0] = 1f;
+        cvVectorIndex.upsert(cvId, vector.clone());
+        assertTrue(matches(vector, cvId));
+
+        // No such CV in the database: another node deleted it
+        cacheInvalidationBus.receive(OTHER_NODE + "|CV|" + cvId);
+        assertFalse(matches(vector, cvId));
+
+        assertDoesNotThrow(() -> cacheInvalidationBus.receive("garbage"));
+        assertDoesNotThrow(() -> cacheInvalidationBus.receive(OTHER_NODE + "|UNKNOWN|1"));
+        assertDoesNotThrow(() -> cacheInvalidationBus.receive(OTHER_NODE + "|CV|not-a-number"));
+    }
+
+    private String titleOf(Long jobOfferId) {
+        return inTransaction(() -> jobOfferRepository.findById(jobOfferId)).orElseThrow().getTitre();
+    }
+
+    private boolean matches(float[] query, long id) {
+        List<VectorMatch> matches = cvVectorIndex.search(query, 5);
+        return matches.stream().anyMatch(match -> match.id() == id);
+    }
+
+    private JobOffreDto okResponse() {
+        JobOffreDto response = new JobOffreDto();
+        response.setStatusCode(200);
+        return response;
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.Embedding;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Service.CvChangedEvent;
+import com.example.jobvector.Service.EmbeddingVectors;
+import com.example.jobvector.Service.JobOfferChangedEvent;
+import com.example.jobvector.Service.JobOfferVectorIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CvJobMatchServiceTest {
+
+    private static final long FIRST_JOB_OFFER_ID = 3_000_000L;
+    private static final long CV_ID = 3_500_000L;
+    private static final int COUNT = 30;
+    private static final int DIMENSION = 384;
+
+    @Autowired
+    private JobOfferVectorIndex jobOfferVectorIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (long id = FIRST_JOB_OFFER_ID; id < FIRST_JOB_OFFER_ID + COUNT; id++) {
+            jobOfferVectorIndex.remove(id);
+        }
+        eventPublisher.publishEvent(new CvChangedEvent(CvChangedEvent.Type.DELETED, cv(null)));
+    }
+
+    @Test
+    @DisplayName("Should maintain the best matches of a CV incrementally when CVs and offers change")
+    void testIncrementalMaintenance() throws Exception {
+        Random random = new Random(5);
+        float[][] vectors = new float[COUNT][];
+        for (int i = 0; i < COUNT; i++) {
+            vectors[i] = randomVector(random);
+            jobOfferVectorIndex.upsert(FIRST_JOB_OFFER_ID + i, EmbeddingVectors.toVectorLiteral(vectors[i]));
+        }
+        long nearestJobOfferId = FIRST_JOB_OFFER_ID + 7;
+
+        // CV proche de l'offre n°7
+        float[] cvVector = vectors[7].clone();
+        for (int i = 0; i < DIMENSION; i++) {
+            cvVector[i] += (float) (0.1 * random.nextGaussian());
+        }
+        eventPublisher.publishEvent(new CvChangedEvent(CvChangedEvent.Type.UPSERTED, cv(cvVector)));
+
+        waitUntil(() -> !cvMatches().isEmpty());
+        assertEquals(nearestJobOfferId, cvMatches().get(0));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cv_job_matches " +
+                "WHERE perspective = 'JOB_OFFER' AND cv_id = ? AND job_offre_id = ?", Integer.class, CV_ID, nearestJobOfferId));
+
+        JobOffre deletedJobOffer = new JobOffre();
+        deletedJobOffer.setId(nearestJobOfferId);
+        eventPublisher.publishEvent(new JobOfferChangedEvent(JobOfferChangedEvent.Type.DELETED, deletedJobOffer));
+
+        waitUntil(() -> !cvMatches().contains(nearestJobOfferId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cv_job_matches WHERE job_offre_id = ?", Integer.class, nearestJobOfferId));
+    }
+
+    private List<Long> cvMatches() {
+        return jdbcTemplate.queryForList("SELECT job_offre_id FROM cv_job_matches " +
+                "WHERE perspective = 'CV' AND cv_id = ? ORDER BY score DESC", Long.class, CV_ID);
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Classements non mis à jour à temps");
+            Thread.sleep(50);
+        }
+    }
+
+    private Cv cv(float[] vector) {
+        Cv cv = new Cv();
+        cv.setId(CV_ID);
+        if (vector != null) {
+            Embedding embedding = new Embedding();
+            embedding.setVector(EmbeddingVectors.toVectorLiteral(vector));
+            cv.setEmbeddingVersion(embedding);
+        }
+        return cv;
+    }
+
+    private float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Service.CvVectorIndex;
+import com.example.jobvector.Service.VectorMatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CvVectorIndexTest {
+
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int COUNT = 1000;
+    private static final int DIMENSION = 384;
+
+    @Autowired
+    private CvVectorIndex cvVectorIndex;
+
+    @AfterEach
+    void tearDown() {
+        for (long id = FIRST_ID; id < FIRST_ID + COUNT; id++) {
+            cvVectorIndex.remove(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Should find each indexed CV as its own nearest neighbour and hide deleted ones")
+    void testSearchAndTombstones() {
+        assertTrue(cvVectorIndex.isReady());
+
+        Random random = new Random(42);
+        float[][] vectors = new float[COUNT][];
+        for (int i = 0; i < COUNT; i++) {
+            vectors[i] = randomVector(random);
+            cvVectorIndex.upsert(FIRST_ID + i, vectors[i].clone());
+        }
+
+        int found = 0;
+        for (int i = 0; i < COUNT; i += 10) {
+            List<VectorMatch> matches = cvVectorIndex.search(vectors[i], 5);
+            if (!matches.isEmpty() && matches.get(0).id() == FIRST_ID + i) {
+                found++;
+            }
+        }
+        assertTrue(found >= 95, "Recall@1 trop faible: " + found + "/100");
+
+        cvVectorIndex.remove(FIRST_ID);
+        List<VectorMatch> afterDelete = cvVectorIndex.search(vectors[0], 10);
+        assertTrue(afterDelete.stream().noneMatch(match -> match.id() == FIRST_ID));
+    }
+
+    @Test
+    @DisplayName("Should re-map an existing index file on restart and answer queries at once")
+    void testReopenExistingIndex(@TempDir Path directory) {
+        Path file = directory.resolve("cvs.hnsw");
+        Random random = new Random(7);
+        float[][] vectors = new float[20][];
+
+        CvVectorIndex index = standaloneIndex(file, 20);
+        try {
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i] = randomVector(random);
+                index.upsert(FIRST_ID + i, vectors[i].clone());
+            }
+            index.remove(FIRST_ID + 19);
+        } finally {
+            index.close();
+        }
+
+        CvVectorIndex reopened = standaloneIndex(file, 19);
+        try {
+            assertTrue(reopened.isReady());
+            assertEquals(19, reopened.size());
+            for (int i = 0; i < 19; i++) {
+                assertEquals(FIRST_ID + i, reopened.search(vectors[i], 1).get(0).id());
+            }
+            assertTrue(reopened.search(vectors[19], 20).stream().noneMatch(match -> match.id() == FIRST_ID + 19));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild an empty index from a truncated file instead of failing to open")
+    void testReopenTruncatedIndex(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("cvs.hnsw");
+        Random random = new Random(11);
+
+        CvVectorIndex index = standaloneIndex(file, 0);
+        try {
+            for (int i = 0; i < 20; i++) {
+                index.upsert(FIRST_ID + i, randomVector(random));
+            }
+        } finally {
+            index.close();
+        }
+
+        // Header still announces 20 nodes, but the node records are gone
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(4096 + 100);
+        }
+
+        CvVectorIndex reopened = standaloneIndex(file, 0);
+        try {
+            assertTrue(reopened.isReady());
+            assertEquals(0, reopened.size());
+
+            float[] vector = randomVector(random);
+            reopened.upsert(FIRST_ID, vector.clone());
+            assertEquals(FIRST_ID, reopened.search(vector, 1).get(0).id());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact tombstones into a new file and keep answering from it after a restart")
+    void testCompaction(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("cvs.hnsw");
+        Random random = new Random(13);
+        float[][] vectors = new float[200][];
+
+        CvVectorIndex index = standaloneIndex(file, 0);
+        try {
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i] = randomVector(random);
+                index.upsert(FIRST_ID + i, vectors[i].clone());
+            }
+            // Half of the CVs deleted, a quarter re-embedded: 150 tombstones out of 250 nodes
+            for (int i = 100; i < vectors.length; i++) {
+                index.remove(FIRST_ID + i);
+            }
+            for (int i = 0; i < 50; i++) {
+                vectors[i] = randomVector(random);
+                index.upsert(FIRST_ID + i, vectors[i].clone());
+            }
+            index.compact();
+
+            assertEquals(100, index.size());
+            // File mapped by whole chunks: the dropped tombstones show in the node count
+            assertEquals(100, ReflectionTestUtils.getField(index, "nodeCount"));
+            assertFalse(Files.exists(directory.resolve("cvs.hnsw.compact")));
+            for (int i = 0; i < 100; i++) {
+                assertEquals(FIRST_ID + i, index.search(vectors[i], 1).get(0).id());
+            }
+
+            // Writes keep going to the compacted file
+            index.remove(FIRST_ID + 99);
+            float[] vector = randomVector(random);
+            index.upsert(FIRST_ID + 100, vector.clone());
+            vectors[99] = vector;
+        } finally {
+            index.close();
+        }
+
+        CvVectorIndex reopened = standaloneIndex(file, 101);
+        try {
+            assertEquals(100, reopened.size());
+            for (int i = 0; i < 99; i++) {
+                assertEquals(FIRST_ID + i, reopened.search(vectors[i], 1).get(0).id());
+            }
+            assertEquals(FIRST_ID + 100, reopened.search(vectors[99], 1).get(0).id());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    /**
+     * Index outside the Spring context on its own file; the database holds no new embeddings and the
+     * given number of CVs, so the background catch-up leaves the reopened nodes untouched
+     */
+    private CvVectorIndex standaloneIndex(Path file, int existingCvs) {
+        CvRepository cvRepository = mock(CvRepository.class);
+        when(cvRepository.findIdsWithEmbedding())
+                .thenReturn(LongStream.range(FIRST_ID, FIRST_ID + existingCvs).boxed().toList());
+
+        CvVectorIndex index = new CvVectorIndex();
+        ReflectionTestUtils.setField(index, "cvRepository", cvRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "indexPath", file.toString());
+        ReflectionTestUtils.setField(index, "configuredDimension", DIMENSION);
+        ReflectionTestUtils.setField(index, "configuredM", 16);
+        ReflectionTestUtils.setField(index, "efConstruction", 100);
+        ReflectionTestUtils.setField(index, "efSearch", 64);
+        ReflectionTestUtils.setField(index, "loadBatchSize", 500);
+        index.openOnStartup();
+        return index;
+    }
+
+    private float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
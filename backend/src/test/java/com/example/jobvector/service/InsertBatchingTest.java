@@ -0,0 +1,114 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Model.CvProcessingJob;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+import com.example.jobvector.Repository.CvProcessingJobRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.UtilisateurRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InsertBatchingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBatchingTest.class);
+
+    private static final int ROWS = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private CvProcessingJobRepository cvProcessingJobRepository;
+
+    @Test
+    @DisplayName("Should write bulk job offer and processing job inserts in JDBC batches")
+    void testBulkInsertsAreBatched() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Everything is rolled back: the inserts are flushed (and counted) but leave no rows behind
+        transactionTemplate.executeWithoutResult(status -> {
+            Utilisateur employer = new Utilisateur();
+            employer.setEmail("batching-employer@test.com");
+            employer.setRole("EMPLOYEUR");
+            utilisateurRepository.saveAndFlush(employer);
+
+            statistics.setStatisticsEnabled(true);
+            try {
+                long jobOfferStatements = measure(statistics, "job_offres", () -> {
+                    List<JobOffre> offers = new ArrayList<>();
+                    for (int i = 0; i < ROWS; i++) {
+                        JobOffre offer = new JobOffre();
+                        offer.setTitre("Offre importée " + i);
+                        offer.setEmployeur(employer);
+                        offers.add(offer);
+                    }
+                    jobOfferRepository.saveAll(offers);
+                });
+
+                long processingJobStatements = measure(statistics, "cv_processing_jobs", () -> {
+                    List<CvProcessingJob> jobs = new ArrayList<>();
+                    for (int i = 0; i < ROWS; i++) {
+                        CvProcessingJob job = new CvProcessingJob();
+                        job.setUtilisateur(employer);
+                        job.setFileName("cv-" + i + ".pdf");
+                        job.setFilePath("uploads/cv-" + i + ".pdf");
+                        jobs.add(job);
+                    }
+                    cvProcessingJobRepository.saveAll(jobs);
+                });
+
+                // batch_size=20 and allocationSize=50: about ROWS / 20 batches plus ROWS / 50 sequence calls
+                assertTrue(jobOfferStatements < ROWS / 5,
+                        "Expected batched job offer inserts but got " + jobOfferStatements + " statements");
+                assertTrue(processingJobStatements < ROWS / 5,
+                        "Expected batched processing job inserts but got " + processingJobStatements + " statements");
+            } finally {
+                statistics.setStatisticsEnabled(false);
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private long measure(Statistics statistics, String table, Runnable inserts) {
+        statistics.clear();
+        long start = System.nanoTime();
+        inserts.run();
+        entityManager.flush();
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        long statements = statistics.getPrepareStatementCount();
+        logger.info("{}: {} inserts, {} statements, {} inserts/sec", table, ROWS, statements,
+                Math.round(ROWS * 1_000_000_000.0 / elapsedNanos));
+        entityManager.clear();
+        return statements;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Service.JobOfferSearchIndex;
+import com.example.jobvector.Service.JobOfferSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JobOfferSearchIndexTest {
+
+    private static final long FIRST_ID = 4_000_000L;
+
+    @Autowired
+    private JobOfferSearchIndex jobOfferSearchIndex;
+
+    @SpyBean
+    private JobOfferRepository jobOfferRepository;
+
+    @AfterEach
+    void tearDown() {
+        for (long id = FIRST_ID; id < FIRST_ID + 3; id++) {
+            jobOfferSearchIndex.remove(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Should rank offers with BM25 and count facets in a single search")
+    void testFacetedSearch() {
+        jobOfferSearchIndex.upsert(jobOffer(FIRST_ID, "Développeur Zyntaxa", "Zyntaxa, Spring Boot",
+                JobOffre.ModaliteTravail.REMOTE, 3, 2500.0));
+        jobOfferSearchIndex.upsert(jobOffer(FIRST_ID + 1, "Chef de projet", "Gestion de projet, zyntaxa",
+                JobOffre.ModaliteTravail.HYBRIDE, 8, 4500.0));
+        jobOfferSearchIndex.upsert(jobOffer(FIRST_ID + 2, "Analyste financier", "Excel",
+                JobOffre.ModaliteTravail.REMOTE, 2, 2000.0));
+
+        // Sans accents ni casse ; le titre pèse plus que les compétences
+        JobOfferSearchResult result = jobOfferSearchIndex.search("ZYNTAXA", null, null, null,
+                null, null, null, null, 0, 10);
+
+        assertEquals(List.of(FIRST_ID, FIRST_ID + 1), result.ids());
+        assertEquals(2, result.totalElements());
+        assertEquals(1L, result.facets().get(JobOfferSearchIndex.FACET_MODALITE_TRAVAIL).get("REMOTE"));
+        assertEquals(1L, result.facets().get(JobOfferSearchIndex.FACET_MODALITE_TRAVAIL).get("HYBRIDE"));
+        assertEquals(1L, result.facets().get(JobOfferSearchIndex.FACET_SALAIRE).get("3000-5000"));
+        assertEquals(1L, result.facets().get(JobOfferSearchIndex.FACET_EXPERIENCE).get("5-9"));
+
+        // Filtres appliqués dans le même parcours, page suivante vide
+        JobOfferSearchResult filtered = jobOfferSearchIndex.search("zyntaxa", null, null, null,
+                null, JobOffre.ModaliteTravail.HYBRIDE, null, 4000.0, 0, 10);
+        assertEquals(List.of(FIRST_ID + 1), filtered.ids());
+        assertTrue(jobOfferSearchIndex.search("zyntaxa", null, null, null,
+                null, null, null, null, 1, 10).ids().isEmpty());
+
+        // Mise à jour incrémentale
+        jobOfferSearchIndex.remove(FIRST_ID);
+        assertEquals(List.of(FIRST_ID + 1), jobOfferSearchIndex.search("zyntaxa", null, null, null,
+                null, null, null, null, 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("Should keep serving the previous index when a rebuild fails, and replace it when one succeeds")
+    void testRebuild() {
+        jobOfferSearchIndex.upsert(jobOffer(FIRST_ID, "Développeur Zyntaxa", "Zyntaxa",
+                JobOffre.ModaliteTravail.REMOTE, 3, 2500.0));
+
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .when(jobOfferRepository).findActiveAfter(anyLong(), any());
+        jobOfferSearchIndex.rebuild();
+
+        assertTrue(jobOfferSearchIndex.isReady());
+        assertEquals(List.of(FIRST_ID), jobOfferSearchIndex.search("zyntaxa", null, null, null,
+                null, null, null, null, 0, 10).ids());
+
+        // The offer only exists in the index, not in the database: a successful rebuild drops it
+        reset(jobOfferRepository);
+        jobOfferSearchIndex.rebuild();
+
+        assertTrue(jobOfferSearchIndex.isReady());
+        assertTrue(jobOfferSearchIndex.search("zyntaxa", null, null, null,
+                null, null, null, null, 0, 10).ids().isEmpty());
+    }
+
+    private JobOffre jobOffer(Long id, String titre, String competences,
+                              JobOffre.ModaliteTravail modaliteTravail, int experience, double salaire) {
+        JobOffre jobOffre = new JobOffre();
+        jobOffre.setId(id);
+        jobOffre.setTitre(titre);
+        jobOffre.setCompetencesTechniques(competences);
+        jobOffre.setDescription("Offre de test pour l'index plein texte");
+        jobOffre.setSecteurActivite("IT");
+        jobOffre.setTypePoste(JobOffre.TypePoste.TECHNIQUE);
+        jobOffre.setModaliteTravail(modaliteTravail);
+        jobOffre.setExperienceMinRequise(experience);
+        jobOffre.setSalaire(salaire);
+        jobOffre.setDatePublication(LocalDateTime.now());
+        return jobOffre;
+    }
+}
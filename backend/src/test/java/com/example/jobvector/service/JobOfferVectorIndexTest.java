@@ -0,0 +1,116 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Service.EmbeddingVectors;
+import com.example.jobvector.Service.JobOfferVectorIndex;
+import com.example.jobvector.Service.VectorMatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JobOfferVectorIndexTest {
+
+    private static final long FIRST_ID = 2_000_000L;
+    private static final int COUNT = 2000;
+    private static final int DIMENSION = 384;
+    private static final int K = 10;
+
+    @Autowired
+    private JobOfferVectorIndex jobOfferVectorIndex;
+
+    @SpyBean
+    private JobOfferRepository jobOfferRepository;
+
+    @AfterEach
+    void tearDown() {
+        for (long id = FIRST_ID; id < FIRST_ID + COUNT; id++) {
+            jobOfferVectorIndex.remove(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep int8 candidate generation with exact rescoring close to exact cosine search")
+    void testQuantizedSearchRecall() {
+        Random random = new Random(7);
+        for (int i = 0; i < COUNT; i++) {
+            jobOfferVectorIndex.upsert(FIRST_ID + i, toJson(randomVector(random)));
+        }
+
+        double recall = 0.0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random);
+            List<VectorMatch> exact = jobOfferVectorIndex.searchExact(query, K);
+            Set<Long> quantizedIds = jobOfferVectorIndex.searchQuantized(query, K).stream()
+                    .map(VectorMatch::id)
+                    .collect(Collectors.toSet());
+
+            assertEquals(K, exact.size());
+            recall += exact.stream().filter(match -> quantizedIds.contains(match.id())).count() / (double) K;
+        }
+
+        assertTrue(recall / queries >= 0.9, "Rappel@10 trop faible: " + recall / queries);
+    }
+
+    @Test
+    @DisplayName("Should not return offers removed from the index")
+    void testRemove() {
+        float[] vector = randomVector(new Random(11));
+        jobOfferVectorIndex.upsert(FIRST_ID, toJson(vector));
+        assertEquals(FIRST_ID, jobOfferVectorIndex.search(vector, 1).get(0).id());
+
+        jobOfferVectorIndex.remove(FIRST_ID);
+        assertTrue(jobOfferVectorIndex.search(vector, 5).stream().noneMatch(match -> match.id() == FIRST_ID));
+    }
+
+    @Test
+    @DisplayName("Should keep serving the previous index when a rebuild fails, and replace it when one succeeds")
+    void testRebuild() {
+        float[] vector = randomVector(new Random(13));
+        jobOfferVectorIndex.upsert(FIRST_ID, toJson(vector));
+
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .when(jobOfferRepository).findActiveEmbeddingsAfter(anyLong(), any());
+        jobOfferVectorIndex.rebuild();
+
+        assertTrue(jobOfferVectorIndex.isReady());
+        assertEquals(FIRST_ID, jobOfferVectorIndex.search(vector, 1).get(0).id());
+
+        // The offer only exists in the index, not in the database: a successful rebuild drops it
+        reset(jobOfferRepository);
+        jobOfferVectorIndex.rebuild();
+
+        assertTrue(jobOfferVectorIndex.isReady());
+        assertTrue(jobOfferVectorIndex.search(vector, 5).stream().noneMatch(match -> match.id() == FIRST_ID));
+    }
+
+    private float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private String toJson(float[] vector) {
+        return EmbeddingVectors.toVectorLiteral(vector);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Config.AuthenticatedUser;
+import com.example.jobvector.Dto.JobOffreDto;
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.Embedding;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Repository.EmbeddingRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.UtilisateurRepository;
+import com.example.jobvector.Service.EmbeddingVectors;
+import com.example.jobvector.Service.JobOfferService;
+import com.example.jobvector.Service.JobRequirementVectors;
+import com.example.jobvector.Service.MatchingService;
+import com.example.jobvector.Service.PythonEmbeddingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MatchScoresTest {
+
+    private static final int DIMENSION = 384;
+
+    @Autowired
+    private JobOfferService jobOfferService;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private EmbeddingRepository embeddingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private PythonEmbeddingService pythonEmbeddingService;
+
+    private TransactionTemplate transaction;
+    private float[] cvVector;
+    private Utilisateur candidat;
+    private Utilisateur employeur;
+    private Long cvId;
+    private Long closeOfferId;
+    private Long middleOfferId;
+    private Long farOfferId;
+    private final List<Long> embeddingIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        Random random = new Random(31);
+        cvVector = randomVector(random);
+        float[] oppositeVector = negate(cvVector);
+        float[] unrelatedVector = randomVector(random);
+
+        transaction.executeWithoutResult(status -> {
+            candidat = utilisateurRepository.save(user("match-candidate@test.com", "CANDIDATE"));
+            employeur = utilisateurRepository.save(user("match-employer@test.com", "EMPLOYER"));
+
+            Cv cv = new Cv();
+            cv.setUtilisateur(candidat);
+            cv.setFichierPath("uploads/match-cv.pdf");
+            cv.setCompetencesTechniques("Java, Spring Boot, PostgreSQL");
+            cv.setCompetencesTransversales("Leadership, Communication");
+            cv.setLangues("Français, Anglais");
+            cv.setExperienceAnnees(5);
+            // Stored in the lazily loaded CvDocument, read by the scoring heuristics outside any transaction
+            cv.setTexteExtrait("Développeur Java senior, 5 ans d'expérience Spring Boot et PostgreSQL");
+            cv.setEmbeddingVersion(embedding(Embedding.OwnerType.CV, cvVector));
+            cvId = cvRepository.save(cv).getId();
+
+            closeOfferId = jobOfferRepository.save(jobOffer("Développeur Java", "Java, Spring Boot",
+                    "Communication", 5, "Français, Anglais", cvVector)).getId();
+            middleOfferId = jobOfferRepository.save(jobOffer("Analyste données", "Python, SQL",
+                    "Rigueur", 3, "Anglais", unrelatedVector)).getId();
+            farOfferId = jobOfferRepository.save(jobOffer("Comptable", "Comptabilité, SAP",
+                    "Négociation", 12, "Allemand", oppositeVector)).getId();
+        });
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(candidat.getId(), candidat.getEmail(), "CANDIDATE"), null,
+                List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        transaction.executeWithoutResult(status -> {
+            cvRepository.deleteById(cvId);
+            jobOfferRepository.deleteAllById(List.of(closeOfferId, middleOfferId, farOfferId));
+            embeddingRepository.deleteAllById(embeddingIds);
+            utilisateurRepository.deleteAllById(List.of(candidat.getId(), employeur.getId()));
+        });
+    }
+
+    @Test
+    @DisplayName("Should score the CV against each requested offer in request order, embedding outside any transaction")
+    void testGetMatchScores() {
+        // Requirement texts mentioning Java embed close to the CV, everything else far from it
+        AtomicInteger embedCalls = new AtomicInteger();
+        List<Boolean> transactionActive = new ArrayList<>();
+        doAnswer(invocation -> {
+            embedCalls.incrementAndGet();
+            transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> text.contains("Java") ? cvVector : negate(cvVector)).toList();
+        }).when(pythonEmbeddingService).generateEmbeddingsBatch(anyList());
+
+        long unknownId = farOfferId + 1_000_000L;
+        JobOffreDto response = jobOfferService.getMatchScores(List.of(farOfferId, unknownId, closeOfferId, middleOfferId));
+
+        assertEquals(200, response.getStatusCode(), response.getMessage());
+        List<JobOffreDto> scores = response.getJobOffers();
+        assertEquals(List.of(farOfferId, closeOfferId, middleOfferId), scores.stream().map(JobOffreDto::getId).toList());
+        assertEquals(3, response.getSize());
+
+        assertEquals(1, embedCalls.get());
+        assertEquals(List.of(false), transactionActive);
+
+        JobOffreDto far = scores.get(0);
+        JobOffreDto close = scores.get(1);
+        assertTrue(close.getScoreMatching() > far.getScoreMatching());
+        assertTrue(close.getScoreCompetencesTechniques() > far.getScoreCompetencesTechniques());
+        assertTrue(close.getScoreExperience() > far.getScoreExperience());
+        assertTrue(close.getScoreLangues() > far.getScoreLangues());
+
+        // Each sub-score matches a direct computation for that offer (requirement vectors now cached)
+        transaction.executeWithoutResult(status -> {
+            Cv cv = cvRepository.findById(cvId).orElseThrow();
+            for (JobOffreDto score : scores) {
+                JobOffre jobOffer = jobOfferRepository.findWithEmbeddingByIdIn(List.of(score.getId())).get(0);
+                JobRequirementVectors requirements = matchingService.prepareRequirementVectors(jobOffer);
+                Map<String, Double> expected = matchingService.calculateMatchingScores(cv, cvVector, jobOffer, requirements);
+
+                assertEquals(expected.get("global"), score.getScoreMatching());
+                assertEquals(expected.get("competencesTechniques"), score.getScoreCompetencesTechniques());
+                assertEquals(expected.get("competencesTransversales"), score.getScoreCompetencesTransversales());
+                assertEquals(expected.get("experience"), score.getScoreExperience());
+                assertEquals(expected.get("formation"), score.getScoreFormation());
+                assertEquals(expected.get("langues"), score.getScoreLangues());
+            }
+        });
+        assertEquals(1, embedCalls.get());
+    }
+
+    private Utilisateur user(String email, String role) {
+        Utilisateur utilisateur = new Utilisateur();
+        utilisateur.setEmail(email);
+        utilisateur.setNom("Match");
+        utilisateur.setPrenom("Test");
+        utilisateur.setPassword("password");
+        utilisateur.setRole(role);
+        utilisateur.setCin(12345678);
+        return utilisateur;
+    }
+
+    private JobOffre jobOffer(String titre, String competencesTechniques, String competencesTransversales,
+                              int experience, String langues, float[] vector) {
+        JobOffre jobOffre = new JobOffre();
+        jobOffre.setTitre(titre);
+        jobOffre.setDescription(titre);
+        jobOffre.setCompetencesTechniques(competencesTechniques);
+        jobOffre.setCompetencesTransversales(competencesTransversales);
+        jobOffre.setExperienceMinRequise(experience);
+        jobOffre.setLanguesRequises(langues);
+        jobOffre.setEmployeur(employeur);
+        jobOffre.setDatePublication(LocalDateTime.now());
+        jobOffre.setEmbeddingVersion(embedding(Embedding.OwnerType.JOB_OFFER, vector));
+        return jobOffre;
+    }
+
+    private Embedding embedding(Embedding.OwnerType ownerType, float[] vector) {
+        Embedding embedding = new Embedding();
+        embedding.setOwnerType(ownerType);
+        embedding.setOwnerId(0L);
+        embedding.setModelVersion("test");
+        embedding.setVector(EmbeddingVectors.toVectorLiteral(vector));
+        embedding.setDateCreation(LocalDateTime.now());
+        embedding = embeddingRepository.save(embedding);
+        embeddingIds.add(embedding.getId());
+        return embedding;
+    }
+
+    private static float[] negate(float[] vector) {
+        float[] negated = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            negated[i] = -vector[i];
+        }
+        return negated;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Dto.JobOffreDto;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Service.JobOfferChangedEvent;
+import com.example.jobvector.Service.PublicJobOfferCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.public-cache.enabled=true")
+@ActiveProfiles("test")
+class PublicJobOfferCacheTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private PublicJobOfferCache publicJobOfferCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses and invalidate on job offer changes")
+    void testCoalescingAndInvalidation() throws Exception {
+        String key = PublicJobOfferCache.key("search", PublicJobOfferCache.text("Java"), "keyword", 0, 10);
+        assertEquals(key, PublicJobOfferCache.key("search", PublicJobOfferCache.text("JAVA"), "keyword", 0, 10));
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<JobOffreDto>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> publicJobOfferCache.get(key, () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return response();
+                })));
+            }
+
+            Thread.sleep(200);
+            release.countDown();
+            JobOffreDto first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<JobOffreDto> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        publicJobOfferCache.get(key, () -> {
+            loads.incrementAndGet();
+            return response();
+        });
+        assertEquals(1, loads.get());
+        assertTrue(publicJobOfferCache.hitRatio() > 0.5);
+
+        JobOffre jobOffre = new JobOffre();
+        jobOffre.setId(5_000_000L);
+        eventPublisher.publishEvent(new JobOfferChangedEvent(JobOfferChangedEvent.Type.DELETED, jobOffre));
+
+        publicJobOfferCache.get(key, () -> {
+            loads.incrementAndGet();
+            return response();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should keep cursors as-is and only case-fold free-text fields in cache keys")
+    void testKeyNormalization() {
+        // Keyset cursors are case-sensitive base64url
+        assertNotEquals(PublicJobOfferCache.key("job-offers", 0, 10, "eyJhIjoxfQ", false),
+                PublicJobOfferCache.key("job-offers", 0, 10, "EYJHIJOXFQ", false));
+        // Cursor pagination from the first page is not offset pagination
+        assertNotEquals(PublicJobOfferCache.key("job-offers", 0, 10, "", false),
+                PublicJobOfferCache.key("job-offers", 0, 10, null, false));
+        // Whitespace is part of the ILIKE pattern
+        assertNotEquals(PublicJobOfferCache.key("search", PublicJobOfferCache.text(" Java "), "keyword", 0, 10),
+                PublicJobOfferCache.key("search", PublicJobOfferCache.text("java"), "keyword", 0, 10));
+        assertEquals(PublicJobOfferCache.key("search/filters", PublicJobOfferCache.text("Développeur"),
+                        PublicJobOfferCache.text("Paris"), null, JobOffre.TypePoste.TECHNIQUE, null, 2, null, 0, 10, null, false),
+                PublicJobOfferCache.key("search/filters", PublicJobOfferCache.text("développeur"),
+                        PublicJobOfferCache.text("PARIS"), null, JobOffre.TypePoste.TECHNIQUE, null, 2, null, 0, 10, null, false));
+    }
+
+    private JobOffreDto response() {
+        JobOffreDto response = new JobOffreDto();
+        response.setStatusCode(200);
+        return response;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Model.Application;
+import com.example.jobvector.Model.Cv;
+import com.example.jobvector.Model.CvProcessingJob;
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+import com.example.jobvector.Repository.ApplicationRepository;
+import com.example.jobvector.Repository.CvProcessingJobRepository;
+import com.example.jobvector.Repository.CvRepository;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.UtilisateurRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Execution plans of the hot repository queries: the SQL generated by Hibernate is captured, run through EXPLAIN
+ * over a seeded dataset, and each query must go through its index instead of scanning the whole table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.jobvector.service.QueryPlanTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final int CANDIDATES = 60;
+    private static final int JOB_OFFERS = 100;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private CvRepository cvRepository;
+
+    @Autowired
+    private CvProcessingJobRepository cvProcessingJobRepository;
+
+    /**
+     * Records the SQL issued by the current thread while capture is on
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = CAPTURED.get();
+            if (captured != null) {
+                captured.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve the hot repository queries from their indexes")
+    void testHotQueriesUseIndexes() {
+        // Seeded and explained in one transaction, then rolled back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                Seed seed = seed();
+
+                assertIndexScan(() -> utilisateurRepository.findByEmail("candidate-7@test.com"),
+                        "UTILISATEUR", "IDX_UTILISATEUR_EMAIL");
+
+                // cvs.candidat_id is indexed by its unique constraint
+                assertIndexScan(() -> cvRepository.findByUtilisateurId(seed.candidate().getId()),
+                        "CVS", null);
+
+                // H2 also indexes every foreign key on its own and may pick that index: only the full scan is checked
+                assertIndexScan(() -> cvProcessingJobRepository.findByUtilisateurIdOrderByCreatedAtDesc(seed.candidate().getId()),
+                        "CV_PROCESSING_JOBS", null);
+
+                assertIndexScan(() -> applicationRepository.findByCandidatBefore(seed.candidate(),
+                                LocalDateTime.now().plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 20)),
+                        "APPLICATIONS", null);
+
+                assertIndexScan(() -> applicationRepository.findByJobOffreScoredBefore(seed.jobOffer(), 101.0,
+                                LocalDateTime.now().plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 20)),
+                        "APPLICATIONS", null);
+
+                assertIndexScan(() -> jobOfferRepository.findActiveBefore(LocalDateTime.now().plusDays(1),
+                                Long.MAX_VALUE, PageRequest.of(0, 20)),
+                        "JOB_OFFRES", "IDX_JOB_OFFRES_STATUT_DATE");
+
+                assertIndexScan(() -> jobOfferRepository.findSummariesByEmployeur(seed.employer().getId(), PageRequest.of(0, 20)),
+                        "JOB_OFFRES", "IDX_JOB_OFFRES_EMPLOYEUR");
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private record Seed(Utilisateur employer, Utilisateur candidate, JobOffre jobOffer) {
+    }
+
+    private Seed seed() {
+        Utilisateur employer = user("employer@test.com", "EMPLOYEUR");
+        List<Utilisateur> candidates = new ArrayList<>();
+        for (int i = 0; i < CANDIDATES; i++) {
+            candidates.add(user("candidate-" + i + "@test.com", "CANDIDAT"));
+        }
+        for (int i = 0; i < 40; i++) {
+            user("other-employer-" + i + "@test.com", "EMPLOYEUR");
+        }
+
+        List<JobOffre> offers = new ArrayList<>();
+        for (int i = 0; i < JOB_OFFERS; i++) {
+            JobOffre offer = new JobOffre();
+            offer.setTitre("Offre " + i);
+            offer.setEmployeur(i < 10 ? employer : candidates.get(i % CANDIDATES));
+            offer.setStatut(i % 3 == 0 ? "FERMEE" : "ACTIVE");
+            offer.setDatePublication(LocalDateTime.now().minusDays(i));
+            offers.add(offer);
+        }
+        offers = jobOfferRepository.saveAll(offers);
+
+        for (int c = 0; c < CANDIDATES; c++) {
+            Utilisateur candidate = candidates.get(c);
+
+            Cv cv = new Cv();
+            cv.setFichierPath("uploads/cv-" + c + ".pdf");
+            cv.setUtilisateur(candidate);
+            cvRepository.save(cv);
+
+            for (int j = 0; j < 3; j++) {
+                CvProcessingJob job = new CvProcessingJob();
+                job.setUtilisateur(candidate);
+                job.setFileName("cv-" + c + "-" + j + ".pdf");
+                job.setFilePath("uploads/cv-" + c + "-" + j + ".pdf");
+                cvProcessingJobRepository.save(job);
+            }
+
+            for (int j = 0; j < 4; j++) {
+                Application application = new Application();
+                application.setCandidat(candidate);
+                application.setJobOffre(offers.get((c * 7 + j * 13) % JOB_OFFERS));
+                application.setScoreGlobal((double) ((c * 31 + j * 17) % 100));
+                applicationRepository.save(application);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.execute("ANALYZE");
+
+        return new Seed(employer, candidates.get(7), offers.get(0));
+    }
+
+    private Utilisateur user(String email, String role) {
+        Utilisateur user = new Utilisateur();
+        user.setEmail(email);
+        user.setRole(role);
+        return utilisateurRepository.save(user);
+    }
+
+    private void assertIndexScan(Runnable query, String table, String index) {
+        List<String> captured = new ArrayList<>();
+        CapturingStatementInspector.CAPTURED.set(captured);
+        try {
+            query.run();
+        } finally {
+            CapturingStatementInspector.CAPTURED.remove();
+        }
+        assertFalse(captured.isEmpty(), "No SQL captured for " + index);
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + captured.get(0), String.class));
+        assertFalse(plan.contains(table + ".tableScan"), "Sequential scan on " + table + ":\n" + plan);
+        if (index != null) {
+            assertTrue(plan.contains("PUBLIC." + index), "Expected " + index + " in plan:\n" + plan);
+        }
+    }
+}
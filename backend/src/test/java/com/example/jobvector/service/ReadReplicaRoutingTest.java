@@ -0,0 +1,75 @@
+package com.example.jobvector.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should run read-only transactions on the replica pool without flushing")
+    void testReadOnlyTransactionsUseReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String readOnlyPool = readOnly.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            assertTrue(session.isDefaultReadOnly());
+            return currentPool();
+        });
+        assertEquals("replica", readOnlyPool);
+
+        // The primary pool connections carry no tag
+        assertNull(readWrite.execute(status -> currentPool()));
+    }
+
+    @Test
+    @DisplayName("Should pick the pool per transaction when the entity manager spans the request (open-in-view)")
+    void testOpenInViewSessionSwitchesPools() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // Same binding as OpenEntityManagerInViewInterceptor for the duration of a request
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            assertEquals("replica", readOnly.execute(status -> currentPool()));
+            assertNull(readWrite.execute(status -> currentPool()));
+            assertEquals("replica", readOnly.execute(status -> currentPool()));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+    }
+
+    private String currentPool() {
+        Object pool = entityManager.createNativeQuery("SELECT @POOL").getSingleResult();
+        return pool != null ? pool.toString() : null;
+    }
+}
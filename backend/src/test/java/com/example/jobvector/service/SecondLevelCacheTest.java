@@ -0,0 +1,144 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Model.JobOffre;
+import com.example.jobvector.Model.Utilisateur;
+import com.example.jobvector.Repository.JobOfferRepository;
+import com.example.jobvector.Repository.UtilisateurRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level cache with committed data (removed after each test): repeated lookups must not reach the database,
+ * and updates must be visible on the next lookup.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.app.cache.region.job-offre.max-entries=2"
+})
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UtilisateurRepository utilisateurRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    private final List<JobOffre> jobOffers = new ArrayList<>();
+
+    private Utilisateur employer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        employer = new Utilisateur();
+        employer.setEmail("cache-employer@test.com");
+        employer.setNom("Cache");
+        employer.setRole("EMPLOYEUR");
+        employer = inTransaction(() -> utilisateurRepository.save(employer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(() -> {
+            jobOfferRepository.deleteAllById(jobOffers.stream().map(JobOffre::getId).toList());
+            utilisateurRepository.deleteById(employer.getId());
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("Should resolve users by email from the natural-id cache and follow email changes")
+    void testUserLookupByEmailIsCached() {
+        assertTrue(inTransaction(() -> utilisateurRepository.findByEmail("cache-employer@test.com")).isPresent());
+
+        statistics.clear();
+        Utilisateur cached = inTransaction(() -> utilisateurRepository.findByEmail("cache-employer@test.com")).orElseThrow();
+        assertEquals("Cache", cached.getNom());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getCacheRegionStatistics("utilisateur").getHitCount());
+        assertEquals(0, statistics.getEntityStatistics(Utilisateur.class.getName()).getLoadCount());
+
+        inTransaction(() -> {
+            Utilisateur user = utilisateurRepository.findById(employer.getId()).orElseThrow();
+            user.setEmail("cache-employer-renamed@test.com");
+            user.setNom("Renamed");
+            return null;
+        });
+
+        assertTrue(inTransaction(() -> utilisateurRepository.findByEmail("cache-employer@test.com")).isEmpty());
+        Utilisateur renamed = inTransaction(() -> utilisateurRepository.findByEmail("cache-employer-renamed@test.com")).orElseThrow();
+        assertEquals("Renamed", renamed.getNom());
+    }
+
+    @Test
+    @DisplayName("Should serve job offers from a bounded entity cache and see updates")
+    void testJobOfferLookupIsCached() {
+        for (int i = 0; i < 3; i++) {
+            JobOffre jobOffer = new JobOffre();
+            jobOffer.setTitre("Offre en cache " + i);
+            jobOffer.setEmployeur(employer);
+            jobOffer.setStatut("ACTIVE");
+            jobOffer.setDatePublication(LocalDateTime.now());
+            jobOffers.add(inTransaction(() -> jobOfferRepository.save(jobOffer)));
+        }
+        for (JobOffre jobOffer : jobOffers) {
+            inTransaction(() -> jobOfferRepository.findById(jobOffer.getId()));
+        }
+
+        Long lastId = jobOffers.get(2).getId();
+        statistics.clear();
+        assertEquals("Offre en cache 2", inTransaction(() -> jobOfferRepository.findById(lastId)).orElseThrow().getTitre());
+        assertEquals(1, statistics.getCacheRegionStatistics("job-offre").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // Region bounded to 2 entries: the least recently read offer was evicted
+        assertEquals(2.0, meterRegistry.get("hibernate.second.level.cache.size").tag("region", "job-offre").gauge().value());
+        inTransaction(() -> jobOfferRepository.findById(jobOffers.get(0).getId()));
+        assertEquals(1, statistics.getCacheRegionStatistics("job-offre").getMissCount());
+
+        inTransaction(() -> {
+            jobOfferRepository.findById(lastId).orElseThrow().setTitre("Offre modifiée");
+            return null;
+        });
+        assertEquals("Offre modifiée", inTransaction(() -> jobOfferRepository.findById(lastId)).orElseThrow().getTitre());
+
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "job-offre", "result", "hit").functionCounter().count() > 0);
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.jobvector.service;
+
+import com.example.jobvector.Config.AsyncConfig;
+import com.example.jobvector.Config.Workload;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WorkloadPoolRoutingTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier(AsyncConfig.CV_PROCESSING_EXECUTOR)
+    private ThreadPoolTaskExecutor cvProcessingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should give background and batch work their own pool, reads included")
+    void testWorkloadsUseTheirOwnPools() {
+        assertEquals("background", runAs(Workload.BACKGROUND, false));
+        assertEquals("background", runAs(Workload.BACKGROUND, true));
+        assertEquals("batch", runAs(Workload.BATCH, false));
+        assertEquals("batch", runAs(Workload.BATCH, true));
+
+        // Interactive work keeps the primary pool and the replica for reads
+        assertNull(transaction(false).execute(status -> currentPool()));
+        assertEquals("replica", transaction(true).execute(status -> currentPool()));
+    }
+
+    @Test
+    @DisplayName("Should run @Async CV processing tasks on the background pool")
+    void testCvProcessingExecutorUsesBackgroundPool() throws Exception {
+        String pool = cvProcessingExecutor.submit(() -> transaction(false).execute(status -> currentPool()))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals("background", pool);
+    }
+
+    @Test
+    @DisplayName("Should publish connection wait time per pool")
+    void testAcquireTimePublishedPerPool() {
+        runAs(Workload.BACKGROUND, false);
+        runAs(Workload.BATCH, false);
+        transaction(false).execute(status -> currentPool());
+        transaction(true).execute(status -> currentPool());
+
+        for (String pool : new String[] {"jobvector-interactive", "jobvector-background", "jobvector-batch", "jobvector-replica"}) {
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+            assertNotNull(acquire, "No acquire timer for " + pool);
+            assertTrue(acquire.count() > 0, "No connection acquired from " + pool);
+        }
+    }
+
+    private String runAs(Workload workload, boolean readOnly) {
+        AtomicReference<String> pool = new AtomicReference<>();
+        workload.wrap(() -> pool.set(transaction(readOnly).execute(status -> currentPool()))).run();
+        return pool.get();
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction;
+    }
+
+    private String currentPool() {
+        Object pool = entityManager.createNativeQuery("SELECT @POOL").getSingleResult();
+        return pool != null ? pool.toString() : null;
+    }
+}